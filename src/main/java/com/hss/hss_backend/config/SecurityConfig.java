@@ -1,6 +1,6 @@
 package com.hss.hss_backend.config;
 
-import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.service.ClinicDirectory;
 import com.hss.hss_backend.security.ClinicContextFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,8 +29,8 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public ClinicContextFilter clinicContextFilter(ClinicRepository clinicRepository) {
-        return new ClinicContextFilter(clinicRepository);
+    public ClinicContextFilter clinicContextFilter(ClinicDirectory clinicDirectory) {
+        return new ClinicContextFilter(clinicDirectory);
     }
 
     @Bean
@@ -42,6 +42,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/public/**", "/actuator/health", "/actuator/info").permitAll()
+                        // WebSocket handshake; STOMP CONNECT frames are authenticated by StompAuthChannelInterceptor
+                        .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/api/auth/sync").authenticated()
                         .requestMatchers("/api/clinics/**").hasRole("SUPER_ADMIN")
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**",
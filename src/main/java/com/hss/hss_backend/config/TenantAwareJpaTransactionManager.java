@@ -0,0 +1,57 @@
+package com.hss.hss_backend.config;
+
+import com.hss.hss_backend.security.ClinicContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Binds the current clinic to every physical transaction as it begins.
+ * <p>
+ * Enables the Hibernate {@code clinicFilter} on the transaction's session and sets
+ * {@code app.current_clinic_id} for row level security with {@code set_config(..., true)}, the
+ * bound-parameter form of {@code SET LOCAL}. Because this runs in {@link #doBegin}, methods that
+ * join an existing transaction add no statements; only a new physical transaction (the outermost
+ * {@code @Transactional} call or a {@code REQUIRES_NEW}) pays the single round trip.
+ */
+public class TenantAwareJpaTransactionManager extends JpaTransactionManager {
+
+    static final String BIND_CLINIC_SQL = "SELECT set_config('app.current_clinic_id', ?1, true)";
+
+    public TenantAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        Long clinicId = ClinicContext.getClinicId();
+        if (clinicId == null) {
+            return;
+        }
+
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        EntityManager entityManager = holder.getEntityManager();
+        try {
+            entityManager.unwrap(Session.class).enableFilter("clinicFilter").setParameter("clinicId", clinicId);
+            entityManager.createNativeQuery(BIND_CLINIC_SQL)
+                    .setParameter(1, clinicId.toString())
+                    .getSingleResult();
+        } catch (RuntimeException ex) {
+            EntityTransaction entityTransaction = entityManager.getTransaction();
+            if (entityTransaction.isActive()) {
+                entityTransaction.rollback();
+            }
+            doCleanupAfterCompletion(transaction);
+            throw new CannotCreateTransactionException("Could not bind clinic " + clinicId + " to the transaction", ex);
+        }
+    }
+}
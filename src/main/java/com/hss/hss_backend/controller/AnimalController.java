@@ -85,9 +85,11 @@ public class AnimalController {
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VETERINARIAN') or hasRole('STAFF') or hasRole('RECEPTIONIST')")
-    public ResponseEntity<List<AnimalResponse>> searchAnimals(@RequestParam String query) {
+    public ResponseEntity<List<AnimalResponse>> searchAnimals(@RequestParam String query,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "20") int size) {
         log.info("Searching animals with query: {}", query);
-        List<AnimalResponse> response = animalService.searchAnimals(query);
+        List<AnimalResponse> response = animalService.searchAnimals(query, page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -1,7 +1,9 @@
 package com.hss.hss_backend.controller;
 
+import com.hss.hss_backend.dto.response.PatientChartPageResponse;
 import com.hss.hss_backend.entity.*;
 import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.service.PatientChartReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +25,19 @@ public class AnimalMedicalRecordsController {
   private final PrescriptionRepository prescriptionRepository;
   private final RadiologicalImagingRepository radiologicalImagingRepository;
   private final PathologyFindingRepository pathologyFindingRepository;
+  private final PatientChartReader patientChartReader;
+
+  // ============================================================
+  // CHART TIMELINE (Hasta Dosyası Zaman Çizelgesi)
+  // ============================================================
+  @GetMapping("/timeline")
+  public ResponseEntity<PatientChartPageResponse> getTimeline(
+      @PathVariable Long animalId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit) {
+    log.info("Getting chart timeline for animal: {}", animalId);
+    return ResponseEntity.ok(patientChartReader.page(animalId, cursor, limit));
+  }
 
   // ============================================================
   // MEDICAL HISTORY (Hastalık Geçmişi)
@@ -30,6 +45,7 @@ public class AnimalMedicalRecordsController {
   @GetMapping("/history")
   public ResponseEntity<List<Map<String, Object>>> getMedicalHistory(@PathVariable Long animalId) {
     log.info("Getting medical history for animal: {}", animalId);
+    patientChartReader.checkAccess(animalId);
     List<MedicalHistory> histories = medicalHistoryRepository.findByAnimalAnimalId(animalId);
 
     List<Map<String, Object>> result = histories.stream()
@@ -49,6 +65,7 @@ public class AnimalMedicalRecordsController {
   @GetMapping("/examinations")
   public ResponseEntity<List<Map<String, Object>>> getClinicalExaminations(@PathVariable Long animalId) {
     log.info("Getting clinical examinations for animal: {}", animalId);
+    patientChartReader.checkAccess(animalId);
     List<ClinicalExamination> examinations = clinicalExaminationRepository.findByAnimalAnimalId(animalId);
 
     List<Map<String, Object>> result = examinations.stream()
@@ -68,6 +85,7 @@ public class AnimalMedicalRecordsController {
   @GetMapping("/prescriptions")
   public ResponseEntity<List<Map<String, Object>>> getPrescriptions(@PathVariable Long animalId) {
     log.info("Getting prescriptions for animal: {}", animalId);
+    patientChartReader.checkAccess(animalId);
     List<Prescription> prescriptions = prescriptionRepository.findByAnimalAnimalId(animalId);
 
     List<Map<String, Object>> result = prescriptions.stream()
@@ -90,6 +108,7 @@ public class AnimalMedicalRecordsController {
   @GetMapping("/radiology")
   public ResponseEntity<List<Map<String, Object>>> getRadiologicalImaging(@PathVariable Long animalId) {
     log.info("Getting radiological imaging for animal: {}", animalId);
+    patientChartReader.checkAccess(animalId);
     List<RadiologicalImaging> imagings = radiologicalImagingRepository.findByAnimalAnimalId(animalId);
 
     List<Map<String, Object>> result = imagings.stream()
@@ -110,6 +129,7 @@ public class AnimalMedicalRecordsController {
   @GetMapping("/pathology")
   public ResponseEntity<List<Map<String, Object>>> getPathologyFindings(@PathVariable Long animalId) {
     log.info("Getting pathology findings for animal: {}", animalId);
+    patientChartReader.checkAccess(animalId);
     List<PathologyFinding> findings = pathologyFindingRepository.findByAnimalAnimalId(animalId);
 
     List<Map<String, Object>> result = findings.stream()
@@ -91,10 +91,15 @@ public class DocumentController {
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VETERINARIAN') or hasRole('STAFF')")
-    public ResponseEntity<List<DocumentResponse>> searchDocumentsByTitle(@RequestParam String title) {
-        log.info("Searching documents by title: {}", title);
-
-        List<DocumentResponse> documents = documentService.searchDocumentsByTitle(title);
+    public ResponseEntity<Page<DocumentResponse>> searchDocuments(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String title,
+            Pageable pageable) {
+        // "title" is the parameter name of the former title-only search
+        String text = query != null ? query : title;
+        log.info("Searching documents: {}", text);
+
+        Page<DocumentResponse> documents = documentService.searchDocuments(text, pageable);
         return ResponseEntity.ok(documents);
     }
 }
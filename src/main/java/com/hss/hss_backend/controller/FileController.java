@@ -4,8 +4,12 @@ import com.hss.hss_backend.service.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -47,37 +51,45 @@ public class FileController {
         }
     }
 
+    /**
+     * Streams the file instead of buffering it. Returning a {@link Resource} lets Spring answer
+     * {@code Range} requests with 206 partial content, so large images and PDFs can be resumed or
+     * scrubbed without re-downloading the whole object.
+     */
     @GetMapping("/download")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VETERINARIAN') or hasRole('STAFF')")
-    public ResponseEntity<byte[]> downloadFile(
+    public ResponseEntity<Resource> downloadFile(
             @RequestParam("filePath") String filePath,
             @RequestParam(value = "inline", defaultValue = "false") boolean inline) {
         log.info("Downloading file: {}, inline: {}", filePath, inline);
 
         try {
-            byte[] fileContent = storageService.downloadFile(filePath);
-
-            // Determine content type
-            String contentType = "application/octet-stream";
-            if (filePath.toLowerCase().endsWith(".pdf")) {
-                contentType = "application/pdf";
-            } else if (filePath.toLowerCase().endsWith(".png")) {
-                contentType = "image/png";
-            } else if (filePath.toLowerCase().endsWith(".jpg") || filePath.toLowerCase().endsWith(".jpeg")) {
-                contentType = "image/jpeg";
-            }
+            Resource resource = storageService.loadAsResource(filePath);
 
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header("Content-Disposition",
+                    .contentType(resolveContentType(resource, filePath))
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
                             (inline ? "inline" : "attachment") + "; filename=\"" + getFileName(filePath) + "\"")
-                    .body(fileContent);
+                    .body(resource);
         } catch (Exception e) {
             log.error("Failed to download file: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    private MediaType resolveContentType(Resource resource, String filePath) {
+        String storedType = storageService.getContentType(resource);
+        if (storedType != null) {
+            try {
+                return MediaType.parseMediaType(storedType);
+            } catch (InvalidMediaTypeException e) {
+                log.debug("Ignoring invalid stored content type {} for {}", storedType, filePath);
+            }
+        }
+        return MediaTypeFactory.getMediaType(getFileName(filePath)).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
     private String getFileName(String filePath) {
         if (filePath == null)
             return "file";
@@ -54,6 +54,8 @@ public class QueueController {
 
   /**
    * Get active queue (waiting + in progress)
+   * Screens that stay open should load this once and then follow the STOMP topic
+   * /topic/clinics/{clinicId}/queue instead of polling.
    */
   @GetMapping("/active")
   public ResponseEntity<List<QueueEntryResponse>> getActiveQueue() {
@@ -51,6 +51,24 @@ public class ReminderController {
         return ResponseEntity.ok(reminders);
     }
 
+    @GetMapping("/dead-letter")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get reminders that failed all send attempts (Admin only)")
+    public ResponseEntity<List<ReminderResponse>> getDeadLetterReminders() {
+        log.info("Fetching dead-lettered reminders");
+        List<ReminderResponse> reminders = reminderService.getDeadLetterReminders();
+        return ResponseEntity.ok(reminders);
+    }
+
+    @PostMapping("/{id}/requeue")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Requeue a dead-lettered reminder (Admin only)")
+    public ResponseEntity<Void> requeueReminder(@PathVariable Long id) {
+        log.info("Requeueing reminder ID: {}", id);
+        reminderService.requeueReminder(id);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/{id}/send")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VETERINARIAN') or hasRole('STAFF')")
     @Operation(summary = "Manually send a reminder")
@@ -80,7 +98,7 @@ public class ReminderController {
 
     @PostMapping("/retry-failed")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Retry failed reminders (Admin only)")
+    @Operation(summary = "Retry failed reminders whose backoff has elapsed (Admin only)")
     public ResponseEntity<Void> retryFailedReminders() {
         log.info("Retrying failed reminders");
         reminderService.retryFailedReminders();
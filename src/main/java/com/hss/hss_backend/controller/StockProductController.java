@@ -1,13 +1,25 @@
 package com.hss.hss_backend.controller;
 
 import com.hss.hss_backend.dto.StockProductDTO;
+import com.hss.hss_backend.dto.response.StockTransactionPageResponse;
 import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.entity.StockTransaction;
+import com.hss.hss_backend.service.StockLedgerReader;
 import com.hss.hss_backend.service.StockProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -131,8 +143,33 @@ public class StockProductController {
   }
 
   @GetMapping("/movements")
-  public ResponseEntity<List<com.hss.hss_backend.entity.StockTransaction>> getStockMovements() {
-    return ResponseEntity.ok(stockProductService.getLastTransactions());
+  public ResponseEntity<StockTransactionPageResponse> getStockMovements(
+      @RequestParam(required = false) Long productId,
+      @RequestParam(required = false) StockTransaction.TransactionType type,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit) {
+    StockLedgerReader.Filter filter = StockLedgerReader.Filter.forCurrentClinic(productId, type, from, to);
+    return ResponseEntity.ok(stockProductService.getTransactions(filter, cursor, limit));
+  }
+
+  @GetMapping("/movements/export")
+  public ResponseEntity<StreamingResponseBody> exportStockMovements(
+      @RequestParam(required = false) Long productId,
+      @RequestParam(required = false) StockTransaction.TransactionType type,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    // Resolved here: the body is written on another thread, outside the request's clinic context
+    StockLedgerReader.Filter filter = StockLedgerReader.Filter.forCurrentClinic(productId, type, from, to);
+    StreamingResponseBody body = out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      stockProductService.exportTransactions(filter, writer);
+    };
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"stock-movements.csv\"")
+        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .body(body);
   }
 
   @GetMapping("/settings")
@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -81,16 +82,16 @@ public class VaccinationController {
   @GetMapping("/animal/{animalId}/vaccine-card")
   @PreAuthorize("hasRole('ADMIN') or hasRole('VETERINARIAN') or hasRole('STAFF') or hasRole('RECEPTIONIST') or hasRole('OWNER')")
   @Operation(summary = "Generate and download PDF vaccine card for an animal")
-  public ResponseEntity<byte[]> generateVaccineCard(@PathVariable Long animalId) {
-    byte[] pdfBytes = vaccineCardPdfService.generateVaccineCard(animalId);
-    
+  public ResponseEntity<Resource> generateVaccineCard(@PathVariable Long animalId) {
+    Resource card = vaccineCardPdfService.getVaccineCard(animalId);
+
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(MediaType.APPLICATION_PDF);
     headers.setContentDispositionFormData("attachment", "asi-karnesi-" + animalId + ".pdf");
     headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-    
+
     return ResponseEntity.ok()
         .headers(headers)
-        .body(pdfBytes);
+        .body(card);
   }
 }
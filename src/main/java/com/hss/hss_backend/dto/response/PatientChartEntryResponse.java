@@ -0,0 +1,36 @@
+package com.hss.hss_backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One record on a patient's chart timeline. {@code id} is the id of the record in its own
+ * {@code source} table.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientChartEntryResponse {
+
+    private Source source;
+    private Long id;
+    private LocalDate date;
+    private String summary;
+    private String details;
+    private String performedBy;
+    private String status;
+    private String url;
+
+    public enum Source {
+        HISTORY,
+        EXAMINATION,
+        PRESCRIPTION,
+        RADIOLOGY,
+        PATHOLOGY
+    }
+}
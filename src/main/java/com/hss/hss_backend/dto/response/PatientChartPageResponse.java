@@ -0,0 +1,22 @@
+package com.hss.hss_backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a patient's chart timeline. {@code nextCursor} is passed back as {@code cursor} to
+ * get the following page and is null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientChartPageResponse {
+
+    private List<PatientChartEntryResponse> items;
+    private String nextCursor;
+}
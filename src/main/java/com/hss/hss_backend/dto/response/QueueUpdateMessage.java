@@ -0,0 +1,49 @@
+package com.hss.hss_backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frame pushed to /topic/clinics/{clinicId}/queue. Changes made within one coalescing window
+ * are merged into a single frame; each entry appears at most once with its latest state.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueueUpdateMessage {
+  private Long clinicId;
+  private Long sequence;
+  private Boolean resync; // true when too many changes piled up; clients should reload /api/queue/active
+  private List<QueueChange> changes;
+  private Map<Long, Integer> estimatedWaitMinutes; // only entries whose ETA changed since the previous frame
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class QueueChange {
+    private ChangeType type;
+    private Long queueEntryId;
+    private Integer queueNumber;
+    private String status;
+    private String priority;
+    private Long animalId; // CHECK_IN only
+    private String animalName; // CHECK_IN only
+    private String ownerName; // CHECK_IN only
+    private Long assignedVeterinarianId;
+    private String assignedRoom;
+  }
+
+  public enum ChangeType {
+    CHECK_IN, STATUS_CHANGE, VET_ASSIGNMENT
+  }
+}
@@ -25,6 +25,7 @@ public class ReminderResponse {
     private LocalDateTime sentAt;
     private String errorMessage;
     private Integer retryCount;
+    private LocalDateTime nextAttemptAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
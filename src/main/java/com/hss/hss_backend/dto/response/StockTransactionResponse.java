@@ -0,0 +1,32 @@
+package com.hss.hss_backend.dto.response;
+
+import com.hss.hss_backend.entity.StockTransaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransactionResponse {
+
+    private Long transactionId;
+    private Long productId;
+    private String productName;
+    private String productBarcode;
+    private Long clinicId;
+    private LocalDateTime transactionDate;
+    private StockTransaction.TransactionType type;
+    private Integer quantity;
+    private BigDecimal unitCost;
+    private BigDecimal totalCost;
+    private String relatedEntity;
+    private Long relatedId;
+    private String notes;
+    private String createdBy;
+}
@@ -1,6 +1,7 @@
 package com.hss.hss_backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 @org.hibernate.annotations.Filter(name = "clinicFilter", condition = "clinic_id = :clinicId")
+@EntityListeners(StatisticsEntityListener.class)
 public class Animal extends BaseEntity {
 
     @Id
@@ -115,7 +117,9 @@ public class Animal extends BaseEntity {
     @OneToMany(mappedBy = "animal", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Hospitalization> hospitalizations;
 
+    // Listing pages map the conditions of every row; load them for up to 100 animals per query
     @OneToMany(mappedBy = "animal", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @org.hibernate.annotations.BatchSize(size = 100)
     private List<AnimalCondition> conditions;
 
     @OneToMany(mappedBy = "animal", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.hss.hss_backend.entity;
 
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 @org.hibernate.annotations.Filter(name = "clinicFilter", condition = "clinic_id = :clinicId")
+@EntityListeners(StatisticsEntityListener.class)
 public class Appointment extends BaseEntity {
 
     @Id
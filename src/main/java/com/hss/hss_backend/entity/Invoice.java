@@ -1,5 +1,6 @@
 package com.hss.hss_backend.entity;
 
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
+@EntityListeners(StatisticsEntityListener.class)
 public class Invoice extends BaseEntity {
 
     @Id
@@ -71,6 +73,13 @@ public class Invoice extends BaseEntity {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Set on invoices generated by an invoice rule for an appointment; unique together
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @Column(name = "invoice_rule_id")
+    private Long invoiceRuleId;
+
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<InvoiceItem> invoiceItems;
 
@@ -58,6 +58,10 @@ public class InvoiceRule extends BaseEntity {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public enum RuleType {
         APPOINTMENT_AFTER,      // Randevu sonrası
         MONTHLY_SUBSCRIPTION,   // Aylık abonelik
@@ -1,5 +1,6 @@
 package com.hss.hss_backend.entity;
 
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,7 @@ import java.util.List;
 @org.hibernate.annotations.SQLDelete(sql = "UPDATE owner SET is_deleted = true WHERE owner_id = ?")
 @org.hibernate.annotations.SQLRestriction("is_deleted = false")
 @org.hibernate.annotations.Filter(name = "clinicFilter", condition = "clinic_id = :clinicId")
+@EntityListeners(StatisticsEntityListener.class)
 public class Owner extends BaseEntity {
 
     @Id
@@ -54,6 +54,12 @@ public class Reminder extends BaseEntity {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
     @Column(name = "retry_count")
     @Builder.Default
     private Integer retryCount = 0;
@@ -63,6 +69,6 @@ public class Reminder extends BaseEntity {
     }
 
     public enum Status {
-        PENDING, SENT, DELIVERED, FAILED, CANCELLED
+        PENDING, SENDING, SENT, DELIVERED, FAILED, DEAD_LETTER, CANCELLED
     }
 }
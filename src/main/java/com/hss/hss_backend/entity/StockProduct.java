@@ -1,5 +1,6 @@
 package com.hss.hss_backend.entity;
 
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
+@EntityListeners(StatisticsEntityListener.class)
 public class StockProduct extends BaseEntity {
 
     @Id
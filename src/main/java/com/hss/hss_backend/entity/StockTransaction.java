@@ -28,6 +28,10 @@ public class StockTransaction extends BaseEntity {
     @JoinColumn(name = "product_id", nullable = false)
     private StockProduct stockProduct;
 
+    // Clinic that made the movement; null for movements recorded without a clinic context
+    @Column(name = "clinic_id")
+    private Long clinicId;
+
     @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
 
@@ -1,5 +1,6 @@
 package com.hss.hss_backend.entity;
 
+import com.hss.hss_backend.entity.listener.StatisticsEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
+@EntityListeners(StatisticsEntityListener.class)
 public class VaccinationSchedule extends BaseEntity {
 
     @Id
@@ -0,0 +1,72 @@
+package com.hss.hss_backend.entity.listener;
+
+import com.hss.hss_backend.entity.Animal;
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.entity.Invoice;
+import com.hss.hss_backend.entity.Owner;
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.entity.VaccinationSchedule;
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import com.hss.hss_backend.event.StatisticsChangedEvent.Section;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns writes to the entities behind the dashboard into {@link StatisticsChangedEvent}s.
+ * <p>
+ * Only already-loaded associations are used to find the clinic: this runs during flush, where
+ * initializing a lazy proxy is not allowed, so an unresolved clinic is reported as {@code null}.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        StatisticsChangedEvent event = toEvent(entity);
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private StatisticsChangedEvent toEvent(Object entity) {
+        if (entity instanceof Animal animal) {
+            return new StatisticsChangedEvent(clinicId(animal.getClinic()), Section.ANIMALS);
+        }
+        if (entity instanceof Owner owner) {
+            return new StatisticsChangedEvent(clinicId(owner.getClinic()), Section.ANIMALS);
+        }
+        if (entity instanceof Appointment appointment) {
+            return new StatisticsChangedEvent(clinicId(appointment.getClinic()), Section.APPOINTMENTS);
+        }
+        if (entity instanceof Invoice invoice) {
+            Owner owner = invoice.getOwner();
+            Long clinicId = owner != null && Hibernate.isInitialized(owner) ? clinicId(owner.getClinic()) : null;
+            return new StatisticsChangedEvent(clinicId, Section.INVOICES);
+        }
+        if (entity instanceof VaccinationSchedule schedule) {
+            Animal animal = schedule.getAnimal();
+            Long clinicId = animal != null && Hibernate.isInitialized(animal) ? clinicId(animal.getClinic()) : null;
+            return new StatisticsChangedEvent(clinicId, Section.VACCINATIONS);
+        }
+        if (entity instanceof StockProduct) {
+            return new StatisticsChangedEvent(null, Section.STOCK);
+        }
+        return null;
+    }
+
+    // Reading the id of an uninitialized proxy does not hit the database.
+    private static Long clinicId(Clinic clinic) {
+        return clinic != null ? clinic.getClinicId() : null;
+    }
+}
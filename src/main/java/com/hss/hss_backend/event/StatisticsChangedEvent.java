@@ -0,0 +1,18 @@
+package com.hss.hss_backend.event;
+
+/**
+ * Published when an entity that feeds the dashboard statistics is written.
+ * <p>
+ * A {@code null} clinic id means the change could not be attributed to a single clinic
+ * (stock is shared, or the owning clinic was not loaded) and every clinic's section is stale.
+ */
+public record StatisticsChangedEvent(Long clinicId, Section section) {
+
+    public enum Section {
+        ANIMALS,
+        APPOINTMENTS,
+        INVOICES,
+        STOCK,
+        VACCINATIONS
+    }
+}
@@ -0,0 +1,8 @@
+package com.hss.hss_backend.event;
+
+/**
+ * Published when a product's stock level, minimum or expiration date may have changed, so its
+ * alerts can be re-evaluated once the change is committed.
+ */
+public record StockLevelChangedEvent(Long productId) {
+}
@@ -127,6 +127,20 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         }
 
+        @ExceptionHandler(InvalidCursorException.class)
+        public ResponseEntity<ErrorResponse> handleInvalidCursorException(
+                        InvalidCursorException ex, WebRequest request) {
+                log.warn("Invalid cursor: {}", ex.getMessage());
+                ErrorResponse errorResponse = ErrorResponse.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST.value())
+                                .error("Bad Request")
+                                .message(ex.getMessage())
+                                .path(request.getDescription(false).replace("uri=", ""))
+                                .build();
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
         /** Clinic context missing (X-Clinic-Id / X-Clinic-Slug) or invalid clinic -> 400 so frontend can show message. */
         @ExceptionHandler(IllegalStateException.class)
         public ResponseEntity<ErrorResponse> handleIllegalStateException(
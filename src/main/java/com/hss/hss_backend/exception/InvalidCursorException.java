@@ -0,0 +1,11 @@
+package com.hss.hss_backend.exception;
+
+/**
+ * A paging cursor sent by a client that cannot be decoded; answered with 400.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.hss.hss_backend.repository;
 import com.hss.hss_backend.entity.Animal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,18 +16,29 @@ import java.util.Optional;
 @Repository
 public interface AnimalRepository extends JpaRepository<Animal, Long> {
 
+    // Listing queries fetch what AnimalMapper.toResponse reads in the same select;
+    // conditions are batch-loaded (see Animal.conditions), so a page costs a constant number of queries
+
     // Basic query methods
+    @EntityGraph(attributePaths = { "owner", "species", "breed" })
     List<Animal> findByOwnerOwnerId(Long ownerId);
 
     // Filter by Clinic
+    @EntityGraph(attributePaths = { "owner", "species", "breed" })
     @Query("SELECT a FROM Animal a WHERE a.owner.clinic.clinicId = :clinicId")
     Page<Animal> findByOwnerClinicClinicId(@Param("clinicId") Long clinicId, Pageable pageable);
 
+    @EntityGraph(attributePaths = { "owner", "species", "breed" })
     @Query("SELECT a FROM Animal a WHERE a.owner.clinic.clinicId = :clinicId AND a.status = :status")
     Page<Animal> findByOwnerClinicClinicIdAndStatus(@Param("clinicId") Long clinicId, @Param("status") Animal.AnimalStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = { "owner", "species", "breed" })
     Page<Animal> findByStatus(Animal.AnimalStatus status, Pageable pageable);
 
+    @Override
+    @EntityGraph(attributePaths = { "owner", "species", "breed" })
+    Page<Animal> findAll(Pageable pageable);
+
     List<Animal> findBySpeciesSpeciesId(Long speciesId);
 
     List<Animal> findByBreedBreedId(Long breedId);
@@ -92,6 +104,11 @@ public interface AnimalRepository extends JpaRepository<Animal, Long> {
     @Query("SELECT a.species.name, COUNT(a) FROM Animal a GROUP BY a.species.name")
     List<Object[]> getAnimalCountBySpecies();
 
+    // A null clinic id counts every clinic
+    @Query("SELECT a.species.name, COUNT(a) FROM Animal a " +
+           "WHERE (:clinicId IS NULL OR a.clinic.clinicId = :clinicId) GROUP BY a.species.name")
+    List<Object[]> getAnimalCountBySpeciesForClinic(@Param("clinicId") Long clinicId);
+
     @Query("SELECT a.breed.name, COUNT(a) FROM Animal a WHERE a.species.speciesId = :speciesId GROUP BY a.breed.name")
     List<Object[]> getAnimalCountByBreedForSpecies(@Param("speciesId") Long speciesId);
     
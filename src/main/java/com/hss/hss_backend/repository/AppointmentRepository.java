@@ -84,6 +84,10 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
        @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
        List<Object[]> getAppointmentCountByStatus();
 
+       @Query("SELECT a.status, COUNT(a) FROM Appointment a " +
+                     "WHERE (:clinicId IS NULL OR a.clinic.clinicId = :clinicId) GROUP BY a.status")
+       List<Object[]> getAppointmentCountByStatusForClinic(@Param("clinicId") Long clinicId);
+
        @Query("SELECT a.veterinarianId, COUNT(a) FROM Appointment a WHERE a.veterinarianId IS NOT NULL GROUP BY a.veterinarianId")
        List<Object[]> getAppointmentCountByVeterinarian();
 
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -183,15 +184,30 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
        // ============================================
 
        /**
-        * Başlıkta arama (case-insensitive)
+        * Başlık ve içerikte tam metin arama (V66 search_vector), en alakalı sonuç önce.
+        * Sonuç yalnızca id döner; dokümanlar findWithDetailsByDocumentIdIn ile tek sorguda yüklenir.
         */
-       @Query("SELECT DISTINCT d FROM Document d " +
-                     "LEFT JOIN FETCH d.owner o " +
-                     "LEFT JOIN FETCH d.animal a " +
-                     "WHERE LOWER(d.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
-                     "AND d.isArchived = false " +
-                     "ORDER BY d.createdAt DESC")
-       List<Document> searchByTitle(@Param("title") String title);
+       String FULL_TEXT_SEARCH_FROM = "FROM document d JOIN owner o ON o.owner_id = d.owner_id " +
+                     "WHERE d.search_vector @@ to_tsquery('simple', :query) " +
+                     "AND d.is_archived = false";
+
+       String FULL_TEXT_SEARCH_ORDER =
+                     " ORDER BY ts_rank(d.search_vector, to_tsquery('simple', :query)) DESC, d.document_id DESC";
+
+       @Query(value = "SELECT CAST(d.document_id AS BIGINT) " + FULL_TEXT_SEARCH_FROM + " AND o.clinic_id = :clinicId" +
+                     FULL_TEXT_SEARCH_ORDER,
+                     countQuery = "SELECT COUNT(*) " + FULL_TEXT_SEARCH_FROM + " AND o.clinic_id = :clinicId",
+                     nativeQuery = true)
+       Page<Long> searchIdsByClinic(@Param("query") String query, @Param("clinicId") Long clinicId,
+                     Pageable pageable);
+
+       @Query(value = "SELECT CAST(d.document_id AS BIGINT) " + FULL_TEXT_SEARCH_FROM + FULL_TEXT_SEARCH_ORDER,
+                     countQuery = "SELECT COUNT(*) " + FULL_TEXT_SEARCH_FROM,
+                     nativeQuery = true)
+       Page<Long> searchIds(@Param("query") String query, Pageable pageable);
+
+       @EntityGraph(attributePaths = { "owner", "animal" })
+       List<Document> findWithDetailsByDocumentIdIn(Collection<Long> documentIds);
 
        /**
         * Owner'a ait başlıkta arama
@@ -206,18 +222,6 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
        List<Document> searchByOwnerIdAndTitle(@Param("ownerId") Long ownerId,
                      @Param("title") String title);
 
-       /**
-        * İçerikte arama (title veya content)
-        */
-       @Query("SELECT DISTINCT d FROM Document d " +
-                     "LEFT JOIN FETCH d.owner o " +
-                     "LEFT JOIN FETCH d.animal a " +
-                     "WHERE (LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-                     "OR LOWER(d.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-                     "AND d.isArchived = false " +
-                     "ORDER BY d.createdAt DESC")
-       List<Document> searchByKeyword(@Param("keyword") String keyword);
-
        // ============================================
        // FILE RELATED QUERIES
        // ============================================
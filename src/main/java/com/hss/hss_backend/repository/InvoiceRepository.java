@@ -116,6 +116,21 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
        List<Object[]> getYearlyInvoiceStatistics(@Param("startDate") LocalDate startDate,
                      @Param("endDate") LocalDate endDate);
 
+       // Per-status totals; overdueCount is how many of them are past their due date
+       @Query("SELECT i.status AS status, COUNT(i) AS invoiceCount, SUM(i.totalAmount) AS totalAmount, " +
+                     "SUM(CASE WHEN i.dueDate < CURRENT_DATE THEN 1 ELSE 0 END) AS overdueCount FROM Invoice i " +
+                     "WHERE (:clinicId IS NULL OR i.owner.clinic.clinicId = :clinicId) GROUP BY i.status")
+       List<StatusSummary> getStatusSummaryForClinic(@Param("clinicId") Long clinicId);
+
+       @Query("SELECT YEAR(i.date) AS invoiceYear, MONTH(i.date) AS invoiceMonth, COUNT(i) AS invoiceCount, " +
+                     "SUM(i.totalAmount) AS totalAmount, SUM(i.taxAmount) AS taxAmount FROM Invoice i " +
+                     "WHERE (:clinicId IS NULL OR i.owner.clinic.clinicId = :clinicId) " +
+                     "AND i.date BETWEEN :startDate AND :endDate " +
+                     "GROUP BY YEAR(i.date), MONTH(i.date) ORDER BY YEAR(i.date), MONTH(i.date)")
+       List<MonthlySummary> getMonthlySummaryForClinic(@Param("clinicId") Long clinicId,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate);
+
        // Top customers
        @Query("SELECT i.owner.ownerId, i.owner.firstName, i.owner.lastName, COUNT(i), SUM(i.totalAmount) " +
                      "FROM Invoice i GROUP BY i.owner.ownerId, i.owner.firstName, i.owner.lastName " +
@@ -127,6 +142,12 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
                      "ORDER BY COUNT(i) DESC")
        Page<Object[]> getTopCustomersByInvoiceCount(Pageable pageable);
 
+       @Query("SELECT i.owner.ownerId, i.owner.firstName, i.owner.lastName, COUNT(i), SUM(i.totalAmount) " +
+                     "FROM Invoice i WHERE (:clinicId IS NULL OR i.owner.clinic.clinicId = :clinicId) " +
+                     "GROUP BY i.owner.ownerId, i.owner.firstName, i.owner.lastName " +
+                     "ORDER BY SUM(i.totalAmount) DESC")
+       List<Object[]> getTopCustomersByAmountForClinic(@Param("clinicId") Long clinicId, Pageable pageable);
+
        // Pagination support
        Page<Invoice> findByOwnerOwnerId(Long ownerId, Pageable pageable);
 
@@ -149,4 +170,26 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
                      @Param("minAmount") BigDecimal minAmount,
                      @Param("maxAmount") BigDecimal maxAmount,
                      Pageable pageable);
-}
\ No newline at end of file
+
+       interface StatusSummary {
+              Invoice.Status getStatus();
+
+              Long getInvoiceCount();
+
+              BigDecimal getTotalAmount();
+
+              Long getOverdueCount();
+       }
+
+       interface MonthlySummary {
+              Integer getInvoiceYear();
+
+              Integer getInvoiceMonth();
+
+              Long getInvoiceCount();
+
+              BigDecimal getTotalAmount();
+
+              BigDecimal getTaxAmount();
+       }
+}
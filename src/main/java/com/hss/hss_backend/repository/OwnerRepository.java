@@ -67,6 +67,9 @@ public interface OwnerRepository extends JpaRepository<Owner, Long> {
     @Query("SELECT COUNT(o) FROM Owner o")
     Long getTotalOwnerCount();
 
+    @Query("SELECT COUNT(o) FROM Owner o WHERE (:clinicId IS NULL OR o.clinic.clinicId = :clinicId)")
+    Long getOwnerCountForClinic(@Param("clinicId") Long clinicId);
+
     @Query("SELECT o FROM Owner o WHERE SIZE(o.animals) > :minAnimalCount")
     List<Owner> findOwnersWithMoreThanXAnimals(@Param("minAnimalCount") int minAnimalCount);
 
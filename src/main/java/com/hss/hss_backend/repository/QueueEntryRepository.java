@@ -16,15 +16,15 @@ public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
   // Find today's queue for a specific clinic
   List<QueueEntry> findByClinicClinicIdAndQueueDateOrderByQueueNumberAsc(Long clinicId, LocalDate queueDate);
 
+  // Load a clinic's day queue together with what the queue screens display
+  @Query("SELECT q FROM QueueEntry q JOIN FETCH q.animal a LEFT JOIN FETCH a.owner LEFT JOIN FETCH q.appointment " +
+      "WHERE q.clinic.clinicId = :clinicId AND q.queueDate = :queueDate ORDER BY q.queueNumber ASC")
+  List<QueueEntry> findDayQueueWithDetails(@Param("clinicId") Long clinicId, @Param("queueDate") LocalDate queueDate);
+
   // Find active queue entries (waiting or in progress)
   List<QueueEntry> findByClinicClinicIdAndQueueDateAndStatusInOrderByPriorityDescQueueNumberAsc(
       Long clinicId, LocalDate queueDate, List<QueueEntry.QueueStatus> statuses);
 
-  // Find next queue number for today
-  @Query("SELECT COALESCE(MAX(q.queueNumber), 0) + 1 FROM QueueEntry q " +
-      "WHERE q.clinic.clinicId = :clinicId AND q.queueDate = :queueDate")
-  Integer findNextQueueNumber(@Param("clinicId") Long clinicId, @Param("queueDate") LocalDate queueDate);
-
   // Find by appointment
   Optional<QueueEntry> findByAppointmentAppointmentId(Long appointmentId);
 
@@ -41,4 +41,24 @@ public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
   Long countByClinicAndDateAndStatus(@Param("clinicId") Long clinicId,
       @Param("queueDate") LocalDate queueDate,
       @Param("statuses") List<QueueEntry.QueueStatus> statuses);
+
+  // Average consultation length per appointment type and veterinarian, used to seed ETA estimates
+  @Query(value = "SELECT a.appointment_type AS appointmentType, q.assigned_veterinarian_id AS veterinarianId, " +
+      "AVG(EXTRACT(EPOCH FROM (q.completed_time - q.started_time)) / 60.0) AS averageMinutes, COUNT(*) AS samples " +
+      "FROM queue_entry q LEFT JOIN appointment a ON a.appointment_id = q.appointment_id " +
+      "WHERE q.clinic_id = :clinicId AND q.status = 'COMPLETED' AND q.queue_date >= :since " +
+      "AND q.started_time IS NOT NULL AND q.completed_time > q.started_time " +
+      "AND q.completed_time < q.started_time + INTERVAL '8 hours' " +
+      "GROUP BY a.appointment_type, q.assigned_veterinarian_id", nativeQuery = true)
+  List<ServiceTimeStats> findServiceTimeStats(@Param("clinicId") Long clinicId, @Param("since") LocalDate since);
+
+  interface ServiceTimeStats {
+    String getAppointmentType();
+
+    Long getVeterinarianId();
+
+    Double getAverageMinutes();
+
+    Long getSamples();
+  }
 }
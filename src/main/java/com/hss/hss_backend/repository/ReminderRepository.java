@@ -27,8 +27,5 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
 
     @Query("SELECT r FROM Reminder r WHERE r.appointment.appointmentId = :appointmentId AND r.status = 'PENDING'")
     List<Reminder> findPendingRemindersByAppointmentId(@Param("appointmentId") Long appointmentId);
-
-    @Query("SELECT r FROM Reminder r WHERE r.status = 'FAILED' AND r.retryCount < :maxRetries")
-    List<Reminder> findFailedRemindersForRetry(@Param("maxRetries") Integer maxRetries);
 }
 
@@ -2,6 +2,7 @@ package com.hss.hss_backend.repository;
 
 import com.hss.hss_backend.entity.StockAlert;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,5 +38,87 @@ public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
     @Query("SELECT sa FROM StockAlert sa WHERE sa.expirationDate BETWEEN :startDate AND :endDate AND sa.isResolved = false")
     List<StockAlert> findExpiringAlertsBetween(@Param("startDate") LocalDate startDate, 
                                                @Param("endDate") LocalDate endDate);
-}
 
+    // Missing LOW_STOCK / CRITICAL_STOCK / OUT_OF_STOCK alerts of active products, mirroring the
+    // thresholds of the former per-product evaluation. Open alerts of the same type are skipped.
+    String INSERT_STOCK_LEVEL_ALERTS = "INSERT INTO stock_alert (product_id, alert_type, current_stock, " +
+            "threshold_value, message, is_resolved, created_at, updated_at) " +
+            "SELECT s.product_id, s.alert_type, s.current_stock, s.threshold_value, " +
+            "CASE s.alert_type WHEN 'OUT_OF_STOCK' THEN 'Ürün stokta tükendi!' " +
+            "WHEN 'CRITICAL_STOCK' THEN format('Ürün kritik seviyede! Mevcut stok: %s, Minimum: %s', s.current_stock, s.min_stock) " +
+            "ELSE format('Ürün stok seviyesi düşük! Mevcut stok: %s, Minimum: %s', s.current_stock, s.min_stock) END, " +
+            "false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM (SELECT p.product_id, p.current_stock, COALESCE(p.min_stock, 0) AS min_stock, " +
+            "CASE WHEN p.current_stock = 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN p.current_stock <= FLOOR(COALESCE(p.min_stock, 0) * :criticalThreshold) THEN 'CRITICAL_STOCK' " +
+            "ELSE 'LOW_STOCK' END AS alert_type, " +
+            "CASE WHEN p.current_stock > 0 AND p.current_stock <= FLOOR(COALESCE(p.min_stock, 0) * :criticalThreshold) " +
+            "THEN CAST(FLOOR(COALESCE(p.min_stock, 0) * :criticalThreshold) AS INTEGER) " +
+            "ELSE COALESCE(p.min_stock, 0) END AS threshold_value " +
+            "FROM stock_product p " +
+            "WHERE p.is_active = true AND p.current_stock <= COALESCE(p.min_stock, 0) AND p.current_stock >= 0 ";
+
+    String STOCK_LEVEL_ALERTS_NOT_OPEN = ") s WHERE NOT EXISTS (SELECT 1 FROM stock_alert a " +
+            "WHERE a.product_id = s.product_id AND a.alert_type = s.alert_type AND a.is_resolved = false) " +
+            "ON CONFLICT DO NOTHING";
+
+    // Missing EXPIRED / EXPIRING_SOON alerts of active products expiring up to :expiringUntil.
+    // Products expiring today get neither alert, as before.
+    String INSERT_EXPIRATION_ALERTS = "INSERT INTO stock_alert (product_id, alert_type, current_stock, " +
+            "expiration_date, message, is_resolved, created_at, updated_at) " +
+            "SELECT e.product_id, e.alert_type, e.current_stock, e.expiration_date, " +
+            "CASE e.alert_type WHEN 'EXPIRED' THEN 'Ürün son kullanma tarihi geçmiş!' " +
+            "ELSE format('Ürün %s gün içinde sona erecek!', e.expiration_date - CAST(:today AS DATE)) END, " +
+            "false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM (SELECT p.product_id, COALESCE(p.current_stock, 0) AS current_stock, p.expiration_date, " +
+            "CASE WHEN p.expiration_date < :today THEN 'EXPIRED' ELSE 'EXPIRING_SOON' END AS alert_type " +
+            "FROM stock_product p " +
+            "WHERE p.is_active = true AND p.expiration_date <= :expiringUntil AND p.expiration_date <> :today ";
+
+    String EXPIRATION_ALERTS_NOT_OPEN = ") e WHERE NOT EXISTS (SELECT 1 FROM stock_alert a " +
+            "WHERE a.product_id = e.product_id AND a.alert_type = e.alert_type AND a.is_resolved = false) " +
+            "ON CONFLICT DO NOTHING";
+
+    // Resolves open stock level alerts that no longer match the product's level, e.g. after a
+    // delivery, or a LOW_STOCK alert once the product ran out and got an OUT_OF_STOCK alert
+    String RESOLVE_OUTDATED_STOCK_LEVEL_ALERTS = "UPDATE stock_alert a SET is_resolved = true, " +
+            "resolved_at = CURRENT_TIMESTAMP, resolved_by = 'system', updated_at = CURRENT_TIMESTAMP " +
+            "FROM stock_product p WHERE a.product_id = p.product_id AND a.is_resolved = false " +
+            "AND a.alert_type IN ('LOW_STOCK', 'CRITICAL_STOCK', 'OUT_OF_STOCK') " +
+            "AND a.alert_type IS DISTINCT FROM (CASE " +
+            "WHEN p.is_active IS NOT TRUE OR p.current_stock < 0 OR p.current_stock > COALESCE(p.min_stock, 0) THEN NULL " +
+            "WHEN p.current_stock = 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN p.current_stock <= FLOOR(COALESCE(p.min_stock, 0) * :criticalThreshold) THEN 'CRITICAL_STOCK' " +
+            "ELSE 'LOW_STOCK' END) ";
+
+    @Modifying
+    @Query(value = INSERT_STOCK_LEVEL_ALERTS + STOCK_LEVEL_ALERTS_NOT_OPEN, nativeQuery = true)
+    int insertMissingStockLevelAlerts(@Param("criticalThreshold") double criticalThreshold);
+
+    @Modifying
+    @Query(value = INSERT_EXPIRATION_ALERTS + EXPIRATION_ALERTS_NOT_OPEN, nativeQuery = true)
+    int insertMissingExpirationAlerts(@Param("today") LocalDate today,
+                                      @Param("expiringUntil") LocalDate expiringUntil);
+
+    @Modifying
+    @Query(value = INSERT_STOCK_LEVEL_ALERTS + "AND p.product_id = :productId " + STOCK_LEVEL_ALERTS_NOT_OPEN,
+            nativeQuery = true)
+    int insertMissingStockLevelAlertsForProduct(@Param("criticalThreshold") double criticalThreshold,
+                                                @Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = INSERT_EXPIRATION_ALERTS + "AND p.product_id = :productId " + EXPIRATION_ALERTS_NOT_OPEN,
+            nativeQuery = true)
+    int insertMissingExpirationAlertsForProduct(@Param("today") LocalDate today,
+                                                @Param("expiringUntil") LocalDate expiringUntil,
+                                                @Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = RESOLVE_OUTDATED_STOCK_LEVEL_ALERTS, nativeQuery = true)
+    int resolveOutdatedStockLevelAlerts(@Param("criticalThreshold") double criticalThreshold);
+
+    @Modifying
+    @Query(value = RESOLVE_OUTDATED_STOCK_LEVEL_ALERTS + "AND p.product_id = :productId", nativeQuery = true)
+    int resolveOutdatedStockLevelAlertsForProduct(@Param("criticalThreshold") double criticalThreshold,
+                                                  @Param("productId") Long productId);
+}
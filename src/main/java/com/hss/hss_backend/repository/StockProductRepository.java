@@ -2,6 +2,7 @@ package com.hss.hss_backend.repository;
 
 import com.hss.hss_backend.entity.StockProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -43,5 +44,25 @@ public interface StockProductRepository extends JpaRepository<StockProduct, Long
     @Query("SELECT sp FROM StockProduct sp WHERE sp.currentStock = 0 AND sp.isActive = true")
     List<StockProduct> findOutOfStockProducts();
 
+    @Query("SELECT COUNT(sp) FROM StockProduct sp WHERE sp.currentStock <= sp.minStock AND sp.isActive = true")
+    long countLowStockProducts();
+
+    @Query("SELECT COUNT(sp) FROM StockProduct sp WHERE sp.currentStock = 0 AND sp.isActive = true")
+    long countOutOfStockProducts();
+
     boolean existsByBarcode(String barcode);
+
+    /**
+     * Takes {@code quantity} off the stock in one statement, only if that much is left.
+     * Returns 0 when the product does not exist or has too little stock.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockProduct sp SET sp.currentStock = sp.currentStock - :quantity, sp.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE sp.productId = :productId AND sp.currentStock >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockProduct sp SET sp.currentStock = COALESCE(sp.currentStock, 0) + :quantity, sp.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE sp.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
 }
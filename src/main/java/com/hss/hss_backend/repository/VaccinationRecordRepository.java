@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VaccinationRecordRepository extends JpaRepository<VaccinationRecord, Long> {
@@ -44,4 +45,19 @@ public interface VaccinationRecordRepository extends JpaRepository<VaccinationRe
     @Query("SELECT vr FROM VaccinationRecord vr WHERE vr.animal.animalId = :animalId AND vr.vaccine.vaccineId = :vaccineId")
     List<VaccinationRecord> findByAnimalAnimalIdAndVaccineVaccineId(@Param("animalId") Long animalId, 
                                                                      @Param("vaccineId") Long vaccineId);
+
+    /**
+     * Everything the vaccine card of an animal is printed from, reduced to one value that changes
+     * whenever the animal, its owner, species or breed, or any of its vaccination records is added,
+     * edited or removed.
+     * Empty when the animal does not exist.
+     */
+    @Query(value = "SELECT concat_ws('|', a.updated_at, o.updated_at, s.updated_at, b.updated_at, " +
+            "COUNT(vr.vaccination_record_id), MAX(vr.vaccination_record_id), MAX(vr.updated_at)) " +
+            "FROM animal a LEFT JOIN owner o ON o.owner_id = a.owner_id " +
+            "LEFT JOIN species s ON s.species_id = a.species_id " +
+            "LEFT JOIN breed b ON b.breed_id = a.breed_id " +
+            "LEFT JOIN vaccination_record vr ON vr.animal_id = a.animal_id " +
+            "WHERE a.animal_id = :animalId GROUP BY a.animal_id, o.owner_id, s.species_id, b.breed_id", nativeQuery = true)
+    Optional<String> findVaccineCardFingerprint(@Param("animalId") Long animalId);
 }
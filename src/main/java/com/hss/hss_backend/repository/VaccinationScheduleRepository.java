@@ -38,6 +38,16 @@ public interface VaccinationScheduleRepository extends JpaRepository<Vaccination
     @Query("SELECT vs FROM VaccinationSchedule vs WHERE vs.isOverdue = true AND vs.status = 'PENDING'")
     List<VaccinationSchedule> findOverduePendingSchedules();
 
+    @Query("SELECT COUNT(vs) FROM VaccinationSchedule vs WHERE vs.scheduledDate BETWEEN :startDate AND :endDate " +
+           "AND vs.status = 'PENDING' AND (:clinicId IS NULL OR vs.animal.clinic.clinicId = :clinicId)")
+    long countSchedulesBetweenForClinic(@Param("clinicId") Long clinicId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COUNT(vs) FROM VaccinationSchedule vs WHERE vs.isOverdue = true AND vs.status = 'PENDING' " +
+           "AND (:clinicId IS NULL OR vs.animal.clinic.clinicId = :clinicId)")
+    long countOverduePendingSchedulesForClinic(@Param("clinicId") Long clinicId);
+
     @Query("SELECT vs FROM VaccinationSchedule vs WHERE vs.animal.animalId = :animalId AND vs.vaccine.vaccineId = :vaccineId AND vs.status = 'PENDING'")
     List<VaccinationSchedule> findPendingSchedulesByAnimalAndVaccine(@Param("animalId") Long animalId,
                                                                        @Param("vaccineId") Long vaccineId);
@@ -6,19 +6,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BackupScheduler {
 
     private final BackupService backupService;
+    private final JobLeaseManager jobLeaseManager;
 
     // Her gün saat 03:00'de çalışır
     @Scheduled(cron = "0 0 3 * * ?")
     public void dailyBackup() {
         log.info("Scheduled job: Creating daily database backup");
         try {
-            backupService.createDatabaseBackup();
+            jobLeaseManager.runExclusively("backup.daily", Duration.ofHours(2),
+                    backupService::createDatabaseBackup);
         } catch (Exception e) {
             log.error("Error in scheduled daily backup", e);
         }
@@ -29,7 +33,8 @@ public class BackupScheduler {
     public void weeklyFullBackup() {
         log.info("Scheduled job: Creating weekly full backup");
         try {
-            backupService.createFullBackup();
+            jobLeaseManager.runExclusively("backup.weekly-full", Duration.ofHours(4),
+                    backupService::createFullBackup);
         } catch (Exception e) {
             log.error("Error in scheduled weekly backup", e);
         }
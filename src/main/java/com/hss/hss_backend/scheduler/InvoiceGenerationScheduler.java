@@ -3,22 +3,38 @@ package com.hss.hss_backend.scheduler;
 import com.hss.hss_backend.service.InvoiceRuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class InvoiceGenerationScheduler {
 
+    // Her gün saat 09:00'de çalışır
+    private static final String PROCESS_RULES_CRON = "0 0 9 * * ?";
+
     private final InvoiceRuleService invoiceRuleService;
+    private final JobLeaseManager jobLeaseManager;
 
-    // Her gün saat 09:00'de çalışır
-    @Scheduled(cron = "0 0 9 * * ?")
+    // true ise kurallar klinik bazında işlenir ve klinikler çalışan instance'lar arasında paylaştırılır
+    @Value("${scheduler.invoice-rules.shard-by-clinic:false}")
+    private boolean shardByClinic;
+
+    @Scheduled(cron = PROCESS_RULES_CRON)
     public void processInvoiceRules() {
         log.info("Scheduled job: Processing invoice rules");
         try {
-            invoiceRuleService.processAllRules();
+            if (shardByClinic) {
+                jobLeaseManager.runPerClinic("invoices.process-rules", PROCESS_RULES_CRON, Duration.ofHours(1),
+                        clinicId -> invoiceRuleService.processAllRules());
+            } else {
+                jobLeaseManager.runExclusively("invoices.process-rules", Duration.ofHours(1),
+                        invoiceRuleService::processAllRules);
+            }
         } catch (Exception e) {
             log.error("Error in scheduled invoice rule processing", e);
         }
@@ -0,0 +1,183 @@
+package com.hss.hss_backend.scheduler;
+
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.ClinicDirectory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Makes a scheduled job run on one instance of the fleet instead of on every instance.
+ * <p>
+ * Each job has a row in {@code scheduled_job_lease}. An instance runs the job only if its
+ * conditional upsert takes a lease that is free or expired; the lease lasts {@code lockAtMostFor}
+ * so a crashed instance releases it eventually. After the job the lease is kept for at least
+ * {@code scheduler.lease.min-hold-seconds}, because every instance fires the same cron tick and a
+ * slightly late instance must still find the job taken.
+ * <p>
+ * {@link #runPerClinic} shards a job by clinic: every clinic gets its own lease and each instance
+ * walks the clinics from a different starting point, so concurrent instances split the clinics
+ * between them. Shard leases are keyed on the cron tick they belong to and are kept once the
+ * clinic is done, so an instance that reaches a clinic late in the same tick, however late, still
+ * skips it. Shard leases of earlier ticks are deleted when a new tick starts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobLeaseManager {
+
+    static final String ACQUIRE_SQL =
+            "INSERT INTO scheduled_job_lease (job_name, locked_by, locked_at, locked_until) " +
+            "VALUES (?, ?, now(), now() + make_interval(secs => ?)) " +
+            "ON CONFLICT (job_name) DO UPDATE SET locked_by = EXCLUDED.locked_by, " +
+            "locked_at = EXCLUDED.locked_at, locked_until = EXCLUDED.locked_until " +
+            "WHERE scheduled_job_lease.locked_until <= now()";
+
+    static final String RELEASE_SQL =
+            "UPDATE scheduled_job_lease SET locked_until = GREATEST(locked_at + make_interval(secs => ?), now()) " +
+            "WHERE job_name = ? AND locked_by = ?";
+
+    static final String COMPLETE_SQL =
+            "UPDATE scheduled_job_lease SET locked_until = 'infinity' WHERE job_name = ? AND locked_by = ?";
+
+    static final String PRUNE_SQL =
+            "DELETE FROM scheduled_job_lease WHERE starts_with(job_name, ?) AND NOT starts_with(job_name, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClinicDirectory clinicDirectory;
+
+    @Value("${scheduler.lease.instance-id:}")
+    private String instanceId = "";
+
+    @Value("${scheduler.lease.min-hold-seconds:30}")
+    private long minHoldSeconds = 30;
+
+    /**
+     * Runs {@code task} if this instance gets the lease of {@code jobName}.
+     *
+     * @return whether the task ran here
+     */
+    public boolean runExclusively(String jobName, Duration lockAtMostFor, Runnable task) {
+        if (!tryAcquire(jobName, lockAtMostFor)) {
+            log.debug("Skipping job {}: lease is held by another instance", jobName);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(jobName);
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code task} once per clinic and cron tick across the fleet, with the clinic bound to
+     * {@link ClinicContext} so the task's transactions are scoped to it. {@code cron} is the
+     * schedule of the calling job; it tells which tick this run belongs to. A failing clinic does
+     * not stop the others.
+     *
+     * @return how many clinics were processed by this instance
+     */
+    public int runPerClinic(String jobName, String cron, Duration lockAtMostFor, Consumer<Long> task) {
+        List<Long> clinicIds = clinicDirectory.clinicIds();
+        if (clinicIds.isEmpty()) {
+            return 0;
+        }
+        String tickPrefix = jobName + "@" + tick(cron, ZonedDateTime.now(), lockAtMostFor) + ":";
+        prune(jobName + "@", tickPrefix);
+
+        int offset = Math.floorMod(instanceId().hashCode(), clinicIds.size());
+        int processed = 0;
+        for (int i = 0; i < clinicIds.size(); i++) {
+            Long clinicId = clinicIds.get((offset + i) % clinicIds.size());
+            String leaseName = tickPrefix + "clinic-" + clinicId;
+            if (!tryAcquire(leaseName, lockAtMostFor)) {
+                log.debug("Skipping job {} for clinic {}: already taken in this tick", jobName, clinicId);
+                continue;
+            }
+            try {
+                ClinicContext.setClinicId(clinicId);
+                task.accept(clinicId);
+            } catch (RuntimeException e) {
+                log.error("Job {} failed for clinic {}", jobName, clinicId, e);
+            } finally {
+                ClinicContext.clear();
+                complete(leaseName);
+            }
+            processed++;
+        }
+        log.info("Job {} processed {} of {} clinics on this instance", jobName, processed, clinicIds.size());
+        return processed;
+    }
+
+    private boolean tryAcquire(String jobName, Duration lockAtMostFor) {
+        return jdbcTemplate.update(ACQUIRE_SQL, jobName, instanceId(), lockAtMostFor.toSeconds()) == 1;
+    }
+
+    private void release(String jobName) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, minHoldSeconds, jobName, instanceId());
+        } catch (RuntimeException e) {
+            // The lease still runs out at locked_until
+            log.warn("Could not release lease of job {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps a shard lease for good; it is only deleted by {@link #prune} once a later tick starts.
+     */
+    private void complete(String leaseName) {
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, leaseName, instanceId());
+        } catch (RuntimeException e) {
+            // The lease still runs out at locked_until
+            log.warn("Could not complete lease {}: {}", leaseName, e.getMessage());
+        }
+    }
+
+    private void prune(String jobPrefix, String tickPrefix) {
+        try {
+            jdbcTemplate.update(PRUNE_SQL, jobPrefix, tickPrefix);
+        } catch (RuntimeException e) {
+            log.warn("Could not prune old leases of {}: {}", jobPrefix, e.getMessage());
+        }
+    }
+
+    /**
+     * The latest fire time of {@code cron} at or before {@code now}, looking back at most
+     * {@code lookBack}; instances firing the same tick late still agree on it. A run outside any
+     * tick (e.g. started by hand) is its own tick.
+     */
+    static String tick(String cron, ZonedDateTime now, Duration lookBack) {
+        CronExpression expression = CronExpression.parse(cron);
+        ZonedDateTime tick = null;
+        ZonedDateTime next = expression.next(now.minus(lookBack));
+        while (next != null && !next.isAfter(now)) {
+            tick = next;
+            next = expression.next(next);
+        }
+        return (tick != null ? tick : now.truncatedTo(ChronoUnit.SECONDS))
+                .toOffsetDateTime()
+                .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    String instanceId() {
+        if (instanceId == null || instanceId.isBlank()) {
+            // Host names are not guaranteed to be unique across instances, so always add a random part
+            String host = System.getenv().getOrDefault("HOSTNAME", "instance");
+            instanceId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        return instanceId;
+    }
+}
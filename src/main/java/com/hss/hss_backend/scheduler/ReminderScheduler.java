@@ -13,8 +13,9 @@ public class ReminderScheduler {
 
     private final ReminderService reminderService;
 
-    // Her 5 dakikada bir çalışır
-    @Scheduled(fixedRate = 300000) // 5 dakika = 300000 ms
+    // Varsayılan olarak her dakika çalışır. Kilit alınmaz: hatırlatmalar SKIP LOCKED ile
+    // parti parti sahiplenildiği için tüm instance'lar kuyruğu birlikte eritebilir
+    @Scheduled(fixedDelayString = "${reminder.dispatch.interval-millis:60000}")
     public void processPendingReminders() {
         log.info("Scheduled job: Processing pending reminders");
         try {
@@ -24,8 +25,8 @@ public class ReminderScheduler {
         }
     }
 
-    // Her saat başı çalışır
-    @Scheduled(cron = "0 0 * * * ?")
+    // Varsayılan olarak her dakika çalışır; yalnızca bekleme süresi dolan başarısız hatırlatmaları yeniden dener
+    @Scheduled(fixedDelayString = "${reminder.retry.interval-millis:60000}")
     public void retryFailedReminders() {
         log.info("Scheduled job: Retrying failed reminders");
         try {
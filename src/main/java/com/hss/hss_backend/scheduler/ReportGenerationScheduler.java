@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Component
@@ -14,13 +15,15 @@ import java.time.LocalDateTime;
 public class ReportGenerationScheduler {
 
     private final ReportScheduleService scheduleService;
+    private final JobLeaseManager jobLeaseManager;
 
     // Her saat başı çalışır
     @Scheduled(cron = "0 0 * * * ?")
     public void processScheduledReports() {
         log.info("Scheduled job: Processing scheduled reports");
         try {
-            scheduleService.processScheduledReports();
+            jobLeaseManager.runExclusively("reports.process-scheduled", Duration.ofMinutes(30),
+                    scheduleService::processScheduledReports);
         } catch (Exception e) {
             log.error("Error in scheduled report generation", e);
         }
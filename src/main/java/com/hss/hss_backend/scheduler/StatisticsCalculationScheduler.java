@@ -13,7 +13,7 @@ public class StatisticsCalculationScheduler {
 
     private final StatisticsService statisticsService;
 
-    // Her gün saat 02:00'de çalışır
+    // Her gün saat 02:00'de çalışır. Kilit alınmaz: her instance kendi bellekteki istatistik önbelleğini yeniler
     @Scheduled(cron = "0 0 2 * * ?")
     public void calculateDailyStatistics() {
         log.info("Scheduled job: Calculating daily statistics");
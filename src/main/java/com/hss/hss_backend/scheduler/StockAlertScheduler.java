@@ -6,19 +6,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class StockAlertScheduler {
 
     private final StockAlertService stockAlertService;
+    private final JobLeaseManager jobLeaseManager;
+
+    // Saatlik ve günlük kontrol aynı kilidi paylaşır; 08:00'de ikisi birden tetiklense de tek kez çalışır
+    private static final String CHECK_STOCK_JOB = "stock.check-alerts";
 
     // Her saat başı çalışır
     @Scheduled(cron = "0 0 * * * ?")
     public void checkStockLevels() {
         log.info("Scheduled job: Checking stock levels and creating alerts");
         try {
-            stockAlertService.checkAndCreateAlerts();
+            jobLeaseManager.runExclusively(CHECK_STOCK_JOB, Duration.ofMinutes(30),
+                    stockAlertService::checkAndCreateAlerts);
         } catch (Exception e) {
             log.error("Error in scheduled stock alert check", e);
         }
@@ -29,7 +36,8 @@ public class StockAlertScheduler {
     public void dailyStockCheck() {
         log.info("Scheduled job: Daily stock level check");
         try {
-            stockAlertService.checkAndCreateAlerts();
+            jobLeaseManager.runExclusively(CHECK_STOCK_JOB, Duration.ofMinutes(30),
+                    stockAlertService::checkAndCreateAlerts);
         } catch (Exception e) {
             log.error("Error in daily stock alert check", e);
         }
@@ -6,19 +6,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class VaccinationScheduleScheduler {
 
     private final VaccinationScheduleService scheduleService;
+    private final JobLeaseManager jobLeaseManager;
 
     // Her gün saat 08:00'de çalışır
     @Scheduled(cron = "0 0 8 * * ?")
     public void checkOverdueSchedules() {
         log.info("Scheduled job: Checking for overdue vaccination schedules");
         try {
-            scheduleService.checkAndUpdateOverdueSchedules();
+            jobLeaseManager.runExclusively("vaccinations.check-overdue", Duration.ofMinutes(30),
+                    scheduleService::checkAndUpdateOverdueSchedules);
         } catch (Exception e) {
             log.error("Error in scheduled vaccination schedule check", e);
         }
@@ -1,6 +1,6 @@
 package com.hss.hss_backend.security;
 
-import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.service.ClinicDirectory;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,10 +30,10 @@ public class ClinicContextFilter extends OncePerRequestFilter {
   /** Matches /clinic/{slug}/ in Referer URLs. */
   private static final Pattern REFERER_SLUG_PATTERN = Pattern.compile("/clinic/([^/]+)");
 
-  private final ClinicRepository clinicRepository;
+  private final ClinicDirectory clinicDirectory;
 
-  public ClinicContextFilter(ClinicRepository clinicRepository) {
-    this.clinicRepository = clinicRepository;
+  public ClinicContextFilter(ClinicDirectory clinicDirectory) {
+    this.clinicDirectory = clinicDirectory;
   }
 
   @Override
@@ -100,6 +100,11 @@ public class ClinicContextFilter extends OncePerRequestFilter {
       return null;
     }
 
+    return clinicIdOf(jwt);
+  }
+
+  /** The clinic in a token's "clinic_id" claim, or null when it has none. */
+  static Long clinicIdOf(Jwt jwt) {
     Object claim = jwt.getClaim("clinic_id");
     if (claim instanceof Long l) return l;
     if (claim instanceof Integer i) return i.longValue();
@@ -120,16 +125,14 @@ public class ClinicContextFilter extends OncePerRequestFilter {
     }
   }
 
-  /** 3. Resolve clinic from X-Clinic-Slug header via DB lookup. */
+  /** 3. Resolve clinic from X-Clinic-Slug header via the in-memory clinic directory. */
   private Long fromSlugHeader(HttpServletRequest request) {
     String slug = request.getHeader("X-Clinic-Slug");
     if (slug == null || slug.isBlank()) return null;
-    return clinicRepository.findBySlug(slug.trim())
-        .map(clinic -> clinic.getClinicId())
-        .orElse(null);
+    return clinicDirectory.findIdBySlug(slug.trim()).orElse(null);
   }
 
-  /** 4. Parse /clinic/{slug}/ from the Referer header and resolve via DB. */
+  /** 4. Parse /clinic/{slug}/ from the Referer header and resolve via the clinic directory. */
   private Long fromReferer(HttpServletRequest request) {
     String referer = request.getHeader("Referer");
     if (referer == null || referer.isBlank()) return null;
@@ -138,9 +141,7 @@ public class ClinicContextFilter extends OncePerRequestFilter {
     if (!matcher.find()) return null;
 
     String slug = matcher.group(1);
-    return clinicRepository.findBySlug(slug)
-        .map(clinic -> clinic.getClinicId())
-        .orElse(null);
+    return clinicDirectory.findIdBySlug(slug).orElse(null);
   }
 
 }
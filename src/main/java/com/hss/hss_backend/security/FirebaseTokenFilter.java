@@ -4,6 +4,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -21,6 +22,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +37,10 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
     // SecurityConfig ile aynı secret key - her restart'ta aynı key kullanılsın
-    private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("mySecretKeyForTestingPurposesOnly123456789012345678901234567890".getBytes());
+    static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("mySecretKeyForTestingPurposesOnly123456789012345678901234567890".getBytes());
 
     private final FirebaseAuth firebaseAuth;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(
@@ -51,102 +56,141 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
             return;
         }
 
-        try {
-            // First, try to verify as Firebase token
-            FirebaseToken decodedToken = firebaseAuth.verifyIdToken(token, true);
-            log.debug("Token verified successfully as Firebase token for user: {}", decodedToken.getUid());
-
-            // Extract role from custom claims
-            Map<String, Object> claims = decodedToken.getClaims();
-            
-            // Try to extract roles - can be either "role", "roles" array, or from nested claims
-            List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-            
-            // Check for "roles" array (from custom claims)
-            Object rolesObj = claims.get("roles");
-            if (rolesObj instanceof List) {
-                @SuppressWarnings("unchecked")
-                List<String> rolesList = (List<String>) rolesObj;
-                authorities = rolesList.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                        .toList();
-                log.debug("Extracted roles from token: {}", rolesList);
-            } 
-            // Check for single "role" string
-            else {
-                String role = (String) claims.getOrDefault("role", "");
-                if (StringUtils.hasText(role)) {
-                    authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
-                    log.debug("Extracted role from token: {}", role);
-                } else {
-                    log.debug("No role found in token claims");
-                }
-            }
-
-            // Create authentication object
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    decodedToken.getUid(),
-                    null,
-                    authorities);
-
-            // Set authentication in security context
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            log.debug("Authentication set in security context for user: {} with authorities: {}",
-                    decodedToken.getUid(), authorities);
-
-        } catch (FirebaseAuthException e) {
-            log.debug("Token is not a valid Firebase token, trying JWT token: {}", e.getMessage());
-            
-            // If Firebase verification fails, try JWT token
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
             try {
-                Claims jwtClaims = Jwts.parser()
-                        .verifyWith(SECRET_KEY)
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload();
-                
-                String username = jwtClaims.getSubject();
-                @SuppressWarnings("unchecked")
-                List<String> roles = (List<String>) jwtClaims.get("roles");
-                
-                log.debug("Token verified successfully as JWT token for user: {}", username);
-                
-                // Create authorities from JWT roles
-                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-                if (roles != null && !roles.isEmpty()) {
-                    authorities = roles.stream()
-                            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                            .toList();
+                verified = isSignedByApplication(token) ? verifyJwtToken(token) : verifyFirebaseToken(token);
+            } catch (FirebaseAuthException e) {
+                log.debug("Token is not a valid Firebase token, trying JWT token: {}", e.getMessage());
+                try {
+                    verified = verifyJwtToken(token);
+                } catch (Exception jwtException) {
+                    log.warn("Token is neither a valid Firebase token nor a valid JWT token: {}", jwtException.getMessage());
+                    SecurityContextHolder.clearContext();
+                    // Don't return error here - let the request continue, Spring Security will handle authentication
+                    // If the endpoint requires authentication, it will return 401
+                    return;
                 }
-                
-                // Create authentication object
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username,
-                        null,
-                        authorities);
-                
-                // Set authentication in security context
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Authentication set in security context for user: {} with roles: {}",
-                        username, roles);
-                
-            } catch (Exception jwtException) {
-                log.warn("Token is neither a valid Firebase token nor a valid JWT token: {}", jwtException.getMessage());
+            } catch (JwtException e) {
+                // Expired or tampered application tokens are routine, no stack trace needed
+                log.warn("Token is not a valid JWT token: {}", e.getMessage());
                 SecurityContextHolder.clearContext();
-                // Don't return error here - let the request continue, Spring Security will handle authentication
-                // If the endpoint requires authentication, it will return 401
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error during token verification", e);
+                SecurityContextHolder.clearContext();
+                // Don't return error here - let the request continue
                 return;
             }
-        } catch (Exception e) {
-            log.error("Unexpected error during token verification", e);
-            SecurityContextHolder.clearContext();
-            // Don't return error here - let the request continue
-            return;
+            if (verified.expiresAt() != null) {
+                verifiedTokenCache.put(token, verified);
+            }
         }
 
+        // Create authentication object
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                verified.principal(),
+                null,
+                verified.authorities());
+
+        // Set authentication in security context
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.debug("Authentication set in security context for user: {} with authorities: {}",
+                verified.principal(), verified.authorities());
+
         filterChain.doFilter(request, response);
     }
 
+    private VerifiedTokenCache.VerifiedToken verifyFirebaseToken(String token) throws FirebaseAuthException {
+        FirebaseToken decodedToken = firebaseAuth.verifyIdToken(token, true);
+        log.debug("Token verified successfully as Firebase token for user: {}", decodedToken.getUid());
+
+        // Extract role from custom claims
+        Map<String, Object> claims = decodedToken.getClaims();
+
+        // Try to extract roles - can be either "role", "roles" array, or from nested claims
+        List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+
+        // Check for "roles" array (from custom claims)
+        Object rolesObj = claims.get("roles");
+        if (rolesObj instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<String> rolesList = (List<String>) rolesObj;
+            authorities = rolesList.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                    .toList();
+            log.debug("Extracted roles from token: {}", rolesList);
+        }
+        // Check for single "role" string
+        else {
+            String role = (String) claims.getOrDefault("role", "");
+            if (StringUtils.hasText(role)) {
+                authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+                log.debug("Extracted role from token: {}", role);
+            } else {
+                log.debug("No role found in token claims");
+            }
+        }
+
+        Instant issuedAt = epochSecondClaim(claims.get("iat"));
+        return new VerifiedTokenCache.VerifiedToken(decodedToken.getUid(), authorities,
+                issuedAt != null ? issuedAt : Instant.EPOCH, epochSecondClaim(claims.get("exp")), decodedToken.getUid());
+    }
+
+    private VerifiedTokenCache.VerifiedToken verifyJwtToken(String token) {
+        Claims jwtClaims = parseApplicationToken(token);
+
+        String username = jwtClaims.getSubject();
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) jwtClaims.get("roles");
+
+        log.debug("Token verified successfully as JWT token for user: {}", username);
+
+        // Create authorities from JWT roles
+        List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+        if (roles != null && !roles.isEmpty()) {
+            authorities = roles.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                    .toList();
+        }
+
+        Instant issuedAt = jwtClaims.getIssuedAt() != null ? jwtClaims.getIssuedAt().toInstant() : Instant.now();
+        Instant expiresAt = jwtClaims.getExpiration() != null ? jwtClaims.getExpiration().toInstant() : null;
+        return new VerifiedTokenCache.VerifiedToken(username, authorities, issuedAt, expiresAt, null);
+    }
+
+    /**
+     * Verifies a token minted by this application and returns its claims.
+     */
+    static Claims parseApplicationToken(String token) {
+        return Jwts.parser()
+                .verifyWith(SECRET_KEY)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * Tokens minted by this application are HMAC-signed; Firebase ID tokens are RS256. Checking the
+     * header first keeps application tokens from paying for a failed Firebase verification.
+     */
+    static boolean isSignedByApplication(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        try {
+            String header = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+            return header.replace(" ", "").contains("\"alg\":\"HS");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Instant epochSecondClaim(Object value) {
+        return value instanceof Number number ? Instant.ofEpochSecond(number.longValue()) : null;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
@@ -0,0 +1,127 @@
+package com.hss.hss_backend.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot send an Authorization header on the WebSocket
+ * handshake, so the bearer token is sent as a native header of the CONNECT frame instead. Both
+ * token types {@link FirebaseTokenFilter} accepts over HTTP are accepted: Firebase ID tokens and
+ * tokens signed by this application.
+ * Subscriptions are denied by default. The only destination that can be subscribed to is exactly
+ * /topic/clinics/{clinicId}/queue, and only when the token's "clinic_id" claim is that clinic, or
+ * for super admins. The simple broker matches subscriptions as Ant patterns, so destinations
+ * containing pattern characters are always rejected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+  private static final Pattern CLINIC_TOPIC_PATTERN = Pattern.compile("^/topic/clinics/(\\d+)/queue$");
+  private static final List<String> TIMESTAMP_CLAIMS = List.of("iat", "exp", "nbf");
+
+  private final JwtDecoder jwtDecoder;
+  private final JwtAuthenticationConverter jwtAuthenticationConverter;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null || accessor.getCommand() == null) {
+      return message;
+    }
+
+    if (accessor.getCommand() == StompCommand.CONNECT) {
+      accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+    } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+      authorizeSubscription(accessor);
+    }
+    return message;
+  }
+
+  private AbstractAuthenticationToken authenticate(String header) {
+    if (header == null || !header.startsWith(BEARER_PREFIX)) {
+      throw new MessageDeliveryException("Missing bearer token in STOMP CONNECT");
+    }
+    String token = header.substring(BEARER_PREFIX.length());
+    try {
+      Jwt jwt = FirebaseTokenFilter.isSignedByApplication(token) ? applicationJwt(token) : jwtDecoder.decode(token);
+      return jwtAuthenticationConverter.convert(jwt);
+    } catch (JwtException | io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+      log.debug("Rejected STOMP CONNECT: {}", e.getMessage());
+      throw new MessageDeliveryException("Invalid bearer token");
+    }
+  }
+
+  private void authorizeSubscription(StompHeaderAccessor accessor) {
+    if (!(accessor.getUser() instanceof JwtAuthenticationToken authentication)) {
+      throw new MessageDeliveryException("Unauthenticated subscription");
+    }
+
+    String destination = accessor.getDestination();
+    Matcher matcher = destination != null && !containsPattern(destination)
+        ? CLINIC_TOPIC_PATTERN.matcher(destination) : null;
+    if (matcher == null || !matcher.matches()) {
+      log.warn("User {} tried to subscribe to unknown destination {}", authentication.getName(), destination);
+      throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+    }
+
+    // Resolved like the HTTP clinic context; headers are not trusted for subscriptions
+    Long clinicId = ClinicContextFilter.clinicIdOf(authentication.getToken());
+    boolean superAdmin = authentication.getAuthorities().stream()
+        .anyMatch(authority -> "ROLE_SUPER_ADMIN".equals(authority.getAuthority()));
+    if (!superAdmin && (clinicId == null || !matcher.group(1).equals(clinicId.toString()))) {
+      log.warn("User {} tried to subscribe to {} outside their clinic", authentication.getName(), destination);
+      throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+    }
+  }
+
+  private static boolean containsPattern(String destination) {
+    return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+  }
+
+  /**
+   * An application-signed token as a {@link Jwt}, so its roles and clinic claim are read the same
+   * way as those of a Firebase token.
+   */
+  private static Jwt applicationJwt(String token) {
+    Claims claims = FirebaseTokenFilter.parseApplicationToken(token);
+    Map<String, Object> values = new HashMap<>(claims);
+    for (String name : TIMESTAMP_CLAIMS) {
+      Object value = values.get(name);
+      if (value instanceof Date date) {
+        values.put(name, date.toInstant());
+      } else if (value instanceof Number seconds) {
+        values.put(name, Instant.ofEpochSecond(seconds.longValue()));
+      }
+    }
+    return Jwt.withTokenValue(token)
+        .header("alg", "HS")
+        .claims(target -> target.putAll(values))
+        .build();
+  }
+}
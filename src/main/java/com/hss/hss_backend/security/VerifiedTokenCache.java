@@ -0,0 +1,193 @@
+package com.hss.hss_backend.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.GetUsersResult;
+import com.google.firebase.auth.UidIdentifier;
+import com.google.firebase.auth.UserIdentifier;
+import com.google.firebase.auth.UserRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of already verified bearer tokens, keyed by the SHA-256 of the token.
+ * <p>
+ * An entry lives until the token's own {@code exp}. Firebase revocation is not checked on the
+ * request path; instead {@link #checkRevocations()} asks Firebase in batches, every
+ * {@code security.token-cache.revocation-check-millis}, whether any cached user was disabled,
+ * deleted or had their tokens revoked, and drops their entries.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    // Firebase getUsers accepts at most 100 identifiers per call
+    private static final int REVOCATION_BATCH_SIZE = 100;
+
+    private final FirebaseAuth firebaseAuth;
+    private final Map<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revoked;
+
+    @Value("${security.token-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    public VerifiedTokenCache(FirebaseAuth firebaseAuth, MeterRegistry meterRegistry) {
+        this.firebaseAuth = firebaseAuth;
+        this.hits = Counter.builder("auth.token.cache")
+                .description("Bearer token lookups in the verified token cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.token.cache")
+                .description("Bearer token lookups in the verified token cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.revoked = Counter.builder("auth.token.cache.revoked")
+                .description("Cached tokens dropped because their user was disabled, deleted or revoked")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", tokens, Map::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached verification result for {@code token}, or {@code null} when it has to be verified.
+     */
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        VerifiedToken verified = tokens.get(key);
+        if (verified != null && verified.expiresAt().isAfter(Instant.now())) {
+            hits.increment();
+            return verified;
+        }
+        if (verified != null) {
+            tokens.remove(key, verified);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!verified.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        if (tokens.size() >= maxEntries) {
+            evictExpired();
+            if (tokens.size() >= maxEntries) {
+                evictSoonestExpiring();
+            }
+        }
+        tokens.put(hash(token), verified);
+    }
+
+    /**
+     * Drops every cached token of a Firebase user, e.g. right after the user is disabled here.
+     */
+    public void evictUser(String uid) {
+        tokens.values().removeIf(verified -> uid.equals(verified.firebaseUid()));
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-cache.revocation-check-millis:60000}")
+    public void checkRevocations() {
+        evictExpired();
+        Map<String, Instant> oldestIssuedAt = tokens.values().stream()
+                .filter(verified -> verified.firebaseUid() != null)
+                .collect(Collectors.toMap(VerifiedToken::firebaseUid, VerifiedToken::issuedAt,
+                        (a, b) -> a.isBefore(b) ? a : b));
+        if (oldestIssuedAt.isEmpty()) {
+            return;
+        }
+
+        List<String> uids = new ArrayList<>(oldestIssuedAt.keySet());
+        for (int from = 0; from < uids.size(); from += REVOCATION_BATCH_SIZE) {
+            List<String> batchUids = uids.subList(from, Math.min(from + REVOCATION_BATCH_SIZE, uids.size()));
+            List<UserIdentifier> batch = batchUids.stream()
+                    .map(uid -> (UserIdentifier) new UidIdentifier(uid))
+                    .toList();
+            try {
+                GetUsersResult result = firebaseAuth.getUsers(batch);
+                Set<String> deleted = new HashSet<>(batchUids);
+                for (UserRecord user : result.getUsers()) {
+                    deleted.remove(user.getUid());
+                    if (user.isDisabled()) {
+                        evictRevoked(user.getUid(), Instant.MAX);
+                    } else if (user.getTokensValidAfterTimestamp() > 0) {
+                        Instant validAfter = Instant.ofEpochMilli(user.getTokensValidAfterTimestamp());
+                        if (oldestIssuedAt.get(user.getUid()).isBefore(validAfter)) {
+                            evictRevoked(user.getUid(), validAfter);
+                        }
+                    }
+                }
+                deleted.forEach(uid -> evictRevoked(uid, Instant.MAX));
+            } catch (FirebaseAuthException e) {
+                // Keep the entries; the next run retries and they still expire at exp
+                log.warn("Could not check token revocation for {} users: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+    private void evictRevoked(String uid, Instant validAfter) {
+        Set<String> keys = tokens.entrySet().stream()
+                .filter(entry -> uid.equals(entry.getValue().firebaseUid())
+                        && entry.getValue().issuedAt().isBefore(validAfter))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        keys.forEach(tokens::remove);
+        if (!keys.isEmpty()) {
+            revoked.increment(keys.size());
+            log.info("Dropped {} cached tokens of user {} after revocation check", keys.size(), uid);
+        }
+    }
+
+    private void evictExpired() {
+        Instant now = Instant.now();
+        tokens.values().removeIf(verified -> !verified.expiresAt().isAfter(now));
+    }
+
+    private void evictSoonestExpiring() {
+        tokens.entrySet().stream()
+                .min(Map.Entry.comparingByValue((a, b) -> a.expiresAt().compareTo(b.expiresAt())))
+                .ifPresent(entry -> tokens.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * What the filter needs to rebuild the authentication without re-verifying the token.
+     * {@code firebaseUid} is null for tokens issued by this application.
+     */
+    public record VerifiedToken(String principal, List<SimpleGrantedAuthority> authorities,
+                                Instant issuedAt, Instant expiresAt, String firebaseUid) {
+    }
+}
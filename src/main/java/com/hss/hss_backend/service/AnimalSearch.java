@@ -0,0 +1,143 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.AnimalResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unified patient search over animal name, owner name, owner phone and microchip number.
+ * <p>
+ * One statement finds, ranks and pages the matches. Every searched expression has a pg_trgm GIN
+ * index (V64), so a term matches anywhere in the text without scanning the table. Terms shorter
+ * than a trigram only match at the start of the text, which the same indexes can still serve.
+ * Results are ordered by exact microchip match, exact animal name, prefix match and then trigram
+ * similarity. Rows are read as plain columns, so the responses carry no {@code conditions}.
+ */
+@Component
+public class AnimalSearch {
+
+  private static final int MIN_CONTAINS_LENGTH = 3;
+
+  private static final String OWNER_NAME = "lower(o.first_name || ' ' || o.last_name)";
+
+  private static final String ANIMAL_MATCH_SQL =
+      "SELECT a.animal_id FROM animal a WHERE (lower(a.name) LIKE ? OR lower(a.microchip_no) LIKE ?)";
+
+  private static final String OWNER_MATCH_SQL =
+      "SELECT a.animal_id FROM owner o JOIN animal a ON a.owner_id = o.owner_id " +
+      "WHERE (" + OWNER_NAME + " LIKE ? OR o.phone LIKE ?)";
+
+  private static final String SELECT_SQL =
+      "SELECT a.animal_id, a.owner_id, o.first_name, o.last_name, a.name, a.species_id, s.name AS species_name, " +
+      "a.breed_id, b.name AS breed_name, a.gender, a.birth_date, a.weight, a.color, a.microchip_no, a.allergies, " +
+      "a.chronic_diseases, a.notes, a.status, a.behavior_notes, a.profile_image_url, a.height, a.sterilized, " +
+      "a.created_at, a.updated_at " +
+      "FROM matches m " +
+      "JOIN animal a ON a.animal_id = m.animal_id " +
+      "JOIN owner o ON o.owner_id = a.owner_id AND o.is_deleted = false " +
+      "JOIN species s ON s.species_id = a.species_id " +
+      "JOIN breed b ON b.breed_id = a.breed_id";
+
+  private static final String ORDER_SQL =
+      " ORDER BY CASE WHEN lower(a.microchip_no) = ? THEN 0" +
+      " WHEN lower(a.name) = ? THEN 1" +
+      " WHEN lower(a.name) LIKE ? OR " + OWNER_NAME + " LIKE ? OR o.phone LIKE ? THEN 2" +
+      " ELSE 3 END," +
+      " GREATEST(similarity(lower(a.name), ?), similarity(" + OWNER_NAME + ", ?)) DESC," +
+      " a.name, a.animal_id" +
+      " LIMIT ? OFFSET ?";
+
+  private static final RowMapper<AnimalResponse> ROW_MAPPER = AnimalSearch::mapRow;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${animal.search.max-page-size:100}")
+  private int maxPageSize = 100;
+
+  public AnimalSearch(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * One page of animals matching {@code query}, best match first. With a {@code clinicId} only
+   * that clinic's animals are searched; without one, all clinics are.
+   */
+  @Transactional(readOnly = true)
+  public List<AnimalResponse> search(Long clinicId, String query, int page, int size) {
+    if (query == null || query.isBlank()) {
+      return List.of();
+    }
+    String term = query.trim().toLowerCase(Locale.ROOT);
+    String prefix = escapeLike(term) + "%";
+    String pattern = term.length() < MIN_CONTAINS_LENGTH ? prefix : "%" + escapeLike(term) + "%";
+    int limit = Math.max(1, Math.min(size, maxPageSize));
+    int offset = Math.max(0, page) * limit;
+
+    List<Object> params = new ArrayList<>();
+    StringBuilder sql = new StringBuilder("WITH matches AS (").append(ANIMAL_MATCH_SQL);
+    params.add(pattern);
+    params.add(pattern);
+    clinicScope(sql, params, clinicId);
+    sql.append(" UNION ").append(OWNER_MATCH_SQL);
+    params.add(pattern);
+    params.add(pattern);
+    clinicScope(sql, params, clinicId);
+    sql.append(") ").append(SELECT_SQL).append(ORDER_SQL);
+    params.addAll(List.of(term, term, prefix, prefix, prefix, term, term, limit, offset));
+
+    return jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+  }
+
+  private static void clinicScope(StringBuilder sql, List<Object> params, Long clinicId) {
+    if (clinicId != null) {
+      sql.append(" AND a.clinic_id = ?");
+      params.add(clinicId);
+    }
+  }
+
+  static String escapeLike(String term) {
+    return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private static AnimalResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+    Timestamp createdAt = rs.getTimestamp("created_at");
+    Timestamp updatedAt = rs.getTimestamp("updated_at");
+    Date birthDate = rs.getDate("birth_date");
+    return AnimalResponse.builder()
+        .animalId(rs.getLong("animal_id"))
+        .ownerId(rs.getLong("owner_id"))
+        .ownerName(rs.getString("first_name") + " " + rs.getString("last_name"))
+        .name(rs.getString("name"))
+        .speciesId(rs.getLong("species_id"))
+        .speciesName(rs.getString("species_name"))
+        .breedId(rs.getLong("breed_id"))
+        .breedName(rs.getString("breed_name"))
+        .gender(rs.getString("gender"))
+        .birthDate(birthDate != null ? birthDate.toLocalDate() : null)
+        .weight(rs.getBigDecimal("weight"))
+        .color(rs.getString("color"))
+        .microchipNo(rs.getString("microchip_no"))
+        .allergies(rs.getString("allergies"))
+        .chronicDiseases(rs.getString("chronic_diseases"))
+        .notes(rs.getString("notes"))
+        .status(rs.getString("status"))
+        .behaviorNotes(rs.getString("behavior_notes"))
+        .profileImageUrl(rs.getString("profile_image_url"))
+        .height(rs.getObject("height", Double.class))
+        .sterilized(rs.getObject("sterilized", Boolean.class))
+        .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+        .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+        .build();
+  }
+}
@@ -26,7 +26,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +38,7 @@ public class AnimalService {
     private final SpeciesRepository speciesRepository;
     private final BreedRepository breedRepository;
     private final VaccinationScheduleService vaccinationScheduleService;
+    private final AnimalSearch animalSearch;
 
     // Helper to validate clinic access
     private void validateClinicAccess(Animal animal) {
@@ -168,42 +168,9 @@ public class AnimalService {
     }
 
     @Transactional(readOnly = true)
-    public List<AnimalResponse> searchAnimals(String query) {
+    public List<AnimalResponse> searchAnimals(String query, int page, int size) {
         log.info("Searching animals with query: {}", query);
-        
-        if (query == null || query.trim().isEmpty()) {
-            return List.of();
-        }
-        
-        String searchTerm = query.trim();
-        
-        // Search by animal name
-        List<Animal> animalsByName = animalRepository.findByNameContainingIgnoreCase(searchTerm);
-        
-        // Search by owner name
-        List<Animal> animalsByOwner = animalRepository.findByOwnerNameContaining(searchTerm);
-        
-        // Search by microchip (exact match or contains)
-        List<Animal> animalsByMicrochip = animalRepository.findByMicrochipNo(searchTerm)
-                .map(List::of)
-                .orElse(List.of());
-        
-        // Combine results and remove duplicates
-        Set<Animal> uniqueAnimals = new java.util.HashSet<>();
-        uniqueAnimals.addAll(animalsByName);
-        uniqueAnimals.addAll(animalsByOwner);
-        uniqueAnimals.addAll(animalsByMicrochip);
-        
-        // Filter by clinic context
-        Long clinicId = ClinicContext.getClinicId();
-        if (clinicId != null) {
-            uniqueAnimals.removeIf(animal -> 
-                animal.getOwner().getClinic() == null || 
-                !clinicId.equals(animal.getOwner().getClinic().getClinicId())
-            );
-        }
-        
-        return AnimalMapper.toResponseList(new java.util.ArrayList<>(uniqueAnimals));
+        return animalSearch.search(ClinicContext.getClinicId(), query, page, size);
     }
 
     @Transactional(readOnly = true)
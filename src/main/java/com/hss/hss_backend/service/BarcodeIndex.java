@@ -0,0 +1,154 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.event.StockLevelChangedEvent;
+import com.hss.hss_backend.repository.StockProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of stock products by barcode, so a scan at the counter does not need a
+ * database round trip.
+ * <p>
+ * The whole catalog is loaded with one query. A product is dropped from the index once a change
+ * to it commits ({@link StockLevelChangedEvent}) and read back from the database on its next
+ * scan; barcodes missing from the index are always looked up there too, so products created on
+ * other instances are found immediately. Stock levels changed on other instances can be stale
+ * until the index is reloaded, every {@code stock.barcode-index.refresh-seconds}; deductions
+ * never rely on them.
+ */
+@Component
+@Slf4j
+public class BarcodeIndex {
+
+  private final StockProductRepository stockProductRepository;
+  private final Timer indexLookups;
+  private final Timer databaseLookups;
+  private final Timer unknownLookups;
+
+  @Value("${stock.barcode-index.refresh-seconds:60}")
+  private long refreshSeconds = 60;
+
+  private volatile Snapshot snapshot;
+  private final AtomicLong generation = new AtomicLong();
+
+  public BarcodeIndex(StockProductRepository stockProductRepository, MeterRegistry meterRegistry) {
+    this.stockProductRepository = stockProductRepository;
+    this.indexLookups = scanTimer(meterRegistry, "index");
+    this.databaseLookups = scanTimer(meterRegistry, "database");
+    this.unknownLookups = scanTimer(meterRegistry, "unknown");
+  }
+
+  public Optional<ProductSnapshot> find(String barcode) {
+    long start = System.nanoTime();
+    Snapshot current = current();
+    ProductSnapshot product = current.byBarcode().get(barcode);
+    if (product != null) {
+      indexLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return Optional.of(product);
+    }
+
+    long loadingGeneration = generation.get();
+    Optional<ProductSnapshot> loaded = stockProductRepository.findByBarcode(barcode).map(ProductSnapshot::of);
+    // A change committed while loading may not be in this result; leave it for the next scan
+    if (loaded.isPresent() && generation.get() == loadingGeneration) {
+      current.byBarcode().put(barcode, loaded.get());
+    }
+    (loaded.isPresent() ? databaseLookups : unknownLookups).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return loaded;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStockLevelChanged(StockLevelChangedEvent event) {
+    evict(event.productId());
+  }
+
+  /**
+   * Drops a product from the index, whichever barcode it was indexed under.
+   */
+  public void evict(Long productId) {
+    generation.incrementAndGet();
+    Snapshot current = snapshot;
+    if (current != null) {
+      // Linear in the catalog size, which is small next to the number of scans
+      current.byBarcode().values().removeIf(product -> product.productId().equals(productId));
+    }
+  }
+
+  int size() {
+    Snapshot current = snapshot;
+    return current != null ? current.byBarcode().size() : 0;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null || current.loadedAt().isBefore(Instant.now().minus(Duration.ofSeconds(refreshSeconds)))) {
+      current = reload();
+    }
+    return current;
+  }
+
+  private synchronized Snapshot reload() {
+    Snapshot current = snapshot;
+    if (current != null && current.loadedAt().isAfter(Instant.now().minus(Duration.ofSeconds(refreshSeconds)))) {
+      return current;
+    }
+    long loadingGeneration = generation.get();
+    List<StockProduct> products = stockProductRepository.findAll();
+    Map<String, ProductSnapshot> byBarcode = new ConcurrentHashMap<>(Math.max(16, products.size() * 2));
+    for (StockProduct product : products) {
+      if (product.getBarcode() != null) {
+        byBarcode.put(product.getBarcode(), ProductSnapshot.of(product));
+      }
+    }
+    Snapshot loaded = new Snapshot(byBarcode, Instant.now());
+    // A product changed while loading may be stale in this result; use it once but reload next time
+    snapshot = generation.get() == loadingGeneration ? loaded : null;
+    log.debug("Barcode index loaded with {} products", byBarcode.size());
+    return loaded;
+  }
+
+  private static Timer scanTimer(MeterRegistry meterRegistry, String source) {
+    return Timer.builder("stock.barcode.scan")
+        .description("Barcode lookups for scans, by where the product was found")
+        .tag("source", source)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
+
+  private record Snapshot(Map<String, ProductSnapshot> byBarcode, Instant loadedAt) {
+  }
+
+  /**
+   * Immutable copy of the product fields a scan reports, safe to share between requests.
+   */
+  public record ProductSnapshot(Long productId, String name, String barcode, String lotNo,
+                                LocalDate productionDate, LocalDate expirationDate,
+                                Integer currentStock, Integer minStock, BigDecimal unitCost,
+                                BigDecimal sellingPrice, StockProduct.Category category,
+                                String supplier, String location, Boolean isActive) {
+
+    static ProductSnapshot of(StockProduct product) {
+      return new ProductSnapshot(product.getProductId(), product.getName(), product.getBarcode(),
+          product.getLotNo(), product.getProductionDate(), product.getExpirationDate(),
+          product.getCurrentStock(), product.getMinStock(), product.getUnitCost(),
+          product.getSellingPrice(), product.getCategory(), product.getSupplier(),
+          product.getLocation(), product.getIsActive());
+    }
+  }
+}
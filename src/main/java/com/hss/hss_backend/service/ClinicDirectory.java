@@ -0,0 +1,132 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of clinic ids by slug, used on the request path to resolve the clinic
+ * context without a database round trip.
+ * <p>
+ * The whole directory is loaded with one query and replaced atomically. {@link ClinicService}
+ * writes drop it after commit; it is also reloaded when older than
+ * {@code clinic.directory.refresh-seconds} so clinics created on other instances show up, and a
+ * lookup miss forces an early reload at most once per {@code clinic.directory.miss-reload-seconds}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClinicDirectory {
+
+  private final ClinicRepository clinicRepository;
+
+  @Value("${clinic.directory.refresh-seconds:300}")
+  private long refreshSeconds = 300;
+
+  @Value("${clinic.directory.miss-reload-seconds:10}")
+  private long missReloadSeconds = 10;
+
+  private volatile Snapshot snapshot;
+  private final AtomicLong generation = new AtomicLong();
+
+  public Optional<Long> findIdBySlug(String slug) {
+    if (slug == null) {
+      return Optional.empty();
+    }
+    Long id = current().idsBySlug().get(slug);
+    if (id == null && reloadAfterMiss()) {
+      id = current().idsBySlug().get(slug);
+    }
+    return Optional.ofNullable(id);
+  }
+
+  /**
+   * The clinic with the lowest id, used where a request arrives without any clinic context.
+   */
+  public Optional<Long> firstClinicId() {
+    return Optional.ofNullable(current().firstClinicId());
+  }
+
+  /**
+   * Ids of all clinics in ascending order, e.g. for jobs that process clinics one at a time.
+   */
+  public List<Long> clinicIds() {
+    return current().clinicIds();
+  }
+
+  /**
+   * Drops the directory once the current transaction commits, or immediately outside one.
+   */
+  public void invalidate() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          drop();
+        }
+      });
+    } else {
+      drop();
+    }
+  }
+
+  private void drop() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null || current.loadedAt().isBefore(Instant.now().minus(Duration.ofSeconds(refreshSeconds)))) {
+      current = reload();
+    }
+    return current;
+  }
+
+  private boolean reloadAfterMiss() {
+    Snapshot current = snapshot;
+    if (current != null && current.loadedAt().isAfter(Instant.now().minus(Duration.ofSeconds(missReloadSeconds)))) {
+      return false;
+    }
+    reload();
+    return true;
+  }
+
+  private synchronized Snapshot reload() {
+    long loadingGeneration = generation.get();
+    List<Clinic> clinics = clinicRepository.findAll();
+    Map<String, Long> idsBySlug = new HashMap<>();
+    List<Long> clinicIds = new ArrayList<>();
+    for (Clinic clinic : clinics) {
+      if (clinic.getSlug() != null) {
+        idsBySlug.put(clinic.getSlug(), clinic.getClinicId());
+      }
+      clinicIds.add(clinic.getClinicId());
+    }
+    Collections.sort(clinicIds);
+    Long firstClinicId = clinicIds.isEmpty() ? null : clinicIds.get(0);
+    Snapshot loaded = new Snapshot(Map.copyOf(idsBySlug), List.copyOf(clinicIds), firstClinicId, Instant.now());
+    // A write committed while loading may not be in this result; keep it but let the next read reload
+    snapshot = generation.get() == loadingGeneration ? loaded : null;
+    log.debug("Clinic directory loaded with {} clinics", clinics.size());
+    return loaded;
+  }
+
+  private record Snapshot(Map<String, Long> idsBySlug, List<Long> clinicIds, Long firstClinicId, Instant loadedAt) {
+  }
+}
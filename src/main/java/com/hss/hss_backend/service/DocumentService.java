@@ -20,7 +20,7 @@ public interface DocumentService {
 
     List<DocumentResponse> getDocumentsByAnimal(Long animalId);
 
-    List<DocumentResponse> searchDocumentsByTitle(String title);
+    Page<DocumentResponse> searchDocuments(String query, Pageable pageable);
 
     DocumentResponse updateDocument(Long id, DocumentUpdateRequest request);
 
@@ -0,0 +1,114 @@
+package com.hss.hss_backend.service;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.Storage;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+
+/**
+ * A Cloud Storage object exposed as a Spring {@link org.springframework.core.io.Resource}.
+ * <p>
+ * Each {@link #getInputStream()} opens a fresh {@link ReadChannel} on the exact object generation
+ * that was looked up, so content is fetched in chunks as it is written to the response. Skipping
+ * on the stream seeks the channel, which is what Spring's range support calls to jump to the start
+ * of a requested byte range.
+ */
+class GcsBlobResource extends AbstractResource {
+
+    private final Storage storage;
+    private final Blob blob;
+
+    GcsBlobResource(Storage storage, Blob blob) {
+        this.storage = storage;
+        this.blob = blob;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ReadChannelInputStream(storage.reader(blob.getBlobId()));
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return blob.getSize() != null ? blob.getSize() : -1;
+    }
+
+    @Override
+    public long lastModified() {
+        OffsetDateTime updated = blob.getUpdateTimeOffsetDateTime();
+        return updated != null ? updated.toInstant().toEpochMilli() : 0;
+    }
+
+    @Override
+    public String getFilename() {
+        String name = blob.getName();
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    public String getContentType() {
+        return blob.getContentType();
+    }
+
+    @Override
+    public String getDescription() {
+        return "GCS object [gs://" + blob.getBucket() + "/" + blob.getName() + "]";
+    }
+
+    static final class ReadChannelInputStream extends InputStream {
+
+        private final ReadChannel channel;
+        private long position;
+
+        ReadChannelInputStream(ReadChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+            int read;
+            do {
+                read = channel.read(target);
+            } while (read == 0);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            if (count <= 0) {
+                return 0;
+            }
+            channel.seek(position + count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            channel.close();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.UserRecord;
 import com.google.firebase.auth.UserRecord.CreateRequest;
 import com.google.firebase.auth.UserRecord.UpdateRequest;
+import com.hss.hss_backend.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import java.util.Map;
 public class IdentityUserService {
 
     private final FirebaseAuth firebaseAuth;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     /**
      * Create a new user in Firebase/Identity Platform
@@ -80,6 +82,7 @@ public class IdentityUserService {
      */
     public void deleteUser(String uid) throws FirebaseAuthException {
         firebaseAuth.deleteUser(uid);
+        verifiedTokenCache.evictUser(uid);
         log.info("Deleted user from Identity Platform: {}", uid);
     }
 
@@ -111,6 +114,7 @@ public class IdentityUserService {
         UpdateRequest request = new UpdateRequest(uid)
                 .setDisabled(true);
         UserRecord userRecord = firebaseAuth.updateUser(request);
+        verifiedTokenCache.evictUser(uid);
         log.info("Disabled user: {}", uid);
         return userRecord;
     }
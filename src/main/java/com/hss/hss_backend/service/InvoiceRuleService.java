@@ -1,21 +1,20 @@
 package com.hss.hss_backend.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hss.hss_backend.dto.request.InvoiceRuleCreateRequest;
 import com.hss.hss_backend.dto.request.InvoiceRuleUpdateRequest;
 import com.hss.hss_backend.dto.response.InvoiceRuleResponse;
 import com.hss.hss_backend.entity.*;
 import com.hss.hss_backend.exception.ResourceNotFoundException;
 import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.service.invoice.CompiledInvoiceRule;
+import com.hss.hss_backend.service.invoice.InvoiceBatchGenerator;
+import com.hss.hss_backend.service.invoice.InvoiceRuleCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,10 +25,9 @@ import java.util.stream.Collectors;
 public class InvoiceRuleService {
 
     private final InvoiceRuleRepository ruleRepository;
-    private final InvoiceRepository invoiceRepository;
-    private final InvoiceItemRepository invoiceItemRepository;
     private final AppointmentRepository appointmentRepository;
-    private final ObjectMapper objectMapper;
+    private final InvoiceBatchGenerator invoiceBatchGenerator;
+    private final InvoiceRuleCache invoiceRuleCache;
 
     public InvoiceRuleResponse createRule(InvoiceRuleCreateRequest request) {
         log.info("Creating invoice rule: {}", request.getRuleName());
@@ -49,6 +47,7 @@ public class InvoiceRuleService {
                 .build();
 
         InvoiceRule savedRule = ruleRepository.save(rule);
+        invoiceRuleCache.get(savedRule);
         log.info("Invoice rule created successfully with ID: {}", savedRule.getRuleId());
         return toResponse(savedRule);
     }
@@ -118,7 +117,9 @@ public class InvoiceRuleService {
             rule.setNotes(request.getNotes());
         }
 
-        InvoiceRule updatedRule = ruleRepository.save(rule);
+        // Flushed so the version is bumped before the rule is recompiled
+        InvoiceRule updatedRule = ruleRepository.saveAndFlush(rule);
+        invoiceRuleCache.get(updatedRule);
         log.info("Invoice rule updated successfully");
         return toResponse(updatedRule);
     }
@@ -128,6 +129,7 @@ public class InvoiceRuleService {
         InvoiceRule rule = ruleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("InvoiceRule", id));
         ruleRepository.delete(rule);
+        invoiceRuleCache.evict(id);
         log.info("Invoice rule deleted successfully");
     }
 
@@ -137,224 +139,58 @@ public class InvoiceRuleService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", appointmentId));
 
-        List<InvoiceRule> rules = ruleRepository.findActiveRulesByTriggerEntity("APPOINTMENT");
-        
-        for (InvoiceRule rule : rules) {
-            if (shouldApplyRule(rule, appointment)) {
-                createInvoiceFromRule(rule, appointment);
-            }
-        }
-    }
-
-    private boolean shouldApplyRule(InvoiceRule rule, Appointment appointment) {
-        // Trigger status kontrolü
-        if (rule.getTriggerStatus() != null && !rule.getTriggerStatus().equals(appointment.getStatus().name())) {
-            return false;
-        }
+        List<CompiledInvoiceRule> rules = compile(ruleRepository.findActiveRulesByTriggerEntity("APPOINTMENT"));
+        InvoiceBatchGenerator.RuleAppointment ruleAppointment = new InvoiceBatchGenerator.RuleAppointment(
+                appointment.getAppointmentId(),
+                appointment.getClinic() != null ? appointment.getClinic().getClinicId() : null,
+                appointment.getAnimal().getOwner().getOwnerId(),
+                appointment.getStatus() != null ? appointment.getStatus().name() : null,
+                appointment.getAppointmentType() != null ? appointment.getAppointmentType().name() : null,
+                appointment.getSubject());
 
-        // Conditions kontrolü (JSON)
-        if (rule.getConditions() != null && !rule.getConditions().isEmpty()) {
-            try {
-                Map<String, Object> conditions = objectMapper.readValue(rule.getConditions(), 
-                    new TypeReference<Map<String, Object>>() {});
-                
-                // Örnek: appointment type kontrolü
-                if (conditions.containsKey("appointmentType")) {
-                    // Appointment entity'de type yoksa bu kontrolü atla
-                }
-            } catch (Exception e) {
-                log.warn("Error parsing rule conditions: {}", e.getMessage());
-            }
-        }
-
-        return true;
-    }
-
-    private void createInvoiceFromRule(InvoiceRule rule, Appointment appointment) {
-        try {
-            Owner owner = appointment.getAnimal().getOwner();
-            
-            // Fatura numarası oluştur
-            String invoiceNumber = generateInvoiceNumber();
-            
-            // Fatura tarihi ve vade tarihi
-            LocalDate invoiceDate = LocalDate.now();
-            LocalDate dueDate = invoiceDate.plusDays(rule.getDueDays());
-            
-            // Invoice oluştur
-            Invoice invoice = Invoice.builder()
-                    .owner(owner)
-                    .invoiceNumber(invoiceNumber)
-                    .date(invoiceDate)
-                    .dueDate(dueDate)
-                    .status(Invoice.Status.PENDING)
-                    .description(rule.getDescription() != null ? rule.getDescription() : 
-                        String.format("Otomatik oluşturulan fatura - Kural: %s", rule.getRuleName()))
-                    .notes(rule.getNotes())
-                    .build();
-
-            Invoice savedInvoice = invoiceRepository.save(invoice);
-
-            // Invoice items oluştur
-            List<InvoiceItem> items = createInvoiceItemsFromTemplate(rule, savedInvoice, appointment);
-            invoiceItemRepository.saveAll(items);
-
-            // Fatura toplamlarını hesapla
-            calculateInvoiceTotals(savedInvoice, items);
-            invoiceRepository.save(savedInvoice);
-
-            log.info("Invoice created from rule {} for appointment {}", rule.getRuleId(), appointment.getAppointmentId());
-        } catch (Exception e) {
-            log.error("Error creating invoice from rule {}: {}", rule.getRuleId(), e.getMessage(), e);
-        }
-    }
-
-    private List<InvoiceItem> createInvoiceItemsFromTemplate(InvoiceRule rule, Invoice invoice, Appointment appointment) {
-        List<InvoiceItem> items = new ArrayList<>();
-
-        if (rule.getInvoiceTemplate() == null || rule.getInvoiceTemplate().isEmpty()) {
-            // Varsayılan item oluştur
-            InvoiceItem defaultItem = InvoiceItem.builder()
-                    .invoice(invoice)
-                    .description(String.format("Randevu - %s", appointment.getSubject()))
-                    .quantity(1)
-                    .unitPrice(BigDecimal.valueOf(100.00))
-                    .vatRate(BigDecimal.valueOf(18.00))
-                    .itemType(InvoiceItem.ItemType.CONSULTATION)
-                    .build();
-            
-            defaultItem.setVatAmount(defaultItem.getUnitPrice()
-                    .multiply(defaultItem.getVatRate())
-                    .divide(BigDecimal.valueOf(100)));
-            defaultItem.setLineTotal(defaultItem.getUnitPrice().add(defaultItem.getVatAmount()));
-            
-            items.add(defaultItem);
-            return items;
-        }
-
-        try {
-            List<Map<String, Object>> templateItems = objectMapper.readValue(rule.getInvoiceTemplate(),
-                    new TypeReference<List<Map<String, Object>>>() {});
-
-            for (Map<String, Object> templateItem : templateItems) {
-                InvoiceItem item = InvoiceItem.builder()
-                        .invoice(invoice)
-                        .description((String) templateItem.getOrDefault("description", "Hizmet"))
-                        .quantity(((Number) templateItem.getOrDefault("quantity", 1)).intValue())
-                        .unitPrice(BigDecimal.valueOf(((Number) templateItem.getOrDefault("unitPrice", 0)).doubleValue()))
-                        .vatRate(BigDecimal.valueOf(((Number) templateItem.getOrDefault("vatRate", 18)).doubleValue()))
-                        .itemType(InvoiceItem.ItemType.valueOf(
-                                (String) templateItem.getOrDefault("itemType", "SERVICE")))
-                        .build();
-
-                item.setVatAmount(item.getUnitPrice()
-                        .multiply(item.getVatRate())
-                        .divide(BigDecimal.valueOf(100)));
-                item.setLineTotal(item.getUnitPrice()
-                        .multiply(BigDecimal.valueOf(item.getQuantity()))
-                        .add(item.getVatAmount()));
-
-                items.add(item);
-            }
-        } catch (Exception e) {
-            log.error("Error parsing invoice template: {}", e.getMessage());
-            // Varsayılan item oluştur
-            InvoiceItem defaultItem = InvoiceItem.builder()
-                    .invoice(invoice)
-                    .description("Hizmet")
-                    .quantity(1)
-                    .unitPrice(BigDecimal.valueOf(100.00))
-                    .vatRate(BigDecimal.valueOf(18.00))
-                    .itemType(InvoiceItem.ItemType.SERVICE)
-                    .build();
-            
-            defaultItem.setVatAmount(defaultItem.getUnitPrice()
-                    .multiply(defaultItem.getVatRate())
-                    .divide(BigDecimal.valueOf(100)));
-            defaultItem.setLineTotal(defaultItem.getUnitPrice().add(defaultItem.getVatAmount()));
-            
-            items.add(defaultItem);
-        }
-
-        return items;
-    }
-
-    private void calculateInvoiceTotals(Invoice invoice, List<InvoiceItem> items) {
-        BigDecimal amount = items.stream()
-                .map(InvoiceItem::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal taxAmount = items.stream()
-                .map(InvoiceItem::getVatAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        invoice.setAmount(amount.subtract(taxAmount));
-        invoice.setTaxAmount(taxAmount);
-        invoice.setTotalAmount(amount);
-    }
-
-    private String generateInvoiceNumber() {
-        String prefix = "INV";
-        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomStr = String.format("%04d", new Random().nextInt(10000));
-        return String.format("%s-%s-%s", prefix, dateStr, randomStr);
+        int created = invoiceBatchGenerator.generate(rules, List.of(ruleAppointment));
+        log.info("{} invoices created from rules for appointment {}", created, appointmentId);
     }
 
+    /**
+     * Runs every active rule over the completed appointments of yesterday and today in one pass.
+     * Appointments that already have an invoice from a rule are not invoiced again by it.
+     */
     public void processAllRules() {
         log.info("Processing all active invoice rules");
         List<InvoiceRule> activeRules = ruleRepository.findActiveRules();
-        
+
+        List<InvoiceRule> appointmentRules = new ArrayList<>();
         for (InvoiceRule rule : activeRules) {
-            try {
-                processRule(rule);
-            } catch (Exception e) {
-                log.error("Error processing rule {}: {}", rule.getRuleId(), e.getMessage(), e);
+            if (rule.getRuleType() == InvoiceRule.RuleType.APPOINTMENT_AFTER) {
+                appointmentRules.add(rule);
+            } else if (rule.getRuleType() == InvoiceRule.RuleType.MONTHLY_SUBSCRIPTION) {
+                // Aylık abonelik kuralları için implementasyon
+                log.info("Processing monthly subscription rules - not yet implemented");
+            } else {
+                // Diğer rule tipleri için implementasyonlar eklenebilir
+                log.warn("Rule type {} not yet implemented", rule.getRuleType());
             }
         }
-    }
-
-    private void processRule(InvoiceRule rule) {
-        switch (rule.getRuleType()) {
-            case APPOINTMENT_AFTER:
-                processAppointmentRules(rule);
-                break;
-            case MONTHLY_SUBSCRIPTION:
-                processMonthlySubscriptionRules(rule);
-                break;
-            // Diğer rule tipleri için implementasyonlar eklenebilir
-            default:
-                log.warn("Rule type {} not yet implemented", rule.getRuleType());
+        if (appointmentRules.isEmpty()) {
+            return;
         }
-    }
 
-    private void processAppointmentRules(InvoiceRule rule) {
         // Son 24 saat içinde tamamlanan randevuları bul
         LocalDate yesterday = LocalDate.now().minusDays(1);
-        List<Appointment> completedAppointments = appointmentRepository
-                .findByStatusAndDateTimeBetween(
-                    Appointment.Status.COMPLETED,
-                    yesterday.atStartOfDay(),
-                    LocalDate.now().atTime(23, 59, 59));
+        List<InvoiceBatchGenerator.RuleAppointment> completedAppointments = invoiceBatchGenerator
+                .findCompletedAppointments(yesterday.atStartOfDay(), LocalDate.now().atTime(23, 59, 59));
 
-        for (Appointment appointment : completedAppointments) {
-            // Bu randevu için zaten fatura oluşturulmuş mu kontrol et
-            if (!hasInvoiceForAppointment(appointment)) {
-                if (shouldApplyRule(rule, appointment)) {
-                    createInvoiceFromRule(rule, appointment);
-                }
-            }
-        }
+        int created = invoiceBatchGenerator.generate(compile(appointmentRules), completedAppointments);
+        log.info("{} invoices created by {} rules for {} completed appointments",
+                created, appointmentRules.size(), completedAppointments.size());
     }
 
-    private void processMonthlySubscriptionRules(InvoiceRule rule) {
-        // Aylık abonelik kuralları için implementasyon
-        log.info("Processing monthly subscription rules - not yet implemented");
-    }
-
-    private boolean hasInvoiceForAppointment(Appointment appointment) {
-        // Invoice'da appointment referansı yok, description veya notes'da kontrol edilebilir
-        // Şimdilik false döndürüyoruz
-        return false;
+    private List<CompiledInvoiceRule> compile(List<InvoiceRule> rules) {
+        return rules.stream()
+                .sorted(Comparator.comparing(InvoiceRule::getPriority, Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(invoiceRuleCache::get)
+                .toList();
     }
 
     private InvoiceRuleResponse toResponse(InvoiceRule rule) {
@@ -0,0 +1,178 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.PatientChartEntryResponse;
+import com.hss.hss_backend.dto.response.PatientChartEntryResponse.Source;
+import com.hss.hss_backend.dto.response.PatientChartPageResponse;
+import com.hss.hss_backend.exception.InvalidCursorException;
+import com.hss.hss_backend.exception.ResourceNotFoundException;
+import com.hss.hss_backend.security.ClinicContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads a patient's chart as one timeline, newest first: medical history, clinical examinations,
+ * prescriptions, radiology and pathology.
+ * <p>
+ * A page is a single UNION ALL query. Each branch reads at most one page from its own
+ * {@code (animal_id, date, id)} index (V65) and the merged rows are cut to the page, so memory
+ * and query cost depend on the page size, not on how long the chart is. The timeline is ordered
+ * by {@code (date, source, id)}, and the cursor is that key of the last row of a page.
+ */
+@Component
+public class PatientChartReader {
+
+  private static final String NONE = "NULL::text";
+
+  private static final List<Branch> BRANCHES = List.of(
+      new Branch(Source.HISTORY, "medical_history", "history_id",
+          "diagnosis", "treatment", NONE, NONE, NONE),
+      new Branch(Source.EXAMINATION, "clinical_examination", "examination_id",
+          "findings", NONE, "veterinarian_name", NONE, NONE),
+      new Branch(Source.PRESCRIPTION, "prescription", "prescription_id",
+          "medicines", "concat_ws(' - ', dosage, instructions)", NONE, "status", NONE),
+      new Branch(Source.RADIOLOGY, "radiological_imaging", "image_id",
+          "type", "comment", NONE, NONE, "image_url"),
+      new Branch(Source.PATHOLOGY, "pathology_findings", "pathology_id",
+          "COALESCE(findings_summary, report)", "recommendations", "pathologist_name", NONE, NONE));
+
+  private static final String ORDER_SQL = " ORDER BY date DESC, source DESC, id DESC LIMIT ?";
+
+  private static final RowMapper<PatientChartEntryResponse> ROW_MAPPER = PatientChartReader::mapRow;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${animal.chart.max-page-size:100}")
+  private int maxPageSize = 100;
+
+  public PatientChartReader(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Transactional(readOnly = true)
+  public PatientChartPageResponse page(Long animalId, String cursor, int limit) {
+    checkAccess(animalId);
+    int size = Math.max(1, Math.min(limit, maxPageSize));
+    Key key = cursor != null && !cursor.isBlank() ? Key.decode(cursor) : null;
+
+    List<Object> params = new ArrayList<>();
+    StringBuilder sql = new StringBuilder("SELECT * FROM (");
+    for (int i = 0; i < BRANCHES.size(); i++) {
+      if (i > 0) {
+        sql.append(" UNION ALL ");
+      }
+      BRANCHES.get(i).appendTo(sql, params, animalId, key, size + 1);
+    }
+    sql.append(") chart").append(ORDER_SQL);
+    // One extra row tells whether there is a next page
+    params.add(size + 1);
+
+    List<PatientChartEntryResponse> rows = jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+    String nextCursor = null;
+    if (rows.size() > size) {
+      rows = rows.subList(0, size);
+      PatientChartEntryResponse last = rows.get(size - 1);
+      nextCursor = new Key(last.getDate(), last.getSource(), last.getId()).encode();
+    }
+    return PatientChartPageResponse.builder()
+        .items(List.copyOf(rows))
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  /**
+   * Fails unless the animal exists and, within a clinic context, belongs to that clinic.
+   */
+  @Transactional(readOnly = true)
+  public void checkAccess(Long animalId) {
+    List<Long> clinicIds = jdbcTemplate.queryForList(
+        "SELECT clinic_id FROM animal WHERE animal_id = ?", Long.class, animalId);
+    if (clinicIds.isEmpty()) {
+      throw new ResourceNotFoundException("Animal", animalId);
+    }
+    Long currentClinicId = ClinicContext.getClinicId();
+    if (currentClinicId != null && !currentClinicId.equals(clinicIds.get(0))) {
+      throw new AccessDeniedException("You do not have permission to access this animal.");
+    }
+  }
+
+  private static PatientChartEntryResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+    Date date = rs.getDate("date");
+    return PatientChartEntryResponse.builder()
+        .source(Source.values()[rs.getInt("source")])
+        .id(rs.getLong("id"))
+        .date(date != null ? date.toLocalDate() : null)
+        .summary(rs.getString("summary"))
+        .details(rs.getString("details"))
+        .performedBy(rs.getString("performed_by"))
+        .status(rs.getString("status"))
+        .url(rs.getString("url"))
+        .build();
+  }
+
+  /**
+   * One source table and the expressions it contributes to each timeline column.
+   */
+  private record Branch(Source source, String table, String idColumn, String summary, String details,
+                        String performedBy, String status, String url) {
+
+    void appendTo(StringBuilder sql, List<Object> params, Long animalId, Key key, int limit) {
+      sql.append("(SELECT ").append(source.ordinal()).append(" AS source, ")
+          .append(idColumn).append("::bigint AS id, date, ")
+          .append(summary).append(" AS summary, ")
+          .append(details).append(" AS details, ")
+          .append(performedBy).append(" AS performed_by, ")
+          .append(status).append(" AS status, ")
+          .append(url).append(" AS url")
+          .append(" FROM ").append(table).append(" WHERE animal_id = ?");
+      params.add(animalId);
+      if (key != null) {
+        // Rows after the cursor in (date, source, id) order; source is constant within a branch
+        int order = Integer.compare(source.ordinal(), key.source().ordinal());
+        if (order < 0) {
+          sql.append(" AND date <= ?");
+          params.add(Date.valueOf(key.date()));
+        } else if (order == 0) {
+          sql.append(" AND (date, ").append(idColumn).append(") < (?, ?)");
+          params.add(Date.valueOf(key.date()));
+          params.add(key.id());
+        } else {
+          sql.append(" AND date < ?");
+          params.add(Date.valueOf(key.date()));
+        }
+      }
+      sql.append(" ORDER BY date DESC, ").append(idColumn).append(" DESC LIMIT ?)");
+      params.add(limit);
+    }
+  }
+
+  record Key(LocalDate date, Source source, long id) {
+
+    String encode() {
+      String raw = date + "|" + source + "|" + id;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Key decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|");
+        return new Key(LocalDate.parse(parts[0]), Source.valueOf(parts[1]), Long.parseLong(parts[2]));
+      } catch (RuntimeException e) {
+        throw new InvalidCursorException("Invalid chart cursor: " + cursor);
+      }
+    }
+  }
+}
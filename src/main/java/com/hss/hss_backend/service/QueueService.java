@@ -2,10 +2,15 @@ package com.hss.hss_backend.service;
 
 import com.hss.hss_backend.dto.request.QueueCheckInRequest;
 import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage;
 import com.hss.hss_backend.entity.*;
 import com.hss.hss_backend.exception.ResourceNotFoundException;
 import com.hss.hss_backend.repository.*;
 import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.queue.LiveQueueStore;
+import com.hss.hss_backend.service.queue.QueueNumberAllocator;
+import com.hss.hss_backend.service.queue.QueueUpdatePublisher;
+import com.hss.hss_backend.service.queue.ServiceTimeEstimator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,9 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,8 +29,12 @@ public class QueueService {
   private final QueueEntryRepository queueEntryRepository;
   private final AppointmentRepository appointmentRepository;
   private final AnimalRepository animalRepository;
-  private final ClinicRepository clinicRepository;
+  private final ClinicDirectory clinicDirectory;
   private final AppointmentService appointmentService;
+  private final LiveQueueStore liveQueueStore;
+  private final QueueNumberAllocator queueNumberAllocator;
+  private final QueueUpdatePublisher queueUpdatePublisher;
+  private final ServiceTimeEstimator serviceTimeEstimator;
 
   /**
    * Check in a patient with an existing appointment
@@ -107,10 +114,10 @@ public class QueueService {
     LocalDate today = LocalDate.now();
 
     // Get next queue number
-    Integer queueNumber = queueEntryRepository.findNextQueueNumber(clinicId, today);
+    Integer queueNumber = queueNumberAllocator.next(clinicId, today);
 
     // Calculate estimated start time
-    LocalDateTime estimatedStartTime = calculateEstimatedStartTime(clinicId, today);
+    LocalDateTime estimatedStartTime = liveQueueStore.estimateStartTimeForNewEntry(clinicId, today);
 
     // Create queue entry
     QueueEntry queueEntry = QueueEntry.builder()
@@ -123,7 +130,7 @@ public class QueueService {
         .priority(priority)
         .checkInTime(LocalDateTime.now())
         .estimatedStartTime(estimatedStartTime)
-        .estimatedDurationMinutes(30) // Default 30 minutes
+        .estimatedDurationMinutes(liveQueueStore.estimateDurationMinutes(clinicId, appointment.getAppointmentType()))
         .notes(notes)
         .build();
 
@@ -139,7 +146,9 @@ public class QueueService {
 
     log.info("Created queue entry with number {} for appointment {}", queueNumber, appointment.getAppointmentId());
 
-    return mapToResponse(queueEntry);
+    QueueEntryResponse response = liveQueueStore.apply(queueEntry);
+    queueUpdatePublisher.publish(QueueUpdateMessage.ChangeType.CHECK_IN, response);
+    return response;
   }
 
   /**
@@ -151,21 +160,12 @@ public class QueueService {
     
     if (clinicId == null) {
       // Fallback: use the first available clinic
-      clinicId = clinicRepository.findAll().stream()
-          .findFirst()
-          .map(Clinic::getClinicId)
+      clinicId = clinicDirectory.firstClinicId()
           .orElseThrow(() -> new IllegalStateException("No clinic found in the system"));
       log.warn("Clinic context not set, using first available clinic: {}", clinicId);
     }
 
-    LocalDate today = LocalDate.now();
-
-    List<QueueEntry> queueEntries = queueEntryRepository
-        .findByClinicClinicIdAndQueueDateOrderByQueueNumberAsc(clinicId, today);
-
-    return queueEntries.stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+    return liveQueueStore.getDayQueue(clinicId, LocalDate.now());
   }
 
   /**
@@ -177,26 +177,12 @@ public class QueueService {
     
     if (clinicId == null) {
       // Fallback: use the first available clinic
-      clinicId = clinicRepository.findAll().stream()
-          .findFirst()
-          .map(Clinic::getClinicId)
+      clinicId = clinicDirectory.firstClinicId()
           .orElseThrow(() -> new IllegalStateException("No clinic found in the system"));
       log.warn("Clinic context not set, using first available clinic: {}", clinicId);
     }
 
-    LocalDate today = LocalDate.now();
-
-    List<QueueEntry.QueueStatus> activeStatuses = Arrays.asList(
-        QueueEntry.QueueStatus.WAITING,
-        QueueEntry.QueueStatus.IN_PROGRESS);
-
-    List<QueueEntry> queueEntries = queueEntryRepository
-        .findByClinicClinicIdAndQueueDateAndStatusInOrderByPriorityDescQueueNumberAsc(
-            clinicId, today, activeStatuses);
-
-    return queueEntries.stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+    return liveQueueStore.getActiveQueue(clinicId, LocalDate.now());
   }
 
   /**
@@ -227,6 +213,11 @@ public class QueueService {
         if (queueEntry.getAppointment() != null) {
           queueEntry.getAppointment().setStatus(Appointment.Status.COMPLETED);
         }
+        if (oldStatus != QueueEntry.QueueStatus.COMPLETED) {
+          serviceTimeEstimator.recordCompletion(queueEntry.getClinic().getClinicId(),
+              queueEntry.getAppointment() != null ? queueEntry.getAppointment().getAppointmentType() : null,
+              queueEntry.getAssignedVeterinarianId(), queueEntry.getStartedTime(), queueEntry.getCompletedTime());
+        }
         break;
       case CANCELLED:
         if (queueEntry.getAppointment() != null) {
@@ -244,7 +235,9 @@ public class QueueService {
 
     log.info("Queue entry {} status changed from {} to {}", queueEntryId, oldStatus, newStatus);
 
-    return mapToResponse(queueEntry);
+    QueueEntryResponse response = liveQueueStore.apply(queueEntry);
+    queueUpdatePublisher.publish(QueueUpdateMessage.ChangeType.STATUS_CHANGE, response);
+    return response;
   }
 
   /**
@@ -262,7 +255,9 @@ public class QueueService {
     log.info("Assigned veterinarian {} and room {} to queue entry {}",
         veterinarianId, room, queueEntryId);
 
-    return mapToResponse(queueEntry);
+    QueueEntryResponse response = liveQueueStore.apply(queueEntry);
+    queueUpdatePublisher.publish(QueueUpdateMessage.ChangeType.VET_ASSIGNMENT, response);
+    return response;
   }
 
   /**
@@ -274,111 +269,20 @@ public class QueueService {
     
     if (clinicId == null) {
       // Fallback: use the first available clinic
-      clinicId = clinicRepository.findAll().stream()
-          .findFirst()
-          .map(Clinic::getClinicId)
+      clinicId = clinicDirectory.firstClinicId()
           .orElseThrow(() -> new IllegalStateException("No clinic found in the system"));
       log.warn("Clinic context not set, using first available clinic: {}", clinicId);
     }
 
-    LocalDate today = LocalDate.now();
-
-    // First, look for waiting patients assigned to this veterinarian
-    List<QueueEntry> assignedWaiting = queueEntryRepository
-        .findByAssignedVeterinarianIdAndQueueDateAndStatusOrderByQueueNumberAsc(
-            veterinarianId, today, QueueEntry.QueueStatus.WAITING);
-
-    if (!assignedWaiting.isEmpty()) {
-      return mapToResponse(assignedWaiting.get(0));
-    }
-
-    // Otherwise, get the next waiting patient (not assigned)
-    List<QueueEntry.QueueStatus> waitingStatus = Arrays.asList(QueueEntry.QueueStatus.WAITING);
-    List<QueueEntry> allWaiting = queueEntryRepository
-        .findByClinicClinicIdAndQueueDateAndStatusInOrderByPriorityDescQueueNumberAsc(
-            clinicId, today, waitingStatus);
-
-    if (!allWaiting.isEmpty()) {
-      return mapToResponse(allWaiting.get(0));
-    }
-
-    return null; // No patients waiting
+    return liveQueueStore.findNextPatient(clinicId, LocalDate.now(), veterinarianId)
+        .orElse(null); // No patients waiting
   }
 
   /**
    * Get estimated wait time for a queue entry
    */
   public Integer getEstimatedWaitMinutes(Long queueEntryId) {
-    QueueEntry queueEntry = queueEntryRepository.findById(queueEntryId)
-        .orElseThrow(() -> new ResourceNotFoundException("QueueEntry", queueEntryId));
-
-    if (queueEntry.getStatus() == QueueEntry.QueueStatus.IN_PROGRESS ||
-        queueEntry.getStatus() == QueueEntry.QueueStatus.COMPLETED) {
-      return 0;
-    }
-
-    // Count patients ahead in queue
-    Long clinicId = queueEntry.getClinic().getClinicId();
-    LocalDate queueDate = queueEntry.getQueueDate();
-
-    List<QueueEntry.QueueStatus> activeStatuses = Arrays.asList(
-        QueueEntry.QueueStatus.WAITING,
-        QueueEntry.QueueStatus.IN_PROGRESS);
-
-    List<QueueEntry> activeQueue = queueEntryRepository
-        .findByClinicClinicIdAndQueueDateAndStatusInOrderByPriorityDescQueueNumberAsc(
-            clinicId, queueDate, activeStatuses);
-
-    int patientsAhead = 0;
-    for (QueueEntry entry : activeQueue) {
-      if (entry.getQueueEntryId().equals(queueEntryId)) {
-        break;
-      }
-      patientsAhead++;
-    }
-
-    // Estimate: average 30 minutes per patient
-    return patientsAhead * 30;
-  }
-
-  /**
-   * Calculate estimated start time based on current queue
-   */
-  private LocalDateTime calculateEstimatedStartTime(Long clinicId, LocalDate queueDate) {
-    List<QueueEntry.QueueStatus> activeStatuses = Arrays.asList(
-        QueueEntry.QueueStatus.WAITING,
-        QueueEntry.QueueStatus.IN_PROGRESS);
-
-    Long activeCount = queueEntryRepository.countByClinicAndDateAndStatus(clinicId, queueDate, activeStatuses);
-
-    // Estimate: 30 minutes per patient currently in queue
-    return LocalDateTime.now().plusMinutes(activeCount * 30);
-  }
-
-  /**
-   * Map entity to response DTO
-   */
-  private QueueEntryResponse mapToResponse(QueueEntry queueEntry) {
-    Integer estimatedWait = getEstimatedWaitMinutes(queueEntry.getQueueEntryId());
-
-    return QueueEntryResponse.builder()
-        .queueEntryId(queueEntry.getQueueEntryId())
-        .clinicId(queueEntry.getClinic().getClinicId())
-        .appointmentId(queueEntry.getAppointment() != null ? queueEntry.getAppointment().getAppointmentId() : null)
-        .animalId(queueEntry.getAnimal().getAnimalId())
-        .animalName(queueEntry.getAnimal().getName())
-        .ownerName(queueEntry.getAnimal().getOwner() != null ? queueEntry.getAnimal().getOwner().getFirstName() + " " +
-            queueEntry.getAnimal().getOwner().getLastName() : "Unknown")
-        .queueNumber(queueEntry.getQueueNumber())
-        .status(queueEntry.getStatus().name())
-        .priority(queueEntry.getPriority().name())
-        .checkInTime(queueEntry.getCheckInTime())
-        .estimatedStartTime(queueEntry.getEstimatedStartTime())
-        .estimatedWaitMinutes(estimatedWait)
-        .assignedVeterinarianId(queueEntry.getAssignedVeterinarianId())
-        .assignedRoom(queueEntry.getAssignedRoom())
-        .notes(queueEntry.getNotes())
-        .build();
+    return liveQueueStore.getEstimatedWaitMinutes(queueEntryId);
   }
 
   // Helper methods
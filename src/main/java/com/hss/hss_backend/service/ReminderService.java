@@ -7,10 +7,13 @@ import com.hss.hss_backend.entity.Reminder;
 import com.hss.hss_backend.exception.ResourceNotFoundException;
 import com.hss.hss_backend.repository.AppointmentRepository;
 import com.hss.hss_backend.repository.ReminderRepository;
+import com.hss.hss_backend.service.reminder.ReminderDispatcher;
+import com.hss.hss_backend.service.reminder.ReminderRetryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -27,13 +30,12 @@ public class ReminderService {
     private final ReminderRepository reminderRepository;
     private final AppointmentRepository appointmentRepository;
     private final NotificationService notificationService;
+    private final ReminderDispatcher reminderDispatcher;
+    private final ReminderRetryPolicy reminderRetryPolicy;
 
     @Value("${reminder.default.hours.before:24}")
     private int defaultHoursBefore;
 
-    @Value("${reminder.retry.max:3}")
-    private int maxRetries;
-
     public ReminderResponse createReminder(ReminderCreateRequest request) {
         log.info("Creating reminder for appointment ID: {}", request.getAppointmentId());
 
@@ -181,46 +183,72 @@ public class ReminderService {
             reminderRepository.save(reminder);
             log.info("Reminder {} sent successfully", reminderId);
         } else {
-            reminder.setStatus(Reminder.Status.FAILED);
+            int failedAttempts = reminder.getRetryCount() + 1;
+            reminder.setRetryCount(failedAttempts);
             reminder.setErrorMessage("Failed to send notification");
-            reminder.setRetryCount(reminder.getRetryCount() + 1);
+            if (reminderRetryPolicy.isExhausted(failedAttempts)) {
+                reminder.setStatus(Reminder.Status.DEAD_LETTER);
+                reminder.setNextAttemptAt(null);
+            } else {
+                reminder.setStatus(Reminder.Status.FAILED);
+                reminder.setNextAttemptAt(reminderRetryPolicy.nextAttemptAt(failedAttempts, LocalDateTime.now()));
+            }
             reminderRepository.save(reminder);
             log.error("Failed to send reminder {}", reminderId);
         }
     }
 
+    /**
+     * Runs outside a transaction: the dispatcher claims and updates reminders in short statements
+     * of its own and must not hold row locks while notifications are being sent.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processPendingReminders() {
         log.info("Processing pending reminders");
-        LocalDateTime now = LocalDateTime.now();
-        List<Reminder> pendingReminders = reminderRepository.findPendingRemindersToSend(now);
-
-        log.info("Found {} pending reminders to send", pendingReminders.size());
-
-        for (Reminder reminder : pendingReminders) {
-            try {
-                sendReminder(reminder.getReminderId());
-            } catch (Exception e) {
-                log.error("Error processing reminder {}", reminder.getReminderId(), e);
-                reminder.setStatus(Reminder.Status.FAILED);
-                reminder.setErrorMessage(e.getMessage());
-                reminder.setRetryCount(reminder.getRetryCount() + 1);
-                reminderRepository.save(reminder);
-            }
-        }
+        int dispatched = reminderDispatcher.dispatchDue();
+        log.info("Processed {} pending reminders", dispatched);
     }
 
+    /**
+     * Resends failed reminders whose backoff has elapsed; see {@link #processPendingReminders()}
+     * for why this runs outside a transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void retryFailedReminders() {
         log.info("Retrying failed reminders");
-        List<Reminder> failedReminders = reminderRepository.findFailedRemindersForRetry(maxRetries);
+        int retried = reminderDispatcher.dispatchDueRetries();
+        log.info("Retried {} failed reminders", retried);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReminderResponse> getDeadLetterReminders() {
+        log.info("Fetching dead-lettered reminders");
+        List<Reminder> reminders = reminderRepository.findByStatus(Reminder.Status.DEAD_LETTER);
+        return reminders.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
 
-        log.info("Found {} failed reminders to retry", failedReminders.size());
+    /**
+     * Puts a dead-lettered reminder back in the queue with a fresh set of attempts, e.g. after the
+     * recipient's contact details were fixed.
+     */
+    public void requeueReminder(Long reminderId) {
+        log.info("Requeueing reminder ID: {}", reminderId);
+        Reminder reminder = reminderRepository.findById(reminderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reminder", reminderId));
 
-        for (Reminder reminder : failedReminders) {
-            reminder.setStatus(Reminder.Status.PENDING);
-            reminder.setErrorMessage(null);
-            reminderRepository.save(reminder);
-            sendReminder(reminder.getReminderId());
+        if (reminder.getStatus() != Reminder.Status.DEAD_LETTER) {
+            log.warn("Cannot requeue reminder {} with status {}", reminderId, reminder.getStatus());
+            return;
         }
+
+        reminder.setStatus(Reminder.Status.PENDING);
+        reminder.setRetryCount(0);
+        reminder.setNextAttemptAt(null);
+        reminder.setSendTime(LocalDateTime.now());
+        reminderRepository.save(reminder);
+        log.info("Reminder {} requeued", reminderId);
     }
 
     public void cancelReminder(Long reminderId) {
@@ -250,6 +278,7 @@ public class ReminderService {
                 .sentAt(reminder.getSentAt())
                 .errorMessage(reminder.getErrorMessage())
                 .retryCount(reminder.getRetryCount())
+                .nextAttemptAt(reminder.getNextAttemptAt())
                 .createdAt(reminder.getCreatedAt())
                 .updatedAt(reminder.getUpdatedAt())
                 .build();
@@ -6,6 +6,8 @@ import com.hss.hss_backend.dto.response.MedicalStatisticsResponse;
 import com.hss.hss_backend.entity.Appointment;
 import com.hss.hss_backend.entity.Invoice;
 import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.statistics.DashboardStatisticsStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,133 +33,58 @@ public class StatisticsService {
     private final InvoiceRepository invoiceRepository;
     private final StockProductRepository stockProductRepository;
     private final VaccinationScheduleRepository vaccinationScheduleRepository;
+    private final DashboardStatisticsStore dashboardStatisticsStore;
 
     @Transactional(readOnly = true)
     public DashboardStatisticsResponse getDashboardStatistics() {
-        log.info("Calculating dashboard statistics");
-
-        // Hayvan ve sahip sayıları
-        Long totalAnimals = animalRepository.count();
-        Long totalOwners = ownerRepository.getTotalOwnerCount();
-
-        // Randevu istatistikleri
-        Long totalAppointments = (long) appointmentRepository.findAll().size();
-        Long pendingAppointments = appointmentRepository.countByStatus(Appointment.Status.SCHEDULED) +
-            appointmentRepository.countByStatus(Appointment.Status.CONFIRMED);
-        Long completedAppointments = appointmentRepository.countByStatus(Appointment.Status.COMPLETED);
-
-        // Fatura istatistikleri
-        BigDecimal totalRevenue = invoiceRepository.getTotalAmountByStatus(Invoice.Status.PAID);
-        LocalDate today = LocalDate.now();
-        LocalDate monthStart = today.withDayOfMonth(1);
-        BigDecimal monthlyRevenue = invoiceRepository.getTotalAmountInDateRange(monthStart, today);
-        Long totalInvoices = (long) invoiceRepository.findAll().size();
-        Long pendingInvoices = invoiceRepository.countByStatus(Invoice.Status.PENDING);
-        Long overdueInvoices = (long) invoiceRepository.findOverduePendingInvoices().size();
-
-        // Stok istatistikleri
-        var lowStockProducts = stockProductRepository.findLowStockProducts();
-        var outOfStockProducts = stockProductRepository.findOutOfStockProducts();
-
-        // Aşı istatistikleri
-        var upcomingSchedules = vaccinationScheduleRepository.findSchedulesBetween(
-            LocalDate.now(), LocalDate.now().plusDays(30));
-        var overdueSchedules = vaccinationScheduleRepository.findOverduePendingSchedules();
-
-        // Randevu durum dağılımı
-        Map<String, Long> appointmentsByStatus = new HashMap<>();
-        for (Appointment.Status status : Appointment.Status.values()) {
-            appointmentsByStatus.put(status.name(), appointmentRepository.countByStatus(status));
-        }
-
-        // Hayvan tür dağılımı
-        var speciesCount = animalRepository.getAnimalCountBySpecies();
-        Map<String, Long> animalsBySpecies = speciesCount.stream()
-            .collect(Collectors.toMap(
-                arr -> arr[0].toString(),
-                arr -> ((Number) arr[1]).longValue()
-            ));
-
-        // Aylık gelir (son 6 ay)
-        Map<String, BigDecimal> revenueByMonth = new LinkedHashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            LocalDate monthDate = today.minusMonths(i);
-            LocalDate monthStartDate = monthDate.withDayOfMonth(1);
-            LocalDate monthEndDate = monthDate.withDayOfMonth(monthDate.lengthOfMonth());
-            BigDecimal monthRevenue = invoiceRepository.getTotalAmountInDateRange(monthStartDate, monthEndDate);
-            revenueByMonth.put(monthDate.getYear() + "-" + String.format("%02d", monthDate.getMonthValue()), 
-                monthRevenue != null ? monthRevenue : BigDecimal.ZERO);
-        }
-
-        return DashboardStatisticsResponse.builder()
-            .totalAnimals(totalAnimals)
-            .totalOwners(totalOwners)
-            .totalAppointments(totalAppointments)
-            .pendingAppointments(pendingAppointments)
-            .completedAppointments(completedAppointments)
-            .totalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO)
-            .monthlyRevenue(monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO)
-            .totalInvoices(totalInvoices)
-            .pendingInvoices(pendingInvoices)
-            .overdueInvoices(overdueInvoices)
-            .lowStockItems((long) lowStockProducts.size())
-            .outOfStockItems((long) outOfStockProducts.size())
-            .upcomingVaccinations((long) upcomingSchedules.size())
-            .overdueVaccinations((long) overdueSchedules.size())
-            .appointmentsByStatus(appointmentsByStatus)
-            .animalsBySpecies(animalsBySpecies)
-            .revenueByMonth(revenueByMonth)
-            .build();
+        return dashboardStatisticsStore.get(ClinicContext.getClinicId());
     }
 
     @Transactional(readOnly = true)
     public FinancialStatisticsResponse getFinancialStatistics(LocalDate startDate, LocalDate endDate) {
         log.info("Calculating financial statistics from {} to {}", startDate, endDate);
+        Long clinicId = ClinicContext.getClinicId();
 
-        BigDecimal totalRevenue = invoiceRepository.getTotalAmountInDateRange(startDate, endDate);
-        BigDecimal paidRevenue = invoiceRepository.getTotalAmountByStatus(Invoice.Status.PAID);
-        BigDecimal pendingRevenue = invoiceRepository.getTotalAmountByStatus(Invoice.Status.PENDING);
-        BigDecimal overdueRevenue = invoiceRepository.getTotalAmountByStatus(Invoice.Status.OVERDUE);
-
-        var invoices = invoiceRepository.findByDateBetween(startDate, endDate);
-        Long totalInvoices = (long) invoices.size();
-        Long paidInvoices = invoiceRepository.countByStatus(Invoice.Status.PAID);
-        Long pendingInvoices = invoiceRepository.countByStatus(Invoice.Status.PENDING);
-        Long overdueInvoices = (long) invoiceRepository.findOverduePendingInvoices().size();
-
-        BigDecimal averageInvoiceAmount = totalInvoices > 0 && totalRevenue != null ?
-            totalRevenue.divide(BigDecimal.valueOf(totalInvoices), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-
-        BigDecimal totalTaxAmount = invoices.stream()
-            .map(Invoice::getTaxAmount)
-            .filter(Objects::nonNull)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Aylık gelir
+        // Aralıktaki faturalar: ay bazında tek sorguda gruplanır
         Map<String, BigDecimal> revenueByMonth = new LinkedHashMap<>();
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            LocalDate monthStart = current.withDayOfMonth(1);
-            LocalDate monthEnd = current.withDayOfMonth(current.lengthOfMonth());
-            if (monthEnd.isAfter(endDate)) {
-                monthEnd = endDate;
-            }
-            BigDecimal monthRevenue = invoiceRepository.getTotalAmountInDateRange(monthStart, monthEnd);
-            revenueByMonth.put(monthStart.getYear() + "-" + String.format("%02d", monthStart.getMonthValue()),
-                monthRevenue != null ? monthRevenue : BigDecimal.ZERO);
-            current = monthEnd.plusDays(1);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            revenueByMonth.put(month.getYear() + "-" + String.format("%02d", month.getMonthValue()), BigDecimal.ZERO);
+        }
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalTaxAmount = BigDecimal.ZERO;
+        long totalInvoices = 0;
+        for (InvoiceRepository.MonthlySummary month : invoiceRepository.getMonthlySummaryForClinic(clinicId, startDate, endDate)) {
+            BigDecimal monthRevenue = month.getTotalAmount() != null ? month.getTotalAmount() : BigDecimal.ZERO;
+            revenueByMonth.put(month.getInvoiceYear() + "-" + String.format("%02d", month.getInvoiceMonth()), monthRevenue);
+            totalRevenue = totalRevenue.add(monthRevenue);
+            totalTaxAmount = totalTaxAmount.add(month.getTaxAmount() != null ? month.getTaxAmount() : BigDecimal.ZERO);
+            totalInvoices += month.getInvoiceCount();
         }
 
-        // Fatura durum dağılımı
-        Map<String, Long> invoicesByStatus = new HashMap<>();
+        // Fatura durum dağılımı ve durum bazında tutarlar
+        Map<String, Long> invoicesByStatus = new LinkedHashMap<>();
         for (Invoice.Status status : Invoice.Status.values()) {
-            invoicesByStatus.put(status.name(), invoiceRepository.countByStatus(status));
+            invoicesByStatus.put(status.name(), 0L);
         }
+        Map<Invoice.Status, BigDecimal> amountByStatus = new EnumMap<>(Invoice.Status.class);
+        long overdueInvoices = 0;
+        for (InvoiceRepository.StatusSummary status : invoiceRepository.getStatusSummaryForClinic(clinicId)) {
+            invoicesByStatus.put(status.getStatus().name(), status.getInvoiceCount());
+            if (status.getTotalAmount() != null) {
+                amountByStatus.put(status.getStatus(), status.getTotalAmount());
+            }
+            if (status.getStatus() == Invoice.Status.PENDING && status.getOverdueCount() != null) {
+                overdueInvoices = status.getOverdueCount();
+            }
+        }
+
+        BigDecimal averageInvoiceAmount = totalInvoices > 0 ?
+            totalRevenue.divide(BigDecimal.valueOf(totalInvoices), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
 
         // En iyi müşteriler (top 10)
-        var topCustomers = invoiceRepository.getTopCustomersByAmount(
+        var topCustomers = invoiceRepository.getTopCustomersByAmountForClinic(clinicId,
             org.springframework.data.domain.PageRequest.of(0, 10));
-        List<Map<String, Object>> topCustomersList = topCustomers.getContent().stream()
+        List<Map<String, Object>> topCustomersList = topCustomers.stream()
             .map(arr -> {
                 Map<String, Object> customer = new HashMap<>();
                 customer.put("ownerId", arr[0]);
@@ -171,13 +99,13 @@ public class StatisticsService {
         return FinancialStatisticsResponse.builder()
             .startDate(startDate)
             .endDate(endDate)
-            .totalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO)
-            .paidRevenue(paidRevenue != null ? paidRevenue : BigDecimal.ZERO)
-            .pendingRevenue(pendingRevenue != null ? pendingRevenue : BigDecimal.ZERO)
-            .overdueRevenue(overdueRevenue != null ? overdueRevenue : BigDecimal.ZERO)
+            .totalRevenue(totalRevenue)
+            .paidRevenue(amountByStatus.getOrDefault(Invoice.Status.PAID, BigDecimal.ZERO))
+            .pendingRevenue(amountByStatus.getOrDefault(Invoice.Status.PENDING, BigDecimal.ZERO))
+            .overdueRevenue(amountByStatus.getOrDefault(Invoice.Status.OVERDUE, BigDecimal.ZERO))
             .totalInvoices(totalInvoices)
-            .paidInvoices(paidInvoices)
-            .pendingInvoices(pendingInvoices)
+            .paidInvoices(invoicesByStatus.get(Invoice.Status.PAID.name()))
+            .pendingInvoices(invoicesByStatus.get(Invoice.Status.PENDING.name()))
             .overdueInvoices(overdueInvoices)
             .averageInvoiceAmount(averageInvoiceAmount)
             .totalTaxAmount(totalTaxAmount)
@@ -235,10 +163,8 @@ public class StatisticsService {
 
     public void calculateAndCacheStatistics() {
         log.info("Calculating and caching statistics");
-        // İstatistikleri hesapla ve cache'le
-        // Şimdilik sadece log, cache implementasyonu eklenebilir
         try {
-            getDashboardStatistics();
+            dashboardStatisticsStore.refreshAll();
             log.info("Statistics calculated successfully");
         } catch (Exception e) {
             log.error("Error calculating statistics", e);
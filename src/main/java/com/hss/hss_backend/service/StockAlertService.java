@@ -3,17 +3,18 @@ package com.hss.hss_backend.service;
 import com.hss.hss_backend.dto.response.StockAlertResponse;
 import com.hss.hss_backend.entity.StockAlert;
 import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.event.StockLevelChangedEvent;
 import com.hss.hss_backend.repository.StockAlertRepository;
-import com.hss.hss_backend.repository.StockProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,7 +25,6 @@ import java.util.stream.Collectors;
 public class StockAlertService {
 
     private final StockAlertRepository stockAlertRepository;
-    private final StockProductRepository stockProductRepository;
     private final NotificationService notificationService;
 
     @Value("${stock.alert.critical.threshold:0.2}")
@@ -33,126 +33,60 @@ public class StockAlertService {
     @Value("${stock.alert.expiring.days:30}")
     private int expiringDays; // 30 gün içinde sona erecek ürünler için uyarı
 
+    /**
+     * Creates the alerts that are due and not yet open, for the whole catalog. Each check is one
+     * {@code INSERT ... SELECT} that skips products already having an unresolved alert of that
+     * type, so the cost follows the number of products needing an alert, not the catalog size.
+     * Stock changes are normally picked up right away by {@link #onStockLevelChanged}; this scan
+     * is the safety net for anything that bypassed it, and for products expiring as days pass.
+     */
     public void checkAndCreateAlerts() {
         log.info("Checking stock levels and creating alerts");
-        
-        List<StockProduct> activeProducts = stockProductRepository.findByIsActive(true);
-        List<StockAlert> newAlerts = new ArrayList<>();
-
-        for (StockProduct product : activeProducts) {
-            // Mevcut aktif alertleri kontrol et
-            List<StockAlert> existingAlerts = stockAlertRepository.findActiveAlertsByProductId(product.getProductId());
 
-            // Stok seviyesi kontrolü
-            checkStockLevel(product, existingAlerts, newAlerts);
+        LocalDate today = LocalDate.now();
+        int resolved = stockAlertRepository.resolveOutdatedStockLevelAlerts(criticalThreshold);
+        int created = stockAlertRepository.insertMissingStockLevelAlerts(criticalThreshold)
+                + stockAlertRepository.insertMissingExpirationAlerts(today, today.plusDays(expiringDays));
 
-            // Son kullanma tarihi kontrolü
-            checkExpirationDate(product, existingAlerts, newAlerts);
+        if (resolved > 0) {
+            log.info("Resolved {} outdated stock alerts", resolved);
         }
+        if (created > 0) {
+            log.info("Created {} new stock alerts", created);
 
-        // Yeni alertleri kaydet
-        if (!newAlerts.isEmpty()) {
-            stockAlertRepository.saveAll(newAlerts);
-            log.info("Created {} new stock alerts", newAlerts.size());
-            
             // Bildirim gönder
-            sendAlertNotifications(newAlerts);
-        }
-    }
-
-    private void checkStockLevel(StockProduct product, List<StockAlert> existingAlerts, List<StockAlert> newAlerts) {
-        int currentStock = product.getCurrentStock();
-        int minStock = product.getMinStock() != null ? product.getMinStock() : 0;
-        int criticalStock = (int) (minStock * criticalThreshold);
-
-        // OUT_OF_STOCK kontrolü
-        if (currentStock == 0) {
-            if (!hasActiveAlertOfType(existingAlerts, StockAlert.AlertType.OUT_OF_STOCK)) {
-                StockAlert alert = createStockAlert(product, StockAlert.AlertType.OUT_OF_STOCK, 
-                    currentStock, minStock, "Ürün stokta tükendi!");
-                newAlerts.add(alert);
-            }
-        }
-        // CRITICAL_STOCK kontrolü
-        else if (currentStock <= criticalStock && currentStock > 0) {
-            if (!hasActiveAlertOfType(existingAlerts, StockAlert.AlertType.CRITICAL_STOCK)) {
-                StockAlert alert = createStockAlert(product, StockAlert.AlertType.CRITICAL_STOCK, 
-                    currentStock, criticalStock, 
-                    String.format("Ürün kritik seviyede! Mevcut stok: %d, Minimum: %d", currentStock, minStock));
-                newAlerts.add(alert);
-            }
-        }
-        // LOW_STOCK kontrolü
-        else if (currentStock <= minStock && currentStock > criticalStock) {
-            if (!hasActiveAlertOfType(existingAlerts, StockAlert.AlertType.LOW_STOCK)) {
-                StockAlert alert = createStockAlert(product, StockAlert.AlertType.LOW_STOCK, 
-                    currentStock, minStock, 
-                    String.format("Ürün stok seviyesi düşük! Mevcut stok: %d, Minimum: %d", currentStock, minStock));
-                newAlerts.add(alert);
-            }
+            sendAlertNotifications(created);
         }
     }
 
-    private void checkExpirationDate(StockProduct product, List<StockAlert> existingAlerts, List<StockAlert> newAlerts) {
-        if (product.getExpirationDate() == null) {
-            return;
-        }
-
+    /**
+     * Re-evaluates the alerts of one product after a stock change has been committed: stock level
+     * alerts that no longer apply are resolved and missing ones are created.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        Long productId = event.productId();
         LocalDate today = LocalDate.now();
-        LocalDate expirationDate = product.getExpirationDate();
-        long daysUntilExpiration = java.time.temporal.ChronoUnit.DAYS.between(today, expirationDate);
-
-        // EXPIRED kontrolü
-        if (expirationDate.isBefore(today)) {
-            if (!hasActiveAlertOfType(existingAlerts, StockAlert.AlertType.EXPIRED)) {
-                StockAlert alert = createExpirationAlert(product, StockAlert.AlertType.EXPIRED, 
-                    expirationDate, "Ürün son kullanma tarihi geçmiş!");
-                newAlerts.add(alert);
+        try {
+            int resolved = stockAlertRepository.resolveOutdatedStockLevelAlertsForProduct(criticalThreshold, productId);
+            int created = stockAlertRepository.insertMissingStockLevelAlertsForProduct(criticalThreshold, productId)
+                    + stockAlertRepository.insertMissingExpirationAlertsForProduct(today, today.plusDays(expiringDays), productId);
+            if (resolved > 0 || created > 0) {
+                log.info("Product {}: created {} and resolved {} stock alerts", productId, created, resolved);
             }
-        }
-        // EXPIRING_SOON kontrolü
-        else if (daysUntilExpiration <= expiringDays && daysUntilExpiration > 0) {
-            if (!hasActiveAlertOfType(existingAlerts, StockAlert.AlertType.EXPIRING_SOON)) {
-                StockAlert alert = createExpirationAlert(product, StockAlert.AlertType.EXPIRING_SOON, 
-                    expirationDate, 
-                    String.format("Ürün %d gün içinde sona erecek!", daysUntilExpiration));
-                newAlerts.add(alert);
+            if (created > 0) {
+                sendAlertNotifications(created);
             }
+        } catch (RuntimeException e) {
+            // The stock change itself is committed; the scheduled scan will catch up
+            log.error("Could not evaluate stock alerts for product {}", productId, e);
         }
     }
 
-    private boolean hasActiveAlertOfType(List<StockAlert> alerts, StockAlert.AlertType type) {
-        return alerts.stream()
-                .anyMatch(alert -> alert.getAlertType() == type && !alert.getIsResolved());
-    }
-
-    private StockAlert createStockAlert(StockProduct product, StockAlert.AlertType type, 
-                                       int currentStock, int threshold, String message) {
-        return StockAlert.builder()
-                .stockProduct(product)
-                .alertType(type)
-                .currentStock(currentStock)
-                .thresholdValue(threshold)
-                .message(message)
-                .isResolved(false)
-                .build();
-    }
-
-    private StockAlert createExpirationAlert(StockProduct product, StockAlert.AlertType type, 
-                                            LocalDate expirationDate, String message) {
-        return StockAlert.builder()
-                .stockProduct(product)
-                .alertType(type)
-                .currentStock(product.getCurrentStock())
-                .expirationDate(expirationDate)
-                .message(message)
-                .isResolved(false)
-                .build();
-    }
-
-    private void sendAlertNotifications(List<StockAlert> alerts) {
+    private void sendAlertNotifications(int alertCount) {
         // TODO: Admin'lere email/SMS gönder
-        log.info("Sending notifications for {} stock alerts", alerts.size());
+        log.info("Sending notifications for {} stock alerts", alertCount);
         // NotificationService kullanarak admin'lere bildirim gönderilebilir
     }
 
@@ -0,0 +1,211 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.StockTransactionPageResponse;
+import com.hss.hss_backend.dto.response.StockTransactionResponse;
+import com.hss.hss_backend.entity.StockTransaction;
+import com.hss.hss_backend.exception.InvalidCursorException;
+import com.hss.hss_backend.security.ClinicContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads the stock transaction ledger newest first, without loading it as entities.
+ * <p>
+ * Pages are keyset-paginated on {@code (transaction_date, transaction_id)}: the cursor is the key
+ * of the last row of a page, so every page is an index range scan no matter how deep it is, and
+ * rows inserted meanwhile neither shift nor repeat entries. The export streams the same query
+ * with a server-side cursor ({@code stock.ledger.export-fetch-size} rows per round trip).
+ */
+@Component
+public class StockLedgerReader {
+
+  private static final String SELECT_SQL =
+      "SELECT t.transaction_id, t.product_id, p.name, p.barcode, t.clinic_id, t.transaction_date, t.type, " +
+      "t.quantity, t.unit_cost, t.total_cost, t.related_entity, t.related_id, t.notes, t.created_by " +
+      "FROM stock_transaction t JOIN stock_product p ON p.product_id = t.product_id WHERE true";
+
+  private static final String ORDER_SQL = " ORDER BY t.transaction_date DESC, t.transaction_id DESC";
+
+  private static final String CSV_HEADER =
+      "transaction_id,transaction_date,product_id,product_name,barcode,type,quantity,unit_cost,total_cost," +
+      "related_entity,related_id,clinic_id,created_by,notes\n";
+
+  private static final RowMapper<StockTransactionResponse> ROW_MAPPER = StockLedgerReader::mapRow;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate exportJdbcTemplate;
+
+  @Value("${stock.ledger.max-page-size:200}")
+  private int maxPageSize = 200;
+
+  public StockLedgerReader(JdbcTemplate jdbcTemplate,
+                           @Value("${stock.ledger.export-fetch-size:1000}") int exportFetchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    // Separate template so the fetch size only applies to exports
+    this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.exportJdbcTemplate.setFetchSize(exportFetchSize);
+  }
+
+  @Transactional(readOnly = true)
+  public StockTransactionPageResponse page(Filter filter, String cursor, int limit) {
+    int size = Math.max(1, Math.min(limit, maxPageSize));
+    List<Object> params = new ArrayList<>();
+    StringBuilder sql = where(filter, params);
+    if (cursor != null && !cursor.isBlank()) {
+      Key key = Key.decode(cursor);
+      sql.append(" AND (t.transaction_date, t.transaction_id) < (?, ?)");
+      params.add(Timestamp.valueOf(key.transactionDate()));
+      params.add(key.transactionId());
+    }
+    sql.append(ORDER_SQL).append(" LIMIT ?");
+    // One extra row tells whether there is a next page
+    params.add(size + 1);
+
+    List<StockTransactionResponse> rows = jdbcTemplate.query(sql.toString(), ROW_MAPPER, params.toArray());
+    String nextCursor = null;
+    if (rows.size() > size) {
+      rows = rows.subList(0, size);
+      StockTransactionResponse last = rows.get(size - 1);
+      nextCursor = new Key(last.getTransactionDate(), last.getTransactionId()).encode();
+    }
+    return StockTransactionPageResponse.builder()
+        .items(List.copyOf(rows))
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  /**
+   * Writes every matching transaction as CSV, newest first. Rows are written as they are read;
+   * the ledger is never held in memory.
+   */
+  @Transactional(readOnly = true)
+  public void exportCsv(Filter filter, Writer writer) {
+    List<Object> params = new ArrayList<>();
+    StringBuilder sql = where(filter, params).append(ORDER_SQL);
+    try {
+      writer.write(CSV_HEADER);
+      exportJdbcTemplate.query(sql.toString(),
+          (RowCallbackHandler) rs -> writeCsvRow(writer, mapRow(rs, rs.getRow())), params.toArray());
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static StringBuilder where(Filter filter, List<Object> params) {
+    StringBuilder sql = new StringBuilder(SELECT_SQL);
+    if (filter.clinicId() != null) {
+      sql.append(" AND t.clinic_id = ?");
+      params.add(filter.clinicId());
+    }
+    if (filter.productId() != null) {
+      sql.append(" AND t.product_id = ?");
+      params.add(filter.productId());
+    }
+    if (filter.type() != null) {
+      sql.append(" AND t.type = ?");
+      params.add(filter.type().name());
+    }
+    if (filter.from() != null) {
+      sql.append(" AND t.transaction_date >= ?");
+      params.add(Timestamp.valueOf(filter.from()));
+    }
+    if (filter.to() != null) {
+      sql.append(" AND t.transaction_date < ?");
+      params.add(Timestamp.valueOf(filter.to()));
+    }
+    return sql;
+  }
+
+  private static StockTransactionResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return StockTransactionResponse.builder()
+        .transactionId(rs.getLong("transaction_id"))
+        .productId(rs.getLong("product_id"))
+        .productName(rs.getString("name"))
+        .productBarcode(rs.getString("barcode"))
+        .clinicId(rs.getObject("clinic_id", Long.class))
+        .transactionDate(rs.getTimestamp("transaction_date").toLocalDateTime())
+        .type(StockTransaction.TransactionType.valueOf(rs.getString("type")))
+        .quantity(rs.getInt("quantity"))
+        .unitCost(rs.getBigDecimal("unit_cost"))
+        .totalCost(rs.getBigDecimal("total_cost"))
+        .relatedEntity(rs.getString("related_entity"))
+        .relatedId(rs.getObject("related_id", Long.class))
+        .notes(rs.getString("notes"))
+        .createdBy(rs.getString("created_by"))
+        .build();
+  }
+
+  private static void writeCsvRow(Writer writer, StockTransactionResponse row) {
+    try {
+      writer.write(String.join(",",
+          csv(row.getTransactionId()), csv(row.getTransactionDate()), csv(row.getProductId()),
+          csv(row.getProductName()), csv(row.getProductBarcode()), csv(row.getType()), csv(row.getQuantity()),
+          csv(row.getUnitCost()), csv(row.getTotalCost()), csv(row.getRelatedEntity()), csv(row.getRelatedId()),
+          csv(row.getClinicId()), csv(row.getCreatedBy()), csv(row.getNotes())));
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static String csv(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * Ledger filters; null fields are not applied. {@code to} is exclusive.
+   */
+  public record Filter(Long clinicId, Long productId, StockTransaction.TransactionType type,
+                       LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * A filter limited to the clinic of the current request, or to no clinic outside one.
+     */
+    public static Filter forCurrentClinic(Long productId, StockTransaction.TransactionType type,
+                                          LocalDateTime from, LocalDateTime to) {
+      return new Filter(ClinicContext.getClinicId(), productId, type, from, to);
+    }
+  }
+
+  record Key(LocalDateTime transactionDate, long transactionId) {
+
+    String encode() {
+      String raw = transactionDate + "|" + transactionId;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Key decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        return new Key(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+      } catch (RuntimeException e) {
+        throw new InvalidCursorException("Invalid ledger cursor: " + cursor);
+      }
+    }
+  }
+}
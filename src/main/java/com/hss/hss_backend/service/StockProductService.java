@@ -2,16 +2,24 @@ package com.hss.hss_backend.service;
 
 import com.hss.hss_backend.dto.StockProductDTO;
 import com.hss.hss_backend.dto.response.BarcodeScanResponse;
+import com.hss.hss_backend.dto.response.StockTransactionPageResponse;
 import com.hss.hss_backend.entity.StockProduct;
 import com.hss.hss_backend.entity.StockTransaction;
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import com.hss.hss_backend.event.StockLevelChangedEvent;
 import com.hss.hss_backend.exception.ResourceNotFoundException;
 import com.hss.hss_backend.repository.StockProductRepository;
 import com.hss.hss_backend.repository.StockTransactionRepository;
+import com.hss.hss_backend.security.ClinicContext;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +33,10 @@ public class StockProductService {
 
   private final StockProductRepository stockProductRepository;
   private final StockTransactionRepository stockTransactionRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final EntityManager entityManager;
+  private final BarcodeIndex barcodeIndex;
+  private final StockLedgerReader stockLedgerReader;
 
   public StockProduct getProductById(Long id) {
     return stockProductRepository.findById(id)
@@ -59,16 +71,16 @@ public class StockProductService {
     log.info("Deducting {} from product {} for {}", quantity, productId, reason);
     StockProduct product = getProductById(productId);
 
-    if (product.getCurrentStock() < quantity) {
+    // Checked and applied by the database so parallel deductions cannot oversell or overwrite each other
+    if (stockProductRepository.decrementStock(productId, quantity) == 0) {
       throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
     }
-
-    product.setCurrentStock(product.getCurrentStock() - quantity);
-    stockProductRepository.save(product);
+    syncAfterStockUpdate(product);
 
     // Record transaction
     StockTransaction transaction = StockTransaction.builder()
         .stockProduct(product)
+        .clinicId(ClinicContext.getClinicId())
         .transactionDate(LocalDateTime.now())
         .quantity(-quantity)
         .type(StockTransaction.TransactionType.OUT)
@@ -82,17 +94,19 @@ public class StockProductService {
         .build();
 
     stockTransactionRepository.save(transaction);
+    eventPublisher.publishEvent(new StockLevelChangedEvent(productId));
   }
 
   public void addStock(Long productId, Integer quantity, String reason, String relatedEntity, Long relatedId) {
     log.info("Adding {} to product {} for {}", quantity, productId, reason);
     StockProduct product = getProductById(productId);
 
-    product.setCurrentStock(product.getCurrentStock() + quantity);
-    stockProductRepository.save(product);
+    stockProductRepository.incrementStock(productId, quantity);
+    syncAfterStockUpdate(product);
 
     StockTransaction transaction = StockTransaction.builder()
         .stockProduct(product)
+        .clinicId(ClinicContext.getClinicId())
         .transactionDate(LocalDateTime.now())
         .quantity(quantity)
         .type(StockTransaction.TransactionType.IN)
@@ -106,16 +120,33 @@ public class StockProductService {
         .build();
 
     stockTransactionRepository.save(transaction);
+    eventPublisher.publishEvent(new StockLevelChangedEvent(productId));
+  }
+
+  /**
+   * The bulk stock update bypasses the persistence context: reload the managed product so a later
+   * flush cannot write the stale level back, and report the change the entity listener missed.
+   */
+  private void syncAfterStockUpdate(StockProduct product) {
+    entityManager.refresh(product);
+    eventPublisher.publishEvent(new StatisticsChangedEvent(null, StatisticsChangedEvent.Section.STOCK));
   }
 
   public StockProduct saveProduct(StockProduct product) {
-    return stockProductRepository.save(product);
+    StockProduct saved = stockProductRepository.save(product);
+    // Minimum, stock level or expiration date may have been edited
+    eventPublisher.publishEvent(new StockLevelChangedEvent(saved.getProductId()));
+    return saved;
+  }
+
+  @Transactional(readOnly = true)
+  public StockTransactionPageResponse getTransactions(StockLedgerReader.Filter filter, String cursor, int limit) {
+    return stockLedgerReader.page(filter, cursor, limit);
   }
 
-  public List<StockTransaction> getLastTransactions() {
-    // Assuming repository has findAll or findTop...
-    // For now returning all, or we could add a repository method for top 50
-    return stockTransactionRepository.findAll();
+  @Transactional(readOnly = true)
+  public void exportTransactions(StockLedgerReader.Filter filter, Writer writer) {
+    stockLedgerReader.exportCsv(filter, writer);
   }
 
   /**
@@ -124,75 +155,76 @@ public class StockProductService {
    * @param barcode The barcode to scan
    * @return BarcodeScanResponse with product info and validation status
    */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public BarcodeScanResponse scanBarcode(String barcode) {
     log.info("Scanning barcode: {}", barcode);
 
-    Optional<StockProduct> productOpt = stockProductRepository.findByBarcode(barcode);
+    Optional<BarcodeIndex.ProductSnapshot> productOpt = barcodeIndex.find(barcode);
 
     if (productOpt.isEmpty()) {
       log.warn("Barcode not found: {}", barcode);
       return BarcodeScanResponse.notFound(barcode);
     }
 
-    StockProduct product = productOpt.get();
+    BarcodeIndex.ProductSnapshot product = productOpt.get();
 
     // Check if product is active
-    if (!Boolean.TRUE.equals(product.getIsActive())) {
+    if (!Boolean.TRUE.equals(product.isActive())) {
       log.warn("Product is inactive: {}", barcode);
       return BarcodeScanResponse.builder()
-          .productId(product.getProductId())
-          .name(product.getName())
-          .barcode(product.getBarcode())
+          .productId(product.productId())
+          .name(product.name())
+          .barcode(product.barcode())
           .isValid(false)
           .warningMessage("Ürün aktif değil!")
           .build();
     }
 
     // Check expiration date
-    if (product.getExpirationDate() != null && product.getExpirationDate().isBefore(LocalDate.now())) {
-      log.warn("Product expired: {} - Expiry: {}", barcode, product.getExpirationDate());
+    if (product.expirationDate() != null && product.expirationDate().isBefore(LocalDate.now())) {
+      log.warn("Product expired: {} - Expiry: {}", barcode, product.expirationDate());
       return BarcodeScanResponse.builder()
-          .productId(product.getProductId())
-          .name(product.getName())
-          .barcode(product.getBarcode())
-          .lotNo(product.getLotNo())
-          .expirationDate(product.getExpirationDate())
+          .productId(product.productId())
+          .name(product.name())
+          .barcode(product.barcode())
+          .lotNo(product.lotNo())
+          .expirationDate(product.expirationDate())
           .isValid(false)
           .isExpired(true)
-          .warningMessage("Ürün son kullanma tarihi geçmiş! (" + product.getExpirationDate() + ")")
+          .warningMessage("Ürün son kullanma tarihi geçmiş! (" + product.expirationDate() + ")")
           .build();
     }
 
     // Check stock availability
-    if (product.getCurrentStock() == null || product.getCurrentStock() <= 0) {
+    if (product.currentStock() == null || product.currentStock() <= 0) {
       log.warn("Product out of stock: {}", barcode);
-      return BarcodeScanResponse.outOfStock(product.getProductId(), product.getName(), barcode);
+      return BarcodeScanResponse.outOfStock(product.productId(), product.name(), barcode);
     }
 
     // Check low stock warning
-    boolean isLowStock = product.getMinStock() != null && product.getCurrentStock() <= product.getMinStock();
+    boolean isLowStock = product.minStock() != null && product.currentStock() <= product.minStock();
 
     String warningMessage = null;
     if (isLowStock) {
-      warningMessage = "Düşük stok uyarısı! Mevcut: " + product.getCurrentStock() + ", Minimum: " + product.getMinStock();
+      warningMessage = "Düşük stok uyarısı! Mevcut: " + product.currentStock() + ", Minimum: " + product.minStock();
     }
 
     // Product is valid
     return BarcodeScanResponse.builder()
-        .productId(product.getProductId())
-        .name(product.getName())
-        .barcode(product.getBarcode())
-        .lotNo(product.getLotNo())
-        .serialNumber(product.getLotNo()) // Using lotNo as serialNumber for now
-        .productionDate(product.getProductionDate())
-        .expirationDate(product.getExpirationDate())
-        .currentStock(product.getCurrentStock())
-        .unitCost(product.getUnitCost())
-        .sellingPrice(product.getSellingPrice())
-        .category(product.getCategory() != null ? product.getCategory().name() : null)
-        .supplier(product.getSupplier())
-        .location(product.getLocation())
-        .isActive(product.getIsActive())
+        .productId(product.productId())
+        .name(product.name())
+        .barcode(product.barcode())
+        .lotNo(product.lotNo())
+        .serialNumber(product.lotNo()) // Using lotNo as serialNumber for now
+        .productionDate(product.productionDate())
+        .expirationDate(product.expirationDate())
+        .currentStock(product.currentStock())
+        .unitCost(product.unitCost())
+        .sellingPrice(product.sellingPrice())
+        .category(product.category() != null ? product.category().name() : null)
+        .supplier(product.supplier())
+        .location(product.location())
+        .isActive(product.isActive())
         .isValid(true)
         .isExpired(false)
         .isLowStock(isLowStock)
@@ -8,10 +8,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -25,6 +31,12 @@ public class StorageService {
     @Value("${storage.local.enabled:true}")
     private boolean useLocalStorageFallback;
 
+    // Directory that "/uploads/..." paths are resolved against
+    @Value("${storage.local.root:.}")
+    private String localRoot = ".";
+
+    private static final int UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+
     // Use @Autowired(required = false) via constructor or just handle potential
     // nulls if we remove final
     // But since we use @RequiredArgsConstructor, we assume it's injected.
@@ -66,7 +78,11 @@ public class StorageService {
                 .setContentType(file.getContentType())
                 .build();
 
-        Blob blob = storage.create(blobInfo, file.getBytes());
+        // Resumable upload fed straight from the multipart stream, one chunk in memory at a time
+        Blob blob;
+        try (InputStream content = file.getInputStream()) {
+            blob = storage.createFrom(blobInfo, content, UPLOAD_CHUNK_SIZE);
+        }
 
         log.info("File uploaded successfully to GCP: {}", blob.getMediaLink());
         return "gs://" + bucketName + "/" + filePath;
@@ -75,19 +91,109 @@ public class StorageService {
     private String uploadToLocal(MultipartFile file, String folder) throws IOException {
         String fileName = generateUniqueFileName(file.getOriginalFilename());
         // Create local uploads directory
-        java.nio.file.Path uploadPath = java.nio.file.Paths.get("uploads", folder);
+        java.nio.file.Path uploadPath = resolveLocalPath("/uploads/" + folder);
         if (!java.nio.file.Files.exists(uploadPath)) {
             java.nio.file.Files.createDirectories(uploadPath);
         }
 
         java.nio.file.Path filePath = uploadPath.resolve(fileName);
-        java.nio.file.Files.copy(file.getInputStream(), filePath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        try (InputStream content = file.getInputStream()) {
+            java.nio.file.Files.copy(content, filePath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        }
 
         String fileUrl = "/uploads/" + folder + "/" + fileName;
         log.info("File uploaded successfully to local: {}", fileUrl);
         return fileUrl;
     }
 
+    /**
+     * Stores generated content under a fixed path inside the storage backend, replacing whatever
+     * was stored there, and returns the stored file path. Unlike {@link #uploadFile} the name is
+     * not randomised, so the caller can find the file again with {@link #findStoredFile}.
+     */
+    public String storeFile(String path, byte[] content, String contentType) throws IOException {
+        if (storage != null) {
+            try {
+                BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, path))
+                        .setContentType(contentType)
+                        .build();
+                storage.create(blobInfo, content);
+                return "gs://" + bucketName + "/" + path;
+            } catch (Exception e) {
+                log.warn("GCP store failed for {}. Error: {}", path, e.getMessage());
+                if (!useLocalStorageFallback) {
+                    throw new IOException("GCP store failed and local fallback is disabled.", e);
+                }
+            }
+        } else if (!useLocalStorageFallback) {
+            throw new IOException("GCP Storage not configured and local fallback is disabled.");
+        }
+
+        String fileUrl = "/uploads/" + path;
+        java.nio.file.Path target = resolveLocalPath(fileUrl);
+        java.nio.file.Files.createDirectories(target.getParent());
+        // Written next to the target and moved into place, so readers never see a partial file
+        java.nio.file.Path temp = java.nio.file.Files.createTempFile(target.getParent(), ".store-", ".tmp");
+        try {
+            java.nio.file.Files.write(temp, content);
+            java.nio.file.Files.move(temp, target, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                    java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            java.nio.file.Files.deleteIfExists(temp);
+        }
+        return fileUrl;
+    }
+
+    /**
+     * The stored file path of content written with {@link #storeFile}, or {@code null} when
+     * nothing is stored under that path.
+     */
+    public String findStoredFile(String path) {
+        if (storage != null) {
+            try {
+                Blob blob = storage.get(BlobId.of(bucketName, path));
+                if (blob != null && blob.exists()) {
+                    return "gs://" + bucketName + "/" + path;
+                }
+            } catch (Exception e) {
+                log.warn("GCP lookup failed for {}. Error: {}", path, e.getMessage());
+            }
+        }
+        if (useLocalStorageFallback && java.nio.file.Files.isRegularFile(resolveLocalPath("/uploads/" + path))) {
+            return "/uploads/" + path;
+        }
+        return null;
+    }
+
+    /**
+     * Stored file paths of everything written with {@link #storeFile} directly under a folder.
+     */
+    public List<String> listStoredFiles(String folder) throws IOException {
+        List<String> filePaths = new ArrayList<>();
+        if (storage != null) {
+            try {
+                for (Blob blob : storage.list(bucketName, Storage.BlobListOption.prefix(folder + "/"),
+                        Storage.BlobListOption.currentDirectory()).iterateAll()) {
+                    if (!blob.isDirectory()) {
+                        filePaths.add("gs://" + bucketName + "/" + blob.getName());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("GCP listing failed for {}. Error: {}", folder, e.getMessage());
+            }
+        }
+        java.nio.file.Path localFolder = resolveLocalPath("/uploads/" + folder);
+        if (useLocalStorageFallback && java.nio.file.Files.isDirectory(localFolder)) {
+            try (java.util.stream.Stream<java.nio.file.Path> files = java.nio.file.Files.list(localFolder)) {
+                files.filter(java.nio.file.Files::isRegularFile)
+                        .map(file -> "/uploads/" + folder + "/" + file.getFileName())
+                        .filter(filePath -> !filePath.endsWith(".tmp"))
+                        .forEach(filePaths::add);
+            }
+        }
+        return filePaths;
+    }
+
     public byte[] downloadFile(String filePath) {
         // Simple implementation that supports both GS and local
         if (filePath.startsWith("gs://")) {
@@ -115,20 +221,44 @@ public class StorageService {
 
     private byte[] downloadFromLocal(String filePath) {
         try {
-            String localPathStr = filePath.startsWith("/") ? filePath.substring(1) : filePath;
-            // Handle if filePath contains "uploads" prefix but not starting with /
-            if (!localPathStr.startsWith("uploads/")) {
-                // Assuming filePath is relative to project root or uploads folder?
-                // Logic in uploadToLocal places it in "uploads/" + folder
-                // filePath usually comes as "/uploads/folder/file"
-            }
-            java.nio.file.Path path = java.nio.file.Paths.get(localPathStr);
-            return java.nio.file.Files.readAllBytes(path);
+            return java.nio.file.Files.readAllBytes(resolveLocalPath(filePath));
         } catch (IOException e) {
             throw new RuntimeException("Failed to read local file: " + filePath, e);
         }
     }
 
+    /**
+     * Opens a stored file for streaming instead of loading it into memory.
+     * Nothing is read until the resource's stream is consumed, and skipping on that stream seeks
+     * rather than reads, so HTTP Range requests only fetch the bytes that were asked for.
+     */
+    public Resource loadAsResource(String filePath) throws IOException {
+        if (filePath.startsWith("/uploads/") && useLocalStorageFallback) {
+            java.nio.file.Path path = resolveLocalPath(filePath);
+            if (!java.nio.file.Files.isRegularFile(path)) {
+                throw new FileNotFoundException("Local file not found: " + filePath);
+            }
+            return new FileSystemResource(path);
+        }
+
+        if (storage == null) {
+            throw new FileNotFoundException("GCP Storage not configured, cannot read: " + filePath);
+        }
+        Blob blob = getBlobWithFallback(getBlobId(filePath));
+        if (blob == null) {
+            throw new FileNotFoundException("File not found in GCP: " + filePath);
+        }
+        return new GcsBlobResource(storage, blob);
+    }
+
+    /**
+     * The content type recorded when the file was uploaded, or {@code null} when only the
+     * file name can tell (local files).
+     */
+    public String getContentType(Resource resource) {
+        return resource instanceof GcsBlobResource blobResource ? blobResource.getContentType() : null;
+    }
+
     public String generateSignedUrl(String filePath, long expirationTime) {
         // Local files don't need signed URLs, but since we don't serve static files
         // directly,
@@ -174,9 +304,7 @@ public class StorageService {
         } else if (filePath.startsWith("/uploads/") && useLocalStorageFallback) {
             // Local delete
             try {
-                String localPathStr = filePath.startsWith("/") ? filePath.substring(1) : filePath;
-                java.nio.file.Path path = java.nio.file.Paths.get(localPathStr);
-                java.nio.file.Files.deleteIfExists(path);
+                java.nio.file.Files.deleteIfExists(resolveLocalPath(filePath));
             } catch (IOException e) {
                 log.warn("Failed to delete local file: {}", filePath);
             }
@@ -193,8 +321,7 @@ public class StorageService {
             Blob blob = getBlobWithFallback(blobId);
             return blob != null && blob.exists();
         } else if (filePath.startsWith("/uploads/") && useLocalStorageFallback) {
-            String localPathStr = filePath.startsWith("/") ? filePath.substring(1) : filePath;
-            return java.nio.file.Files.exists(java.nio.file.Paths.get(localPathStr));
+            return java.nio.file.Files.exists(resolveLocalPath(filePath));
         } else {
             // Check GCS for relative path
             BlobId blobId = getBlobId(filePath);
@@ -203,6 +330,20 @@ public class StorageService {
         }
     }
 
+    /**
+     * Maps an "/uploads/..." path onto the local storage root, refusing paths that would
+     * climb out of the uploads directory.
+     */
+    private java.nio.file.Path resolveLocalPath(String filePath) {
+        String localPathStr = filePath.startsWith("/") ? filePath.substring(1) : filePath;
+        java.nio.file.Path root = java.nio.file.Paths.get(localRoot).toAbsolutePath().normalize();
+        java.nio.file.Path path = root.resolve(localPathStr).normalize();
+        if (!path.startsWith(root.resolve("uploads"))) {
+            throw new IllegalArgumentException("Path is outside the uploads directory: " + filePath);
+        }
+        return path;
+    }
+
     private String generateUniqueFileName(String originalFileName) {
         String extension = "";
         if (originalFileName != null && originalFileName.contains(".")) {
@@ -17,10 +17,17 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -32,9 +39,68 @@ public class VaccineCardPdfService {
 
     private final AnimalRepository animalRepository;
     private final VaccinationRecordRepository vaccinationRecordRepository;
+    private final StorageService storageService;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
+    private static final String CARD_FOLDER = "vaccine-cards";
+
+    // Bump when the card layout changes, so cards rendered with the old layout are not served
+    private static final String LAYOUT_VERSION = "2";
+
+    /**
+     * The vaccine card of an animal, rendered once per version and served from storage after that.
+     * <p>
+     * The version is derived from the animal, its owner and its vaccination records in one
+     * aggregate query, so a new, edited or removed vaccination changes the version and the next
+     * download renders a fresh card. A stored card is streamed; only a miss renders the PDF.
+     */
+    public Resource getVaccineCard(Long animalId) {
+        String version = vaccinationRecordRepository.findVaccineCardFingerprint(animalId)
+                .map(VaccineCardPdfService::version)
+                .orElseThrow(() -> new ResourceNotFoundException("Animal", animalId));
+        String folder = CARD_FOLDER + "/" + animalId;
+        String path = folder + "/" + version + ".pdf";
+
+        String storedPath = storageService.findStoredFile(path);
+        if (storedPath != null) {
+            try {
+                log.debug("Serving stored vaccine card {} for animal ID: {}", version, animalId);
+                return storageService.loadAsResource(storedPath);
+            } catch (IOException e) {
+                log.warn("Stored vaccine card {} could not be read, rendering again: {}", storedPath, e.getMessage());
+            }
+        }
+
+        byte[] pdf = generateVaccineCard(animalId);
+        try {
+            storedPath = storageService.storeFile(path, pdf, "application/pdf");
+            deleteOtherVersions(folder, storedPath);
+        } catch (IOException | RuntimeException e) {
+            // The card is still served; it is just rendered again next time
+            log.warn("Failed to store vaccine card for animal ID: {}: {}", animalId, e.getMessage());
+        }
+        return new ByteArrayResource(pdf);
+    }
+
+    private void deleteOtherVersions(String folder, String storedPath) throws IOException {
+        for (String filePath : storageService.listStoredFiles(folder)) {
+            if (!filePath.equals(storedPath)) {
+                storageService.deleteFile(filePath);
+            }
+        }
+    }
+
+    static String version(String fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((LAYOUT_VERSION + "|" + fingerprint).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     public byte[] generateVaccineCard(Long animalId) {
         log.info("Generating vaccine card PDF for animal ID: {}", animalId);
 
@@ -126,8 +192,8 @@ public class VaccineCardPdfService {
                 document.add(vaccineTable);
             }
 
-            document.add(new Paragraph("\n\nBu belge " + java.time.LocalDate.now().format(DATE_FORMATTER) +
-                    " tarihinde elektronik olarak oluşturulmuştur.")
+            // No render date: a stored card is served again until its content changes
+            document.add(new Paragraph("\n\nBu belge elektronik olarak oluşturulmuştur.")
                     .setFontSize(8)
                     .setItalic()
                     .setTextAlignment(TextAlignment.CENTER)
@@ -7,6 +7,7 @@ import com.hss.hss_backend.entity.Clinic;
 import com.hss.hss_backend.exception.ResourceNotFoundException;
 import com.hss.hss_backend.mapper.ClinicMapper;
 import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.service.ClinicDirectory;
 import com.hss.hss_backend.service.ClinicService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +26,7 @@ public class ClinicServiceImpl implements ClinicService {
 
   private final ClinicRepository clinicRepository;
   private final ClinicMapper clinicMapper;
+  private final ClinicDirectory clinicDirectory;
   private final com.hss.hss_backend.service.UserService userService;
   private final com.hss.hss_backend.service.LicenseService licenseService;
 
@@ -49,6 +51,7 @@ public class ClinicServiceImpl implements ClinicService {
     clinic.setLicenseStatus("ACTIVE");
 
     Clinic savedClinic = clinicRepository.save(clinic);
+    clinicDirectory.invalidate();
 
     // Auto-provision initial admin if email is provided
     if (request.getAdminEmail() != null && !request.getAdminEmail().isBlank()) {
@@ -104,7 +107,9 @@ public class ClinicServiceImpl implements ClinicService {
     if (request.getSettings() != null)
       clinic.setSettings(request.getSettings());
 
-    return clinicMapper.toResponse(clinicRepository.save(clinic));
+    Clinic savedClinic = clinicRepository.save(clinic);
+    clinicDirectory.invalidate();
+    return clinicMapper.toResponse(savedClinic);
   }
 
   @Override
@@ -113,6 +118,7 @@ public class ClinicServiceImpl implements ClinicService {
       throw new ResourceNotFoundException("Clinic", id);
     }
     clinicRepository.deleteById(id);
+    clinicDirectory.invalidate();
   }
 
   @Override
@@ -18,11 +18,19 @@ import org.springframework.security.access.AccessDeniedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -128,10 +136,45 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<DocumentResponse> searchDocumentsByTitle(String title) {
-        log.info("Searching documents by title: {}", title);
-        List<Document> documents = documentRepository.searchByTitle(title);
-        return documentMapper.toResponseList(documents);
+    public Page<DocumentResponse> searchDocuments(String query, Pageable pageable) {
+        log.info("Searching documents: {}", query);
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+
+        // Results are ordered by rank; a requested sort would not apply to the native query
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Long clinicId = ClinicContext.getClinicId();
+        Page<Long> ids = clinicId != null
+                ? documentRepository.searchIdsByClinic(tsQuery, clinicId, page)
+                : documentRepository.searchIds(tsQuery, page);
+
+        // Load the page in one query and put it back in rank order
+        Map<Long, Document> documents = documentRepository.findWithDetailsByDocumentIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Document::getDocumentId, Function.identity()));
+        List<DocumentResponse> content = ids.getContent().stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .map(documentMapper::toResponse)
+                .toList();
+        return new PageImpl<>(content, page, ids.getTotalElements());
+    }
+
+    /**
+     * Turns free text into a tsquery where every word must match as a prefix, e.g.
+     * {@code "aşı sert"} becomes {@code "aşı:* & sert:*"}. Anything but letters and digits is
+     * dropped, so user input can never form tsquery syntax. Null when no word is left.
+     */
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
     }
 
     @Override
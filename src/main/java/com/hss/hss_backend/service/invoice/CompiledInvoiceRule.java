@@ -0,0 +1,126 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.entity.InvoiceItem;
+import com.hss.hss_backend.entity.InvoiceRule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An invoice rule with its JSON {@code conditions} and {@code invoiceTemplate} parsed once into
+ * an immutable matcher and item lines, so evaluating it against an appointment does no parsing.
+ * <p>
+ * Supported condition: {@code appointmentType}, a type name or a list of them. A rule whose
+ * conditions cannot be parsed applies without conditions, and a template that cannot be parsed
+ * yields the default service item, as before.
+ */
+@Slf4j
+public record CompiledInvoiceRule(Long ruleId, Long version, String ruleName, String triggerStatus,
+                                  Set<String> appointmentTypes, List<ItemLine> items, int dueDays,
+                                  String description, String notes) {
+
+    private static final TypeReference<Map<String, Object>> CONDITIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> TEMPLATE_TYPE = new TypeReference<>() {};
+
+    // Used when the rule has no template; its description is filled in per appointment
+    private static final ItemLine APPOINTMENT_ITEM =
+            ItemLine.of(null, 1, BigDecimal.valueOf(100.00), BigDecimal.valueOf(18.00), InvoiceItem.ItemType.CONSULTATION);
+    private static final ItemLine FALLBACK_ITEM =
+            ItemLine.of("Hizmet", 1, BigDecimal.valueOf(100.00), BigDecimal.valueOf(18.00), InvoiceItem.ItemType.SERVICE);
+
+    public static CompiledInvoiceRule compile(InvoiceRule rule, ObjectMapper objectMapper) {
+        return new CompiledInvoiceRule(
+                rule.getRuleId(),
+                rule.getVersion(),
+                rule.getRuleName(),
+                rule.getTriggerStatus(),
+                compileConditions(rule, objectMapper),
+                compileTemplate(rule, objectMapper),
+                rule.getDueDays() != null ? rule.getDueDays() : 30,
+                rule.getDescription() != null ? rule.getDescription()
+                        : String.format("Otomatik oluşturulan fatura - Kural: %s", rule.getRuleName()),
+                rule.getNotes());
+    }
+
+    public boolean matches(String status, String appointmentType) {
+        if (triggerStatus != null && !triggerStatus.equals(status)) {
+            return false;
+        }
+        return appointmentTypes.isEmpty() || appointmentTypes.contains(appointmentType);
+    }
+
+    /**
+     * The invoice lines for an appointment. Only the templateless default line depends on the
+     * appointment; every other line is shared.
+     */
+    public List<ItemLine> itemsFor(String appointmentSubject) {
+        if (items.isEmpty()) {
+            return List.of(APPOINTMENT_ITEM.withDescription(String.format("Randevu - %s", appointmentSubject)));
+        }
+        return items;
+    }
+
+    private static Set<String> compileConditions(InvoiceRule rule, ObjectMapper objectMapper) {
+        if (rule.getConditions() == null || rule.getConditions().isEmpty()) {
+            return Set.of();
+        }
+        try {
+            Map<String, Object> conditions = objectMapper.readValue(rule.getConditions(), CONDITIONS_TYPE);
+            Object type = conditions.get("appointmentType");
+            if (type instanceof Collection<?> types) {
+                return types.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+            }
+            return type != null ? Set.of(type.toString()) : Set.of();
+        } catch (Exception e) {
+            log.warn("Error parsing conditions of rule {}: {}", rule.getRuleId(), e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private static List<ItemLine> compileTemplate(InvoiceRule rule, ObjectMapper objectMapper) {
+        if (rule.getInvoiceTemplate() == null || rule.getInvoiceTemplate().isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<ItemLine> lines = new ArrayList<>();
+            for (Map<String, Object> templateItem : objectMapper.readValue(rule.getInvoiceTemplate(), TEMPLATE_TYPE)) {
+                lines.add(ItemLine.of(
+                        (String) templateItem.getOrDefault("description", "Hizmet"),
+                        ((Number) templateItem.getOrDefault("quantity", 1)).intValue(),
+                        BigDecimal.valueOf(((Number) templateItem.getOrDefault("unitPrice", 0)).doubleValue()),
+                        BigDecimal.valueOf(((Number) templateItem.getOrDefault("vatRate", 18)).doubleValue()),
+                        InvoiceItem.ItemType.valueOf((String) templateItem.getOrDefault("itemType", "SERVICE"))));
+            }
+            return List.copyOf(lines);
+        } catch (Exception e) {
+            log.error("Error parsing invoice template of rule {}: {}", rule.getRuleId(), e.getMessage());
+            return List.of(FALLBACK_ITEM);
+        }
+    }
+
+    /**
+     * One invoice line with its VAT and total already computed.
+     */
+    public record ItemLine(String description, int quantity, BigDecimal unitPrice, BigDecimal vatRate,
+                           BigDecimal vatAmount, BigDecimal lineTotal, InvoiceItem.ItemType itemType) {
+
+        static ItemLine of(String description, int quantity, BigDecimal unitPrice, BigDecimal vatRate,
+                           InvoiceItem.ItemType itemType) {
+            BigDecimal vatAmount = unitPrice.multiply(vatRate).divide(BigDecimal.valueOf(100));
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity)).add(vatAmount);
+            return new ItemLine(description, quantity, unitPrice, vatRate, vatAmount, lineTotal, itemType);
+        }
+
+        ItemLine withDescription(String description) {
+            return new ItemLine(description, quantity, unitPrice, vatRate, vatAmount, lineTotal, itemType);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import com.hss.hss_backend.security.ClinicContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates rule invoices for many appointments at once.
+ * <p>
+ * All rules are evaluated against all appointments in one pass. Invoice ids are taken from the
+ * sequence up front so invoices and their items can be written with two JDBC batches instead of
+ * one entity save per row. An appointment is invoiced at most once per rule: pairs that already
+ * have an invoice are skipped, and the unique {@code (appointment_id, invoice_rule_id)}
+ * constraint with {@code ON CONFLICT DO NOTHING} covers concurrent runs; the items of an invoice
+ * that lost that race are not written.
+ */
+@Component
+@Slf4j
+public class InvoiceBatchGenerator {
+
+    private static final String COMPLETED_APPOINTMENTS_SQL =
+            "SELECT a.appointment_id, a.clinic_id, an.owner_id, a.status, a.appointment_type, a.subject " +
+            "FROM appointment a JOIN animal an ON an.animal_id = a.animal_id " +
+            "WHERE a.status = 'COMPLETED' AND a.date_time BETWEEN ? AND ?";
+
+    private static final String INVOICED_PAIRS_SQL =
+            "SELECT appointment_id, invoice_rule_id FROM invoice WHERE invoice_rule_id IS NOT NULL AND appointment_id IN (%s)";
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('invoice', 'invoice_id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_INVOICE_SQL =
+            "INSERT INTO invoice (invoice_id, owner_id, invoice_number, date, due_date, amount, tax_amount, total_amount, " +
+            "paid_amount, status, description, notes, appointment_id, invoice_rule_id, created_at, updated_at, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 'PENDING', ?, ?, ?, ?, now(), now(), 'system') " +
+            "ON CONFLICT (appointment_id, invoice_rule_id) DO NOTHING";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO invoice_item (invoice_id, description, quantity, unit_price, vat_rate, vat_amount, line_total, " +
+            "item_type, created_at, updated_at, created_by) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ?, ?, now(), now(), 'system' WHERE EXISTS (SELECT 1 FROM invoice WHERE invoice_id = ?)";
+
+    private static final DateTimeFormatter NUMBER_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final RowMapper<RuleAppointment> APPOINTMENT_MAPPER = (rs, rowNum) -> new RuleAppointment(
+            rs.getLong("appointment_id"),
+            rs.getObject("clinic_id", Long.class),
+            rs.getLong("owner_id"),
+            rs.getString("status"),
+            rs.getString("appointment_type"),
+            rs.getString("subject"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public InvoiceBatchGenerator(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                 @Value("${invoice.rules.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Completed appointments in the window, with the owner to invoice, limited to the current
+     * clinic when there is one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RuleAppointment> findCompletedAppointments(LocalDateTime from, LocalDateTime to) {
+        Long clinicId = ClinicContext.getClinicId();
+        if (clinicId == null) {
+            return jdbcTemplate.query(COMPLETED_APPOINTMENTS_SQL + " ORDER BY a.appointment_id", APPOINTMENT_MAPPER,
+                    Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+        return jdbcTemplate.query(COMPLETED_APPOINTMENTS_SQL + " AND a.clinic_id = ? ORDER BY a.appointment_id",
+                APPOINTMENT_MAPPER, Timestamp.valueOf(from), Timestamp.valueOf(to), clinicId);
+    }
+
+    /**
+     * Invoices every appointment for every matching rule it has no invoice for yet.
+     *
+     * @return the number of invoices written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int generate(List<CompiledInvoiceRule> rules, List<RuleAppointment> appointments) {
+        if (rules.isEmpty() || appointments.isEmpty()) {
+            return 0;
+        }
+        int created = 0;
+        for (int from = 0; from < appointments.size(); from += batchSize) {
+            created += generateChunk(rules, appointments.subList(from, Math.min(from + batchSize, appointments.size())));
+        }
+        return created;
+    }
+
+    private int generateChunk(List<CompiledInvoiceRule> rules, List<RuleAppointment> appointments) {
+        Set<Pair> invoiced = invoicedPairs(appointments);
+        LocalDate today = LocalDate.now();
+        List<PlannedInvoice> planned = new ArrayList<>();
+        for (RuleAppointment appointment : appointments) {
+            for (CompiledInvoiceRule rule : rules) {
+                if (!invoiced.contains(new Pair(appointment.appointmentId(), rule.ruleId()))
+                        && rule.matches(appointment.status(), appointment.appointmentType())) {
+                    planned.add(PlannedInvoice.of(rule, appointment));
+                }
+            }
+        }
+        if (planned.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, planned.size());
+        List<Object[]> invoiceRows = new ArrayList<>(planned.size());
+        List<Object[]> itemRows = new ArrayList<>();
+        Set<Long> clinicIds = new HashSet<>();
+        for (int i = 0; i < planned.size(); i++) {
+            PlannedInvoice invoice = planned.get(i);
+            Long invoiceId = ids.get(i);
+            invoiceRows.add(new Object[]{
+                    invoiceId, invoice.appointment().ownerId(),
+                    String.format("INV-%s-%06d", today.format(NUMBER_DATE), invoiceId),
+                    Date.valueOf(today), Date.valueOf(today.plusDays(invoice.rule().dueDays())),
+                    invoice.amount(), invoice.taxAmount(), invoice.totalAmount(),
+                    invoice.rule().description(), invoice.rule().notes(),
+                    invoice.appointment().appointmentId(), invoice.rule().ruleId()});
+            for (CompiledInvoiceRule.ItemLine item : invoice.items()) {
+                itemRows.add(new Object[]{
+                        invoiceId, item.description(), item.quantity(), item.unitPrice(), item.vatRate(),
+                        item.vatAmount(), item.lineTotal(), item.itemType().name(), invoiceId});
+            }
+            clinicIds.add(invoice.appointment().clinicId());
+        }
+
+        int created = countWritten(jdbcTemplate.batchUpdate(INSERT_INVOICE_SQL, invoiceRows));
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+        // Written without the entity listener, so report the change to the dashboard here
+        clinicIds.forEach(clinicId ->
+                eventPublisher.publishEvent(new StatisticsChangedEvent(clinicId, StatisticsChangedEvent.Section.INVOICES)));
+        if (created < planned.size()) {
+            log.info("{} of {} rule invoices were already created by a concurrent run", planned.size() - created, planned.size());
+        }
+        return created;
+    }
+
+    private Set<Pair> invoicedPairs(List<RuleAppointment> appointments) {
+        String sql = String.format(INVOICED_PAIRS_SQL, String.join(", ", Collections.nCopies(appointments.size(), "?")));
+        Set<Pair> pairs = new HashSet<>();
+        jdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> pairs.add(new Pair(rs.getLong("appointment_id"), rs.getLong("invoice_rule_id"))),
+                appointments.stream().map(RuleAppointment::appointmentId).toArray());
+        return pairs;
+    }
+
+    private static int countWritten(int[] counts) {
+        int written = 0;
+        for (int count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * What rule evaluation needs to know about an appointment.
+     */
+    public record RuleAppointment(Long appointmentId, Long clinicId, Long ownerId, String status,
+                                  String appointmentType, String subject) {
+    }
+
+    private record Pair(Long appointmentId, Long ruleId) {
+    }
+
+    private record PlannedInvoice(CompiledInvoiceRule rule, RuleAppointment appointment,
+                                  List<CompiledInvoiceRule.ItemLine> items, BigDecimal amount,
+                                  BigDecimal taxAmount, BigDecimal totalAmount) {
+
+        static PlannedInvoice of(CompiledInvoiceRule rule, RuleAppointment appointment) {
+            List<CompiledInvoiceRule.ItemLine> items = rule.itemsFor(appointment.subject());
+            BigDecimal total = BigDecimal.ZERO;
+            BigDecimal tax = BigDecimal.ZERO;
+            for (CompiledInvoiceRule.ItemLine item : items) {
+                total = total.add(item.lineTotal());
+                tax = tax.add(item.vatAmount());
+            }
+            return new PlannedInvoice(rule, appointment, items, total.subtract(tax), tax, total);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.entity.InvoiceRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled invoice rules by rule id, each tagged with the rule version it was compiled from.
+ * <p>
+ * A lookup compiles only when the cached entry is missing or older than the rule passed in, so
+ * rules updated on another instance are recompiled the first time this instance sees them.
+ * {@link #evict(Long)} drops a deleted rule once the deleting transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvoiceRuleCache {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, CompiledInvoiceRule> compiled = new ConcurrentHashMap<>();
+
+    public CompiledInvoiceRule get(InvoiceRule rule) {
+        if (rule.getRuleId() == null) {
+            return CompiledInvoiceRule.compile(rule, objectMapper);
+        }
+        CompiledInvoiceRule cached = compiled.get(rule.getRuleId());
+        if (cached != null && Objects.equals(cached.version(), rule.getVersion())) {
+            return cached;
+        }
+        CompiledInvoiceRule fresh = CompiledInvoiceRule.compile(rule, objectMapper);
+        compiled.put(rule.getRuleId(), fresh);
+        return fresh;
+    }
+
+    public void evict(Long ruleId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    compiled.remove(ruleId);
+                }
+            });
+        } else {
+            compiled.remove(ruleId);
+        }
+    }
+
+    int size() {
+        return compiled.size();
+    }
+}
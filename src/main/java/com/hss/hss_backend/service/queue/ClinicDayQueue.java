@@ -0,0 +1,170 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.entity.QueueEntry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory queue of one clinic for one day.
+ * <p>
+ * Writers are serialized on the instance and rebuild an immutable {@link View}; readers only
+ * dereference the current view, so list, position and wait-time reads are O(1) and lock-free.
+ */
+final class ClinicDayQueue {
+
+  /**
+   * Same order the waiting-room screens use: most urgent first, then check-in order.
+   */
+  static final Comparator<QueueSnapshot> ACTIVE_ORDER = Comparator
+      .comparing((QueueSnapshot s) -> s.priority().ordinal(), Comparator.reverseOrder())
+      .thenComparing(QueueSnapshot::queueNumber);
+
+  private final Long clinicId;
+  private final LocalDate queueDate;
+  private final long loadedAtMillis;
+  private final ToDoubleFunction<QueueSnapshot> expectedMinutes;
+  private final Map<Long, QueueSnapshot> entries = new HashMap<>();
+  private volatile View view = View.EMPTY;
+
+  ClinicDayQueue(Long clinicId, LocalDate queueDate, Collection<QueueSnapshot> seed, long loadedAtMillis,
+      ToDoubleFunction<QueueSnapshot> expectedMinutes) {
+    this.clinicId = clinicId;
+    this.queueDate = queueDate;
+    this.loadedAtMillis = loadedAtMillis;
+    this.expectedMinutes = expectedMinutes;
+    seed.forEach(snapshot -> entries.put(snapshot.queueEntryId(), snapshot));
+    rebuild();
+  }
+
+  Long clinicId() {
+    return clinicId;
+  }
+
+  LocalDate queueDate() {
+    return queueDate;
+  }
+
+  long loadedAtMillis() {
+    return loadedAtMillis;
+  }
+
+  View view() {
+    return view;
+  }
+
+  synchronized void upsert(QueueSnapshot snapshot) {
+    entries.put(snapshot.queueEntryId(), snapshot);
+    rebuild();
+  }
+
+  private void rebuild() {
+    List<QueueSnapshot> all = new ArrayList<>(entries.values());
+    all.sort(Comparator.comparing(QueueSnapshot::queueNumber));
+
+    List<QueueSnapshot> active = new ArrayList<>();
+    for (QueueSnapshot snapshot : all) {
+      if (snapshot.isActive()) {
+        active.add(snapshot);
+      }
+    }
+    active.sort(ACTIVE_ORDER);
+
+    // Work ahead of each waiting patient: expected minutes of the waiting patients before them
+    Map<Long, Double> waitingAhead = new HashMap<>(active.size() * 2);
+    List<InProgress> inProgress = new ArrayList<>();
+    Set<Long> veterinarians = new HashSet<>();
+    double waitingTotal = 0;
+    for (QueueSnapshot snapshot : active) {
+      double minutes = expectedMinutes.applyAsDouble(snapshot);
+      if (snapshot.status() == QueueEntry.QueueStatus.IN_PROGRESS) {
+        inProgress.add(new InProgress(snapshot.startedTime(), minutes));
+      } else {
+        waitingAhead.put(snapshot.queueEntryId(), waitingTotal);
+        waitingTotal += minutes;
+      }
+      if (snapshot.assignedVeterinarianId() != null) {
+        veterinarians.add(snapshot.assignedVeterinarianId());
+      }
+    }
+    int parallelism = Math.max(1, Math.max(veterinarians.size(), inProgress.size()));
+
+    Map<Long, QueueSnapshot> byId = new HashMap<>(entries);
+    view = new View(List.copyOf(all), List.copyOf(active), Map.copyOf(byId), Map.copyOf(waitingAhead),
+        List.copyOf(inProgress), waitingTotal, parallelism);
+  }
+
+  /**
+   * A consultation currently running and how long it is expected to take in total.
+   */
+  record InProgress(LocalDateTime startedTime, double expectedMinutes) {
+
+    double remainingMinutes(LocalDateTime now) {
+      if (startedTime == null) {
+        return expectedMinutes;
+      }
+      double elapsed = Duration.between(startedTime, now).toSeconds() / 60.0;
+      return Math.max(0, expectedMinutes - elapsed);
+    }
+  }
+
+  /**
+   * Immutable read model of the day's queue.
+   *
+   * @param byQueueNumber  every entry of the day ordered by queue number
+   * @param active         WAITING and IN_PROGRESS entries in {@link #ACTIVE_ORDER}
+   * @param byId           entries keyed by queue entry id
+   * @param waitingAhead   for each waiting entry, expected minutes of the waiting entries before it
+   * @param inProgress     consultations currently running
+   * @param waitingTotal   expected minutes of all waiting entries
+   * @param parallelism    number of veterinarians assumed to work through the queue in parallel
+   */
+  record View(List<QueueSnapshot> byQueueNumber,
+      List<QueueSnapshot> active,
+      Map<Long, QueueSnapshot> byId,
+      Map<Long, Double> waitingAhead,
+      List<InProgress> inProgress,
+      double waitingTotal,
+      int parallelism) {
+
+    static final View EMPTY = new View(List.of(), List.of(), Map.of(), Map.of(), List.of(), 0, 1);
+
+    /**
+     * Minutes until the given entry can expect to be seen. Entries that left the active queue
+     * (cancelled, no-show) are treated as being behind everybody.
+     */
+    int waitMinutes(QueueSnapshot snapshot, LocalDateTime now) {
+      if (snapshot.status() == QueueEntry.QueueStatus.IN_PROGRESS
+          || snapshot.status() == QueueEntry.QueueStatus.COMPLETED) {
+        return 0;
+      }
+      double ahead = waitingAhead.getOrDefault(snapshot.queueEntryId(), waitingTotal);
+      return minutesUntilFree(ahead, now);
+    }
+
+    /**
+     * Minutes until a patient joining the end of the queue now can expect to be seen.
+     */
+    int waitMinutesForNewEntry(LocalDateTime now) {
+      return minutesUntilFree(waitingTotal, now);
+    }
+
+    private int minutesUntilFree(double waitingMinutesAhead, LocalDateTime now) {
+      double running = 0;
+      for (InProgress consultation : inProgress) {
+        running += consultation.remainingMinutes(now);
+      }
+      return (int) Math.round((running + waitingMinutesAhead) / parallelism);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.entity.QueueEntry;
+import com.hss.hss_backend.exception.ResourceNotFoundException;
+import com.hss.hss_backend.repository.QueueEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-clinic, per-day live queue kept in memory.
+ * <p>
+ * A clinic's day is seeded from {@link QueueEntryRepository} with a single query the first time
+ * it is read, and afterwards kept current write-through by {@code QueueService}. Reads never hit
+ * the database while the seed is fresher than {@code queue.live.refresh-seconds}; the refresh
+ * window bounds how long changes made by other instances can stay invisible.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveQueueStore {
+
+  private final QueueEntryRepository queueEntryRepository;
+  private final ServiceTimeEstimator serviceTimeEstimator;
+
+  @Value("${queue.live.refresh-seconds:30}")
+  private long refreshSeconds = 30;
+
+  private final Map<DayKey, ClinicDayQueue> queues = new ConcurrentHashMap<>();
+  private final Map<Long, DayKey> entryIndex = new ConcurrentHashMap<>();
+  // Seeds in progress; readers of the same day wait for the running seed instead of starting one
+  private final Map<DayKey, CompletableFuture<ClinicDayQueue>> loading = new ConcurrentHashMap<>();
+
+  /**
+   * Every entry of the day ordered by queue number.
+   */
+  public List<QueueEntryResponse> getDayQueue(Long clinicId, LocalDate queueDate) {
+    ClinicDayQueue.View view = queue(clinicId, queueDate).view();
+    return view.byQueueNumber().stream()
+        .map(snapshot -> snapshot.toResponse(waitMinutes(view, snapshot)))
+        .toList();
+  }
+
+  /**
+   * Waiting and in-progress entries, most urgent first.
+   */
+  public List<QueueEntryResponse> getActiveQueue(Long clinicId, LocalDate queueDate) {
+    ClinicDayQueue.View view = queue(clinicId, queueDate).view();
+    return view.active().stream()
+        .map(snapshot -> snapshot.toResponse(waitMinutes(view, snapshot)))
+        .toList();
+  }
+
+  public int countActive(Long clinicId, LocalDate queueDate) {
+    return queue(clinicId, queueDate).view().active().size();
+  }
+
+  /**
+   * Estimated start time for a patient joining the end of the queue now.
+   */
+  public LocalDateTime estimateStartTimeForNewEntry(Long clinicId, LocalDate queueDate) {
+    LocalDateTime now = LocalDateTime.now();
+    return now.plusMinutes(queue(clinicId, queueDate).view().waitMinutesForNewEntry(now));
+  }
+
+  /**
+   * Expected consultation length for a new patient of the given appointment type.
+   */
+  public int estimateDurationMinutes(Long clinicId, Appointment.AppointmentType type) {
+    return (int) Math.round(serviceTimeEstimator.expectedMinutes(clinicId, type, null));
+  }
+
+  public Integer getEstimatedWaitMinutes(Long queueEntryId) {
+    ClinicDayQueue queue = queueContaining(queueEntryId);
+    ClinicDayQueue.View view = queue.view();
+    return waitMinutes(view, view.byId().get(queueEntryId));
+  }
+
+  /**
+   * Current wait of every active entry, without seeding: empty when the clinic's day is not
+   * loaded. Meant for callers running outside a request, such as the push publisher.
+   */
+  public Optional<Map<Long, Integer>> peekActiveWaitMinutes(Long clinicId, LocalDate queueDate) {
+    ClinicDayQueue queue = queues.get(new DayKey(clinicId, queueDate));
+    if (queue == null) {
+      return Optional.empty();
+    }
+    ClinicDayQueue.View view = queue.view();
+    Map<Long, Integer> waits = new HashMap<>(view.active().size() * 2);
+    view.active().forEach(snapshot -> waits.put(snapshot.queueEntryId(), waitMinutes(view, snapshot)));
+    return Optional.of(waits);
+  }
+
+  /**
+   * Next patient for a veterinarian: the first waiting patient already assigned to them,
+   * otherwise the first waiting patient in queue order.
+   */
+  public Optional<QueueEntryResponse> findNextPatient(Long clinicId, LocalDate queueDate, Long veterinarianId) {
+    ClinicDayQueue.View view = queue(clinicId, queueDate).view();
+    Optional<QueueSnapshot> next = view.byQueueNumber().stream()
+        .filter(s -> s.status() == QueueEntry.QueueStatus.WAITING)
+        .filter(s -> veterinarianId.equals(s.assignedVeterinarianId()))
+        .findFirst()
+        .or(() -> view.active().stream()
+            .filter(s -> s.status() == QueueEntry.QueueStatus.WAITING)
+            .findFirst());
+    return next.map(snapshot -> snapshot.toResponse(waitMinutes(view, snapshot)));
+  }
+
+  /**
+   * Write-through of a saved entry. Must be called inside the transaction that saved it; if that
+   * transaction does not commit, the clinic's day is dropped and re-seeded on the next read.
+   */
+  public QueueEntryResponse apply(QueueEntry entry) {
+    QueueSnapshot snapshot = QueueSnapshot.of(entry);
+    DayKey key = new DayKey(snapshot.clinicId(), snapshot.queueDate());
+
+    ClinicDayQueue queue = queue(key.clinicId(), key.queueDate());
+    queue.upsert(snapshot);
+    entryIndex.put(snapshot.queueEntryId(), key);
+    evictOnRollback(key);
+
+    ClinicDayQueue.View view = queue.view();
+    return snapshot.toResponse(waitMinutes(view, snapshot));
+  }
+
+  public void evict(Long clinicId, LocalDate queueDate) {
+    DayKey key = new DayKey(clinicId, queueDate);
+    if (queues.remove(key) != null) {
+      entryIndex.values().removeIf(key::equals);
+    }
+  }
+
+  private ClinicDayQueue queue(Long clinicId, LocalDate queueDate) {
+    DayKey key = new DayKey(clinicId, queueDate);
+    long now = System.currentTimeMillis();
+    ClinicDayQueue queue = queues.get(key);
+    if (queue != null && !isStale(queue, now)) {
+      return queue;
+    }
+    evictPastDays();
+    // The seed query runs outside the map's locks; only the loaded day is installed atomically
+    while (true) {
+      CompletableFuture<ClinicDayQueue> load = new CompletableFuture<>();
+      CompletableFuture<ClinicDayQueue> running = loading.putIfAbsent(key, load);
+      if (running == null) {
+        try {
+          ClinicDayQueue current = queues.get(key);
+          ClinicDayQueue loaded = current != null && !isStale(current, now) ? current : load(key, now);
+          queues.put(key, loaded);
+          load.complete(loaded);
+          return loaded;
+        } catch (RuntimeException e) {
+          load.completeExceptionally(e);
+          throw e;
+        } finally {
+          loading.remove(key, load);
+        }
+      }
+      try {
+        return running.join();
+      } catch (CompletionException | CancellationException e) {
+        // The other seed failed; seed it from here instead
+      }
+    }
+  }
+
+  private boolean isStale(ClinicDayQueue queue, long now) {
+    return now - queue.loadedAtMillis() > refreshSeconds * 1000;
+  }
+
+  private void evictPastDays() {
+    LocalDate today = LocalDate.now();
+    queues.keySet().removeIf(k -> k.queueDate().isBefore(today));
+    entryIndex.values().removeIf(k -> k.queueDate().isBefore(today));
+  }
+
+  private ClinicDayQueue queueContaining(Long queueEntryId) {
+    DayKey key = entryIndex.get(queueEntryId);
+    if (key == null) {
+      QueueEntry entry = queueEntryRepository.findById(queueEntryId)
+          .orElseThrow(() -> new ResourceNotFoundException("QueueEntry", queueEntryId));
+      key = new DayKey(entry.getClinic().getClinicId(), entry.getQueueDate());
+    }
+    ClinicDayQueue queue = queue(key.clinicId(), key.queueDate());
+    if (!queue.view().byId().containsKey(queueEntryId)) {
+      throw new ResourceNotFoundException("QueueEntry", queueEntryId);
+    }
+    return queue;
+  }
+
+  private ClinicDayQueue load(DayKey key, long now) {
+    List<QueueSnapshot> seed = queueEntryRepository
+        .findDayQueueWithDetails(key.clinicId(), key.queueDate()).stream()
+        .map(QueueSnapshot::of)
+        .toList();
+    seed.forEach(snapshot -> entryIndex.put(snapshot.queueEntryId(), key));
+
+    serviceTimeEstimator.ensureSeeded(key.clinicId());
+
+    log.debug("Seeded live queue for clinic {} on {} with {} entries", key.clinicId(), key.queueDate(), seed.size());
+    return new ClinicDayQueue(key.clinicId(), key.queueDate(), seed, now, this::expectedMinutes);
+  }
+
+  private Integer waitMinutes(ClinicDayQueue.View view, QueueSnapshot snapshot) {
+    return view.waitMinutes(snapshot, LocalDateTime.now());
+  }
+
+  private double expectedMinutes(QueueSnapshot snapshot) {
+    return serviceTimeEstimator.expectedMinutes(
+        snapshot.clinicId(), snapshot.appointmentType(), snapshot.assignedVeterinarianId());
+  }
+
+  private void evictOnRollback(DayKey key) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          log.debug("Transaction not committed, dropping live queue for clinic {} on {}", key.clinicId(), key.queueDate());
+          evict(key.clinicId(), key.queueDate());
+        }
+      }
+    });
+  }
+
+  private record DayKey(Long clinicId, LocalDate queueDate) {
+  }
+}
@@ -0,0 +1,41 @@
+package com.hss.hss_backend.service.queue;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Hands out queue numbers per clinic and day from the {@code queue_number_counter} table.
+ * <p>
+ * Allocation is a single upsert that increments the counter row and returns the new value, so
+ * concurrent check-ins on any number of instances never see the same number. The row stays locked
+ * until the calling transaction ends, which keeps numbers gap-free when a check-in rolls back.
+ * The first allocation of a day starts after any numbers already present in {@code queue_entry}.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueNumberAllocator {
+
+  private static final String ALLOCATE_SQL =
+      "INSERT INTO queue_number_counter (clinic_id, queue_date, last_number) " +
+      "VALUES (?, ?, (SELECT COALESCE(MAX(queue_number), 0) + 1 FROM queue_entry WHERE clinic_id = ? AND queue_date = ?)) " +
+      "ON CONFLICT (clinic_id, queue_date) DO UPDATE SET last_number = queue_number_counter.last_number + 1 " +
+      "RETURNING last_number";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public int next(Long clinicId, LocalDate queueDate) {
+    Date date = Date.valueOf(queueDate);
+    Integer number = jdbcTemplate.queryForObject(ALLOCATE_SQL, Integer.class, clinicId, date, clinicId, date);
+    if (number == null) {
+      throw new IllegalStateException("Could not allocate queue number for clinic " + clinicId);
+    }
+    return number;
+  }
+}
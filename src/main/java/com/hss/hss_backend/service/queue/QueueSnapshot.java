@@ -0,0 +1,79 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.entity.Owner;
+import com.hss.hss_backend.entity.QueueEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, detached copy of a queue entry as shown on the queue screens.
+ * Built while the entity is still attached so reads never touch lazy associations.
+ */
+record QueueSnapshot(
+    Long queueEntryId,
+    Long clinicId,
+    LocalDate queueDate,
+    Long appointmentId,
+    Appointment.AppointmentType appointmentType,
+    Long animalId,
+    String animalName,
+    String ownerName,
+    Integer queueNumber,
+    QueueEntry.QueueStatus status,
+    QueueEntry.Priority priority,
+    LocalDateTime checkInTime,
+    LocalDateTime startedTime,
+    LocalDateTime estimatedStartTime,
+    Long assignedVeterinarianId,
+    String assignedRoom,
+    String notes) {
+
+  static QueueSnapshot of(QueueEntry entry) {
+    Owner owner = entry.getAnimal().getOwner();
+    return new QueueSnapshot(
+        entry.getQueueEntryId(),
+        entry.getClinic().getClinicId(),
+        entry.getQueueDate(),
+        entry.getAppointment() != null ? entry.getAppointment().getAppointmentId() : null,
+        entry.getAppointment() != null ? entry.getAppointment().getAppointmentType() : null,
+        entry.getAnimal().getAnimalId(),
+        entry.getAnimal().getName(),
+        owner != null ? owner.getFirstName() + " " + owner.getLastName() : "Unknown",
+        entry.getQueueNumber(),
+        entry.getStatus(),
+        entry.getPriority(),
+        entry.getCheckInTime(),
+        entry.getStartedTime(),
+        entry.getEstimatedStartTime(),
+        entry.getAssignedVeterinarianId(),
+        entry.getAssignedRoom(),
+        entry.getNotes());
+  }
+
+  boolean isActive() {
+    return status == QueueEntry.QueueStatus.WAITING || status == QueueEntry.QueueStatus.IN_PROGRESS;
+  }
+
+  QueueEntryResponse toResponse(Integer estimatedWaitMinutes) {
+    return QueueEntryResponse.builder()
+        .queueEntryId(queueEntryId)
+        .clinicId(clinicId)
+        .appointmentId(appointmentId)
+        .animalId(animalId)
+        .animalName(animalName)
+        .ownerName(ownerName)
+        .queueNumber(queueNumber)
+        .status(status.name())
+        .priority(priority.name())
+        .checkInTime(checkInTime)
+        .estimatedStartTime(estimatedStartTime)
+        .estimatedWaitMinutes(estimatedWaitMinutes)
+        .assignedVeterinarianId(assignedVeterinarianId)
+        .assignedRoom(assignedRoom)
+        .notes(notes)
+        .build();
+  }
+}
@@ -0,0 +1,223 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.ChangeType;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.QueueChange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes queue changes to /topic/clinics/{clinicId}/queue.
+ * <p>
+ * Changes are published after commit into a per-clinic buffer and flushed every
+ * {@code queue.push.coalesce-millis}, so a burst of updates becomes a single frame. A buffer that
+ * grows beyond {@code queue.push.max-changes-per-frame} is collapsed into a resync frame instead of
+ * being sent entry by entry.
+ * <p>
+ * The STOMP broker only reaches clients of this instance, so each flushed frame is also handed to
+ * {@link QueueUpdateRelay}, and changes relayed by other instances are merged into the next frame
+ * sent from here. A relayed change also evicts the clinic's day from {@link LiveQueueStore}; until
+ * it is read again, frames of that clinic carry no wait times.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueUpdatePublisher {
+
+  private static final String TOPIC_FORMAT = "/topic/clinics/%d/queue";
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final LiveQueueStore liveQueueStore;
+  private final QueueUpdateRelay relay;
+
+  @Value("${queue.push.max-changes-per-frame:200}")
+  private int maxChangesPerFrame = 200;
+
+  private final Map<Long, PendingFrame> pending = new ConcurrentHashMap<>();
+  // Changes relayed by other instances; sent to local clients only, never relayed again
+  private final Map<Long, PendingFrame> relayed = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Long, Integer>> lastPublishedWaits = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  public static String topicFor(Long clinicId) {
+    return String.format(TOPIC_FORMAT, clinicId);
+  }
+
+  @PostConstruct
+  void subscribeToRelay() {
+    relay.subscribe(this::acceptRelayed);
+  }
+
+  /**
+   * Queues a change for the next frame once the current transaction commits.
+   */
+  public void publish(ChangeType type, QueueEntryResponse entry) {
+    QueueChange change = toChange(type, entry);
+    Long clinicId = entry.getClinicId();
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          enqueue(clinicId, change);
+        }
+      });
+    } else {
+      enqueue(clinicId, change);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${queue.push.coalesce-millis:250}")
+  public void flush() {
+    Set<Long> clinicIds = new HashSet<>(pending.keySet());
+    clinicIds.addAll(relayed.keySet());
+    for (Long clinicId : clinicIds) {
+      PendingFrame local = pending.remove(clinicId);
+      PendingFrame remote = relayed.remove(clinicId);
+      if (local != null) {
+        relay.broadcast(clinicId, local.overflowed ? null : new ArrayList<>(local.changes.values()));
+      }
+      PendingFrame frame = merge(local, remote);
+      if (frame != null) {
+        send(clinicId, frame);
+      }
+    }
+  }
+
+  void acceptRelayed(QueueUpdateRelay.RelayedFrame frame) {
+    // The change was made on another instance; drop the local copy of the day so REST reads,
+    // wait times and resyncs re-seed it from the database instead of serving it stale
+    liveQueueStore.evict(frame.clinicId(), LocalDate.now());
+    relayed.compute(frame.clinicId(), (id, pendingFrame) -> {
+      PendingFrame target = pendingFrame != null ? pendingFrame : new PendingFrame();
+      if (frame.changes() == null) {
+        target.overflow();
+      } else {
+        frame.changes().forEach(change -> target.add(change, maxChangesPerFrame));
+      }
+      return target;
+    });
+  }
+
+  private PendingFrame merge(PendingFrame local, PendingFrame remote) {
+    if (local == null || remote == null) {
+      return local != null ? local : remote;
+    }
+    if (remote.overflowed) {
+      local.overflow();
+    } else {
+      remote.changes.values().forEach(change -> local.add(change, maxChangesPerFrame));
+    }
+    return local;
+  }
+
+  private void enqueue(Long clinicId, QueueChange change) {
+    pending.compute(clinicId, (id, frame) -> {
+      PendingFrame target = frame != null ? frame : new PendingFrame();
+      target.add(change, maxChangesPerFrame);
+      return target;
+    });
+  }
+
+  private void send(Long clinicId, PendingFrame frame) {
+    QueueUpdateMessage.QueueUpdateMessageBuilder message = QueueUpdateMessage.builder()
+        .clinicId(clinicId)
+        .sequence(sequence.incrementAndGet());
+
+    Optional<Map<Long, Integer>> waits = liveQueueStore.peekActiveWaitMinutes(clinicId, LocalDate.now());
+
+    if (frame.overflowed) {
+      message.resync(true);
+      waits.ifPresentOrElse(w -> lastPublishedWaits.put(clinicId, w), () -> lastPublishedWaits.remove(clinicId));
+    } else {
+      message.changes(new ArrayList<>(frame.changes.values()));
+      waits.ifPresent(w -> message.estimatedWaitMinutes(changedWaits(clinicId, w)));
+    }
+
+    try {
+      messagingTemplate.convertAndSend(topicFor(clinicId), message.build());
+    } catch (Exception e) {
+      log.warn("Failed to push queue update for clinic {}: {}", clinicId, e.getMessage());
+    }
+  }
+
+  private Map<Long, Integer> changedWaits(Long clinicId, Map<Long, Integer> current) {
+    Map<Long, Integer> previous = lastPublishedWaits.getOrDefault(clinicId, Map.of());
+    Map<Long, Integer> changed = new HashMap<>();
+    current.forEach((entryId, minutes) -> {
+      if (!minutes.equals(previous.get(entryId))) {
+        changed.put(entryId, minutes);
+      }
+    });
+    lastPublishedWaits.put(clinicId, current);
+    return changed.isEmpty() ? null : changed;
+  }
+
+  private QueueChange toChange(ChangeType type, QueueEntryResponse entry) {
+    QueueChange.QueueChangeBuilder change = QueueChange.builder()
+        .type(type)
+        .queueEntryId(entry.getQueueEntryId())
+        .queueNumber(entry.getQueueNumber())
+        .status(entry.getStatus())
+        .priority(entry.getPriority())
+        .assignedVeterinarianId(entry.getAssignedVeterinarianId())
+        .assignedRoom(entry.getAssignedRoom());
+    if (type == ChangeType.CHECK_IN) {
+      change.animalId(entry.getAnimalId())
+          .animalName(entry.getAnimalName())
+          .ownerName(entry.getOwnerName());
+    }
+    return change.build();
+  }
+
+  /**
+   * Changes waiting for the next flush, latest state per queue entry. Only mutated inside
+   * {@link ConcurrentHashMap#compute} or after removal from the map.
+   */
+  private static final class PendingFrame {
+    private final Map<Long, QueueChange> changes = new LinkedHashMap<>();
+    private boolean overflowed;
+
+    void add(QueueChange change, int maxChanges) {
+      if (overflowed) {
+        return;
+      }
+      QueueChange previous = changes.get(change.getQueueEntryId());
+      if (previous != null && previous.getType() == ChangeType.CHECK_IN) {
+        // Clients have not seen this entry yet, keep it a check-in carrying the latest state
+        change.setType(ChangeType.CHECK_IN);
+        change.setAnimalId(previous.getAnimalId());
+        change.setAnimalName(previous.getAnimalName());
+        change.setOwnerName(previous.getOwnerName());
+      }
+      changes.put(change.getQueueEntryId(), change);
+      if (changes.size() > maxChanges) {
+        overflow();
+      }
+    }
+
+    void overflow() {
+      overflowed = true;
+      changes.clear();
+    }
+  }
+}
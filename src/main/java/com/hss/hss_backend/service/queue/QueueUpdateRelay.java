@@ -0,0 +1,164 @@
+package com.hss.hss_backend.service.queue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.QueueChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Fans queue changes out to the other instances through Postgres LISTEN/NOTIFY.
+ * <p>
+ * The STOMP broker is in-memory per instance, so without this a check-in handled on one instance
+ * would only reach the displays connected to that instance. After each flush the publisher
+ * broadcasts the changes of its frame on the {@value #CHANNEL} channel, and every other instance
+ * merges them into its own next frame. Only changes travel; each instance still computes wait
+ * times and sequence numbers for its own clients. A frame that does not fit into a NOTIFY payload
+ * is broadcast as a resync.
+ * <p>
+ * The listener holds one pooled connection for as long as it runs and reconnects when it is lost.
+ * Changes broadcast while an instance is reconnecting do not reach its clients until their next
+ * resync.
+ */
+@Component
+@Slf4j
+public class QueueUpdateRelay {
+
+  static final String CHANNEL = "queue_updates";
+
+  // NOTIFY payloads must stay below 8000 bytes
+  private static final int MAX_PAYLOAD_BYTES = 7900;
+  private static final int POLL_MILLIS = 1000;
+  private static final long RECONNECT_MILLIS = 5000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSource dataSource;
+  private final ObjectMapper objectMapper;
+  private final String instanceId = UUID.randomUUID().toString();
+
+  @Value("${queue.push.relay.enabled:true}")
+  private boolean enabled = true;
+
+  private volatile Consumer<RelayedFrame> subscriber;
+  private volatile boolean running;
+  private Thread listener;
+
+  public QueueUpdateRelay(JdbcTemplate jdbcTemplate, DataSource dataSource, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSource = dataSource;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Receives frames broadcast by other instances, never the ones broadcast by this instance.
+   */
+  public void subscribe(Consumer<RelayedFrame> subscriber) {
+    this.subscriber = subscriber;
+  }
+
+  /**
+   * Sends a clinic's changes to the other instances; {@code null} changes ask them to resync.
+   */
+  public void broadcast(Long clinicId, List<QueueChange> changes) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      String payload = objectMapper.writeValueAsString(new RelayedFrame(instanceId, clinicId, changes));
+      if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+        payload = objectMapper.writeValueAsString(new RelayedFrame(instanceId, clinicId, null));
+      }
+      jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    } catch (JsonProcessingException | DataAccessException e) {
+      log.warn("Failed to relay queue update for clinic {}: {}", clinicId, e.getMessage());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (!enabled || listener != null) {
+      return;
+    }
+    running = true;
+    listener = new Thread(this::listen, "hss-queue-relay");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+      listener = null;
+    }
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        log.info("Listening for queue updates of other instances on channel {}", CHANNEL);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              receive(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Queue relay listener lost its connection, reconnecting: {}", e.getMessage());
+        try {
+          Thread.sleep(RECONNECT_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  void receive(String payload) {
+    try {
+      RelayedFrame frame = objectMapper.readValue(payload, RelayedFrame.class);
+      Consumer<RelayedFrame> target = subscriber;
+      if (!instanceId.equals(frame.origin()) && target != null) {
+        target.accept(frame);
+      }
+    } catch (Exception e) {
+      log.warn("Ignoring unreadable queue relay payload: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Changes of one clinic's frame as broadcast by instance {@code origin}; {@code changes} is
+   * {@code null} when receivers should resync instead.
+   */
+  public record RelayedFrame(String origin, Long clinicId, List<QueueChange> changes) {
+  }
+}
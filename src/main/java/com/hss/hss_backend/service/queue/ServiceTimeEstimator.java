@@ -0,0 +1,216 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.repository.QueueEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learns how long a patient takes per clinic, appointment type and veterinarian.
+ * <p>
+ * Each key holds an exponentially weighted moving average that is updated in O(1) whenever a queue
+ * entry is completed. Lookups fall back from (type, vet) to (type) to the whole clinic and finally
+ * to {@link #DEFAULT_MINUTES_PER_PATIENT} until a key has enough samples. A clinic's
+ * averages are seeded once from the last {@code queue.eta.seed-days} of completed entries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceTimeEstimator {
+
+  static final int DEFAULT_MINUTES_PER_PATIENT = 30;
+
+  /** Longer than this is assumed to be a status that was left open, not a real consultation. */
+  private static final long MAX_PLAUSIBLE_MINUTES = 8 * 60;
+
+  private final QueueEntryRepository queueEntryRepository;
+
+  @Value("${queue.eta.alpha:0.2}")
+  private double alpha = 0.2;
+
+  @Value("${queue.eta.min-samples:3}")
+  private int minSamples = 3;
+
+  @Value("${queue.eta.seed-days:30}")
+  private int seedDays = 30;
+
+  private final Map<EstimateKey, Ewma> averages = new ConcurrentHashMap<>();
+  // Completed once a clinic is seeded; removed again if seeding fails so the next call retries
+  private final Map<Long, CompletableFuture<Void>> seeds = new ConcurrentHashMap<>();
+
+  /**
+   * Expected minutes for a patient of the given type seen by the given veterinarian
+   * (either may be {@code null}).
+   */
+  public double expectedMinutes(Long clinicId, Appointment.AppointmentType type, Long veterinarianId) {
+    if (type != null && veterinarianId != null) {
+      Ewma byVet = averages.get(new EstimateKey(clinicId, type, veterinarianId));
+      if (byVet != null && byVet.samples() >= minSamples) {
+        return byVet.mean();
+      }
+    }
+    if (type != null) {
+      Ewma byType = averages.get(new EstimateKey(clinicId, type, null));
+      if (byType != null && byType.samples() >= minSamples) {
+        return byType.mean();
+      }
+    }
+    Ewma byClinic = averages.get(new EstimateKey(clinicId, null, null));
+    if (byClinic != null && byClinic.samples() >= minSamples) {
+      return byClinic.mean();
+    }
+    return DEFAULT_MINUTES_PER_PATIENT;
+  }
+
+  /**
+   * Records a finished consultation. Called once per transition to COMPLETED; inside a transaction
+   * the sample is only taken once it commits, so a rolled back completion does not skew the averages.
+   */
+  public void recordCompletion(Long clinicId, Appointment.AppointmentType type, Long veterinarianId,
+      LocalDateTime startedTime, LocalDateTime completedTime) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          sample(clinicId, type, veterinarianId, startedTime, completedTime);
+        }
+      });
+    } else {
+      sample(clinicId, type, veterinarianId, startedTime, completedTime);
+    }
+  }
+
+  private void sample(Long clinicId, Appointment.AppointmentType type, Long veterinarianId,
+      LocalDateTime startedTime, LocalDateTime completedTime) {
+    if (startedTime == null || completedTime == null) {
+      return;
+    }
+    double minutes = Duration.between(startedTime, completedTime).toSeconds() / 60.0;
+    if (minutes <= 0 || minutes > MAX_PLAUSIBLE_MINUTES) {
+      log.debug("Ignoring implausible service time of {} minutes for clinic {}", minutes, clinicId);
+      return;
+    }
+
+    record(new EstimateKey(clinicId, null, null), minutes, 1);
+    if (type != null) {
+      record(new EstimateKey(clinicId, type, null), minutes, 1);
+      if (veterinarianId != null) {
+        record(new EstimateKey(clinicId, type, veterinarianId), minutes, 1);
+      }
+    }
+  }
+
+  /**
+   * Seeds a clinic's averages with one grouped query. Must run inside a transaction; calls for
+   * an already seeded clinic return immediately, and calls made while another thread seeds the
+   * clinic wait for it. A failed seed is not remembered, so a later call tries again.
+   */
+  public void ensureSeeded(Long clinicId) {
+    while (true) {
+      CompletableFuture<Void> seed = new CompletableFuture<>();
+      CompletableFuture<Void> existing = seeds.putIfAbsent(clinicId, seed);
+      if (existing == null) {
+        try {
+          seed(clinicId);
+          seed.complete(null);
+        } catch (RuntimeException e) {
+          seeds.remove(clinicId, seed);
+          seed.completeExceptionally(e);
+          throw e;
+        }
+        return;
+      }
+      try {
+        existing.join();
+        return;
+      } catch (CompletionException | CancellationException e) {
+        // The other seed failed and was removed; seed it from here instead
+      }
+    }
+  }
+
+  private void seed(Long clinicId) {
+    LocalDate since = LocalDate.now().minusDays(seedDays);
+    int groups = 0;
+    for (QueueEntryRepository.ServiceTimeStats stats : queueEntryRepository.findServiceTimeStats(clinicId, since)) {
+      if (stats.getAverageMinutes() == null || stats.getSamples() == null) {
+        continue;
+      }
+      Appointment.AppointmentType type = parseType(stats.getAppointmentType());
+      double minutes = stats.getAverageMinutes();
+      long samples = stats.getSamples();
+
+      record(new EstimateKey(clinicId, null, null), minutes, samples);
+      if (type != null) {
+        record(new EstimateKey(clinicId, type, null), minutes, samples);
+        if (stats.getVeterinarianId() != null) {
+          record(new EstimateKey(clinicId, type, stats.getVeterinarianId()), minutes, samples);
+        }
+      }
+      groups++;
+    }
+    log.debug("Seeded service time estimates for clinic {} from {} groups", clinicId, groups);
+  }
+
+  private void record(EstimateKey key, double minutes, long samples) {
+    averages.computeIfAbsent(key, k -> new Ewma()).add(minutes, samples, alpha);
+  }
+
+  private Appointment.AppointmentType parseType(String type) {
+    if (type == null) {
+      return null;
+    }
+    try {
+      return Appointment.AppointmentType.valueOf(type);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private record EstimateKey(Long clinicId, Appointment.AppointmentType type, Long veterinarianId) {
+  }
+
+  /**
+   * Moving average that behaves like a plain mean until it has seen 1/alpha samples, so that the
+   * first few observations are not dominated by the initial value.
+   */
+  private static final class Ewma {
+    private double mean;
+    private long samples;
+
+    synchronized void add(double value, long count, double alpha) {
+      if (count <= 0) {
+        return;
+      }
+      if (samples == 0) {
+        mean = value;
+      } else {
+        // Weight of the new observation(s): plain mean while warming up, alpha afterwards
+        double weight = Math.max(alpha, (double) count / (samples + count));
+        mean += weight * (value - mean);
+      }
+      samples += count;
+    }
+
+    synchronized double mean() {
+      return mean;
+    }
+
+    synchronized long samples() {
+      return samples;
+    }
+  }
+}
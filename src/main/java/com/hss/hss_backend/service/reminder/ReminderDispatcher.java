@@ -0,0 +1,247 @@
+package com.hss.hss_backend.service.reminder;
+
+import com.hss.hss_backend.entity.Reminder;
+import com.hss.hss_backend.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends due reminders in batches: new reminders whose send time has come, and failed reminders
+ * whose next attempt is due.
+ * <p>
+ * A batch is claimed with one {@code UPDATE ... FOR UPDATE SKIP LOCKED} statement that moves the
+ * rows to {@code SENDING}, so several dispatchers (threads or instances) never pick the same
+ * reminder and no transaction is held open while talking to SMTP/SMS providers. The batch is then
+ * sent on virtual threads, throttled per channel by a rate and a maximum of concurrent sends, and
+ * all results are written back with a single JDBC batch. Failures are rescheduled or
+ * dead-lettered by {@link ReminderRetryPolicy}. Claims left behind by a dispatcher that
+ * died mid-batch are released after {@code reminder.dispatch.claim-timeout-minutes}.
+ */
+@Component
+@Slf4j
+public class ReminderDispatcher {
+
+    static final String RELEASE_STALE_CLAIMS_SQL =
+            "UPDATE reminder SET status = 'PENDING', claimed_at = NULL " +
+            "WHERE status = 'SENDING' AND claimed_at < ?";
+
+    private static final String CLAIMED_COLUMNS =
+            "RETURNING reminder_id, channel, message, recipient_email, recipient_phone, retry_count";
+
+    static final String CLAIM_SQL =
+            "UPDATE reminder SET status = 'SENDING', claimed_at = ? WHERE reminder_id IN (" +
+            "SELECT reminder_id FROM reminder WHERE status = 'PENDING' AND send_time <= ? " +
+            "ORDER BY send_time LIMIT ? FOR UPDATE SKIP LOCKED) " + CLAIMED_COLUMNS;
+
+    static final String CLAIM_RETRY_SQL =
+            "UPDATE reminder SET status = 'SENDING', claimed_at = ? WHERE reminder_id IN (" +
+            "SELECT reminder_id FROM reminder WHERE status = 'FAILED' AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " + CLAIMED_COLUMNS;
+
+    static final String RESULT_SQL =
+            "UPDATE reminder SET status = ?, sent_at = ?, error_message = ?, next_attempt_at = ?, " +
+            "retry_count = COALESCE(retry_count, 0) + ?, claimed_at = NULL, updated_at = ? " +
+            "WHERE reminder_id = ? AND status = 'SENDING'";
+
+    private static final RowMapper<Reminder> CLAIMED_ROW = (rs, rowNum) -> Reminder.builder()
+            .reminderId(rs.getLong("reminder_id"))
+            .channel(Reminder.Channel.valueOf(rs.getString("channel")))
+            .message(rs.getString("message"))
+            .recipientEmail(rs.getString("recipient_email"))
+            .recipientPhone(rs.getString("recipient_phone"))
+            .retryCount(rs.getInt("retry_count"))
+            .status(Reminder.Status.SENDING)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationService notificationService;
+    private final ReminderRetryPolicy retryPolicy;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int claimTimeoutMinutes;
+    private final Map<Reminder.Channel, ChannelThrottle> throttles = new EnumMap<>(Reminder.Channel.class);
+
+    public ReminderDispatcher(JdbcTemplate jdbcTemplate,
+                              NotificationService notificationService,
+                              ReminderRetryPolicy retryPolicy,
+                              MeterRegistry meterRegistry,
+                              @Value("${reminder.dispatch.batch-size:200}") int batchSize,
+                              @Value("${reminder.dispatch.claim-timeout-minutes:10}") int claimTimeoutMinutes,
+                              @Value("${reminder.dispatch.email.rate-per-second:20}") int emailRate,
+                              @Value("${reminder.dispatch.email.max-concurrent:10}") int emailConcurrency,
+                              @Value("${reminder.dispatch.sms.rate-per-second:10}") int smsRate,
+                              @Value("${reminder.dispatch.sms.max-concurrent:10}") int smsConcurrency,
+                              @Value("${reminder.dispatch.push.rate-per-second:50}") int pushRate,
+                              @Value("${reminder.dispatch.push.max-concurrent:50}") int pushConcurrency) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationService = notificationService;
+        this.retryPolicy = retryPolicy;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.claimTimeoutMinutes = claimTimeoutMinutes;
+        throttles.put(Reminder.Channel.EMAIL, new ChannelThrottle(emailRate, emailConcurrency));
+        throttles.put(Reminder.Channel.SMS, new ChannelThrottle(smsRate, smsConcurrency));
+        throttles.put(Reminder.Channel.PUSH, new ChannelThrottle(pushRate, pushConcurrency));
+    }
+
+    /**
+     * Sends every reminder that is due now, batch by batch, until none are left.
+     *
+     * @return how many reminders this call claimed
+     */
+    public int dispatchDue() {
+        return drain(CLAIM_SQL);
+    }
+
+    /**
+     * Resends every failed reminder whose next attempt is due.
+     *
+     * @return how many reminders this call claimed
+     */
+    public int dispatchDueRetries() {
+        return drain(CLAIM_RETRY_SQL);
+    }
+
+    private int drain(String claimSql) {
+        int released = jdbcTemplate.update(RELEASE_STALE_CLAIMS_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(claimTimeoutMinutes)));
+        if (released > 0) {
+            log.warn("Released {} reminder claims older than {} minutes", released, claimTimeoutMinutes);
+        }
+
+        int dispatched = 0;
+        List<Reminder> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = jdbcTemplate.query(claimSql, CLAIMED_ROW, Timestamp.valueOf(now), Timestamp.valueOf(now), batchSize);
+            if (!batch.isEmpty()) {
+                writeResults(send(batch));
+                dispatched += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (dispatched > 0) {
+            log.info("Dispatched {} reminders", dispatched);
+        }
+        return dispatched;
+    }
+
+    private List<Result> send(List<Reminder> batch) {
+        List<Future<Result>> futures = new ArrayList<>(batch.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Reminder reminder : batch) {
+                futures.add(executor.submit(() -> sendOne(reminder)));
+            }
+        }
+
+        List<Result> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(failed(batch.get(i), e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(failed(batch.get(i), "Interrupted"));
+            }
+        }
+        return results;
+    }
+
+    private Result sendOne(Reminder reminder) throws InterruptedException {
+        ChannelThrottle throttle = throttles.get(reminder.getChannel());
+        throttle.acquire();
+        try {
+            boolean success = notificationService.sendNotification(reminder);
+            Result result = success
+                    ? Result.sent(reminder, LocalDateTime.now())
+                    : failed(reminder, "Failed to send notification");
+            meterRegistry.counter("reminder.dispatch",
+                    "channel", reminder.getChannel().name(), "result", result.status().name().toLowerCase()).increment();
+            return result;
+        } finally {
+            throttle.release();
+        }
+    }
+
+    private Result failed(Reminder reminder, String errorMessage) {
+        int failedAttempts = (reminder.getRetryCount() != null ? reminder.getRetryCount() : 0) + 1;
+        if (retryPolicy.isExhausted(failedAttempts)) {
+            log.warn("Reminder {} dead-lettered after {} failed attempts", reminder.getReminderId(), failedAttempts);
+            return new Result(reminder, Reminder.Status.DEAD_LETTER, null, null, errorMessage);
+        }
+        LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(failedAttempts, LocalDateTime.now());
+        return new Result(reminder, Reminder.Status.FAILED, null, nextAttemptAt, errorMessage);
+    }
+
+    private void writeResults(List<Result> results) {
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(RESULT_SQL, results, results.size(), (ps, result) -> {
+            ps.setString(1, result.status().name());
+            ps.setTimestamp(2, result.sentAt() != null ? Timestamp.valueOf(result.sentAt()) : null);
+            ps.setString(3, result.errorMessage());
+            ps.setTimestamp(4, result.nextAttemptAt() != null ? Timestamp.valueOf(result.nextAttemptAt()) : null);
+            ps.setInt(5, result.status() == Reminder.Status.SENT ? 0 : 1);
+            ps.setTimestamp(6, updatedAt);
+            ps.setLong(7, result.reminder().getReminderId());
+        });
+    }
+
+    record Result(Reminder reminder, Reminder.Status status, LocalDateTime sentAt,
+                  LocalDateTime nextAttemptAt, String errorMessage) {
+
+        static Result sent(Reminder reminder, LocalDateTime sentAt) {
+            return new Result(reminder, Reminder.Status.SENT, sentAt, null, null);
+        }
+    }
+
+    /**
+     * Limits one channel to a number of sends per second (spaced evenly) and a number of sends
+     * in flight. Waiting happens on the virtual thread, so it costs no platform thread.
+     */
+    static final class ChannelThrottle {
+
+        private final Semaphore inFlight;
+        private final long intervalNanos;
+        private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+        ChannelThrottle(int ratePerSecond, int maxConcurrent) {
+            this.inFlight = new Semaphore(Math.max(1, maxConcurrent));
+            this.intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos > 0) {
+                long now = System.nanoTime();
+                long previous = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos);
+                long wait = Math.max(previous, now) - now;
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+            inFlight.acquire();
+        }
+
+        void release() {
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hss.hss_backend.service.reminder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when a failed reminder is tried again.
+ * <p>
+ * The delay doubles with every failed attempt, starting at {@code reminder.retry.initial-backoff-seconds}
+ * and capped at {@code reminder.retry.max-backoff-minutes}. Half of it is random so reminders that
+ * failed together during a provider outage do not all come back at the same moment. After
+ * {@code reminder.retry.max} failed attempts the reminder is dead-lettered.
+ */
+@Component
+public class ReminderRetryPolicy {
+
+    @Value("${reminder.retry.max:3}")
+    private int maxAttempts = 3;
+
+    @Value("${reminder.retry.initial-backoff-seconds:60}")
+    private long initialBackoffSeconds = 60;
+
+    @Value("${reminder.retry.max-backoff-minutes:360}")
+    private long maxBackoffMinutes = 360;
+
+    public boolean isExhausted(int failedAttempts) {
+        return failedAttempts >= maxAttempts;
+    }
+
+    public LocalDateTime nextAttemptAt(int failedAttempts, LocalDateTime failedAt) {
+        return failedAt.plus(backoff(failedAttempts));
+    }
+
+    Duration backoff(int failedAttempts) {
+        long capMillis = Duration.ofMinutes(maxBackoffMinutes).toMillis();
+        int doublings = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        long delayMillis = Math.min(capMillis, Duration.ofSeconds(initialBackoffSeconds).toMillis() << doublings);
+        long half = delayMillis / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
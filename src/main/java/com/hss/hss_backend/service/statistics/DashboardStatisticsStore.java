@@ -0,0 +1,301 @@
+package com.hss.hss_backend.service.statistics;
+
+import com.hss.hss_backend.dto.response.DashboardStatisticsResponse;
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.entity.Invoice;
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import com.hss.hss_backend.event.StatisticsChangedEvent.Section;
+import com.hss.hss_backend.repository.AnimalRepository;
+import com.hss.hss_backend.repository.AppointmentRepository;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.repository.InvoiceRepository;
+import com.hss.hss_backend.repository.OwnerRepository;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.repository.VaccinationScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-clinic dashboard statistics kept in memory.
+ * <p>
+ * Each clinic's snapshot is split into sections that are computed with one or two aggregate
+ * queries each. A {@link StatisticsChangedEvent} only bumps the generation of the affected
+ * section, and the next read recomputes just the sections whose generation moved, so a busy
+ * appointment book does not keep re-running the invoice and stock queries. Snapshots are rebuilt
+ * completely when the day changes, by the nightly scheduler, and when older than
+ * {@code statistics.dashboard.max-age-minutes}, which bounds how long writes made by other
+ * instances can stay invisible.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatisticsStore {
+
+    static final int UPCOMING_VACCINATION_DAYS = 30;
+    static final int REVENUE_MONTHS = 6;
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private final AnimalRepository animalRepository;
+    private final OwnerRepository ownerRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final StockProductRepository stockProductRepository;
+    private final VaccinationScheduleRepository vaccinationScheduleRepository;
+    private final ClinicRepository clinicRepository;
+
+    @Value("${statistics.dashboard.max-age-minutes:30}")
+    private long maxAgeMinutes = 30;
+
+    private final Map<ScopeKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<ScopeKey, AtomicLongArray> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Dashboard statistics for a clinic, or for every clinic when {@code clinicId} is null.
+     */
+    public DashboardStatisticsResponse get(Long clinicId) {
+        ScopeKey key = new ScopeKey(clinicId);
+        AtomicLongArray generation = generation(key);
+        Snapshot current = snapshots.get(key);
+        if (current != null && current.isCurrent(generation, LocalDate.now(), oldestAllowed())) {
+            return current.response();
+        }
+        return snapshots.compute(key, (k, existing) -> {
+            if (existing != null && existing.isCurrent(generation, LocalDate.now(), oldestAllowed())) {
+                return existing;
+            }
+            return load(k, existing, generation);
+        }).response();
+    }
+
+    /**
+     * Rebuilds every clinic's snapshot from scratch.
+     */
+    public void refreshAll() {
+        Set<ScopeKey> keys = new HashSet<>(snapshots.keySet());
+        for (Clinic clinic : clinicRepository.findAll()) {
+            keys.add(new ScopeKey(clinic.getClinicId()));
+        }
+        for (ScopeKey key : keys) {
+            AtomicLongArray generation = generation(key);
+            snapshots.compute(key, (k, existing) -> load(k, null, generation));
+        }
+        log.info("Rebuilt dashboard statistics for {} scopes", keys.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        int section = event.section().ordinal();
+        if (event.clinicId() == null) {
+            generations.values().forEach(generation -> generation.incrementAndGet(section));
+            return;
+        }
+        generation(new ScopeKey(event.clinicId())).incrementAndGet(section);
+        generation(ScopeKey.ALL).incrementAndGet(section);
+    }
+
+    private AtomicLongArray generation(ScopeKey key) {
+        return generations.computeIfAbsent(key, k -> new AtomicLongArray(SECTIONS.length));
+    }
+
+    private Instant oldestAllowed() {
+        return Instant.now().minus(Duration.ofMinutes(maxAgeMinutes));
+    }
+
+    /**
+     * Builds a snapshot reusing the sections of {@code existing} that are still current. The
+     * generations are read before querying so a change committed mid-load marks the new
+     * snapshot stale instead of being lost.
+     */
+    private Snapshot load(ScopeKey key, Snapshot existing, AtomicLongArray generation) {
+        LocalDate today = LocalDate.now();
+        long[] seen = new long[SECTIONS.length];
+        for (int i = 0; i < seen.length; i++) {
+            seen[i] = generation.get(i);
+        }
+        Snapshot reusable = existing != null && existing.day().equals(today)
+            && !existing.computedAt().isBefore(oldestAllowed()) ? existing : null;
+        Long clinicId = key.clinicId();
+
+        AnimalStats animals = reuse(reusable, seen, Section.ANIMALS)
+            ? reusable.animals() : loadAnimals(clinicId);
+        AppointmentStats appointments = reuse(reusable, seen, Section.APPOINTMENTS)
+            ? reusable.appointments() : loadAppointments(clinicId);
+        InvoiceStats invoices = reuse(reusable, seen, Section.INVOICES)
+            ? reusable.invoices() : loadInvoices(clinicId, today);
+        StockStats stock = reuse(reusable, seen, Section.STOCK)
+            ? reusable.stock() : loadStock();
+        VaccinationStats vaccinations = reuse(reusable, seen, Section.VACCINATIONS)
+            ? reusable.vaccinations() : loadVaccinations(clinicId, today);
+
+        Instant computedAt = reusable != null ? reusable.computedAt() : Instant.now();
+        return new Snapshot(today, computedAt, seen, animals, appointments, invoices, stock, vaccinations,
+            toResponse(animals, appointments, invoices, stock, vaccinations));
+    }
+
+    private static boolean reuse(Snapshot snapshot, long[] seen, Section section) {
+        return snapshot != null && snapshot.generations()[section.ordinal()] == seen[section.ordinal()];
+    }
+
+    private AnimalStats loadAnimals(Long clinicId) {
+        Map<String, Long> bySpecies = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : animalRepository.getAnimalCountBySpeciesForClinic(clinicId)) {
+            long count = ((Number) row[1]).longValue();
+            bySpecies.put(String.valueOf(row[0]), count);
+            total += count;
+        }
+        Long owners = ownerRepository.getOwnerCountForClinic(clinicId);
+        return new AnimalStats(total, owners != null ? owners : 0L, Collections.unmodifiableMap(bySpecies));
+    }
+
+    private AppointmentStats loadAppointments(Long clinicId) {
+        Map<Appointment.Status, Long> counts = new EnumMap<>(Appointment.Status.class);
+        for (Object[] row : appointmentRepository.getAppointmentCountByStatusForClinic(clinicId)) {
+            counts.put((Appointment.Status) row[0], ((Number) row[1]).longValue());
+        }
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (Appointment.Status status : Appointment.Status.values()) {
+            long count = counts.getOrDefault(status, 0L);
+            byStatus.put(status.name(), count);
+            total += count;
+        }
+        long pending = counts.getOrDefault(Appointment.Status.SCHEDULED, 0L)
+            + counts.getOrDefault(Appointment.Status.CONFIRMED, 0L);
+        return new AppointmentStats(total, pending, counts.getOrDefault(Appointment.Status.COMPLETED, 0L),
+            Collections.unmodifiableMap(byStatus));
+    }
+
+    private InvoiceStats loadInvoices(Long clinicId, LocalDate today) {
+        long total = 0;
+        long pending = 0;
+        long overdue = 0;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        for (InvoiceRepository.StatusSummary row : invoiceRepository.getStatusSummaryForClinic(clinicId)) {
+            long count = row.getInvoiceCount();
+            total += count;
+            if (row.getStatus() == Invoice.Status.PAID && row.getTotalAmount() != null) {
+                paidAmount = row.getTotalAmount();
+            } else if (row.getStatus() == Invoice.Status.PENDING) {
+                pending = count;
+                overdue = row.getOverdueCount() != null ? row.getOverdueCount() : 0L;
+            }
+        }
+
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth firstMonth = currentMonth.minusMonths(REVENUE_MONTHS - 1);
+        Map<String, BigDecimal> revenueByMonth = new LinkedHashMap<>();
+        for (YearMonth month = firstMonth; !month.isAfter(currentMonth); month = month.plusMonths(1)) {
+            revenueByMonth.put(monthKey(month), BigDecimal.ZERO);
+        }
+        for (InvoiceRepository.MonthlySummary row
+            : invoiceRepository.getMonthlySummaryForClinic(clinicId, firstMonth.atDay(1), today)) {
+            if (row.getTotalAmount() != null) {
+                revenueByMonth.put(monthKey(YearMonth.of(row.getInvoiceYear(), row.getInvoiceMonth())),
+                    row.getTotalAmount());
+            }
+        }
+        return new InvoiceStats(total, pending, overdue, paidAmount, revenueByMonth.get(monthKey(currentMonth)),
+            Collections.unmodifiableMap(revenueByMonth));
+    }
+
+    private StockStats loadStock() {
+        return new StockStats(stockProductRepository.countLowStockProducts(),
+            stockProductRepository.countOutOfStockProducts());
+    }
+
+    private VaccinationStats loadVaccinations(Long clinicId, LocalDate today) {
+        return new VaccinationStats(
+            vaccinationScheduleRepository.countSchedulesBetweenForClinic(clinicId, today,
+                today.plusDays(UPCOMING_VACCINATION_DAYS)),
+            vaccinationScheduleRepository.countOverduePendingSchedulesForClinic(clinicId));
+    }
+
+    private static String monthKey(YearMonth month) {
+        return month.getYear() + "-" + String.format("%02d", month.getMonthValue());
+    }
+
+    private static DashboardStatisticsResponse toResponse(AnimalStats animals, AppointmentStats appointments,
+                                                          InvoiceStats invoices, StockStats stock,
+                                                          VaccinationStats vaccinations) {
+        return DashboardStatisticsResponse.builder()
+            .totalAnimals(animals.total())
+            .totalOwners(animals.owners())
+            .totalAppointments(appointments.total())
+            .pendingAppointments(appointments.pending())
+            .completedAppointments(appointments.completed())
+            .totalRevenue(invoices.paidAmount())
+            .monthlyRevenue(invoices.monthlyRevenue())
+            .totalInvoices(invoices.total())
+            .pendingInvoices(invoices.pending())
+            .overdueInvoices(invoices.overdue())
+            .lowStockItems(stock.lowStock())
+            .outOfStockItems(stock.outOfStock())
+            .upcomingVaccinations(vaccinations.upcoming())
+            .overdueVaccinations(vaccinations.overdue())
+            .appointmentsByStatus(appointments.byStatus())
+            .animalsBySpecies(animals.bySpecies())
+            .revenueByMonth(invoices.revenueByMonth())
+            .build();
+    }
+
+    /**
+     * Clinic a snapshot belongs to; a null clinic id is the cross-clinic view.
+     */
+    private record ScopeKey(Long clinicId) {
+        static final ScopeKey ALL = new ScopeKey(null);
+    }
+
+    private record Snapshot(LocalDate day, Instant computedAt, long[] generations,
+                            AnimalStats animals, AppointmentStats appointments, InvoiceStats invoices,
+                            StockStats stock, VaccinationStats vaccinations,
+                            DashboardStatisticsResponse response) {
+
+        boolean isCurrent(AtomicLongArray current, LocalDate today, Instant oldestAllowed) {
+            if (!day.equals(today) || computedAt.isBefore(oldestAllowed)) {
+                return false;
+            }
+            for (int i = 0; i < generations.length; i++) {
+                if (generations[i] != current.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record AnimalStats(long total, long owners, Map<String, Long> bySpecies) {
+    }
+
+    private record AppointmentStats(long total, long pending, long completed, Map<String, Long> byStatus) {
+    }
+
+    private record InvoiceStats(long total, long pending, long overdue, BigDecimal paidAmount,
+                                BigDecimal monthlyRevenue, Map<String, BigDecimal> revenueByMonth) {
+    }
+
+    private record StockStats(long lowStock, long outOfStock) {
+    }
+
+    private record VaccinationStats(long upcoming, long overdue) {
+    }
+}
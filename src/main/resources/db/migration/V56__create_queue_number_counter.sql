@@ -0,0 +1,20 @@
+-- V56: Per-clinic, per-day queue number counter
+-- Queue numbers were allocated with MAX(queue_number) + 1, which lets concurrent check-ins
+-- read the same maximum. A single counter row per clinic and day is incremented atomically
+-- with INSERT ... ON CONFLICT DO UPDATE, which serializes allocations on that row across all
+-- application instances.
+
+CREATE TABLE queue_number_counter (
+    clinic_id INT NOT NULL REFERENCES clinic(clinic_id) ON DELETE CASCADE,
+    queue_date DATE NOT NULL,
+    last_number INT NOT NULL,
+    PRIMARY KEY (clinic_id, queue_date)
+);
+
+-- Continue from numbers already handed out
+INSERT INTO queue_number_counter (clinic_id, queue_date, last_number)
+SELECT clinic_id, queue_date, MAX(queue_number)
+FROM queue_entry
+GROUP BY clinic_id, queue_date;
+
+COMMENT ON TABLE queue_number_counter IS 'Last queue number handed out per clinic and day';
@@ -0,0 +1,14 @@
+-- V57: Cluster-wide leases for scheduled jobs
+-- Every application instance runs the same @Scheduled jobs. Before a job runs, the instance
+-- takes the job's lease row with a single conditional upsert; only the instance whose upsert
+-- wins runs the job, the others skip that tick. A lease expires on its own after locked_until,
+-- so a crashed instance cannot block a job forever. All times come from the database clock.
+
+CREATE TABLE scheduled_job_lease (
+    job_name VARCHAR(200) PRIMARY KEY,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_until TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE scheduled_job_lease IS 'Which instance currently holds each scheduled job, and until when';
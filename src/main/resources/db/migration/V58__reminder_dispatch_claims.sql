@@ -0,0 +1,17 @@
+-- V58: Batched reminder dispatch
+-- Due reminders are claimed in batches with UPDATE ... FOR UPDATE SKIP LOCKED, which moves them
+-- to SENDING and stamps claimed_at, so any number of dispatchers can work the queue without
+-- picking the same reminder. A claim that is never finished (e.g. the instance died mid-send)
+-- becomes claimable again after a timeout.
+
+ALTER TABLE reminder DROP CONSTRAINT IF EXISTS reminder_status_check;
+ALTER TABLE reminder ADD CONSTRAINT reminder_status_check
+    CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DELIVERED', 'FAILED', 'CANCELLED'));
+
+ALTER TABLE reminder ADD COLUMN claimed_at TIMESTAMP;
+
+-- Only due-able rows are indexed, so the claim query stays small as sent reminders pile up
+CREATE INDEX idx_reminder_pending_send_time ON reminder(send_time) WHERE status = 'PENDING';
+CREATE INDEX idx_reminder_sending_claimed_at ON reminder(claimed_at) WHERE status = 'SENDING';
+
+COMMENT ON COLUMN reminder.claimed_at IS 'When a dispatcher claimed the reminder for sending (status SENDING)';
@@ -0,0 +1,20 @@
+-- V59: Reminder retries with backoff and a dead-letter state
+-- A failed reminder now carries the time of its next attempt, spread out with exponential
+-- backoff and jitter, instead of every failed reminder being resent together at the top of
+-- the hour. Reminders that used up their attempts move to DEAD_LETTER for operators to inspect
+-- and requeue.
+
+ALTER TABLE reminder DROP CONSTRAINT IF EXISTS reminder_status_check;
+ALTER TABLE reminder ADD CONSTRAINT reminder_status_check
+    CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DELIVERED', 'FAILED', 'DEAD_LETTER', 'CANCELLED'));
+
+ALTER TABLE reminder ADD COLUMN next_attempt_at TIMESTAMP;
+
+-- Existing failures: exhausted ones (default reminder.retry.max of 3) are dead-lettered,
+-- the rest are retried right away
+UPDATE reminder SET status = 'DEAD_LETTER' WHERE status = 'FAILED' AND COALESCE(retry_count, 0) >= 3;
+UPDATE reminder SET next_attempt_at = CURRENT_TIMESTAMP WHERE status = 'FAILED';
+
+CREATE INDEX idx_reminder_failed_next_attempt ON reminder(next_attempt_at) WHERE status = 'FAILED';
+
+COMMENT ON COLUMN reminder.next_attempt_at IS 'When a FAILED reminder is due for its next send attempt';
@@ -0,0 +1,23 @@
+-- V60: Set-based stock alert evaluation
+-- Alerts are now created by INSERT ... SELECT statements that anti-join against unresolved
+-- alerts instead of one lookup per product. At most one unresolved alert per product and type
+-- is enforced by a partial unique index, which also serves the anti-join and makes concurrent
+-- evaluations (several instances, event-driven checks) safe with ON CONFLICT DO NOTHING.
+
+-- Resolve duplicate unresolved alerts left by the old evaluation, keeping the oldest one
+UPDATE stock_alert a
+SET is_resolved = true, resolved_at = CURRENT_TIMESTAMP, resolved_by = 'system'
+WHERE a.is_resolved = false
+  AND EXISTS (
+      SELECT 1 FROM stock_alert older
+      WHERE older.product_id = a.product_id
+        AND older.alert_type = a.alert_type
+        AND older.is_resolved = false
+        AND older.alert_id < a.alert_id
+  );
+
+CREATE UNIQUE INDEX uk_stock_alert_unresolved ON stock_alert(product_id, alert_type) WHERE is_resolved = false;
+
+-- Only products at or below their minimum are candidates for stock level alerts
+CREATE INDEX idx_stock_product_at_or_below_min ON stock_product(product_id)
+    WHERE is_active = true AND current_stock <= COALESCE(min_stock, 0);
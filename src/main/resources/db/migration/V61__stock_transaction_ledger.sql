@@ -0,0 +1,33 @@
+-- V61: Clinic-scoped, keyset-paginated stock transaction ledger
+-- Stock products are shared between clinics, but each movement is recorded in the clinic that
+-- made it. The ledger is read newest first with (transaction_date, transaction_id) as the keyset,
+-- so both indexes end in that order and a page is an index range scan however long the ledger is.
+
+ALTER TABLE stock_transaction ADD COLUMN clinic_id INT REFERENCES clinic(clinic_id);
+
+-- Backfill from the record that caused the movement where there is one
+UPDATE stock_transaction t
+SET clinic_id = v.clinic_id
+FROM vaccination_record v
+WHERE t.clinic_id IS NULL
+  AND t.related_entity = 'VACCINATION'
+  AND t.related_id = v.vaccination_record_id;
+
+UPDATE stock_transaction t
+SET clinic_id = s.clinic_id
+FROM surgery s
+WHERE t.clinic_id IS NULL
+  AND t.related_entity = 'SURGERY'
+  AND t.related_id = s.surgery_id;
+
+-- With a single clinic every remaining movement belongs to it; otherwise they stay unattributed
+UPDATE stock_transaction
+SET clinic_id = (SELECT MIN(clinic_id) FROM clinic)
+WHERE clinic_id IS NULL
+  AND (SELECT COUNT(*) FROM clinic) = 1;
+
+CREATE INDEX idx_stock_transaction_clinic_ledger
+    ON stock_transaction(clinic_id, transaction_date DESC, transaction_id DESC);
+
+CREATE INDEX idx_stock_transaction_product_ledger
+    ON stock_transaction(product_id, transaction_date DESC, transaction_id DESC);
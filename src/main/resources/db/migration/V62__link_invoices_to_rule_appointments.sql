@@ -0,0 +1,9 @@
+-- V62: Link rule-generated invoices to the appointment and rule that produced them
+-- Batch invoice generation inserts with ON CONFLICT DO NOTHING on this pair, so re-running the
+-- rules (scheduler retries, overlapping windows, several instances) never invoices an appointment
+-- twice for the same rule. Manually created invoices leave both columns NULL and never conflict.
+
+ALTER TABLE invoice ADD COLUMN appointment_id INT REFERENCES appointment(appointment_id) ON DELETE SET NULL;
+ALTER TABLE invoice ADD COLUMN invoice_rule_id INT REFERENCES invoice_rule(rule_id) ON DELETE SET NULL;
+
+ALTER TABLE invoice ADD CONSTRAINT uk_invoice_appointment_rule UNIQUE (appointment_id, invoice_rule_id);
@@ -0,0 +1,5 @@
+-- V63: Version invoice rules
+-- Compiled rule conditions and templates are cached per rule id and version; the version is
+-- bumped by every update, so an instance never evaluates a rule with an outdated compilation.
+
+ALTER TABLE invoice_rule ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- V64: Trigram indexes for the unified patient search
+-- The front desk searches by any part of the animal name, owner name, phone or microchip.
+-- LIKE '%x%' cannot use a btree index, so each searched expression gets a pg_trgm GIN index
+-- and the search matches on exactly these expressions.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_animal_name_trgm
+    ON animal USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_animal_microchip_trgm
+    ON animal USING gin (lower(microchip_no) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owner_full_name_trgm
+    ON owner USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owner_phone_trgm
+    ON owner USING gin (phone gin_trgm_ops);
@@ -0,0 +1,18 @@
+-- V65: Indexes for the patient chart timeline
+-- The chart reads the five record tables of one animal newest first, keyed on (date, id), and
+-- merges them. With these indexes every branch is an index range scan that stops after one page.
+
+CREATE INDEX IF NOT EXISTS idx_medical_history_animal_timeline
+    ON medical_history(animal_id, date DESC, history_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_clinical_examination_animal_timeline
+    ON clinical_examination(animal_id, date DESC, examination_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_prescription_animal_timeline
+    ON prescription(animal_id, date DESC, prescription_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_radiological_imaging_animal_timeline
+    ON radiological_imaging(animal_id, date DESC, image_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_pathology_findings_animal_timeline
+    ON pathology_findings(animal_id, date DESC, pathology_id DESC);
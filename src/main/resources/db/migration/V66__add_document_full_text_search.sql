@@ -0,0 +1,12 @@
+-- V66: Full-text search over document title and content
+-- search_vector is kept up to date by PostgreSQL itself. The title is weighted above the content
+-- so title hits rank first. The 'simple' configuration only lowercases and does not stem, which
+-- suits mixed Turkish/English records and lets the search match word prefixes.
+
+ALTER TABLE document ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_document_search_vector ON document USING gin (search_vector);
@@ -0,0 +1,99 @@
+package com.hss.hss_backend.config;
+
+import com.hss.hss_backend.security.ClinicContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TenantAwareJpaTransactionManagerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private EntityTransaction entityTransaction;
+    @Mock
+    private Session session;
+    @Mock
+    private Filter filter;
+    @Mock
+    private Query query;
+
+    private TransactionTemplate required;
+    private TransactionTemplate requiresNew;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.enableFilter("clinicFilter")).thenReturn(filter);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyInt(), any())).thenReturn(query);
+        doAnswer(invocation -> {
+            when(entityTransaction.isActive()).thenReturn(true);
+            return null;
+        }).when(entityTransaction).begin();
+
+        TenantAwareJpaTransactionManager transactionManager = new TenantAwareJpaTransactionManager(entityManagerFactory);
+        required = new TransactionTemplate(transactionManager);
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClinicContext.clear();
+    }
+
+    @Test
+    void nestedTransactionalCalls_ShouldBindClinicOncePerPhysicalTransaction() {
+        ClinicContext.setClinicId(42L);
+
+        required.executeWithoutResult(outer -> {
+            for (int i = 0; i < 5; i++) {
+                required.executeWithoutResult(inner -> { });
+            }
+        });
+
+        verify(entityManager, times(1)).createNativeQuery(TenantAwareJpaTransactionManager.BIND_CLINIC_SQL);
+        verify(query).setParameter(1, "42");
+        verify(filter, times(1)).setParameter("clinicId", 42L);
+    }
+
+    @Test
+    void requiresNew_ShouldBindTheNewPhysicalTransactionToo() {
+        ClinicContext.setClinicId(42L);
+
+        required.executeWithoutResult(outer -> requiresNew.executeWithoutResult(inner -> { }));
+
+        verify(entityManager, times(2)).createNativeQuery(TenantAwareJpaTransactionManager.BIND_CLINIC_SQL);
+    }
+
+    @Test
+    void withoutClinicContext_ShouldNotIssueAnyStatement() {
+        required.executeWithoutResult(outer -> required.executeWithoutResult(inner -> { }));
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+        verify(session, never()).enableFilter(anyString());
+    }
+}
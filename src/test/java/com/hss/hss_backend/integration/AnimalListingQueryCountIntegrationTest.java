@@ -0,0 +1,117 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.response.AnimalResponse;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.AnimalService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement count of the patient list. Mapping a page reads owner, species, breed and conditions
+ * of every animal; none of them may be loaded per row, so a page of 50 must cost as many
+ * statements as a page of 5.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class AnimalListingQueryCountIntegrationTest {
+
+  private static final int ANIMALS = 60;
+
+  // Rows, count, conditions batch and the tenant binding of the transaction
+  private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+  @Autowired
+  private AnimalService animalService;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final String tag = UUID.randomUUID().toString().substring(0, 8);
+  private Clinic clinic;
+  private Long speciesId;
+  private Long breedId;
+  private Long ownerId;
+
+  @BeforeEach
+  void setUp() {
+    Clinic newClinic = new Clinic();
+    newClinic.setName("Listing Clinic " + tag);
+    newClinic.setAddress("1 Listing St");
+    newClinic.setPhone("555-0000");
+    newClinic.setEmail("listing@test.com");
+    clinic = clinicRepository.save(newClinic);
+    speciesId = jdbcTemplate.queryForObject(
+        "INSERT INTO species (name) VALUES (?) RETURNING species_id", Long.class, "Species " + tag);
+    breedId = jdbcTemplate.queryForObject(
+        "INSERT INTO breed (species_id, name) VALUES (?, ?) RETURNING breed_id", Long.class, speciesId, "Breed " + tag);
+    ownerId = jdbcTemplate.queryForObject(
+        "INSERT INTO owner (clinic_id, first_name, last_name) VALUES (?, ?, ?) RETURNING owner_id",
+        Long.class, clinic.getClinicId(), "Listing", "Owner " + tag);
+    for (int i = 0; i < ANIMALS; i++) {
+      Long animalId = jdbcTemplate.queryForObject(
+          "INSERT INTO animal (clinic_id, owner_id, name, species_id, breed_id) VALUES (?, ?, ?, ?, ?) RETURNING animal_id",
+          Long.class, clinic.getClinicId(), ownerId, "Animal " + i, speciesId, breedId);
+      jdbcTemplate.update("INSERT INTO animal_conditions (animal_id, type, name) VALUES (?, 'ALLERGY', 'Pollen'), (?, 'CHRONIC_CONDITION', 'Asthma')",
+          animalId, animalId);
+    }
+    ClinicContext.setClinicId(clinic.getClinicId());
+  }
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+    jdbcTemplate.update("DELETE FROM animal WHERE clinic_id = ?", clinic.getClinicId());
+    jdbcTemplate.update("DELETE FROM owner WHERE owner_id = ?", ownerId);
+    jdbcTemplate.update("DELETE FROM breed WHERE breed_id = ?", breedId);
+    jdbcTemplate.update("DELETE FROM species WHERE species_id = ?", speciesId);
+    clinicRepository.delete(clinic);
+  }
+
+  @Test
+  void getAllAnimals_ShouldCostTheSameStatementsForAnyPageSize() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    // Warm up caches and lazy initialisation before counting
+    animalService.getAllAnimals(PageRequest.of(0, 5), null);
+
+    statistics.clear();
+    Page<AnimalResponse> small = animalService.getAllAnimals(PageRequest.of(0, 5), null);
+    long smallPage = statistics.getPrepareStatementCount();
+
+    statistics.clear();
+    Page<AnimalResponse> large = animalService.getAllAnimals(PageRequest.of(0, 50), null);
+    long largePage = statistics.getPrepareStatementCount();
+
+    assertEquals(5, small.getContent().size());
+    assertEquals(50, large.getContent().size());
+    assertEquals(ANIMALS, large.getTotalElements());
+    assertTrue(large.getContent().stream().allMatch(animal -> animal.getConditions().size() == 2));
+    assertTrue(large.getContent().stream().allMatch(animal -> ("Species " + tag).equals(animal.getSpeciesName())));
+    assertEquals(smallPage, largePage, "Page cost should not grow with the number of rows (" + smallPage
+        + " statements for 5 rows, " + largePage + " for 50 rows)");
+    assertTrue(largePage <= MAX_STATEMENTS_PER_PAGE,
+        "A page should cost at most " + MAX_STATEMENTS_PER_PAGE + " statements, cost " + largePage);
+  }
+}
@@ -0,0 +1,133 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.response.AnimalResponse;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.service.AnimalSearch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the unified patient search against the real schema: matches on every searched field,
+ * stays inside the clinic, ranks exact matches first and pages without repeating rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AnimalSearchIntegrationTest {
+
+  private static final int NAMED_ANIMALS = 25;
+
+  @Autowired
+  private AnimalSearch animalSearch;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final String tag = UUID.randomUUID().toString().substring(0, 8);
+  private final String phone = "0532" + Math.abs(tag.hashCode() % 10_000_000);
+  private Clinic clinic;
+  private Clinic otherClinic;
+  private Long speciesId;
+  private Long breedId;
+  private Long ownerId;
+  private Long otherOwnerId;
+
+  @BeforeEach
+  void setUp() {
+    clinic = clinic("Search Clinic");
+    otherClinic = clinic("Other Search Clinic");
+    speciesId = jdbcTemplate.queryForObject(
+        "INSERT INTO species (name) VALUES (?) RETURNING species_id", Long.class, "Species " + tag);
+    breedId = jdbcTemplate.queryForObject(
+        "INSERT INTO breed (species_id, name) VALUES (?, ?) RETURNING breed_id", Long.class, speciesId, "Breed " + tag);
+    ownerId = owner(clinic, "Zeynep", "Karaca" + tag, phone);
+    otherOwnerId = owner(otherClinic, "Ali", "Karaca" + tag, null);
+
+    animal(clinic, ownerId, "Pamuk" + tag, "CHIP-" + tag);
+    for (int i = 0; i < NAMED_ANIMALS; i++) {
+      animal(clinic, ownerId, "Pamuk" + tag + " " + i, null);
+    }
+    animal(otherClinic, otherOwnerId, "Pamuk" + tag + " other", null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM animal WHERE clinic_id IN (?, ?)", clinic.getClinicId(), otherClinic.getClinicId());
+    jdbcTemplate.update("DELETE FROM owner WHERE owner_id IN (?, ?)", ownerId, otherOwnerId);
+    jdbcTemplate.update("DELETE FROM breed WHERE breed_id = ?", breedId);
+    jdbcTemplate.update("DELETE FROM species WHERE species_id = ?", speciesId);
+    clinicRepository.delete(clinic);
+    clinicRepository.delete(otherClinic);
+  }
+
+  @Test
+  void search_ShouldMatchEveryFieldWithinClinic() {
+    Long clinicId = clinic.getClinicId();
+
+    assertEquals("Pamuk" + tag, animalSearch.search(clinicId, "chip-" + tag, 0, 10).get(0).getName());
+    assertEquals(NAMED_ANIMALS + 1, animalSearch.search(clinicId, "karaca" + tag, 0, 100).size());
+    assertEquals(NAMED_ANIMALS + 1, animalSearch.search(clinicId, "zeynep karaca" + tag, 0, 100).size());
+    assertEquals(NAMED_ANIMALS + 1, animalSearch.search(clinicId, phone.substring(2), 0, 100).size());
+
+    List<AnimalResponse> byName = animalSearch.search(clinicId, "amuk" + tag, 0, 100);
+    assertEquals(NAMED_ANIMALS + 1, byName.size());
+    assertTrue(byName.stream().allMatch(animal -> animal.getOwnerId().equals(ownerId)));
+    assertEquals("Species " + tag, byName.get(0).getSpeciesName());
+    assertEquals("Zeynep Karaca" + tag, byName.get(0).getOwnerName());
+
+    assertEquals(NAMED_ANIMALS + 2, animalSearch.search(null, "amuk" + tag, 0, 100).size());
+  }
+
+  @Test
+  void search_ShouldRankExactNameFirstAndPageWithoutRepeats() {
+    Set<Long> seen = new HashSet<>();
+    int page = 0;
+    List<AnimalResponse> rows;
+    do {
+      rows = animalSearch.search(clinic.getClinicId(), "pamuk" + tag, page, 10);
+      if (page == 0) {
+        assertEquals("Pamuk" + tag, rows.get(0).getName());
+      }
+      rows.forEach(row -> assertTrue(seen.add(row.getAnimalId()), "Animal repeated across pages"));
+      page++;
+    } while (rows.size() == 10);
+
+    assertEquals(NAMED_ANIMALS + 1, seen.size());
+  }
+
+  private Clinic clinic(String name) {
+    Clinic clinic = new Clinic();
+    clinic.setName(name);
+    clinic.setAddress("1 Search St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("search@test.com");
+    return clinicRepository.save(clinic);
+  }
+
+  private Long owner(Clinic clinic, String firstName, String lastName, String phone) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO owner (clinic_id, first_name, last_name, phone) VALUES (?, ?, ?, ?) RETURNING owner_id",
+        Long.class, clinic.getClinicId(), firstName, lastName, phone);
+  }
+
+  private void animal(Clinic clinic, Long ownerId, String name, String microchipNo) {
+    jdbcTemplate.update(
+        "INSERT INTO animal (clinic_id, owner_id, name, species_id, breed_id, microchip_no) VALUES (?, ?, ?, ?, ?, ?)",
+        clinic.getClinicId(), ownerId, name, speciesId, breedId, microchipNo);
+  }
+}
@@ -0,0 +1,143 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.response.DocumentResponse;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.DocumentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the full-text document search against the real schema: title and content hits, title
+ * hits ranked first, archived documents and other clinics left out, and stable pages.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DocumentSearchIntegrationTest {
+
+  private static final int CONTENT_HITS = 12;
+
+  @Autowired
+  private DocumentService documentService;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // Letters only, so the tag is a single search word
+  private final String tag = "kw" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+  private final List<Long> ownerIds = new ArrayList<>();
+  private Clinic clinic;
+  private Clinic otherClinic;
+  private Long speciesId;
+  private Long breedId;
+  private Long titleHitId;
+
+  @BeforeEach
+  void setUp() {
+    clinic = clinic("Document Clinic");
+    otherClinic = clinic("Other Document Clinic");
+    speciesId = jdbcTemplate.queryForObject(
+        "INSERT INTO species (name) VALUES (?) RETURNING species_id", Long.class, "Species " + tag);
+    breedId = jdbcTemplate.queryForObject(
+        "INSERT INTO breed (species_id, name) VALUES (?, ?) RETURNING breed_id", Long.class, speciesId, "Breed " + tag);
+    Long[] patient = patient(clinic);
+    Long[] otherPatient = patient(otherClinic);
+
+    titleHitId = document(patient, "Vaccination certificate " + tag, "Rabies", false);
+    for (int i = 0; i < CONTENT_HITS; i++) {
+      document(patient, "Visit report " + i, "Follow-up for " + tag + " dermatitis", false);
+    }
+    document(patient, "Archived " + tag, "Old", true);
+    document(otherPatient, "Other clinic " + tag, "Rabies", false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+    jdbcTemplate.update("DELETE FROM animal WHERE clinic_id IN (?, ?)", clinic.getClinicId(), otherClinic.getClinicId());
+    ownerIds.forEach(ownerId -> jdbcTemplate.update("DELETE FROM owner WHERE owner_id = ?", ownerId));
+    jdbcTemplate.update("DELETE FROM breed WHERE breed_id = ?", breedId);
+    jdbcTemplate.update("DELETE FROM species WHERE species_id = ?", speciesId);
+    clinicRepository.delete(clinic);
+    clinicRepository.delete(otherClinic);
+  }
+
+  @Test
+  void searchDocuments_ShouldRankTitleHitsFirstWithinClinic() {
+    ClinicContext.setClinicId(clinic.getClinicId());
+
+    Page<DocumentResponse> first = documentService.searchDocuments(tag.toUpperCase(), PageRequest.of(0, 5));
+
+    assertEquals(CONTENT_HITS + 1, first.getTotalElements());
+    assertEquals(titleHitId, first.getContent().get(0).getDocumentId());
+    assertNotNull(first.getContent().get(0).getOwnerName());
+
+    Set<Long> seen = new HashSet<>();
+    for (int page = 0; page < first.getTotalPages(); page++) {
+      documentService.searchDocuments(tag, PageRequest.of(page, 5)).getContent()
+          .forEach(document -> assertTrue(seen.add(document.getDocumentId()), "Document repeated across pages"));
+    }
+    assertEquals(CONTENT_HITS + 1, seen.size());
+  }
+
+  @Test
+  void searchDocuments_ShouldMatchWordPrefixesOfEveryWord() {
+    ClinicContext.setClinicId(clinic.getClinicId());
+
+    assertEquals(CONTENT_HITS, documentService.searchDocuments(tag + " derma", PageRequest.of(0, 50)).getTotalElements());
+    assertEquals(1, documentService.searchDocuments("vaccin " + tag, PageRequest.of(0, 50)).getTotalElements());
+    assertEquals(0, documentService.searchDocuments("vaccin derma " + tag, PageRequest.of(0, 50)).getTotalElements());
+  }
+
+  @Test
+  void searchDocuments_ShouldSearchAllClinicsWithoutClinic() {
+    assertEquals(CONTENT_HITS + 2, documentService.searchDocuments(tag, PageRequest.of(0, 50)).getTotalElements());
+  }
+
+  private Long[] patient(Clinic clinic) {
+    Long ownerId = jdbcTemplate.queryForObject(
+        "INSERT INTO owner (clinic_id, first_name, last_name) VALUES (?, ?, ?) RETURNING owner_id",
+        Long.class, clinic.getClinicId(), "Document", "Owner " + tag);
+    ownerIds.add(ownerId);
+    Long animalId = jdbcTemplate.queryForObject(
+        "INSERT INTO animal (clinic_id, owner_id, name, species_id, breed_id) VALUES (?, ?, ?, ?, ?) RETURNING animal_id",
+        Long.class, clinic.getClinicId(), ownerId, "Document " + tag, speciesId, breedId);
+    return new Long[] { ownerId, animalId };
+  }
+
+  private Long document(Long[] patient, String title, String content, boolean archived) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO document (owner_id, animal_id, title, content, date, is_archived) VALUES (?, ?, ?, ?, ?, ?) RETURNING document_id",
+        Long.class, patient[0], patient[1], title, content, Date.valueOf(LocalDate.now()), archived);
+  }
+
+  private Clinic clinic(String name) {
+    Clinic clinic = new Clinic();
+    clinic.setName(name);
+    clinic.setAddress("1 Document St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("document@test.com");
+    return clinicRepository.save(clinic);
+  }
+}
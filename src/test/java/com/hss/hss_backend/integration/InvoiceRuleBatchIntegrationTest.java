@@ -0,0 +1,163 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.entity.*;
+import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.service.InvoiceRuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the batch rule engine twice over the same completed appointments and checks that each
+ * appointment is invoiced exactly once per matching rule, with its items and totals.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class InvoiceRuleBatchIntegrationTest {
+
+  private static final int APPOINTMENTS = 40;
+
+  @Autowired
+  private InvoiceRuleService invoiceRuleService;
+
+  @Autowired
+  private InvoiceRuleRepository invoiceRuleRepository;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private OwnerRepository ownerRepository;
+
+  @Autowired
+  private AnimalRepository animalRepository;
+
+  @Autowired
+  private SpeciesRepository speciesRepository;
+
+  @Autowired
+  private AppointmentRepository appointmentRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Clinic clinic;
+  private Owner owner;
+  private Species species;
+  private Animal animal;
+  private final List<Appointment> appointments = new ArrayList<>();
+  private final List<InvoiceRule> rules = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    clinic = new Clinic();
+    clinic.setName("Invoice Rule Clinic");
+    clinic.setAddress("1 Billing St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("billing@test.com");
+    clinic = clinicRepository.save(clinic);
+
+    owner = new Owner();
+    owner.setFirstName("Billed");
+    owner.setLastName("Owner");
+    owner.setEmail("billed.owner@example.com");
+    owner.setClinic(clinic);
+    owner = ownerRepository.save(owner);
+
+    species = new Species();
+    species.setName("Dog-" + System.nanoTime());
+    species = speciesRepository.save(species);
+
+    animal = new Animal();
+    animal.setName("Invoiced");
+    animal.setOwner(owner);
+    animal.setClinic(clinic);
+    animal.setSpecies(species);
+    animal = animalRepository.save(animal);
+
+    for (int i = 0; i < APPOINTMENTS; i++) {
+      Appointment appointment = new Appointment();
+      appointment.setClinic(clinic);
+      appointment.setAnimal(animal);
+      appointment.setDateTime(LocalDateTime.now().minusHours(1).plusMinutes(i));
+      appointment.setSubject("Kontrol " + i);
+      appointment.setStatus(Appointment.Status.COMPLETED);
+      appointment.setAppointmentType(i % 2 == 0
+          ? Appointment.AppointmentType.VACCINATION : Appointment.AppointmentType.GENERAL_EXAM);
+      appointments.add(appointment);
+    }
+    appointmentRepository.saveAll(appointments);
+
+    rules.add(invoiceRuleRepository.save(InvoiceRule.builder()
+        .ruleName("Muayene ücreti")
+        .ruleType(InvoiceRule.RuleType.APPOINTMENT_AFTER)
+        .triggerStatus("COMPLETED")
+        .build()));
+    rules.add(invoiceRuleRepository.save(InvoiceRule.builder()
+        .ruleName("Aşı ücreti")
+        .ruleType(InvoiceRule.RuleType.APPOINTMENT_AFTER)
+        .triggerStatus("COMPLETED")
+        .conditions("{\"appointmentType\": \"VACCINATION\"}")
+        .invoiceTemplate("[{\"description\": \"Karma aşı\", \"quantity\": 1, \"unitPrice\": 250, \"vatRate\": 20, \"itemType\": \"VACCINE\"}]")
+        .build()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM invoice WHERE owner_id = ?", owner.getOwnerId());
+    appointmentRepository.deleteAll(appointments);
+    invoiceRuleRepository.deleteAll(rules);
+    animalRepository.delete(animal);
+    ownerRepository.delete(owner);
+    speciesRepository.delete(species);
+    clinicRepository.delete(clinic);
+  }
+
+  @Test
+  void processAllRules_RunTwiceShouldInvoiceEachAppointmentOncePerRule() {
+    invoiceRuleService.processAllRules();
+    invoiceRuleService.processAllRules();
+
+    assertEquals(APPOINTMENTS, countInvoices(rules.get(0)));
+    assertEquals(APPOINTMENTS / 2, countInvoices(rules.get(1)));
+    assertEquals(0, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM (SELECT appointment_id, invoice_rule_id FROM invoice WHERE owner_id = ? " +
+        "GROUP BY appointment_id, invoice_rule_id HAVING COUNT(*) > 1) duplicates", Integer.class, owner.getOwnerId()));
+
+    BigDecimal vaccineTotal = jdbcTemplate.queryForObject(
+        "SELECT i.total_amount FROM invoice i JOIN invoice_item it ON it.invoice_id = i.invoice_id " +
+        "WHERE i.invoice_rule_id = ? LIMIT 1", BigDecimal.class, rules.get(1).getRuleId());
+    assertEquals(0, new BigDecimal("300.00").compareTo(vaccineTotal));
+  }
+
+  @Test
+  void processRulesForAppointment_AfterBatchShouldNotDuplicate() {
+    invoiceRuleService.processAllRules();
+    int before = countInvoices(rules.get(0));
+
+    rules.forEach(rule -> {
+      rule.setTriggerEntity("APPOINTMENT");
+      invoiceRuleRepository.save(rule);
+    });
+    invoiceRuleService.processRulesForAppointment(appointments.get(0).getAppointmentId());
+
+    assertEquals(before, countInvoices(rules.get(0)));
+  }
+
+  private int countInvoices(InvoiceRule rule) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM invoice WHERE invoice_rule_id = ? AND owner_id = ?",
+        Integer.class, rule.getRuleId(), owner.getOwnerId());
+  }
+}
@@ -0,0 +1,107 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.scheduler.JobLeaseManager;
+import com.hss.hss_backend.service.ClinicDirectory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several "instances" firing the same job tick against one database must run it exactly once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class JobLeaseIntegrationTest {
+
+  private static final int INSTANCES = 8;
+  private static final String DAILY_AT_MIDNIGHT = "0 0 0 * * *";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ClinicDirectory clinicDirectory;
+
+  @Test
+  void sameTickOnManyInstances_ShouldRunJobOnce() throws Exception {
+    String jobName = "test.job-" + System.nanoTime();
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(INSTANCES);
+    try {
+      Future<?>[] futures = new Future<?>[INSTANCES];
+      for (int i = 0; i < INSTANCES; i++) {
+        JobLeaseManager instance = instance("instance-" + i);
+        futures[i] = executor.submit((Callable<Boolean>) () -> {
+          start.await();
+          return instance.runExclusively(jobName, Duration.ofMinutes(5), runs::incrementAndGet);
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, runs.get());
+    // Held for the minimum hold after finishing, so a late instance still skips
+    assertFalse(instance("late-instance").runExclusively(jobName, Duration.ofMinutes(5), runs::incrementAndGet));
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void expiredLease_ShouldBeTakenOver() {
+    String jobName = "test.expired-" + System.nanoTime();
+    jdbcTemplate.update("INSERT INTO scheduled_job_lease (job_name, locked_by, locked_at, locked_until) " +
+        "VALUES (?, 'crashed-instance', now() - interval '2 hours', now() - interval '1 hour')", jobName);
+
+    assertTrue(instance("survivor").runExclusively(jobName, Duration.ofMinutes(5), () -> { }));
+  }
+
+  @Test
+  void lateInstanceInSameTick_ShouldNotRerunClinicsAfterMinimumHold() throws Exception {
+    String jobName = "test.sharded-" + System.nanoTime();
+    ClinicDirectory clinics = mock(ClinicDirectory.class);
+    when(clinics.clinicIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+    AtomicInteger runs = new AtomicInteger();
+    JobLeaseManager first = instance("instance-a", clinics);
+    JobLeaseManager late = instance("instance-b", clinics);
+    ReflectionTestUtils.setField(first, "minHoldSeconds", 1L);
+    ReflectionTestUtils.setField(late, "minHoldSeconds", 1L);
+
+    assertEquals(4, first.runPerClinic(jobName, DAILY_AT_MIDNIGHT, Duration.ofHours(25), clinicId -> runs.incrementAndGet()));
+    // Well past the minimum hold, so a released lease would be free again
+    Thread.sleep(2000);
+    assertEquals(0, late.runPerClinic(jobName, DAILY_AT_MIDNIGHT, Duration.ofHours(25), clinicId -> runs.incrementAndGet()));
+
+    assertEquals(4, runs.get());
+  }
+
+  private JobLeaseManager instance(String instanceId) {
+    return instance(instanceId, clinicDirectory);
+  }
+
+  private JobLeaseManager instance(String instanceId, ClinicDirectory clinics) {
+    JobLeaseManager manager = new JobLeaseManager(jdbcTemplate, clinics);
+    ReflectionTestUtils.setField(manager, "instanceId", instanceId);
+    return manager;
+  }
+}
@@ -0,0 +1,150 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.response.PatientChartEntryResponse;
+import com.hss.hss_backend.dto.response.PatientChartPageResponse;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.PatientChartReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks a patient chart page by page and checks that every record of the five sources shows up
+ * exactly once, newest first, including records of different sources on the same day.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class PatientChartIntegrationTest {
+
+  private static final int DAYS = 12;
+
+  @Autowired
+  private PatientChartReader patientChartReader;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final String tag = UUID.randomUUID().toString().substring(0, 8);
+  private final LocalDate today = LocalDate.now();
+  private Clinic clinic;
+  private Clinic otherClinic;
+  private Long speciesId;
+  private Long breedId;
+  private Long ownerId;
+  private Long animalId;
+  private Long medicineId;
+  private int records;
+
+  @BeforeEach
+  void setUp() {
+    clinic = clinic("Chart Clinic");
+    otherClinic = clinic("Other Chart Clinic");
+    speciesId = jdbcTemplate.queryForObject(
+        "INSERT INTO species (name) VALUES (?) RETURNING species_id", Long.class, "Species " + tag);
+    breedId = jdbcTemplate.queryForObject(
+        "INSERT INTO breed (species_id, name) VALUES (?, ?) RETURNING breed_id", Long.class, speciesId, "Breed " + tag);
+    ownerId = jdbcTemplate.queryForObject(
+        "INSERT INTO owner (clinic_id, first_name, last_name) VALUES (?, ?, ?) RETURNING owner_id",
+        Long.class, clinic.getClinicId(), "Chart", "Owner " + tag);
+    animalId = jdbcTemplate.queryForObject(
+        "INSERT INTO animal (clinic_id, owner_id, name, species_id, breed_id) VALUES (?, ?, ?, ?, ?) RETURNING animal_id",
+        Long.class, clinic.getClinicId(), ownerId, "Chart " + tag, speciesId, breedId);
+    medicineId = jdbcTemplate.queryForObject(
+        "INSERT INTO medicine (medicine_name) VALUES (?) RETURNING medicine_id", Long.class, "Medicine " + tag);
+
+    for (int i = 0; i < DAYS; i++) {
+      Date day = Date.valueOf(today.minusDays(i));
+      // Two history entries share each day, so ids break ties within a source
+      insert("INSERT INTO medical_history (animal_id, diagnosis, date) VALUES (?, 'Otitis', ?)", day);
+      insert("INSERT INTO medical_history (animal_id, diagnosis, date) VALUES (?, 'Dermatitis', ?)", day);
+      insert("INSERT INTO clinical_examination (animal_id, date, findings) VALUES (?, ?, 'Normal')", day);
+      if (i % 2 == 0) {
+        jdbcTemplate.update("INSERT INTO prescription (animal_id, medicine_id, date, medicines, dosage) VALUES (?, ?, ?, 'Amoxicillin', '2x1')",
+            animalId, medicineId, day);
+        records++;
+      }
+      if (i % 3 == 0) {
+        insert("INSERT INTO radiological_imaging (animal_id, date, type) VALUES (?, ?, 'X-RAY')", day);
+        insert("INSERT INTO pathology_findings (animal_id, report, date) VALUES (?, 'Benign', ?)", day);
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+    jdbcTemplate.update("DELETE FROM animal WHERE animal_id = ?", animalId);
+    jdbcTemplate.update("DELETE FROM medicine WHERE medicine_id = ?", medicineId);
+    jdbcTemplate.update("DELETE FROM owner WHERE owner_id = ?", ownerId);
+    jdbcTemplate.update("DELETE FROM breed WHERE breed_id = ?", breedId);
+    jdbcTemplate.update("DELETE FROM species WHERE species_id = ?", speciesId);
+    clinicRepository.delete(clinic);
+    clinicRepository.delete(otherClinic);
+  }
+
+  @Test
+  void page_ShouldReturnEachRecordOnceNewestFirst() {
+    ClinicContext.setClinicId(clinic.getClinicId());
+    List<PatientChartEntryResponse> seen = new ArrayList<>();
+    String cursor = null;
+    do {
+      PatientChartPageResponse page = patientChartReader.page(animalId, cursor, 7);
+      assertTrue(page.getItems().size() <= 7);
+      seen.addAll(page.getItems());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertEquals(records, seen.size());
+    Set<String> keys = new HashSet<>();
+    seen.forEach(entry -> assertTrue(keys.add(entry.getSource() + "/" + entry.getId()), "Record repeated across pages"));
+    List<PatientChartEntryResponse> expected = new ArrayList<>(seen);
+    expected.sort(Comparator.comparing(PatientChartEntryResponse::getDate)
+        .thenComparing(PatientChartEntryResponse::getSource)
+        .thenComparing(PatientChartEntryResponse::getId)
+        .reversed());
+    assertEquals(expected, seen);
+    assertEquals(today, seen.get(0).getDate());
+  }
+
+  @Test
+  void page_ShouldRejectChartOfAnotherClinic() {
+    ClinicContext.setClinicId(otherClinic.getClinicId());
+
+    assertThrows(AccessDeniedException.class, () -> patientChartReader.page(animalId, null, 20));
+  }
+
+  private void insert(String sql, Date day) {
+    jdbcTemplate.update(sql, animalId, day);
+    records++;
+  }
+
+  private Clinic clinic(String name) {
+    Clinic clinic = new Clinic();
+    clinic.setName(name);
+    clinic.setAddress("1 Chart St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("chart@test.com");
+    return clinicRepository.save(clinic);
+  }
+}
@@ -0,0 +1,142 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.request.QueueCheckInRequest;
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.entity.*;
+import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.service.QueueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of parallel walk-in check-ins at one clinic and checks that every patient
+ * gets a distinct, gap-free queue number. Not transactional on purpose: every check-in has to
+ * commit in its own transaction for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueueCheckInConcurrencyIntegrationTest {
+
+  private static final int CHECK_INS = 300;
+  private static final int THREADS = 32;
+
+  @Autowired
+  private QueueService queueService;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private OwnerRepository ownerRepository;
+
+  @Autowired
+  private AnimalRepository animalRepository;
+
+  @Autowired
+  private SpeciesRepository speciesRepository;
+
+  @Autowired
+  private QueueEntryRepository queueEntryRepository;
+
+  @Autowired
+  private AppointmentRepository appointmentRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Clinic clinic;
+  private Owner owner;
+  private Species species;
+  private final List<Animal> animals = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    clinic = new Clinic();
+    clinic.setName("Concurrency Clinic");
+    clinic.setAddress("1 Queue St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("queue@test.com");
+    clinic = clinicRepository.save(clinic);
+
+    owner = new Owner();
+    owner.setFirstName("Busy");
+    owner.setLastName("Owner");
+    owner.setEmail("busy.owner@example.com");
+    owner.setClinic(clinic);
+    owner = ownerRepository.save(owner);
+
+    species = new Species();
+    species.setName("Cat-" + System.nanoTime());
+    species = speciesRepository.save(species);
+
+    for (int i = 0; i < CHECK_INS; i++) {
+      Animal animal = new Animal();
+      animal.setName("Patient " + i);
+      animal.setOwner(owner);
+      animal.setClinic(clinic);
+      animal.setSpecies(species);
+      animals.add(animal);
+    }
+    animalRepository.saveAll(animals);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LocalDate today = LocalDate.now();
+    queueEntryRepository.deleteAll(
+        queueEntryRepository.findByClinicClinicIdAndQueueDateOrderByQueueNumberAsc(clinic.getClinicId(), today));
+    appointmentRepository.deleteAll(appointmentRepository.findAll().stream()
+        .filter(a -> a.getClinic() != null && clinic.getClinicId().equals(a.getClinic().getClinicId()))
+        .toList());
+    jdbcTemplate.update("DELETE FROM queue_number_counter WHERE clinic_id = ?", clinic.getClinicId());
+    animalRepository.deleteAll(animals);
+    ownerRepository.delete(owner);
+    speciesRepository.delete(species);
+    clinicRepository.delete(clinic);
+  }
+
+  @Test
+  void walkInCheckIn_ParallelCheckInsShouldGetUniqueSequentialNumbers() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<QueueEntryResponse>> futures = new ArrayList<>();
+
+    try {
+      for (Animal animal : animals) {
+        futures.add(executor.submit(() -> {
+          QueueCheckInRequest request = new QueueCheckInRequest();
+          request.setAnimalId(animal.getAnimalId());
+          request.setAppointmentType("GENERAL_EXAM");
+          start.await();
+          return queueService.walkInCheckIn(request);
+        }));
+      }
+      start.countDown();
+
+      List<Integer> numbers = new ArrayList<>();
+      for (Future<QueueEntryResponse> future : futures) {
+        numbers.add(future.get(2, TimeUnit.MINUTES).getQueueNumber());
+      }
+
+      assertEquals(IntStream.rangeClosed(1, CHECK_INS).boxed().toList(), numbers.stream().sorted().toList(),
+          "Every check-in should get its own number without gaps");
+      assertEquals(CHECK_INS, queueEntryRepository
+          .findByClinicClinicIdAndQueueDateOrderByQueueNumberAsc(clinic.getClinicId(), LocalDate.now()).size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.entity.Reminder;
+import com.hss.hss_backend.service.NotificationService;
+import com.hss.hss_backend.service.reminder.ReminderDispatcher;
+import com.hss.hss_backend.service.reminder.ReminderRetryPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Several dispatchers draining the same reminder backlog at once must send every reminder
+ * exactly once: SKIP LOCKED hands each batch to one dispatcher only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReminderDispatchIntegrationTest {
+
+  private static final int REMINDERS = 400;
+  private static final int DISPATCHERS = 4;
+  private static final String MESSAGE = "dispatch-integration-test";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ReminderRetryPolicy retryPolicy;
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM reminder WHERE message = ?", MESSAGE);
+  }
+
+  @Test
+  void concurrentDispatchers_ShouldSendEachReminderOnce() throws Exception {
+    Long appointmentId = jdbcTemplate.queryForObject("SELECT MIN(appointment_id) FROM appointment", Long.class);
+    assertNotNull(appointmentId, "seed data should contain appointments");
+    jdbcTemplate.update("INSERT INTO reminder (appointment_id, send_time, channel, status, message, recipient_email, retry_count) " +
+        "SELECT ?, now() - interval '1 minute', 'EMAIL', 'PENDING', ?, 'owner@example.com', 0 FROM generate_series(1, ?)",
+        appointmentId, MESSAGE, REMINDERS);
+
+    Map<Long, AtomicInteger> sends = new ConcurrentHashMap<>();
+    NotificationService notificationService = mock(NotificationService.class);
+    when(notificationService.sendNotification(any())).thenAnswer(invocation -> {
+      Reminder reminder = invocation.getArgument(0);
+      sends.computeIfAbsent(reminder.getReminderId(), id -> new AtomicInteger()).incrementAndGet();
+      return true;
+    });
+
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(DISPATCHERS);
+    try {
+      Future<?>[] futures = new Future<?>[DISPATCHERS];
+      for (int i = 0; i < DISPATCHERS; i++) {
+        ReminderDispatcher dispatcher = new ReminderDispatcher(jdbcTemplate, notificationService, retryPolicy,
+            new SimpleMeterRegistry(), 25, 10, 0, 50, 0, 50, 0, 50);
+        futures[i] = executor.submit(() -> {
+          start.await();
+          return dispatcher.dispatchDue();
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Integer sent = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM reminder WHERE message = ? AND status = 'SENT' AND sent_at IS NOT NULL AND claimed_at IS NULL",
+        Integer.class, MESSAGE);
+    assertEquals(REMINDERS, sent);
+    assertTrue(sends.values().stream().allMatch(count -> count.get() == 1), "a reminder was sent more than once");
+  }
+}
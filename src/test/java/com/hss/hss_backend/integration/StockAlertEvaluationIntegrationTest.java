@@ -0,0 +1,120 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.entity.StockAlert;
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.repository.StockAlertRepository;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.service.StockAlertService;
+import com.hss.hss_backend.service.StockProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The set-based alert statements must produce the same alerts as the former per-product checks,
+ * and running the evaluation again must not duplicate open alerts.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockAlertEvaluationIntegrationTest {
+
+  @Autowired
+  private StockAlertService stockAlertService;
+
+  @Autowired
+  private StockProductService stockProductService;
+
+  @Autowired
+  private StockProductRepository stockProductRepository;
+
+  @Autowired
+  private StockAlertRepository stockAlertRepository;
+
+  private final List<StockProduct> products = new ArrayList<>();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void tearDown() {
+    products.forEach(product -> {
+      jdbcTemplate.update("DELETE FROM stock_alert WHERE product_id = ?", product.getProductId());
+      jdbcTemplate.update("DELETE FROM stock_transaction WHERE product_id = ?", product.getProductId());
+      jdbcTemplate.update("DELETE FROM stock_product WHERE product_id = ?", product.getProductId());
+    });
+  }
+
+  @Test
+  void checkAndCreateAlerts_ShouldCreateEachMissingAlertOnce() {
+    LocalDate today = LocalDate.now();
+    StockProduct outOfStock = product(0, 10, null);
+    StockProduct critical = product(2, 10, null);
+    StockProduct low = product(7, 10, null);
+    StockProduct healthy = product(50, 10, null);
+    StockProduct expired = product(50, 10, today.minusDays(1));
+    StockProduct expiringSoon = product(50, 10, today.plusDays(5));
+    StockProduct expiringLater = product(50, 10, today.plusDays(90));
+
+    stockAlertService.checkAndCreateAlerts();
+    stockAlertService.checkAndCreateAlerts();
+
+    assertAlerts(outOfStock, StockAlert.AlertType.OUT_OF_STOCK);
+    assertAlerts(critical, StockAlert.AlertType.CRITICAL_STOCK);
+    assertAlerts(low, StockAlert.AlertType.LOW_STOCK);
+    assertAlerts(healthy);
+    assertAlerts(expired, StockAlert.AlertType.EXPIRED);
+    assertAlerts(expiringSoon, StockAlert.AlertType.EXPIRING_SOON);
+    assertAlerts(expiringLater);
+
+    StockAlert criticalAlert = stockAlertRepository.findActiveAlertsByProductId(critical.getProductId()).get(0);
+    assertEquals(2, criticalAlert.getThresholdValue());
+    assertEquals("Ürün kritik seviyede! Mevcut stok: 2, Minimum: 10", criticalAlert.getMessage());
+    StockAlert expiringAlert = stockAlertRepository.findActiveAlertsByProductId(expiringSoon.getProductId()).get(0);
+    assertEquals("Ürün 5 gün içinde sona erecek!", expiringAlert.getMessage());
+  }
+
+  @Test
+  void stockChanges_ShouldRaiseAndResolveAlertsWithoutScan() {
+    StockProduct vaccine = product(12, 10, null);
+
+    stockProductService.deductStock(vaccine.getProductId(), 5, "Aşı", "VACCINATION", null);
+    assertAlerts(vaccine, StockAlert.AlertType.LOW_STOCK);
+
+    stockProductService.deductStock(vaccine.getProductId(), 7, "Aşı", "VACCINATION", null);
+    assertAlerts(vaccine, StockAlert.AlertType.OUT_OF_STOCK);
+
+    stockProductService.addStock(vaccine.getProductId(), 50, "Teslimat", null, null);
+    assertAlerts(vaccine);
+    assertTrue(stockAlertRepository.findByStockProductProductId(vaccine.getProductId()).stream()
+        .allMatch(alert -> alert.getIsResolved() && "system".equals(alert.getResolvedBy())));
+  }
+
+  private void assertAlerts(StockProduct product, StockAlert.AlertType... expected) {
+    List<StockAlert.AlertType> types = stockAlertRepository.findActiveAlertsByProductId(product.getProductId())
+        .stream().map(StockAlert::getAlertType).sorted().toList();
+    assertEquals(List.of(expected).stream().sorted().toList(), types, "alerts of product " + product.getName());
+  }
+
+  private StockProduct product(int currentStock, int minStock, LocalDate expirationDate) {
+    StockProduct product = stockProductRepository.save(StockProduct.builder()
+        .name("Alert test " + currentStock + "/" + expirationDate)
+        .barcode("ALERT-" + UUID.randomUUID().toString().substring(0, 12))
+        .currentStock(currentStock)
+        .minStock(minStock)
+        .maxStock(100)
+        .expirationDate(expirationDate)
+        .build());
+    products.add(product);
+    return product;
+  }
+}
@@ -0,0 +1,132 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.service.StockProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of parallel deductions and restocks at one product and checks that the stock
+ * never goes negative and that no update is lost. Not transactional on purpose: every call has
+ * to commit in its own transaction for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockDeductionConcurrencyIntegrationTest {
+
+  private static final int INITIAL_STOCK = 200;
+  private static final int DEDUCTIONS = 400;
+  private static final int THREADS = 32;
+
+  @Autowired
+  private StockProductService stockProductService;
+
+  @Autowired
+  private StockProductRepository stockProductRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private StockProduct product;
+
+  @BeforeEach
+  void setUp() {
+    product = stockProductRepository.save(StockProduct.builder()
+        .name("Concurrency vaccine")
+        .barcode("CONC-" + UUID.randomUUID().toString().substring(0, 12))
+        .currentStock(INITIAL_STOCK)
+        .minStock(0)
+        .maxStock(1000)
+        .build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM stock_alert WHERE product_id = ?", product.getProductId());
+    jdbcTemplate.update("DELETE FROM stock_transaction WHERE product_id = ?", product.getProductId());
+    jdbcTemplate.update("DELETE FROM stock_product WHERE product_id = ?", product.getProductId());
+  }
+
+  @Test
+  void deductStock_ParallelDeductionsShouldNeverOversell() throws Exception {
+    List<Boolean> results = runInParallel(DEDUCTIONS, i -> () -> {
+      try {
+        stockProductService.deductStock(product.getProductId(), 1, "Aşı", "VACCINATION", (long) i);
+        return true;
+      } catch (IllegalArgumentException e) {
+        return false;
+      }
+    });
+
+    assertEquals(INITIAL_STOCK, results.stream().filter(Boolean::booleanValue).count(),
+        "Exactly the available stock should be dispensed");
+    assertEquals(0, currentStock());
+    assertEquals(-INITIAL_STOCK, transactionTotal());
+  }
+
+  @Test
+  void deductAndAddStock_InterleavedShouldNotLoseUpdates() throws Exception {
+    // Half of the calls deduct 1, half add 1; none can fail because stock never drops below 100
+    runInParallel(DEDUCTIONS, i -> () -> {
+      if (i % 2 == 0) {
+        stockProductService.deductStock(product.getProductId(), 1, "Aşı", "VACCINATION", (long) i);
+      } else {
+        stockProductService.addStock(product.getProductId(), 1, "İade", null, null);
+      }
+      return true;
+    });
+
+    assertEquals(INITIAL_STOCK, currentStock());
+    assertEquals(0, transactionTotal());
+  }
+
+  private List<Boolean> runInParallel(int calls, IntFunction<Callable<Boolean>> call)
+      throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < calls; i++) {
+        Callable<Boolean> task = call.apply(i);
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+
+      List<Boolean> results = new ArrayList<>();
+      for (Future<Boolean> future : futures) {
+        results.add(future.get(2, TimeUnit.MINUTES));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int currentStock() {
+    return jdbcTemplate.queryForObject(
+        "SELECT current_stock FROM stock_product WHERE product_id = ?", Integer.class, product.getProductId());
+  }
+
+  private int transactionTotal() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(quantity), 0) FROM stock_transaction WHERE product_id = ?",
+        Integer.class, product.getProductId());
+  }
+}
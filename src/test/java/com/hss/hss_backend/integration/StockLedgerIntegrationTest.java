@@ -0,0 +1,149 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.dto.response.StockTransactionPageResponse;
+import com.hss.hss_backend.dto.response.StockTransactionResponse;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.entity.StockTransaction;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.service.StockLedgerReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks the ledger page by page while it is being written to and checks that every movement of
+ * the clinic shows up exactly once, newest first, and that the export matches the pages.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockLedgerIntegrationTest {
+
+  private static final int MOVEMENTS = 45;
+
+  @Autowired
+  private StockLedgerReader stockLedgerReader;
+
+  @Autowired
+  private StockProductRepository stockProductRepository;
+
+  @Autowired
+  private ClinicRepository clinicRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Clinic clinic;
+  private Clinic otherClinic;
+  private StockProduct product;
+  private final LocalDateTime base = LocalDateTime.now().withNano(0).minusDays(1);
+
+  @BeforeEach
+  void setUp() {
+    clinic = clinic("Ledger Clinic");
+    otherClinic = clinic("Other Ledger Clinic");
+    product = stockProductRepository.save(StockProduct.builder()
+        .name("Ledger vaccine")
+        .barcode("LEDGER-" + UUID.randomUUID().toString().substring(0, 12))
+        .currentStock(100)
+        .build());
+    for (int i = 0; i < MOVEMENTS; i++) {
+      // Every third movement shares its timestamp with the previous one, so the id breaks ties
+      insert(clinic, i % 2 == 0 ? "OUT" : "IN", base.plusMinutes(i - (i % 3 == 2 ? 1 : 0)));
+      insert(otherClinic, "OUT", base.plusMinutes(i));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM stock_transaction WHERE product_id = ?", product.getProductId());
+    stockProductRepository.delete(product);
+    clinicRepository.delete(clinic);
+    clinicRepository.delete(otherClinic);
+  }
+
+  @Test
+  void page_ShouldReturnEachMovementOnceNewestFirst() {
+    StockLedgerReader.Filter filter =
+        new StockLedgerReader.Filter(clinic.getClinicId(), product.getProductId(), null, null, null);
+    List<StockTransactionResponse> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      StockTransactionPageResponse page = stockLedgerReader.page(filter, cursor, 10);
+      seen.addAll(page.getItems());
+      cursor = page.getNextCursor();
+      if (pages++ == 0) {
+        // Newer movements must not shift the following pages
+        insert(clinic, "IN", base.plusDays(2));
+      }
+    } while (cursor != null);
+
+    assertEquals(5, pages);
+    assertEquals(MOVEMENTS, seen.size());
+    assertEquals(MOVEMENTS, seen.stream().map(StockTransactionResponse::getTransactionId).distinct().count());
+    assertTrue(seen.stream().allMatch(row -> clinic.getClinicId().equals(row.getClinicId())));
+    for (int i = 1; i < seen.size(); i++) {
+      StockTransactionResponse newer = seen.get(i - 1);
+      StockTransactionResponse older = seen.get(i);
+      assertTrue(newer.getTransactionDate().isAfter(older.getTransactionDate())
+          || (newer.getTransactionDate().equals(older.getTransactionDate())
+              && newer.getTransactionId() > older.getTransactionId()));
+    }
+  }
+
+  @Test
+  void page_ShouldFilterByTypeAndDateRange() {
+    StockLedgerReader.Filter filter = new StockLedgerReader.Filter(clinic.getClinicId(), product.getProductId(),
+        StockTransaction.TransactionType.OUT, base.plusMinutes(10), base.plusMinutes(20));
+
+    List<StockTransactionResponse> rows = stockLedgerReader.page(filter, null, 100).getItems();
+
+    assertFalse(rows.isEmpty());
+    assertTrue(rows.stream().allMatch(row -> row.getType() == StockTransaction.TransactionType.OUT
+        && !row.getTransactionDate().isBefore(base.plusMinutes(10))
+        && row.getTransactionDate().isBefore(base.plusMinutes(20))));
+  }
+
+  @Test
+  void exportCsv_ShouldStreamAllMatchingMovements() {
+    StringWriter out = new StringWriter();
+
+    stockLedgerReader.exportCsv(
+        new StockLedgerReader.Filter(clinic.getClinicId(), product.getProductId(), null, null, null), out);
+
+    String[] lines = out.toString().split("\n");
+    assertTrue(lines[0].startsWith("transaction_id,transaction_date"));
+    assertEquals(MOVEMENTS + 1, lines.length);
+  }
+
+  private Clinic clinic(String name) {
+    Clinic clinic = new Clinic();
+    clinic.setName(name);
+    clinic.setAddress("1 Ledger St");
+    clinic.setPhone("555-0000");
+    clinic.setEmail("ledger@test.com");
+    return clinicRepository.save(clinic);
+  }
+
+  private void insert(Clinic clinic, String type, LocalDateTime date) {
+    jdbcTemplate.update("INSERT INTO stock_transaction (product_id, clinic_id, transaction_date, quantity, type, notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?)",
+        product.getProductId(), clinic.getClinicId(), Timestamp.valueOf(date),
+        "OUT".equals(type) ? -1 : 1, type, "Ledger test, " + type);
+  }
+}
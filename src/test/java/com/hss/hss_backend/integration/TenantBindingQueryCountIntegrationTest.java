@@ -0,0 +1,97 @@
+package com.hss.hss_backend.integration;
+
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.StatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-request statement count of tenant binding. Financial statistics is one service transaction
+ * wrapping several repository calls, each of which is itself {@code @Transactional}; binding the
+ * clinic used to cost one {@code SET LOCAL} per such call and must now cost exactly one statement
+ * for the whole request.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.hss.hss_backend.integration.TenantBindingQueryCountIntegrationTest$ClinicBindingCounter"
+})
+@ActiveProfiles("test")
+public class TenantBindingQueryCountIntegrationTest {
+
+  private static final int RUNS = 20;
+  // Invoice summaries by month and by status plus the top customers, one repository call each
+  private static final int REPOSITORY_CALLS_PER_REQUEST = 3;
+
+  @Autowired
+  private StatisticsService statisticsService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+  }
+
+  @Test
+  void clinicBinding_ShouldCostOneStatementPerRequestRegardlessOfNesting() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    LocalDate start = LocalDate.now().minusYears(2);
+    LocalDate end = LocalDate.now();
+
+    // Warm up caches and lazy initialisation before counting
+    statisticsService.getFinancialStatistics(start, end);
+
+    statistics.clear();
+    for (int i = 0; i < RUNS; i++) {
+      statisticsService.getFinancialStatistics(start, end);
+    }
+    long withoutClinic = statistics.getPrepareStatementCount();
+
+    ClinicContext.setClinicId(1L);
+    statistics.clear();
+    ClinicBindingCounter.BINDINGS.set(0);
+    for (int i = 0; i < RUNS; i++) {
+      statisticsService.getFinancialStatistics(start, end);
+    }
+    long withClinic = statistics.getPrepareStatementCount();
+    int bindings = ClinicBindingCounter.BINDINGS.get();
+
+    assertTrue(withClinic - bindings >= (long) REPOSITORY_CALLS_PER_REQUEST * RUNS,
+        "Each request should make at least " + REPOSITORY_CALLS_PER_REQUEST + " nested repository calls, made "
+            + (withClinic - bindings) + " statements in " + RUNS + " requests");
+    assertEquals(RUNS, bindings,
+        "The clinic should be bound once per request, not once per nested repository transaction");
+    assertEquals(RUNS, withClinic - withoutClinic, "Tenant binding should add exactly one statement per request ("
+        + withoutClinic + " statements without clinic, " + withClinic + " with clinic in " + RUNS + " requests)");
+  }
+
+  /**
+   * Counts the clinic binding statements Hibernate prepares.
+   */
+  public static class ClinicBindingCounter implements StatementInspector {
+
+    static final AtomicInteger BINDINGS = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+      if (sql.contains("set_config('app.current_clinic_id'")) {
+        BINDINGS.incrementAndGet();
+      }
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.hss.hss_backend.scheduler;
+
+import com.hss.hss_backend.security.ClinicContext;
+import com.hss.hss_backend.service.ClinicDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseManagerTest {
+
+    private static final String INSTANCE = "instance-a";
+    private static final String DAILY = "0 0 9 * * ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ClinicDirectory clinicDirectory;
+
+    @InjectMocks
+    private JobLeaseManager jobLeaseManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jobLeaseManager, "instanceId", INSTANCE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClinicContext.clear();
+    }
+
+    @Test
+    void runExclusively_WhenLeaseTaken_ShouldRunAndKeepLeaseForMinimumHold() {
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), eq("backup.daily"), eq(INSTANCE), eq(7200L)))
+                .thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean ran = jobLeaseManager.runExclusively("backup.daily", Duration.ofHours(2), runs::incrementAndGet);
+
+        assertTrue(ran);
+        assertEquals(1, runs.get());
+        verify(jdbcTemplate).update(JobLeaseManager.RELEASE_SQL, 30L, "backup.daily", INSTANCE);
+    }
+
+    @Test
+    void runExclusively_WhenLeaseHeldElsewhere_ShouldSkipWithoutReleasing() {
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), any(), any(), any())).thenReturn(0);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean ran = jobLeaseManager.runExclusively("backup.daily", Duration.ofHours(2), runs::incrementAndGet);
+
+        assertFalse(ran);
+        assertEquals(0, runs.get());
+        verify(jdbcTemplate, never()).update(eq(JobLeaseManager.RELEASE_SQL), any(), any(), any());
+    }
+
+    @Test
+    void runExclusively_WhenTaskFails_ShouldStillReleaseLease() {
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), any(), any(), any())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> jobLeaseManager.runExclusively("reports", Duration.ofMinutes(5),
+                () -> { throw new IllegalStateException("boom"); }));
+
+        verify(jdbcTemplate).update(JobLeaseManager.RELEASE_SQL, 30L, "reports", INSTANCE);
+    }
+
+    @Test
+    void runPerClinic_ShouldProcessOnlyClinicsWhoseLeaseThisInstanceTook() {
+        when(clinicDirectory.clinicIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(1).endsWith(":clinic-2") ? 0 : 1);
+        List<Long> processed = new ArrayList<>();
+        List<Long> boundClinics = new ArrayList<>();
+
+        int count = jobLeaseManager.runPerClinic("invoices", DAILY, Duration.ofHours(1), clinicId -> {
+            processed.add(clinicId);
+            boundClinics.add(ClinicContext.getClinicId());
+        });
+
+        assertEquals(2, count);
+        assertEquals(List.of(1L, 3L), processed.stream().sorted().toList());
+        assertEquals(processed, boundClinics);
+        assertNull(ClinicContext.getClinicId());
+        // Done shards are kept for the rest of the tick instead of being released
+        verify(jdbcTemplate, times(2)).update(eq(JobLeaseManager.COMPLETE_SQL), anyString(), eq(INSTANCE));
+        verify(jdbcTemplate, never()).update(eq(JobLeaseManager.RELEASE_SQL), any(), any(), any());
+    }
+
+    @Test
+    void runPerClinic_ShouldKeyShardLeasesOnTheTickAndPruneEarlierTicks() {
+        when(clinicDirectory.clinicIds()).thenReturn(List.of(5L));
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), anyString(), any(), any())).thenReturn(1);
+
+        jobLeaseManager.runPerClinic("invoices", "* * * * * *", Duration.ofHours(1), clinicId -> { });
+
+        ArgumentCaptor<String> lease = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(eq(JobLeaseManager.ACQUIRE_SQL), lease.capture(), eq(INSTANCE), eq(3600L));
+        assertTrue(lease.getValue().matches("invoices@\\d{4}-.+:clinic-5"), lease.getValue());
+        String tickPrefix = lease.getValue().substring(0, lease.getValue().length() - "clinic-5".length());
+        verify(jdbcTemplate).update(JobLeaseManager.PRUNE_SQL, "invoices@", tickPrefix);
+    }
+
+    @Test
+    void tick_ShouldBeTheLatestFireTimeWithinTheLookBack() {
+        ZonedDateTime fire = ZonedDateTime.of(2026, 3, 14, 9, 0, 0, 0, ZoneOffset.UTC);
+
+        assertEquals("2026-03-14T09:00:00Z", JobLeaseManager.tick(DAILY, fire, Duration.ofHours(1)));
+        assertEquals("2026-03-14T09:00:00Z", JobLeaseManager.tick(DAILY, fire.plusMinutes(40), Duration.ofHours(1)));
+        // Started by hand outside any tick
+        assertEquals("2026-03-14T12:00:05Z",
+                JobLeaseManager.tick(DAILY, fire.plusHours(3).plusSeconds(5).plusNanos(7), Duration.ofHours(1)));
+    }
+
+    @Test
+    void runPerClinic_ShouldContinueAfterAClinicFails() {
+        when(clinicDirectory.clinicIds()).thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.update(eq(JobLeaseManager.ACQUIRE_SQL), anyString(), any(), any())).thenReturn(1);
+        List<Long> processed = new ArrayList<>();
+
+        int count = jobLeaseManager.runPerClinic("invoices", DAILY, Duration.ofHours(1), clinicId -> {
+            processed.add(clinicId);
+            if (clinicId == 1L) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertEquals(2, count);
+        assertEquals(2, processed.size());
+    }
+}
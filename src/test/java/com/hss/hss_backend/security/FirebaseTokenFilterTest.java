@@ -0,0 +1,85 @@
+package com.hss.hss_backend.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FirebaseTokenFilterTest {
+
+    @Mock
+    private FirebaseAuth firebaseAuth;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private FirebaseTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new FirebaseTokenFilter(firebaseAuth, verifiedTokenCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidApplicationToken_ShouldAuthenticateAndCache() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(applicationToken(Instant.now().plusSeconds(600))), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("front-desk", authentication.getName());
+        assertEquals("ROLE_STAFF", authentication.getAuthorities().iterator().next().getAuthority());
+        assertNotNull(chain.getRequest());
+        verify(verifiedTokenCache).put(any(), any());
+        verifyNoInteractions(firebaseAuth);
+    }
+
+    @Test
+    void doFilter_ExpiredApplicationToken_ShouldNotAuthenticate() throws Exception {
+        filter.doFilter(request(applicationToken(Instant.now().minusSeconds(60))), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(verifiedTokenCache, never()).put(any(), any());
+        verifyNoInteractions(firebaseAuth);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/animals");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static String applicationToken(Instant expiresAt) {
+        return Jwts.builder()
+                .subject("front-desk")
+                .claim("roles", List.of("STAFF"))
+                .issuedAt(Date.from(expiresAt.minusSeconds(3600)))
+                .expiration(Date.from(expiresAt))
+                .signWith(FirebaseTokenFilter.SECRET_KEY)
+                .compact();
+    }
+}
@@ -0,0 +1,139 @@
+package com.hss.hss_backend.security;
+
+import com.hss.hss_backend.config.SecurityConfig;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StompAuthChannelInterceptorTest {
+
+  private static final String QUEUE_TOPIC = "/topic/clinics/3/queue";
+
+  @Mock
+  private JwtDecoder jwtDecoder;
+
+  private StompAuthChannelInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    interceptor = new StompAuthChannelInterceptor(jwtDecoder, new SecurityConfig().jwtAuthenticationConverter());
+  }
+
+  @Test
+  void subscribe_ShouldAllowOwnClinic() {
+    assertDoesNotThrow(() -> subscribe(user(Map.of("clinic_id", 3L, "role", "STAFF")), QUEUE_TOPIC));
+    assertDoesNotThrow(() -> subscribe(user(Map.of("clinic_id", "3", "role", "STAFF")), QUEUE_TOPIC));
+  }
+
+  @Test
+  void subscribe_ShouldRejectOtherClinic() {
+    assertThrows(MessageDeliveryException.class,
+        () -> subscribe(user(Map.of("clinic_id", 4L, "role", "STAFF")), QUEUE_TOPIC));
+  }
+
+  @Test
+  void subscribe_ShouldRejectTokenWithoutClinicClaim() {
+    assertThrows(MessageDeliveryException.class, () -> subscribe(user(Map.of("role", "ADMIN")), QUEUE_TOPIC));
+  }
+
+  @Test
+  void subscribe_ShouldAllowSuperAdminWithoutClinicClaim() {
+    assertDoesNotThrow(() -> subscribe(user(Map.of("role", "SUPER_ADMIN")), QUEUE_TOPIC));
+  }
+
+  @Test
+  void subscribe_ShouldRejectWildcardDestinations() {
+    JwtAuthenticationToken staff = user(Map.of("clinic_id", 3L, "role", "STAFF"));
+    JwtAuthenticationToken superAdmin = user(Map.of("role", "SUPER_ADMIN"));
+
+    for (String destination : List.of("/topic/**", "/topic/clinics/*/queue", "/topic/clinics/**",
+        "/topic/clinics/3/queu?", "/topic/clinics/{id}/queue")) {
+      assertThrows(MessageDeliveryException.class, () -> subscribe(staff, destination), destination);
+      assertThrows(MessageDeliveryException.class, () -> subscribe(superAdmin, destination), destination);
+    }
+  }
+
+  @Test
+  void subscribe_ShouldRejectOtherDestinations() {
+    JwtAuthenticationToken staff = user(Map.of("clinic_id", 3L, "role", "STAFF"));
+
+    for (String destination : List.of("/topic/clinics/3/queue/extra", "/topic/clinics/3/other",
+        "/topic/announcements", "/app/anything")) {
+      assertThrows(MessageDeliveryException.class, () -> subscribe(staff, destination), destination);
+    }
+  }
+
+  @Test
+  void connect_ShouldAcceptApplicationSignedToken() {
+    String token = Jwts.builder()
+        .subject("front-desk")
+        .claim("roles", List.of("STAFF"))
+        .claim("clinic_id", 3)
+        .issuedAt(new Date())
+        .expiration(Date.from(Instant.now().plusSeconds(600)))
+        .signWith(FirebaseTokenFilter.SECRET_KEY)
+        .compact();
+
+    Principal user = connect("Bearer " + token);
+
+    assertInstanceOf(JwtAuthenticationToken.class, user);
+    assertEquals("front-desk", user.getName());
+    assertDoesNotThrow(() -> subscribe((JwtAuthenticationToken) user, QUEUE_TOPIC));
+    verify(jwtDecoder, never()).decode(anyString());
+  }
+
+  @Test
+  void connect_ShouldRejectInvalidToken() {
+    when(jwtDecoder.decode("garbage")).thenThrow(new org.springframework.security.oauth2.jwt.BadJwtException("bad"));
+
+    assertThrows(MessageDeliveryException.class, () -> connect("Bearer garbage"));
+  }
+
+  private Principal connect(String authorization) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    accessor.addNativeHeader("Authorization", authorization);
+    accessor.setLeaveMutable(true);
+    Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    interceptor.preSend(message, null);
+    return accessor.getUser();
+  }
+
+  private void subscribe(JwtAuthenticationToken user, String destination) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+    accessor.setDestination(destination);
+    accessor.setUser(user);
+    accessor.setLeaveMutable(true);
+    interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+  }
+
+  private JwtAuthenticationToken user(Map<String, Object> claims) {
+    Jwt jwt = Jwt.withTokenValue("token")
+        .header("alg", "RS256")
+        .subject("user")
+        .claims(target -> target.putAll(claims))
+        .build();
+    return (JwtAuthenticationToken) new SecurityConfig().jwtAuthenticationConverter().convert(jwt);
+  }
+}
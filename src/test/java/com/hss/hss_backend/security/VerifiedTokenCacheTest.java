@@ -0,0 +1,128 @@
+package com.hss.hss_backend.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.GetUsersResult;
+import com.google.firebase.auth.UserRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private FirebaseAuth firebaseAuth;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(firebaseAuth, meterRegistry);
+    }
+
+    @Test
+    void get_ShouldReturnCachedTokenAndCountHitsAndMisses() {
+        assertNull(cache.get("token-a"));
+
+        cache.put("token-a", firebaseToken("uid-1", Instant.now().minusSeconds(60), Instant.now().plusSeconds(600)));
+
+        assertEquals("uid-1", cache.get("token-a").principal());
+        assertNull(cache.get("token-b"));
+        assertEquals(1.0, meterRegistry.get("auth.token.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("auth.token.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.token.cache.size").gauge().value());
+    }
+
+    @Test
+    void get_ShouldNotReturnExpiredToken() {
+        cache.put("token-a", firebaseToken("uid-1", Instant.now().minusSeconds(600), Instant.now().plusMillis(1)));
+
+        await(5);
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_ShouldStayWithinMaxEntriesByDroppingSoonestExpiring() {
+        org.springframework.test.util.ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        Instant now = Instant.now();
+        cache.put("token-a", firebaseToken("uid-1", now, now.plusSeconds(100)));
+        cache.put("token-b", firebaseToken("uid-2", now, now.plusSeconds(300)));
+        cache.put("token-c", firebaseToken("uid-3", now, now.plusSeconds(200)));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("token-a"));
+        assertNotNull(cache.get("token-b"));
+        assertNotNull(cache.get("token-c"));
+    }
+
+    @Test
+    void checkRevocations_ShouldDropTokensIssuedBeforeRevocationAndOfDisabledUsers() throws Exception {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        cache.put("old-token", firebaseToken("uid-1", now.minusSeconds(3000), now.plusSeconds(600)));
+        cache.put("new-token", firebaseToken("uid-1", now.minusSeconds(10), now.plusSeconds(600)));
+        cache.put("disabled-token", firebaseToken("uid-2", now.minusSeconds(10), now.plusSeconds(600)));
+        cache.put("app-token", new VerifiedTokenCache.VerifiedToken("admin",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), now, now.plusSeconds(600), null));
+
+        UserRecord revokedUser = mock(UserRecord.class);
+        when(revokedUser.getUid()).thenReturn("uid-1");
+        when(revokedUser.getTokensValidAfterTimestamp()).thenReturn(now.minusSeconds(60).toEpochMilli());
+        UserRecord disabledUser = mock(UserRecord.class);
+        when(disabledUser.getUid()).thenReturn("uid-2");
+        when(disabledUser.isDisabled()).thenReturn(true);
+        GetUsersResult result = mock(GetUsersResult.class);
+        when(result.getUsers()).thenReturn(Set.of(revokedUser, disabledUser));
+        when(firebaseAuth.getUsers(anyCollection())).thenReturn(result);
+
+        cache.checkRevocations();
+
+        assertNull(cache.get("old-token"));
+        assertNotNull(cache.get("new-token"));
+        assertNull(cache.get("disabled-token"));
+        assertNotNull(cache.get("app-token"));
+        assertEquals(2.0, meterRegistry.get("auth.token.cache.revoked").counter().count());
+    }
+
+    @Test
+    void evictUser_ShouldDropAllTokensOfThatUser() {
+        Instant now = Instant.now();
+        cache.put("token-a", firebaseToken("uid-1", now, now.plusSeconds(600)));
+        cache.put("token-b", firebaseToken("uid-1", now, now.plusSeconds(600)));
+        cache.put("token-c", firebaseToken("uid-2", now, now.plusSeconds(600)));
+
+        cache.evictUser("uid-1");
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("token-c"));
+    }
+
+    private static VerifiedTokenCache.VerifiedToken firebaseToken(String uid, Instant issuedAt, Instant expiresAt) {
+        return new VerifiedTokenCache.VerifiedToken(uid, List.of(new SimpleGrantedAuthority("ROLE_VETERINARIAN")),
+                issuedAt, expiresAt, uid);
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hss.hss_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnimalSearchTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private AnimalSearch search;
+
+  @BeforeEach
+  void setUp() {
+    search = new AnimalSearch(jdbcTemplate);
+  }
+
+  @Test
+  void search_ShouldScopeBothBranchesToClinicAndPageInOneQuery() {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+    search.search(7L, "  Pamuk ", 2, 20);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+    assertEquals(2, sql.getValue().split("a\\.clinic_id = \\?", -1).length - 1);
+    assertTrue(sql.getValue().endsWith("LIMIT ? OFFSET ?"));
+    List<Object> values = List.of(params.getValue());
+    assertEquals(List.of("%pamuk%", "%pamuk%", 7L, "%pamuk%", "%pamuk%", 7L), values.subList(0, 6));
+    assertEquals(List.of("pamuk", "pamuk", "pamuk%", "pamuk%", "pamuk%", "pamuk", "pamuk", 20, 40),
+        values.subList(6, values.size()));
+  }
+
+  @Test
+  void search_ShouldSearchAllClinicsWithoutClinic() {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+    search.search(null, "pamuk", 0, 20);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+    assertFalse(sql.getValue().contains("clinic_id"));
+  }
+
+  @Test
+  void search_ShouldMatchShortTermsByPrefixAndCapPageSize() {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+    search.search(7L, "Pa", 0, 1000);
+
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(anyString(), any(RowMapper.class), params.capture());
+    Object[] values = params.getValue();
+    assertEquals("pa%", values[0]);
+    assertEquals(100, values[values.length - 2]);
+    assertEquals(0, values[values.length - 1]);
+  }
+
+  @Test
+  void search_ShouldNotQueryForBlankTerm() {
+    assertTrue(search.search(7L, "   ", 0, 20).isEmpty());
+    assertTrue(search.search(7L, null, 0, 20).isEmpty());
+
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  void escapeLike_ShouldEscapeWildcards() {
+    assertEquals("50\\%\\_a\\\\b", AnimalSearch.escapeLike("50%_a\\b"));
+  }
+}
@@ -0,0 +1,105 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.event.StockLevelChangedEvent;
+import com.hss.hss_backend.repository.StockProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BarcodeIndexTest {
+
+  @Mock
+  private StockProductRepository stockProductRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private BarcodeIndex barcodeIndex;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    barcodeIndex = new BarcodeIndex(stockProductRepository, meterRegistry);
+  }
+
+  @Test
+  void find_ShouldServeRepeatedScansFromOneCatalogLoad() {
+    when(stockProductRepository.findAll()).thenReturn(List.of(product(1L, "111", 10), product(2L, "222", 3)));
+
+    assertEquals(10, barcodeIndex.find("111").orElseThrow().currentStock());
+    assertEquals(3, barcodeIndex.find("222").orElseThrow().currentStock());
+    assertEquals(1L, barcodeIndex.find("111").orElseThrow().productId());
+
+    verify(stockProductRepository, times(1)).findAll();
+    verify(stockProductRepository, never()).findByBarcode(any());
+    assertEquals(3, meterRegistry.get("stock.barcode.scan").tag("source", "index").timer().count());
+  }
+
+  @Test
+  void find_UnindexedBarcodeShouldFallBackToDatabaseAndBeIndexed() {
+    when(stockProductRepository.findAll()).thenReturn(List.of());
+    when(stockProductRepository.findByBarcode("333")).thenReturn(Optional.of(product(3L, "333", 7)));
+
+    assertEquals(7, barcodeIndex.find("333").orElseThrow().currentStock());
+    assertEquals(7, barcodeIndex.find("333").orElseThrow().currentStock());
+
+    verify(stockProductRepository, times(1)).findByBarcode("333");
+    assertEquals(1, meterRegistry.get("stock.barcode.scan").tag("source", "database").timer().count());
+  }
+
+  @Test
+  void find_UnknownBarcodeShouldNotBeCached() {
+    when(stockProductRepository.findAll()).thenReturn(List.of());
+    when(stockProductRepository.findByBarcode("404")).thenReturn(Optional.empty());
+
+    assertTrue(barcodeIndex.find("404").isEmpty());
+    assertTrue(barcodeIndex.find("404").isEmpty());
+
+    verify(stockProductRepository, times(2)).findByBarcode("404");
+    assertEquals(2, meterRegistry.get("stock.barcode.scan").tag("source", "unknown").timer().count());
+  }
+
+  @Test
+  void onStockLevelChanged_ShouldDropOnlyThatProduct() {
+    when(stockProductRepository.findAll()).thenReturn(List.of(product(1L, "111", 10), product(2L, "222", 3)));
+    when(stockProductRepository.findByBarcode("111")).thenReturn(Optional.of(product(1L, "111", 9)));
+    barcodeIndex.find("222");
+    assertEquals(2, barcodeIndex.size());
+
+    barcodeIndex.onStockLevelChanged(new StockLevelChangedEvent(1L));
+
+    assertEquals(1, barcodeIndex.size());
+    assertEquals(9, barcodeIndex.find("111").orElseThrow().currentStock());
+    verify(stockProductRepository, never()).findByBarcode("222");
+  }
+
+  @Test
+  void evict_ChangedBarcodeShouldNoLongerResolveToTheProduct() {
+    when(stockProductRepository.findAll()).thenReturn(List.of(product(1L, "OLD", 10)));
+    when(stockProductRepository.findByBarcode("OLD")).thenReturn(Optional.empty());
+    barcodeIndex.find("OLD");
+
+    barcodeIndex.evict(1L);
+
+    assertTrue(barcodeIndex.find("OLD").isEmpty());
+  }
+
+  private static StockProduct product(Long id, String barcode, int currentStock) {
+    return StockProduct.builder()
+        .productId(id)
+        .name("Ürün " + id)
+        .barcode(barcode)
+        .currentStock(currentStock)
+        .minStock(5)
+        .build();
+  }
+}
@@ -0,0 +1,78 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.repository.ClinicRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClinicDirectoryTest {
+
+  @Mock
+  private ClinicRepository clinicRepository;
+
+  @InjectMocks
+  private ClinicDirectory clinicDirectory;
+
+  @Test
+  void findIdBySlug_ShouldServeRepeatedLookupsFromMemory() {
+    when(clinicRepository.findAll()).thenReturn(List.of(clinic(7L, "pati"), clinic(3L, "dostlar")));
+
+    assertEquals(Optional.of(7L), clinicDirectory.findIdBySlug("pati"));
+    assertEquals(Optional.of(3L), clinicDirectory.findIdBySlug("dostlar"));
+    assertEquals(Optional.of(3L), clinicDirectory.firstClinicId());
+    assertEquals(List.of(3L, 7L), clinicDirectory.clinicIds());
+
+    verify(clinicRepository, times(1)).findAll();
+    verify(clinicRepository, never()).findBySlug(any());
+  }
+
+  @Test
+  void findIdBySlug_ShouldNotReloadOnEveryUnknownSlug() {
+    when(clinicRepository.findAll()).thenReturn(List.of(clinic(1L, "pati")));
+
+    assertTrue(clinicDirectory.findIdBySlug("yok").isEmpty());
+    assertTrue(clinicDirectory.findIdBySlug("hala-yok").isEmpty());
+
+    verify(clinicRepository, times(1)).findAll();
+  }
+
+  @Test
+  void invalidate_ShouldReloadAfterCommit() {
+    when(clinicRepository.findAll())
+        .thenReturn(List.of(clinic(1L, "pati")))
+        .thenReturn(List.of(clinic(1L, "pati"), clinic(2L, "yeni")));
+    clinicDirectory.findIdBySlug("pati");
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      clinicDirectory.invalidate();
+      assertTrue(clinicDirectory.findIdBySlug("yeni").isEmpty());
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(Optional.of(2L), clinicDirectory.findIdBySlug("yeni"));
+    verify(clinicRepository, times(2)).findAll();
+  }
+
+  private static Clinic clinic(Long id, String slug) {
+    Clinic clinic = new Clinic();
+    clinic.setClinicId(id);
+    clinic.setSlug(slug);
+    return clinic;
+  }
+}
@@ -0,0 +1,85 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.request.InvoiceRuleUpdateRequest;
+import com.hss.hss_backend.entity.InvoiceRule;
+import com.hss.hss_backend.repository.AppointmentRepository;
+import com.hss.hss_backend.repository.InvoiceRuleRepository;
+import com.hss.hss_backend.service.invoice.InvoiceBatchGenerator;
+import com.hss.hss_backend.service.invoice.InvoiceRuleCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceRuleServiceTest {
+
+    @Mock
+    private InvoiceRuleRepository ruleRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private InvoiceBatchGenerator invoiceBatchGenerator;
+
+    @Mock
+    private InvoiceRuleCache invoiceRuleCache;
+
+    @InjectMocks
+    private InvoiceRuleService invoiceRuleService;
+
+    @Test
+    void updateRule_ShouldRecompileTheFlushedVersion() {
+        InvoiceRule rule = rule();
+        when(ruleRepository.findById(4L)).thenReturn(Optional.of(rule));
+        when(ruleRepository.saveAndFlush(rule)).thenReturn(rule);
+        InvoiceRuleUpdateRequest request = new InvoiceRuleUpdateRequest();
+        request.setInvoiceTemplate("[{\"description\":\"Muayene\",\"unitPrice\":300}]");
+
+        invoiceRuleService.updateRule(4L, request);
+
+        verify(ruleRepository).saveAndFlush(rule);
+        verify(invoiceRuleCache).get(rule);
+    }
+
+    @Test
+    void deleteRule_ShouldEvictTheCompiledRule() {
+        InvoiceRule rule = rule();
+        when(ruleRepository.findById(4L)).thenReturn(Optional.of(rule));
+
+        invoiceRuleService.deleteRule(4L);
+
+        verify(ruleRepository).delete(rule);
+        verify(invoiceRuleCache).evict(4L);
+    }
+
+    @Test
+    void processAllRules_ShouldUseCachedCompilations() {
+        InvoiceRule rule = rule();
+        when(ruleRepository.findActiveRules()).thenReturn(List.of(rule));
+        when(invoiceBatchGenerator.findCompletedAppointments(any(), any())).thenReturn(List.of());
+
+        invoiceRuleService.processAllRules();
+
+        verify(invoiceRuleCache).get(rule);
+        verify(invoiceBatchGenerator).generate(any(), eq(List.of()));
+    }
+
+    private static InvoiceRule rule() {
+        return InvoiceRule.builder()
+                .ruleId(4L)
+                .version(2L)
+                .ruleName("Muayene")
+                .ruleType(InvoiceRule.RuleType.APPOINTMENT_AFTER)
+                .build();
+    }
+}
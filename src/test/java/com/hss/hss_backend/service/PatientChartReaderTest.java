@@ -0,0 +1,127 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.PatientChartEntryResponse;
+import com.hss.hss_backend.dto.response.PatientChartEntryResponse.Source;
+import com.hss.hss_backend.dto.response.PatientChartPageResponse;
+import com.hss.hss_backend.exception.InvalidCursorException;
+import com.hss.hss_backend.exception.ResourceNotFoundException;
+import com.hss.hss_backend.security.ClinicContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientChartReaderTest {
+
+  private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private PatientChartReader reader;
+
+  @BeforeEach
+  void setUp() {
+    reader = new PatientChartReader(jdbcTemplate);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+  }
+
+  @Test
+  void page_ShouldMergeAllSourcesInOneQueryAndAskForOneExtraRow() {
+    animalInClinic(3L);
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+    PatientChartPageResponse page = reader.page(10L, null, 20);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+    assertEquals(4, sql.getValue().split(" UNION ALL ", -1).length - 1);
+    assertTrue(sql.getValue().endsWith("ORDER BY date DESC, source DESC, id DESC LIMIT ?"));
+    // animal id and branch limit for each of the five sources, then the page limit
+    assertEquals(List.of(10L, 21, 10L, 21, 10L, 21, 10L, 21, 10L, 21, 21), List.of(params.getValue()));
+    assertTrue(page.getItems().isEmpty());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void page_ShouldContinueEachSourceAfterTheCursorKey() {
+    animalInClinic(3L);
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+    String cursor = new PatientChartReader.Key(DAY, Source.PRESCRIPTION, 42L).encode();
+
+    reader.page(10L, cursor, 20);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+    String[] branches = sql.getValue().split(" UNION ALL ");
+    assertTrue(branches[0].contains("FROM medical_history WHERE animal_id = ? AND date <= ?"));
+    assertTrue(branches[1].contains("FROM clinical_examination WHERE animal_id = ? AND date <= ?"));
+    assertTrue(branches[2].contains("FROM prescription WHERE animal_id = ? AND (date, prescription_id) < (?, ?)"));
+    assertTrue(branches[3].contains("FROM radiological_imaging WHERE animal_id = ? AND date < ?"));
+    assertTrue(branches[4].contains("FROM pathology_findings WHERE animal_id = ? AND date < ?"));
+  }
+
+  @Test
+  void page_ShouldReturnCursorOfLastRowWhenMoreRowsExist() {
+    animalInClinic(3L);
+    List<PatientChartEntryResponse> rows = IntStream.range(0, 3)
+        .mapToObj(i -> PatientChartEntryResponse.builder()
+            .source(Source.EXAMINATION)
+            .id(100L - i)
+            .date(DAY.minusDays(i))
+            .build())
+        .toList();
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+
+    PatientChartPageResponse page = reader.page(10L, null, 2);
+
+    assertEquals(2, page.getItems().size());
+    assertEquals(new PatientChartReader.Key(DAY.minusDays(1), Source.EXAMINATION, 99L),
+        PatientChartReader.Key.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void page_ShouldRejectAnimalOfAnotherClinic() {
+    animalInClinic(4L);
+    ClinicContext.setClinicId(3L);
+
+    assertThrows(AccessDeniedException.class, () -> reader.page(10L, null, 20));
+    verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void checkAccess_ShouldFailForUnknownAnimal() {
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(10L))).thenReturn(List.of());
+
+    assertThrows(ResourceNotFoundException.class, () -> reader.checkAccess(10L));
+  }
+
+  @Test
+  void decode_ShouldRejectMalformedCursor() {
+    assertThrows(InvalidCursorException.class, () -> PatientChartReader.Key.decode("not-a-cursor"));
+  }
+
+  private void animalInClinic(Long clinicId) {
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(10L))).thenReturn(List.of(clinicId));
+  }
+}
@@ -0,0 +1,79 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.FinancialStatisticsResponse;
+import com.hss.hss_backend.entity.Invoice;
+import com.hss.hss_backend.repository.*;
+import com.hss.hss_backend.service.statistics.DashboardStatisticsStore;
+import com.hss.hss_backend.service.statistics.InvoiceSummaries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceTest {
+
+    @Mock
+    private AnimalRepository animalRepository;
+    @Mock
+    private OwnerRepository ownerRepository;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private InvoiceRepository invoiceRepository;
+    @Mock
+    private StockProductRepository stockProductRepository;
+    @Mock
+    private VaccinationScheduleRepository vaccinationScheduleRepository;
+    @Mock
+    private DashboardStatisticsStore dashboardStatisticsStore;
+
+    @InjectMocks
+    private StatisticsService statisticsService;
+
+    @Test
+    void getFinancialStatistics_ShouldAggregateMultiYearRangeWithConstantQueries() {
+        LocalDate start = LocalDate.of(2023, 11, 15);
+        LocalDate end = LocalDate.of(2026, 2, 10);
+        when(invoiceRepository.getMonthlySummaryForClinic(null, start, end)).thenReturn(List.of(
+            InvoiceSummaries.month(2023, 11, 2L, "200.00", "36.00"),
+            InvoiceSummaries.month(2025, 6, 1L, "50.00", "9.00"),
+            InvoiceSummaries.month(2026, 2, 1L, "50.00", "9.00")));
+        when(invoiceRepository.getStatusSummaryForClinic(null)).thenReturn(List.of(
+            InvoiceSummaries.status(Invoice.Status.PAID, 3L, "250.00", 0L),
+            InvoiceSummaries.status(Invoice.Status.PENDING, 4L, "90.00", 2L)));
+        when(invoiceRepository.getTopCustomersByAmountForClinic(eq(null), any())).thenReturn(List.of());
+
+        FinancialStatisticsResponse response = statisticsService.getFinancialStatistics(start, end);
+
+        assertEquals(new BigDecimal("300.00"), response.getTotalRevenue());
+        assertEquals(4L, response.getTotalInvoices());
+        assertEquals(new BigDecimal("75.00"), response.getAverageInvoiceAmount());
+        assertEquals(new BigDecimal("54.00"), response.getTotalTaxAmount());
+        assertEquals(28, response.getRevenueByMonth().size());
+        assertEquals(BigDecimal.ZERO, response.getRevenueByMonth().get("2024-01"));
+        assertEquals(new BigDecimal("50.00"), response.getRevenueByMonth().get("2025-06"));
+        assertEquals(new BigDecimal("250.00"), response.getPaidRevenue());
+        assertEquals(new BigDecimal("90.00"), response.getPendingRevenue());
+        assertEquals(BigDecimal.ZERO, response.getOverdueRevenue());
+        assertEquals(3L, response.getPaidInvoices());
+        assertEquals(4L, response.getPendingInvoices());
+        assertEquals(2L, response.getOverdueInvoices());
+        assertEquals(0L, response.getInvoicesByStatus().get(Invoice.Status.CANCELLED.name()));
+
+        verify(invoiceRepository, times(1)).getMonthlySummaryForClinic(any(), any(), any());
+        verify(invoiceRepository, never()).findByDateBetween(any(), any());
+        verify(invoiceRepository, never()).getTotalAmountInDateRange(any(), any());
+        verify(invoiceRepository, never()).countByStatus(any());
+    }
+}
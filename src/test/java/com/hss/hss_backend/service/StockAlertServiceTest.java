@@ -0,0 +1,72 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.event.StockLevelChangedEvent;
+import com.hss.hss_backend.repository.StockAlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAlertServiceTest {
+
+    @Mock
+    private StockAlertRepository stockAlertRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private StockAlertService stockAlertService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockAlertService, "criticalThreshold", 0.2);
+        ReflectionTestUtils.setField(stockAlertService, "expiringDays", 30);
+    }
+
+    @Test
+    void checkAndCreateAlerts_ShouldEvaluateWholeCatalogWithTwoSetBasedStatements() {
+        LocalDate today = LocalDate.now();
+        when(stockAlertRepository.insertMissingStockLevelAlerts(0.2)).thenReturn(3);
+        when(stockAlertRepository.insertMissingExpirationAlerts(today, today.plusDays(30))).thenReturn(1);
+
+        stockAlertService.checkAndCreateAlerts();
+
+        verify(stockAlertRepository).resolveOutdatedStockLevelAlerts(0.2);
+        verify(stockAlertRepository).insertMissingStockLevelAlerts(0.2);
+        verify(stockAlertRepository).insertMissingExpirationAlerts(today, today.plusDays(30));
+        verify(stockAlertRepository, never()).findActiveAlertsByProductId(anyLong());
+        verifyNoMoreInteractions(stockAlertRepository);
+    }
+
+    @Test
+    void onStockLevelChanged_ShouldOnlyEvaluateTheChangedProduct() {
+        LocalDate today = LocalDate.now();
+        when(stockAlertRepository.resolveOutdatedStockLevelAlertsForProduct(0.2, 42L)).thenReturn(1);
+
+        stockAlertService.onStockLevelChanged(new StockLevelChangedEvent(42L));
+
+        verify(stockAlertRepository).resolveOutdatedStockLevelAlertsForProduct(0.2, 42L);
+        verify(stockAlertRepository).insertMissingStockLevelAlertsForProduct(0.2, 42L);
+        verify(stockAlertRepository).insertMissingExpirationAlertsForProduct(today, today.plusDays(30), 42L);
+        verifyNoMoreInteractions(stockAlertRepository);
+    }
+
+    @Test
+    void onStockLevelChanged_ShouldNotPropagateEvaluationFailures() {
+        when(stockAlertRepository.resolveOutdatedStockLevelAlertsForProduct(anyDouble(), anyLong()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        assertDoesNotThrow(() -> stockAlertService.onStockLevelChanged(new StockLevelChangedEvent(42L)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.StockTransactionPageResponse;
+import com.hss.hss_backend.dto.response.StockTransactionResponse;
+import com.hss.hss_backend.entity.StockTransaction;
+import com.hss.hss_backend.exception.InvalidCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerReaderTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 10, 30, 15, 123456000);
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private DataSource dataSource;
+
+  private StockLedgerReader reader;
+
+  @BeforeEach
+  void setUp() {
+    when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+    reader = new StockLedgerReader(jdbcTemplate, 1000);
+  }
+
+  @Test
+  void page_ShouldApplyOnlyGivenFiltersAndAskForOneExtraRow() {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+    StockLedgerReader.Filter filter =
+        new StockLedgerReader.Filter(3L, null, StockTransaction.TransactionType.OUT, NOW.minusDays(7), null);
+
+    StockTransactionPageResponse page = reader.page(filter, null, 20);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+    assertTrue(sql.getValue().contains("t.clinic_id = ?"));
+    assertTrue(sql.getValue().contains("t.type = ?"));
+    assertTrue(sql.getValue().contains("t.transaction_date >= ?"));
+    assertFalse(sql.getValue().contains("t.product_id = ?"));
+    assertFalse(sql.getValue().contains("t.transaction_date <"));
+    assertTrue(sql.getValue().endsWith("ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT ?"));
+    assertArrayEquals(new Object[]{3L, "OUT", Timestamp.valueOf(NOW.minusDays(7)), 21}, params.getValue());
+    assertTrue(page.getItems().isEmpty());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void page_FullPageShouldReturnCursorThatContinuesAfterItsLastRow() {
+    List<StockTransactionResponse> rows = IntStream.range(0, 3)
+        .mapToObj(i -> row(100L - i, NOW.minusMinutes(i)))
+        .toList();
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+
+    StockTransactionPageResponse first = reader.page(new StockLedgerReader.Filter(null, 7L, null, null, null), null, 2);
+
+    assertEquals(List.of(100L, 99L), first.getItems().stream().map(StockTransactionResponse::getTransactionId).toList());
+    assertNotNull(first.getNextCursor());
+
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+    reader.page(new StockLedgerReader.Filter(null, 7L, null, null, null), first.getNextCursor(), 2);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate, times(2)).query(sql.capture(), any(RowMapper.class), params.capture());
+    assertTrue(sql.getValue().contains("(t.transaction_date, t.transaction_id) < (?, ?)"));
+    assertArrayEquals(new Object[]{7L, Timestamp.valueOf(NOW.minusMinutes(1)), 99L, 3}, params.getValue());
+  }
+
+  @Test
+  void page_ShouldCapTheLimit() {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+    reader.page(new StockLedgerReader.Filter(null, null, null, null, null), null, 10_000);
+
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(anyString(), any(RowMapper.class), params.capture());
+    assertArrayEquals(new Object[]{201}, params.getValue());
+  }
+
+  @Test
+  void page_InvalidCursorShouldBeRejected() {
+    StockLedgerReader.Filter filter = new StockLedgerReader.Filter(null, null, null, null, null);
+
+    assertThrows(InvalidCursorException.class, () -> reader.page(filter, "not-a-cursor", 10));
+    verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void cursor_ShouldRoundTripWithMicrosecondPrecision() {
+    StockLedgerReader.Key key = new StockLedgerReader.Key(NOW, 42L);
+
+    assertEquals(key, StockLedgerReader.Key.decode(key.encode()));
+  }
+
+  @Test
+  void csv_ShouldQuoteOnlyWhenNeeded() {
+    assertEquals("", StockLedgerReader.csv(null));
+    assertEquals("Kuduz aşısı", StockLedgerReader.csv("Kuduz aşısı"));
+    assertEquals("\"Aşı, 2 doz\"", StockLedgerReader.csv("Aşı, 2 doz"));
+    assertEquals("\"5 \"\"ml\"\"\"", StockLedgerReader.csv("5 \"ml\""));
+  }
+
+  private static StockTransactionResponse row(Long id, LocalDateTime date) {
+    return StockTransactionResponse.builder()
+        .transactionId(id)
+        .transactionDate(date)
+        .type(StockTransaction.TransactionType.OUT)
+        .quantity(-1)
+        .build();
+  }
+}
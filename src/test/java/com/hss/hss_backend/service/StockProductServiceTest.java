@@ -0,0 +1,115 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.dto.response.BarcodeScanResponse;
+import com.hss.hss_backend.entity.StockProduct;
+import com.hss.hss_backend.event.StockLevelChangedEvent;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.repository.StockTransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockProductServiceTest {
+
+  @Mock
+  private StockProductRepository stockProductRepository;
+
+  @Mock
+  private StockTransactionRepository stockTransactionRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private BarcodeIndex barcodeIndex;
+
+  @Mock
+  private StockLedgerReader stockLedgerReader;
+
+  @InjectMocks
+  private StockProductService stockProductService;
+
+  @Test
+  void deductStock_ShouldPublishStockLevelChange() {
+    StockProduct product = product(5L, 10);
+    when(stockProductRepository.findById(5L)).thenReturn(Optional.of(product));
+    when(stockProductRepository.decrementStock(5L, 3)).thenReturn(1);
+
+    stockProductService.deductStock(5L, 3, "Aşı", "VACCINATION", 1L);
+
+    verify(entityManager).refresh(product);
+    verify(eventPublisher).publishEvent(new StockLevelChangedEvent(5L));
+  }
+
+  @Test
+  void deductStock_ShouldNotWriteTheLevelFromTheLoadedEntity() {
+    when(stockProductRepository.findById(5L)).thenReturn(Optional.of(product(5L, 10)));
+    when(stockProductRepository.decrementStock(5L, 3)).thenReturn(1);
+
+    stockProductService.deductStock(5L, 3, "Aşı", "VACCINATION", 1L);
+
+    verify(stockProductRepository, never()).save(any());
+    verify(stockTransactionRepository).save(argThat(transaction -> transaction.getQuantity() == -3));
+  }
+
+  @Test
+  void addStock_ShouldPublishStockLevelChange() {
+    when(stockProductRepository.findById(5L)).thenReturn(Optional.of(product(5L, 0)));
+
+    stockProductService.addStock(5L, 20, "Teslimat", null, null);
+
+    verify(stockProductRepository).incrementStock(5L, 20);
+    verify(stockProductRepository, never()).save(any());
+    verify(eventPublisher).publishEvent(new StockLevelChangedEvent(5L));
+  }
+
+  @Test
+  void deductStock_WhenInsufficient_ShouldNotPublish() {
+    when(stockProductRepository.findById(5L)).thenReturn(Optional.of(product(5L, 1)));
+    when(stockProductRepository.decrementStock(5L, 3)).thenReturn(0);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> stockProductService.deductStock(5L, 3, "Aşı", "VACCINATION", 1L));
+
+    verify(eventPublisher, never()).publishEvent(any());
+    verify(stockTransactionRepository, never()).save(any());
+  }
+
+  @Test
+  void scanBarcode_ShouldValidateTheIndexedSnapshot() {
+    StockProduct product = product(5L, 3);
+    product.setBarcode("8699536090122");
+    when(barcodeIndex.find("8699536090122")).thenReturn(Optional.of(BarcodeIndex.ProductSnapshot.of(product)));
+
+    BarcodeScanResponse response = stockProductService.scanBarcode("8699536090122");
+
+    assertTrue(response.getIsValid());
+    assertTrue(response.getIsLowStock());
+    assertEquals(3, response.getCurrentStock());
+    verifyNoInteractions(stockProductRepository);
+  }
+
+  private static StockProduct product(Long id, int currentStock) {
+    return StockProduct.builder()
+        .productId(id)
+        .name("Kuduz aşısı")
+        .currentStock(currentStock)
+        .minStock(5)
+        .build();
+  }
+}
@@ -1,18 +1,30 @@
 package com.hss.hss_backend.service;
 
+import com.google.cloud.ReadChannel;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -309,4 +321,153 @@ class StorageServiceTest {
         verify(storage).get(originalBlobId);
         verify(storage).get(fallbackBlobId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void uploadFile_ToGcp_StreamsMultipartContent() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "scan.png", "image/png", new byte[] { 1, 2, 3 });
+        when(storage.createFrom(any(BlobInfo.class), any(InputStream.class), anyInt())).thenReturn(blob);
+
+        // When
+        String result = storageService.uploadFile(file, "radiology");
+
+        // Then
+        assertTrue(result.startsWith("gs://" + BUCKET_NAME + "/radiology/"));
+        verify(storage).createFrom(any(BlobInfo.class), any(InputStream.class), anyInt());
+        verify(storage, never()).create(any(BlobInfo.class), any(byte[].class));
+    }
+
+    @Test
+    void loadAsResource_LocalUpload_StreamsStoredContent(@TempDir Path root) throws Exception {
+        // Given
+        useLocalRoot(root);
+        byte[] content = new byte[3 * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        String fileUrl = storageService.uploadFile(
+                new MockMultipartFile("file", "large.pdf", "application/pdf", content), "documents");
+
+        // When
+        Resource resource = storageService.loadAsResource(fileUrl);
+
+        // Then
+        assertTrue(fileUrl.startsWith("/uploads/documents/"));
+        assertEquals(content.length, resource.contentLength());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void loadAsResource_LocalUpload_SkipsToRequestedRange(@TempDir Path root) throws Exception {
+        // Given
+        useLocalRoot(root);
+        byte[] content = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+        String fileUrl = storageService.uploadFile(
+                new MockMultipartFile("file", "range.txt", "text/plain", content), "documents");
+
+        // When
+        Resource resource = storageService.loadAsResource(fileUrl);
+
+        // Then
+        try (InputStream in = resource.getInputStream()) {
+            assertEquals(10, in.skip(10));
+            assertEquals("abc", new String(in.readNBytes(3), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void loadAsResource_MissingLocalFile_ThrowsFileNotFound(@TempDir Path root) {
+        useLocalRoot(root);
+
+        assertThrows(FileNotFoundException.class,
+                () -> storageService.loadAsResource("/uploads/documents/missing.pdf"));
+    }
+
+    @Test
+    void loadAsResource_PathOutsideUploads_IsRejected(@TempDir Path root) {
+        useLocalRoot(root);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> storageService.loadAsResource("/uploads/../application.yaml"));
+    }
+
+    @Test
+    void loadAsResource_GcsBlob_SeeksInsteadOfReadingSkippedBytes() throws Exception {
+        // Given
+        BlobId blobId = BlobId.of(BUCKET_NAME, TEST_BLOB_NAME);
+        ReadChannel channel = mock(ReadChannel.class);
+        when(storage.get(blobId)).thenReturn(blob);
+        when(blob.getBlobId()).thenReturn(blobId);
+        when(blob.getSize()).thenReturn(1024L);
+        when(storage.reader(blobId)).thenReturn(channel);
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer target = invocation.getArgument(0);
+            target.put((byte) 7);
+            return 1;
+        });
+
+        // When
+        Resource resource = storageService.loadAsResource(TEST_FILE_PATH);
+        int firstByte;
+        try (InputStream in = resource.getInputStream()) {
+            in.skip(512);
+            firstByte = in.read();
+        }
+
+        // Then
+        assertEquals(1024L, resource.contentLength());
+        assertEquals(7, firstByte);
+        verify(channel).seek(512);
+        verify(channel, times(1)).read(any(ByteBuffer.class));
+        verify(channel).close();
+    }
+
+    @Test
+    void storeFile_Local_CanBeFoundAndReplaced(@TempDir Path root) throws Exception {
+        // Given
+        useLocalRoot(root);
+        storageService.storeFile("vaccine-cards/7/v1.pdf", new byte[] { 1 }, "application/pdf");
+
+        // When
+        String stored = storageService.storeFile("vaccine-cards/7/v1.pdf", new byte[] { 2, 3 }, "application/pdf");
+
+        // Then
+        assertEquals("/uploads/vaccine-cards/7/v1.pdf", stored);
+        assertEquals(stored, storageService.findStoredFile("vaccine-cards/7/v1.pdf"));
+        assertNull(storageService.findStoredFile("vaccine-cards/7/v2.pdf"));
+        assertArrayEquals(new byte[] { 2, 3 }, storageService.downloadFile(stored));
+        assertEquals(List.of(stored), storageService.listStoredFiles("vaccine-cards/7"));
+    }
+
+    @Test
+    void storeFile_ToGcp_UsesGivenPath() throws Exception {
+        // Given
+        byte[] content = new byte[] { 1, 2, 3 };
+
+        // When
+        String result = storageService.storeFile("vaccine-cards/7/v1.pdf", content, "application/pdf");
+
+        // Then
+        assertEquals("gs://" + BUCKET_NAME + "/vaccine-cards/7/v1.pdf", result);
+        verify(storage).create(BlobInfo.newBuilder(BlobId.of(BUCKET_NAME, "vaccine-cards/7/v1.pdf"))
+                .setContentType("application/pdf").build(), content);
+    }
+
+    @Test
+    void findStoredFile_Gcp_ReturnsPathOnlyWhenBlobExists() {
+        // Given
+        ReflectionTestUtils.setField(storageService, "useLocalStorageFallback", false);
+        when(storage.get(BlobId.of(BUCKET_NAME, "vaccine-cards/7/v1.pdf"))).thenReturn(blob);
+        when(blob.exists()).thenReturn(true);
+
+        // When / Then
+        assertEquals("gs://" + BUCKET_NAME + "/vaccine-cards/7/v1.pdf", storageService.findStoredFile("vaccine-cards/7/v1.pdf"));
+        assertNull(storageService.findStoredFile("vaccine-cards/7/v2.pdf"));
+    }
+
+    private void useLocalRoot(Path root) {
+        ReflectionTestUtils.setField(storageService, "useLocalStorageFallback", true);
+        ReflectionTestUtils.setField(storageService, "localRoot", root.toString());
+        ReflectionTestUtils.setField(storageService, "storage", null);
+    }
+}
@@ -0,0 +1,116 @@
+package com.hss.hss_backend.service;
+
+import com.hss.hss_backend.entity.Animal;
+import com.hss.hss_backend.exception.ResourceNotFoundException;
+import com.hss.hss_backend.repository.AnimalRepository;
+import com.hss.hss_backend.repository.VaccinationRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VaccineCardPdfServiceTest {
+
+    private static final String FINGERPRINT = "2026-03-14 10:00:00|2026-03-01 09:00:00|2|41|2026-03-14 10:00:00";
+
+    @Mock
+    private AnimalRepository animalRepository;
+
+    @Mock
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @InjectMocks
+    private VaccineCardPdfService vaccineCardPdfService;
+
+    @Test
+    void getVaccineCard_StoredVersion_StreamsWithoutRendering() throws Exception {
+        // Given
+        String path = "vaccine-cards/7/" + VaccineCardPdfService.version(FINGERPRINT) + ".pdf";
+        Resource stored = new ByteArrayResource(new byte[] { 1 });
+        when(vaccinationRecordRepository.findVaccineCardFingerprint(7L)).thenReturn(Optional.of(FINGERPRINT));
+        when(storageService.findStoredFile(path)).thenReturn("/uploads/" + path);
+        when(storageService.loadAsResource("/uploads/" + path)).thenReturn(stored);
+
+        // When
+        Resource card = vaccineCardPdfService.getVaccineCard(7L);
+
+        // Then
+        assertSame(stored, card);
+        verifyNoInteractions(animalRepository);
+        verify(vaccinationRecordRepository, never()).findByAnimal_AnimalIdOrderByDateDesc(any());
+        verify(storageService, never()).storeFile(any(), any(), any());
+    }
+
+    @Test
+    void getVaccineCard_NewVersion_RendersStoresAndDropsOldVersions() throws Exception {
+        // Given
+        String path = "vaccine-cards/7/" + VaccineCardPdfService.version(FINGERPRINT) + ".pdf";
+        when(vaccinationRecordRepository.findVaccineCardFingerprint(7L)).thenReturn(Optional.of(FINGERPRINT));
+        when(animalRepository.findById(7L)).thenReturn(Optional.of(animal()));
+        when(vaccinationRecordRepository.findByAnimal_AnimalIdOrderByDateDesc(7L)).thenReturn(List.of());
+        when(storageService.storeFile(eq(path), any(byte[].class), eq("application/pdf"))).thenReturn("/uploads/" + path);
+        when(storageService.listStoredFiles("vaccine-cards/7"))
+                .thenReturn(List.of("/uploads/vaccine-cards/7/old.pdf", "/uploads/" + path));
+
+        // When
+        Resource card = vaccineCardPdfService.getVaccineCard(7L);
+
+        // Then
+        assertTrue(new String(card.getContentAsByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF"));
+        verify(storageService).deleteFile("/uploads/vaccine-cards/7/old.pdf");
+        verify(storageService, never()).deleteFile("/uploads/" + path);
+    }
+
+    @Test
+    void getVaccineCard_StoreFailure_StillServesRenderedCard() throws Exception {
+        // Given
+        when(vaccinationRecordRepository.findVaccineCardFingerprint(7L)).thenReturn(Optional.of(FINGERPRINT));
+        when(animalRepository.findById(7L)).thenReturn(Optional.of(animal()));
+        when(vaccinationRecordRepository.findByAnimal_AnimalIdOrderByDateDesc(7L)).thenReturn(List.of());
+        when(storageService.storeFile(any(), any(byte[].class), any())).thenThrow(new IOException("disk full"));
+
+        // When
+        Resource card = vaccineCardPdfService.getVaccineCard(7L);
+
+        // Then
+        assertTrue(card.contentLength() > 0);
+    }
+
+    @Test
+    void getVaccineCard_UnknownAnimal_ThrowsNotFound() {
+        when(vaccinationRecordRepository.findVaccineCardFingerprint(7L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> vaccineCardPdfService.getVaccineCard(7L));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void version_ChangesWithFingerprint() {
+        assertEquals(VaccineCardPdfService.version(FINGERPRINT), VaccineCardPdfService.version(FINGERPRINT));
+        assertNotEquals(VaccineCardPdfService.version(FINGERPRINT),
+                VaccineCardPdfService.version(FINGERPRINT.replace("|2|41|", "|3|42|")));
+    }
+
+    private static Animal animal() {
+        Animal animal = new Animal();
+        animal.setAnimalId(7L);
+        animal.setName("Pamuk");
+        return animal;
+    }
+}
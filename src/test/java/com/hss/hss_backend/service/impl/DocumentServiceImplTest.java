@@ -0,0 +1,88 @@
+package com.hss.hss_backend.service.impl;
+
+import com.hss.hss_backend.dto.response.DocumentResponse;
+import com.hss.hss_backend.entity.Document;
+import com.hss.hss_backend.mapper.DocumentMapper;
+import com.hss.hss_backend.repository.AnimalRepository;
+import com.hss.hss_backend.repository.DocumentRepository;
+import com.hss.hss_backend.repository.OwnerRepository;
+import com.hss.hss_backend.security.ClinicContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentServiceImplTest {
+
+  @Mock
+  private DocumentRepository documentRepository;
+  @Mock
+  private OwnerRepository ownerRepository;
+  @Mock
+  private AnimalRepository animalRepository;
+  @Mock
+  private DocumentMapper documentMapper;
+
+  @InjectMocks
+  private DocumentServiceImpl documentService;
+
+  @AfterEach
+  void tearDown() {
+    ClinicContext.clear();
+  }
+
+  @Test
+  void searchDocuments_ShouldSearchCurrentClinicAndKeepRankOrder() {
+    ClinicContext.setClinicId(3L);
+    PageRequest page = PageRequest.of(1, 2);
+    when(documentRepository.searchIdsByClinic("kuduz:* & aşı:*", 3L, page))
+        .thenReturn(new PageImpl<>(List.of(20L, 10L), page, 7));
+    when(documentRepository.findWithDetailsByDocumentIdIn(List.of(20L, 10L)))
+        .thenReturn(List.of(document(10L), document(20L)));
+    when(documentMapper.toResponse(any(Document.class))).thenAnswer(invocation -> {
+      DocumentResponse response = new DocumentResponse();
+      response.setDocumentId(invocation.<Document>getArgument(0).getDocumentId());
+      return response;
+    });
+
+    Page<DocumentResponse> result = documentService.searchDocuments("Kuduz aşı", PageRequest.of(1, 2, Sort.by("title")));
+
+    assertEquals(List.of(20L, 10L), result.getContent().stream().map(DocumentResponse::getDocumentId).toList());
+    assertEquals(7, result.getTotalElements());
+    verify(documentRepository, never()).searchIds(any(), any());
+  }
+
+  @Test
+  void searchDocuments_ShouldNotQueryWithoutWords() {
+    Page<DocumentResponse> result = documentService.searchDocuments(" &|! ", PageRequest.of(0, 20));
+
+    assertTrue(result.isEmpty());
+    verifyNoInteractions(documentRepository);
+  }
+
+  @Test
+  void toPrefixTsQuery_ShouldDropTsQuerySyntax() {
+    assertEquals("rapor:* & 2024:*", DocumentServiceImpl.toPrefixTsQuery("Rapor (2024)!"));
+    assertEquals("a:* & b:*", DocumentServiceImpl.toPrefixTsQuery("a' | b:*"));
+    assertNull(DocumentServiceImpl.toPrefixTsQuery(null));
+  }
+
+  private static Document document(Long id) {
+    Document document = new Document();
+    document.setDocumentId(id);
+    return document;
+  }
+}
@@ -0,0 +1,77 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.entity.InvoiceItem;
+import com.hss.hss_backend.entity.InvoiceRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledInvoiceRuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compile_ShouldPrecomputeTemplateLines() {
+        CompiledInvoiceRule rule = CompiledInvoiceRule.compile(rule(null,
+                "[{\"description\":\"Kuduz aşısı\",\"quantity\":2,\"unitPrice\":150,\"vatRate\":20,\"itemType\":\"VACCINE\"}]"),
+                objectMapper);
+
+        CompiledInvoiceRule.ItemLine line = rule.itemsFor("Kontrol").get(0);
+        assertEquals("Kuduz aşısı", line.description());
+        assertEquals(2, line.quantity());
+        assertEquals(InvoiceItem.ItemType.VACCINE, line.itemType());
+        assertEquals(0, new BigDecimal("30").compareTo(line.vatAmount()));
+        assertEquals(0, new BigDecimal("330").compareTo(line.lineTotal()));
+        assertSame(rule.itemsFor("Kontrol"), rule.itemsFor("Aşı"), "template lines are shared between appointments");
+    }
+
+    @Test
+    void itemsFor_WithoutTemplateShouldDescribeTheAppointment() {
+        CompiledInvoiceRule rule = CompiledInvoiceRule.compile(rule(null, null), objectMapper);
+
+        List<CompiledInvoiceRule.ItemLine> items = rule.itemsFor("Genel muayene");
+
+        assertEquals(1, items.size());
+        assertEquals("Randevu - Genel muayene", items.get(0).description());
+        assertEquals(InvoiceItem.ItemType.CONSULTATION, items.get(0).itemType());
+        assertEquals(0, new BigDecimal("118").compareTo(items.get(0).lineTotal()));
+    }
+
+    @Test
+    void compile_InvalidTemplateShouldFallBackToServiceItem() {
+        CompiledInvoiceRule rule = CompiledInvoiceRule.compile(rule(null, "{not json"), objectMapper);
+
+        CompiledInvoiceRule.ItemLine line = rule.itemsFor("Kontrol").get(0);
+        assertEquals("Hizmet", line.description());
+        assertEquals(InvoiceItem.ItemType.SERVICE, line.itemType());
+    }
+
+    @Test
+    void matches_ShouldCheckTriggerStatusAndAppointmentType() {
+        CompiledInvoiceRule anyType = CompiledInvoiceRule.compile(rule(null, null), objectMapper);
+        CompiledInvoiceRule vaccinations = CompiledInvoiceRule.compile(
+                rule("{\"appointmentType\":[\"VACCINATION\",\"FOLLOW_UP\"]}", null), objectMapper);
+        CompiledInvoiceRule unparsable = CompiledInvoiceRule.compile(rule("{oops", null), objectMapper);
+
+        assertTrue(anyType.matches("COMPLETED", "SURGERY"));
+        assertFalse(anyType.matches("CONFIRMED", "SURGERY"));
+        assertTrue(vaccinations.matches("COMPLETED", "VACCINATION"));
+        assertFalse(vaccinations.matches("COMPLETED", "SURGERY"));
+        assertTrue(unparsable.matches("COMPLETED", "SURGERY"));
+    }
+
+    private static InvoiceRule rule(String conditions, String template) {
+        return InvoiceRule.builder()
+                .ruleId(7L)
+                .ruleName("Randevu faturası")
+                .ruleType(InvoiceRule.RuleType.APPOINTMENT_AFTER)
+                .triggerStatus("COMPLETED")
+                .conditions(conditions)
+                .invoiceTemplate(template)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.entity.InvoiceRule;
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceBatchGeneratorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InvoiceBatchGenerator generator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        generator = new InvoiceBatchGenerator(jdbcTemplate, eventPublisher, 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generate_ShouldSkipInvoicedPairsAndWriteTheRestInTwoBatches() throws Exception {
+        CompiledInvoiceRule consultation = rule(1L, null);
+        CompiledInvoiceRule vaccine = rule(2L, "[{\"description\":\"Aşı\",\"unitPrice\":50},{\"description\":\"Şırınga\",\"unitPrice\":5}]");
+        List<InvoiceBatchGenerator.RuleAppointment> appointments = List.of(
+                appointment(10L), appointment(11L));
+        // Appointment 10 already has its consultation invoice
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("appointment_id")).thenReturn(10L);
+            when(rs.getLong("invoice_rule_id")).thenReturn(1L);
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("appointment_id IN (?, ?)"), any(RowCallbackHandler.class), eq(10L), eq(11L));
+        when(jdbcTemplate.queryForList(contains("nextval"), eq(Long.class), eq(3))).thenReturn(List.of(100L, 101L, 102L));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO invoice "), anyList())).thenReturn(new int[]{1, 1, 0});
+
+        int created = generator.generate(List.of(consultation, vaccine), appointments);
+
+        assertEquals(2, created);
+        ArgumentCaptor<List<Object[]>> invoices = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> items = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO invoice "), invoices.capture());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO invoice_item"), items.capture());
+        assertEquals(List.of(List.of(10L, 2L), List.of(11L, 1L), List.of(11L, 2L)), invoices.getValue().stream()
+                .map(row -> List.of(row[10], row[11])).toList());
+        assertTrue(((String) invoices.getValue().get(0)[2]).endsWith("-000100"));
+        assertEquals(5, items.getValue().size());
+        verify(eventPublisher).publishEvent(new StatisticsChangedEvent(3L, StatisticsChangedEvent.Section.INVOICES));
+    }
+
+    @Test
+    void generate_NothingToInvoiceShouldNotWrite() {
+        CompiledInvoiceRule surgeryOnly = CompiledInvoiceRule.compile(InvoiceRule.builder()
+                .ruleId(1L)
+                .ruleName("Ameliyat")
+                .conditions("{\"appointmentType\":\"SURGERY\"}")
+                .build(), objectMapper);
+
+        int created = generator.generate(List.of(surgeryOnly), List.of(appointment(10L)));
+
+        assertEquals(0, created);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private CompiledInvoiceRule rule(Long id, String template) {
+        return CompiledInvoiceRule.compile(InvoiceRule.builder()
+                .ruleId(id)
+                .ruleName("Kural " + id)
+                .triggerStatus("COMPLETED")
+                .invoiceTemplate(template)
+                .build(), objectMapper);
+    }
+
+    private static InvoiceBatchGenerator.RuleAppointment appointment(Long id) {
+        return new InvoiceBatchGenerator.RuleAppointment(id, 3L, 20L, "COMPLETED", "VACCINATION", "Aşı randevusu");
+    }
+}
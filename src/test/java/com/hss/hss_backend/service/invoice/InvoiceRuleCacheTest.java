@@ -0,0 +1,51 @@
+package com.hss.hss_backend.service.invoice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.entity.InvoiceRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoiceRuleCacheTest {
+
+    private final InvoiceRuleCache cache = new InvoiceRuleCache(new ObjectMapper());
+
+    @Test
+    void get_SameVersionShouldReuseTheCompiledRule() {
+        CompiledInvoiceRule first = cache.get(rule(0L, "[{\"description\":\"Aşı\",\"unitPrice\":50}]"));
+        CompiledInvoiceRule second = cache.get(rule(0L, "[{\"description\":\"Aşı\",\"unitPrice\":50}]"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void get_NewerVersionShouldRecompile() {
+        cache.get(rule(0L, "[{\"description\":\"Aşı\",\"unitPrice\":50}]"));
+
+        CompiledInvoiceRule updated = cache.get(rule(1L, "[{\"description\":\"Aşı\",\"unitPrice\":75}]"));
+
+        assertEquals(1L, updated.version());
+        assertEquals(0, updated.items().get(0).unitPrice().compareTo(BigDecimal.valueOf(75)));
+        assertSame(updated, cache.get(rule(1L, "ignored, already compiled")));
+    }
+
+    @Test
+    void evict_OutsideTransactionShouldDropImmediately() {
+        cache.get(rule(0L, null));
+
+        cache.evict(9L);
+
+        assertEquals(0, cache.size());
+    }
+
+    private static InvoiceRule rule(Long version, String template) {
+        return InvoiceRule.builder()
+                .ruleId(9L)
+                .version(version)
+                .ruleName("Aşı faturası")
+                .invoiceTemplate(template)
+                .build();
+    }
+}
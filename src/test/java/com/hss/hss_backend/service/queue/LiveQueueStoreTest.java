@@ -0,0 +1,183 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.entity.Animal;
+import com.hss.hss_backend.entity.Clinic;
+import com.hss.hss_backend.entity.Owner;
+import com.hss.hss_backend.entity.QueueEntry;
+import com.hss.hss_backend.repository.QueueEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveQueueStoreTest {
+
+  @Mock
+  private QueueEntryRepository queueEntryRepository;
+
+  private LiveQueueStore liveQueueStore;
+
+  private static final Long CLINIC_ID = 1L;
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @BeforeEach
+  void setUp() {
+    liveQueueStore = new LiveQueueStore(queueEntryRepository, new ServiceTimeEstimator(queueEntryRepository));
+  }
+
+  @Test
+  void reads_ShouldSeedOnceAndNotHitRepositoryAgain() {
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenReturn(List.of(
+        entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING),
+        entry(2L, 2, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING)));
+
+    for (int i = 0; i < 5; i++) {
+      liveQueueStore.getActiveQueue(CLINIC_ID, TODAY);
+      liveQueueStore.getDayQueue(CLINIC_ID, TODAY);
+      liveQueueStore.getEstimatedWaitMinutes(2L);
+    }
+
+    verify(queueEntryRepository, times(1)).findDayQueueWithDetails(CLINIC_ID, TODAY);
+    verify(queueEntryRepository, never()).findById(any());
+  }
+
+  @Test
+  void reads_ShouldShareOneSeedAcrossConcurrentReaders() throws Exception {
+    CountDownLatch seeding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenAnswer(invocation -> {
+      seeding.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return List.of(entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING));
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<QueueEntryResponse>> first = executor.submit(() -> liveQueueStore.getActiveQueue(CLINIC_ID, TODAY));
+      assertTrue(seeding.await(5, TimeUnit.SECONDS));
+      Future<List<QueueEntryResponse>> second = executor.submit(() -> liveQueueStore.getActiveQueue(CLINIC_ID, TODAY));
+      release.countDown();
+
+      assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+      assertEquals(1, second.get(5, TimeUnit.SECONDS).size());
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(queueEntryRepository, times(1)).findDayQueueWithDetails(CLINIC_ID, TODAY);
+  }
+
+  @Test
+  void reads_ShouldSeedAgainAfterFailedSeed() {
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY))
+        .thenThrow(new IllegalStateException("connection lost"))
+        .thenReturn(List.of(entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING)));
+
+    assertThrows(IllegalStateException.class, () -> liveQueueStore.getActiveQueue(CLINIC_ID, TODAY));
+    assertEquals(1, liveQueueStore.getActiveQueue(CLINIC_ID, TODAY).size());
+  }
+
+  @Test
+  void getActiveQueue_ShouldOrderByPriorityThenQueueNumber() {
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenReturn(List.of(
+        entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.IN_PROGRESS),
+        entry(2L, 2, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING),
+        entry(3L, 3, QueueEntry.Priority.EMERGENCY, QueueEntry.QueueStatus.WAITING),
+        entry(4L, 4, QueueEntry.Priority.LOW, QueueEntry.QueueStatus.COMPLETED)));
+
+    List<QueueEntryResponse> active = liveQueueStore.getActiveQueue(CLINIC_ID, TODAY);
+
+    assertEquals(List.of(3L, 1L, 2L), active.stream().map(QueueEntryResponse::getQueueEntryId).toList());
+    assertEquals(30, liveQueueStore.getEstimatedWaitMinutes(3L)); // emergency goes first, after the running consultation
+    assertEquals(0, liveQueueStore.getEstimatedWaitMinutes(1L)); // already in progress
+    assertEquals(60, liveQueueStore.getEstimatedWaitMinutes(2L));
+    assertEquals(0, liveQueueStore.getEstimatedWaitMinutes(4L)); // completed
+    assertEquals(4, liveQueueStore.getDayQueue(CLINIC_ID, TODAY).size());
+  }
+
+  @Test
+  void apply_ShouldUpdateQueueWithoutReloading() {
+    List<QueueEntry> seed = new ArrayList<>();
+    seed.add(entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING));
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenReturn(seed);
+
+    QueueEntryResponse created = liveQueueStore.apply(
+        entry(2L, 2, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING));
+    assertEquals(30, created.getEstimatedWaitMinutes());
+
+    QueueEntryResponse started = liveQueueStore.apply(
+        entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.COMPLETED));
+    assertEquals("COMPLETED", started.getStatus());
+
+    assertEquals(1, liveQueueStore.countActive(CLINIC_ID, TODAY));
+    assertEquals(0, liveQueueStore.getEstimatedWaitMinutes(2L));
+    verify(queueEntryRepository, times(1)).findDayQueueWithDetails(CLINIC_ID, TODAY);
+  }
+
+  @Test
+  void findNextPatient_ShouldPreferPatientsAssignedToVeterinarian() {
+    QueueEntry assigned = entry(2L, 2, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING);
+    assigned.setAssignedVeterinarianId(7L);
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenReturn(List.of(
+        entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING), assigned));
+
+    assertEquals(2L, liveQueueStore.findNextPatient(CLINIC_ID, TODAY, 7L).orElseThrow().getQueueEntryId());
+    assertEquals(1L, liveQueueStore.findNextPatient(CLINIC_ID, TODAY, 8L).orElseThrow().getQueueEntryId());
+  }
+
+  @Test
+  void getEstimatedWaitMinutes_ShouldSplitWorkAcrossVeterinariansInParallel() {
+    QueueEntry first = entry(1L, 1, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.IN_PROGRESS);
+    first.setAssignedVeterinarianId(7L);
+    first.setStartedTime(LocalDateTime.now().minusMinutes(10));
+    QueueEntry second = entry(2L, 2, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.IN_PROGRESS);
+    second.setAssignedVeterinarianId(8L);
+    second.setStartedTime(LocalDateTime.now().minusMinutes(20));
+    when(queueEntryRepository.findDayQueueWithDetails(CLINIC_ID, TODAY)).thenReturn(List.of(
+        first, second,
+        entry(3L, 3, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING),
+        entry(4L, 4, QueueEntry.Priority.NORMAL, QueueEntry.QueueStatus.WAITING)));
+
+    liveQueueStore.getActiveQueue(CLINIC_ID, TODAY);
+
+    // 20 + 10 minutes still running, shared by two veterinarians
+    assertEquals(15, liveQueueStore.getEstimatedWaitMinutes(3L));
+    assertEquals(30, liveQueueStore.getEstimatedWaitMinutes(4L));
+  }
+
+  private QueueEntry entry(Long id, int number, QueueEntry.Priority priority, QueueEntry.QueueStatus status) {
+    Clinic clinic = new Clinic();
+    clinic.setClinicId(CLINIC_ID);
+    Owner owner = new Owner();
+    owner.setFirstName("Ayse");
+    owner.setLastName("Yilmaz");
+    Animal animal = new Animal();
+    animal.setAnimalId(id * 10);
+    animal.setName("Pet " + id);
+    animal.setOwner(owner);
+    return QueueEntry.builder()
+        .queueEntryId(id)
+        .clinic(clinic)
+        .animal(animal)
+        .queueNumber(number)
+        .queueDate(TODAY)
+        .priority(priority)
+        .status(status)
+        .build();
+  }
+}
@@ -0,0 +1,167 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.dto.response.QueueEntryResponse;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueueUpdatePublisherTest {
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+  @Mock
+  private LiveQueueStore liveQueueStore;
+  @Mock
+  private QueueUpdateRelay relay;
+
+  @InjectMocks
+  private QueueUpdatePublisher publisher;
+
+  private static final Long CLINIC_ID = 1L;
+
+  @Test
+  void flush_ShouldCoalesceBurstIntoSingleFrame() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now()))
+        .thenReturn(Optional.of(Map.of(1L, 0, 2L, 30)));
+
+    publisher.publish(ChangeType.CHECK_IN, entry(2L, "WAITING"));
+    publisher.publish(ChangeType.STATUS_CHANGE, entry(1L, "IN_PROGRESS"));
+    publisher.publish(ChangeType.VET_ASSIGNMENT, entry(2L, "WAITING"));
+    publisher.publish(ChangeType.STATUS_CHANGE, entry(2L, "IN_PROGRESS"));
+    publisher.flush();
+    publisher.flush(); // nothing pending any more
+
+    ArgumentCaptor<QueueUpdateMessage> captor = ArgumentCaptor.forClass(QueueUpdateMessage.class);
+    verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/clinics/1/queue"), captor.capture());
+
+    QueueUpdateMessage message = captor.getValue();
+    assertNull(message.getResync());
+    assertEquals(2, message.getChanges().size());
+
+    QueueUpdateMessage.QueueChange second = message.getChanges().get(0);
+    assertEquals(2L, second.getQueueEntryId());
+    assertEquals(ChangeType.CHECK_IN, second.getType()); // still new to clients
+    assertEquals("IN_PROGRESS", second.getStatus()); // but with its latest state
+    assertEquals("Pet 2", second.getAnimalName());
+    assertEquals(Map.of(1L, 0, 2L, 30), message.getEstimatedWaitMinutes());
+  }
+
+  @Test
+  void flush_ShouldOnlySendChangedWaitTimes() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now()))
+        .thenReturn(Optional.of(Map.of(1L, 0, 2L, 30)))
+        .thenReturn(Optional.of(Map.of(1L, 0, 2L, 0)));
+
+    publisher.publish(ChangeType.CHECK_IN, entry(2L, "WAITING"));
+    publisher.flush();
+    publisher.publish(ChangeType.STATUS_CHANGE, entry(1L, "COMPLETED"));
+    publisher.flush();
+
+    ArgumentCaptor<QueueUpdateMessage> captor = ArgumentCaptor.forClass(QueueUpdateMessage.class);
+    verify(messagingTemplate, times(2)).convertAndSend(any(String.class), captor.capture());
+    assertEquals(Map.of(2L, 0), captor.getAllValues().get(1).getEstimatedWaitMinutes());
+  }
+
+  @Test
+  void flush_ShouldSendResyncWhenTooManyChangesPileUp() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now())).thenReturn(Optional.empty());
+
+    for (long id = 1; id <= 500; id++) {
+      publisher.publish(ChangeType.CHECK_IN, entry(id, "WAITING"));
+    }
+    publisher.flush();
+
+    ArgumentCaptor<QueueUpdateMessage> captor = ArgumentCaptor.forClass(QueueUpdateMessage.class);
+    verify(messagingTemplate, times(1)).convertAndSend(any(String.class), captor.capture());
+    assertTrue(captor.getValue().getResync());
+    assertNull(captor.getValue().getChanges());
+  }
+
+  @Test
+  void flush_ShouldRelayLocalChangesToOtherInstances() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now())).thenReturn(Optional.empty());
+
+    publisher.publish(ChangeType.CHECK_IN, entry(2L, "WAITING"));
+    publisher.publish(ChangeType.STATUS_CHANGE, entry(2L, "IN_PROGRESS"));
+    publisher.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<QueueUpdateMessage.QueueChange>> captor = ArgumentCaptor.forClass(List.class);
+    verify(relay).broadcast(eq(CLINIC_ID), captor.capture());
+    assertEquals(1, captor.getValue().size());
+    assertEquals(ChangeType.CHECK_IN, captor.getValue().get(0).getType());
+    assertEquals("IN_PROGRESS", captor.getValue().get(0).getStatus());
+  }
+
+  @Test
+  void flush_ShouldSendRelayedChangesToLocalClientsWithoutRelayingThemAgain() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now())).thenReturn(Optional.empty());
+    QueueUpdateMessage.QueueChange remote = QueueUpdateMessage.QueueChange.builder()
+        .type(ChangeType.STATUS_CHANGE)
+        .queueEntryId(7L)
+        .status("COMPLETED")
+        .build();
+
+    publisher.acceptRelayed(new QueueUpdateRelay.RelayedFrame("other", CLINIC_ID, List.of(remote)));
+    publisher.publish(ChangeType.CHECK_IN, entry(2L, "WAITING"));
+    publisher.flush();
+
+    ArgumentCaptor<QueueUpdateMessage> captor = ArgumentCaptor.forClass(QueueUpdateMessage.class);
+    verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/clinics/1/queue"), captor.capture());
+    assertEquals(2, captor.getValue().getChanges().size());
+    verify(relay, times(1)).broadcast(eq(CLINIC_ID), anyList());
+  }
+
+  @Test
+  void flush_ShouldResyncWhenAnotherInstanceAsksForIt() {
+    when(liveQueueStore.peekActiveWaitMinutes(CLINIC_ID, LocalDate.now())).thenReturn(Optional.empty());
+
+    publisher.acceptRelayed(new QueueUpdateRelay.RelayedFrame("other", CLINIC_ID, null));
+    publisher.flush();
+
+    ArgumentCaptor<QueueUpdateMessage> captor = ArgumentCaptor.forClass(QueueUpdateMessage.class);
+    verify(messagingTemplate).convertAndSend(any(String.class), captor.capture());
+    assertTrue(captor.getValue().getResync());
+    verify(relay, never()).broadcast(any(), isNull());
+    verify(relay, never()).broadcast(any(), anyList());
+  }
+
+  @Test
+  void acceptRelayed_ShouldEvictTheLocalCopyOfTheDay() {
+    publisher.acceptRelayed(new QueueUpdateRelay.RelayedFrame("other", CLINIC_ID, List.of()));
+
+    verify(liveQueueStore).evict(CLINIC_ID, LocalDate.now());
+  }
+
+  private QueueEntryResponse entry(Long id, String status) {
+    return QueueEntryResponse.builder()
+        .queueEntryId(id)
+        .clinicId(CLINIC_ID)
+        .animalId(id * 10)
+        .animalName("Pet " + id)
+        .ownerName("Ayse Yilmaz")
+        .queueNumber(id.intValue())
+        .status(status)
+        .priority("NORMAL")
+        .build();
+  }
+}
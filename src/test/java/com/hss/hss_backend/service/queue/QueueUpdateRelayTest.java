@@ -0,0 +1,90 @@
+package com.hss.hss_backend.service.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.ChangeType;
+import com.hss.hss_backend.dto.response.QueueUpdateMessage.QueueChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueueUpdateRelayTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+  @Mock
+  private DataSource dataSource;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private QueueUpdateRelay relay;
+  private final List<QueueUpdateRelay.RelayedFrame> received = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    relay = new QueueUpdateRelay(jdbcTemplate, dataSource, objectMapper);
+    relay.subscribe(received::add);
+  }
+
+  @Test
+  void receive_ShouldDeliverFramesOfOtherInstancesOnly() throws Exception {
+    relay.broadcast(1L, List.of(change(5L)));
+    String own = notifiedPayload();
+
+    relay.receive(own);
+    relay.receive(objectMapper.writeValueAsString(new QueueUpdateRelay.RelayedFrame("other", 1L, List.of(change(5L)))));
+
+    assertEquals(1, received.size());
+    assertEquals(1L, received.get(0).clinicId());
+    assertEquals("COMPLETED", received.get(0).changes().get(0).getStatus());
+  }
+
+  @Test
+  void broadcast_ShouldSendResyncWhenPayloadIsTooLarge() throws Exception {
+    relay.broadcast(1L, LongStream.rangeClosed(1, 200).mapToObj(this::change).toList());
+
+    QueueUpdateRelay.RelayedFrame frame = objectMapper.readValue(notifiedPayload(), QueueUpdateRelay.RelayedFrame.class);
+    assertEquals(1L, frame.clinicId());
+    assertNull(frame.changes());
+  }
+
+  @Test
+  void receive_ShouldIgnoreUnreadablePayloads() {
+    relay.receive("not json");
+
+    assertTrue(received.isEmpty());
+  }
+
+  @SuppressWarnings("unchecked")
+  private String notifiedPayload() {
+    ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(QueueUpdateRelay.CHANNEL), payload.capture());
+    return (String) payload.getValue();
+  }
+
+  private QueueChange change(long id) {
+    return QueueChange.builder()
+        .type(ChangeType.STATUS_CHANGE)
+        .queueEntryId(id)
+        .queueNumber((int) id)
+        .status("COMPLETED")
+        .priority("NORMAL")
+        .animalName("Pet with a fairly long name " + id)
+        .build();
+  }
+}
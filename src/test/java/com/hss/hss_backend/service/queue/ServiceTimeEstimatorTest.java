@@ -0,0 +1,165 @@
+package com.hss.hss_backend.service.queue;
+
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.repository.QueueEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimeEstimatorTest {
+
+  @Mock
+  private QueueEntryRepository queueEntryRepository;
+
+  @InjectMocks
+  private ServiceTimeEstimator estimator;
+
+  private static final Long CLINIC_ID = 1L;
+  private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+  @Test
+  void expectedMinutes_ShouldUseDefaultUntilEnoughSamples() {
+    complete(Appointment.AppointmentType.VACCINATION, 7L, 10);
+    complete(Appointment.AppointmentType.VACCINATION, 7L, 10);
+
+    assertEquals(30, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.VACCINATION, 7L));
+
+    complete(Appointment.AppointmentType.VACCINATION, 7L, 10);
+
+    assertEquals(10, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.VACCINATION, 7L), 0.001);
+  }
+
+  @Test
+  void expectedMinutes_ShouldFallBackFromVeterinarianToTypeToClinic() {
+    complete(Appointment.AppointmentType.SURGERY, 7L, 90);
+    complete(Appointment.AppointmentType.SURGERY, 8L, 60);
+    complete(Appointment.AppointmentType.SURGERY, 8L, 60);
+    complete(Appointment.AppointmentType.GENERAL_EXAM, 8L, 15);
+
+    assertEquals(70, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.SURGERY, 7L), 0.001);
+    assertEquals(56.25, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.FOLLOW_UP, null), 0.001);
+    assertEquals(30, estimator.expectedMinutes(2L, Appointment.AppointmentType.SURGERY, 7L));
+  }
+
+  @Test
+  void recordCompletion_ShouldTrackRecentDurationsWithMovingAverage() {
+    for (int i = 0; i < 20; i++) {
+      complete(Appointment.AppointmentType.GENERAL_EXAM, 7L, 20);
+    }
+    for (int i = 0; i < 20; i++) {
+      complete(Appointment.AppointmentType.GENERAL_EXAM, 7L, 40);
+    }
+
+    double expected = estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L);
+    assertTrue(expected > 39, "recent durations should dominate, was " + expected);
+  }
+
+  @Test
+  void recordCompletion_ShouldOnlySampleOnceTheTransactionCommits() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      for (int i = 0; i < 20; i++) {
+        complete(Appointment.AppointmentType.GENERAL_EXAM, 7L, 10);
+      }
+      assertEquals(30, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L));
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertTrue(estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L) < 30);
+  }
+
+  @Test
+  void recordCompletion_ShouldIgnoreImplausibleDurations() {
+    for (int i = 0; i < 5; i++) {
+      estimator.recordCompletion(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L, START, START.plusDays(1));
+      estimator.recordCompletion(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L, null, START);
+    }
+
+    assertEquals(30, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.GENERAL_EXAM, 7L));
+  }
+
+  @Test
+  void ensureSeeded_ShouldQueryOncePerClinic() {
+    QueueEntryRepository.ServiceTimeStats stats = mock(QueueEntryRepository.ServiceTimeStats.class);
+    when(stats.getAppointmentType()).thenReturn("VACCINATION");
+    when(stats.getVeterinarianId()).thenReturn(7L);
+    when(stats.getAverageMinutes()).thenReturn(12.0);
+    when(stats.getSamples()).thenReturn(40L);
+    when(queueEntryRepository.findServiceTimeStats(eq(CLINIC_ID), any())).thenReturn(List.of(stats));
+
+    estimator.ensureSeeded(CLINIC_ID);
+    estimator.ensureSeeded(CLINIC_ID);
+
+    verify(queueEntryRepository, times(1)).findServiceTimeStats(eq(CLINIC_ID), any());
+    assertEquals(12, estimator.expectedMinutes(CLINIC_ID, Appointment.AppointmentType.VACCINATION, 7L), 0.001);
+    assertEquals(12, estimator.expectedMinutes(CLINIC_ID, null, null), 0.001);
+  }
+
+  @Test
+  void ensureSeeded_ShouldRetryAfterAFailedSeed() {
+    when(queueEntryRepository.findServiceTimeStats(eq(CLINIC_ID), any()))
+        .thenThrow(new IllegalStateException("connection reset"))
+        .thenReturn(List.of(stats(12.0)));
+
+    assertThrows(IllegalStateException.class, () -> estimator.ensureSeeded(CLINIC_ID));
+    estimator.ensureSeeded(CLINIC_ID);
+    estimator.ensureSeeded(CLINIC_ID);
+
+    verify(queueEntryRepository, times(2)).findServiceTimeStats(eq(CLINIC_ID), any());
+    assertEquals(12, estimator.expectedMinutes(CLINIC_ID, null, null), 0.001);
+  }
+
+  @Test
+  void ensureSeeded_ShouldMakeConcurrentCallersWaitForTheRunningSeed() throws Exception {
+    CountDownLatch querying = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    QueueEntryRepository.ServiceTimeStats stats = stats(12.0);
+    when(queueEntryRepository.findServiceTimeStats(eq(CLINIC_ID), any())).thenAnswer(invocation -> {
+      querying.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return List.of(stats);
+    });
+
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> estimator.ensureSeeded(CLINIC_ID));
+    assertTrue(querying.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Double> second = CompletableFuture.supplyAsync(() -> {
+      estimator.ensureSeeded(CLINIC_ID);
+      return estimator.expectedMinutes(CLINIC_ID, null, null);
+    });
+    release.countDown();
+
+    first.get(5, TimeUnit.SECONDS);
+    assertEquals(12, second.get(5, TimeUnit.SECONDS), 0.001);
+    verify(queueEntryRepository, times(1)).findServiceTimeStats(eq(CLINIC_ID), any());
+  }
+
+  private QueueEntryRepository.ServiceTimeStats stats(double averageMinutes) {
+    QueueEntryRepository.ServiceTimeStats stats = mock(QueueEntryRepository.ServiceTimeStats.class);
+    when(stats.getAverageMinutes()).thenReturn(averageMinutes);
+    when(stats.getSamples()).thenReturn(40L);
+    return stats;
+  }
+
+  private void complete(Appointment.AppointmentType type, Long veterinarianId, int minutes) {
+    estimator.recordCompletion(CLINIC_ID, type, veterinarianId, START, START.plusMinutes(minutes));
+  }
+}
@@ -0,0 +1,181 @@
+package com.hss.hss_backend.service.reminder;
+
+import com.hss.hss_backend.entity.Reminder;
+import com.hss.hss_backend.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderDispatcherTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ReminderRetryPolicy retryPolicy;
+
+    private ReminderDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcher(1000, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDue_ShouldSendConcurrentlyAndWriteOneBatchPerChunk() {
+        List<Reminder> first = reminders(1, BATCH_SIZE, Reminder.Channel.EMAIL);
+        List<Reminder> second = reminders(BATCH_SIZE + 1, 10, Reminder.Channel.SMS);
+        when(jdbcTemplate.query(eq(ReminderDispatcher.CLAIM_SQL), any(RowMapper.class), any(), any(), eq(BATCH_SIZE)))
+                .thenReturn(first, second);
+        when(notificationService.sendNotification(any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return true;
+        });
+
+        long started = System.nanoTime();
+        int dispatched = dispatcher.dispatchDue();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(60, dispatched);
+        verify(notificationService, times(60)).sendNotification(any());
+        // 60 sends of 100 ms each one after another would take 6 seconds
+        assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+        ArgumentCaptor<Collection<ReminderDispatcher.Result>> results = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(ReminderDispatcher.RESULT_SQL), results.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(BATCH_SIZE, 10), results.getAllValues().stream().map(Collection::size).toList());
+        assertTrue(results.getAllValues().stream().flatMap(Collection::stream)
+                .allMatch(result -> result.status() == Reminder.Status.SENT && result.sentAt() != null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDue_ShouldRecordFailuresWithoutStoppingTheBatch() {
+        when(jdbcTemplate.query(eq(ReminderDispatcher.CLAIM_SQL), any(RowMapper.class), any(), any(), eq(BATCH_SIZE)))
+                .thenReturn(reminders(1, 3, Reminder.Channel.EMAIL));
+        when(notificationService.sendNotification(any()))
+                .thenAnswer(invocation -> ((Reminder) invocation.getArgument(0)).getReminderId() != 2L);
+        LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+        when(retryPolicy.isExhausted(1)).thenReturn(false);
+        when(retryPolicy.nextAttemptAt(eq(1), any())).thenReturn(retryAt);
+
+        dispatcher.dispatchDue();
+
+        ArgumentCaptor<Collection<ReminderDispatcher.Result>> results = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(ReminderDispatcher.RESULT_SQL), results.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        List<Reminder.Status> statuses = results.getValue().stream().map(ReminderDispatcher.Result::status).toList();
+        assertEquals(List.of(Reminder.Status.SENT, Reminder.Status.FAILED, Reminder.Status.SENT), statuses);
+        assertEquals(retryAt, List.copyOf(results.getValue()).get(1).nextAttemptAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDueRetries_ShouldDeadLetterExhaustedReminders() {
+        Reminder lastAttempt = reminders(7, 1, Reminder.Channel.SMS).get(0);
+        lastAttempt.setRetryCount(2);
+        when(jdbcTemplate.query(eq(ReminderDispatcher.CLAIM_RETRY_SQL), any(RowMapper.class), any(), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(lastAttempt));
+        when(notificationService.sendNotification(any())).thenReturn(false);
+        when(retryPolicy.isExhausted(3)).thenReturn(true);
+
+        dispatcher.dispatchDueRetries();
+
+        ArgumentCaptor<Collection<ReminderDispatcher.Result>> results = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(ReminderDispatcher.RESULT_SQL), results.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        ReminderDispatcher.Result result = results.getValue().iterator().next();
+        assertEquals(Reminder.Status.DEAD_LETTER, result.status());
+        assertNull(result.nextAttemptAt());
+        verify(retryPolicy, never()).nextAttemptAt(anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatchDue_ShouldRespectChannelRateLimit() {
+        dispatcher = dispatcher(20, 100);
+        when(jdbcTemplate.query(eq(ReminderDispatcher.CLAIM_SQL), any(RowMapper.class), any(), any(), eq(BATCH_SIZE)))
+                .thenReturn(reminders(1, 11, Reminder.Channel.SMS));
+        when(notificationService.sendNotification(any())).thenReturn(true);
+
+        long started = System.nanoTime();
+        dispatcher.dispatchDue();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // 11 sends at 20 per second are spaced over at least half a second
+        assertTrue(elapsedMillis >= 450, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void throttle_ShouldCapSendsInFlight() throws Exception {
+        ReminderDispatcher.ChannelThrottle throttle = new ReminderDispatcher.ChannelThrottle(0, 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Thread[] threads = new Thread[10];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = Thread.ofVirtual().start(() -> {
+                try {
+                    throttle.acquire();
+                    try {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        Thread.sleep(20);
+                        inFlight.decrementAndGet();
+                    } finally {
+                        throttle.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, maxInFlight.get());
+    }
+
+    private ReminderDispatcher dispatcher(int ratePerSecond, int maxConcurrent) {
+        return new ReminderDispatcher(jdbcTemplate, notificationService, retryPolicy, new SimpleMeterRegistry(),
+                BATCH_SIZE, 10, ratePerSecond, maxConcurrent, ratePerSecond, maxConcurrent, ratePerSecond, maxConcurrent);
+    }
+
+    private static List<Reminder> reminders(long firstId, int count, Reminder.Channel channel) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> Reminder.builder()
+                        .reminderId(id)
+                        .channel(channel)
+                        .message("Randevu hatırlatması")
+                        .recipientEmail("owner" + id + "@example.com")
+                        .recipientPhone("555000" + id)
+                        .status(Reminder.Status.SENDING)
+                        .retryCount(0)
+                        .build())
+                .toList();
+    }
+}
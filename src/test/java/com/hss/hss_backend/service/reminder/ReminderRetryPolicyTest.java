@@ -0,0 +1,48 @@
+package com.hss.hss_backend.service.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderRetryPolicyTest {
+
+    private final ReminderRetryPolicy policy = new ReminderRetryPolicy();
+
+    @Test
+    void backoff_ShouldDoubleWithEachAttemptWithinJitterBounds() {
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long fullDelay = 60L << (attempt - 1);
+            for (int i = 0; i < 100; i++) {
+                long seconds = policy.backoff(attempt).toSeconds();
+                assertTrue(seconds >= fullDelay / 2 && seconds <= fullDelay,
+                        "attempt " + attempt + " waited " + seconds + "s");
+            }
+        }
+    }
+
+    @Test
+    void backoff_ShouldBeCappedAtMaxBackoff() {
+        assertTrue(policy.backoff(50).compareTo(Duration.ofMinutes(360)) <= 0);
+        assertTrue(policy.backoff(50).compareTo(Duration.ofMinutes(180)) >= 0);
+    }
+
+    @Test
+    void backoff_ShouldSpreadRemindersThatFailedTogether() {
+        Set<Duration> delays = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            delays.add(policy.backoff(3));
+        }
+
+        assertTrue(delays.size() > 40);
+    }
+
+    @Test
+    void isExhausted_ShouldStopAfterMaxAttempts() {
+        assertFalse(policy.isExhausted(2));
+        assertTrue(policy.isExhausted(3));
+    }
+}
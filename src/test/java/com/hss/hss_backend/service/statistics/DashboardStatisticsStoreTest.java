@@ -0,0 +1,168 @@
+package com.hss.hss_backend.service.statistics;
+
+import com.hss.hss_backend.dto.response.DashboardStatisticsResponse;
+import com.hss.hss_backend.entity.Appointment;
+import com.hss.hss_backend.entity.Invoice;
+import com.hss.hss_backend.event.StatisticsChangedEvent;
+import com.hss.hss_backend.event.StatisticsChangedEvent.Section;
+import com.hss.hss_backend.repository.AnimalRepository;
+import com.hss.hss_backend.repository.AppointmentRepository;
+import com.hss.hss_backend.repository.ClinicRepository;
+import com.hss.hss_backend.repository.InvoiceRepository;
+import com.hss.hss_backend.repository.OwnerRepository;
+import com.hss.hss_backend.repository.StockProductRepository;
+import com.hss.hss_backend.repository.VaccinationScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStatisticsStoreTest {
+
+    @Mock
+    private AnimalRepository animalRepository;
+    @Mock
+    private OwnerRepository ownerRepository;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private InvoiceRepository invoiceRepository;
+    @Mock
+    private StockProductRepository stockProductRepository;
+    @Mock
+    private VaccinationScheduleRepository vaccinationScheduleRepository;
+    @Mock
+    private ClinicRepository clinicRepository;
+
+    @InjectMocks
+    private DashboardStatisticsStore store;
+
+    private static final Long CLINIC_ID = 1L;
+    private static final Long OTHER_CLINIC_ID = 2L;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(animalRepository.getAnimalCountBySpeciesForClinic(any()))
+            .thenReturn(rows(new Object[]{"Kedi", 3L}, new Object[]{"Köpek", 2L}));
+        lenient().when(ownerRepository.getOwnerCountForClinic(any())).thenReturn(4L);
+        lenient().when(appointmentRepository.getAppointmentCountByStatusForClinic(any()))
+            .thenReturn(rows(new Object[]{Appointment.Status.SCHEDULED, 2L},
+                new Object[]{Appointment.Status.CONFIRMED, 1L},
+                new Object[]{Appointment.Status.COMPLETED, 5L}));
+        lenient().when(invoiceRepository.getStatusSummaryForClinic(any()))
+            .thenReturn(List.of(InvoiceSummaries.status(Invoice.Status.PAID, 3L, "300.00", 0L),
+                InvoiceSummaries.status(Invoice.Status.PENDING, 2L, "80.00", 1L)));
+        LocalDate today = LocalDate.now();
+        lenient().when(invoiceRepository.getMonthlySummaryForClinic(any(), any(), any()))
+            .thenReturn(List.of(InvoiceSummaries.month(today.getYear(), today.getMonthValue(), 4L, "120.00", "20.00")));
+        lenient().when(stockProductRepository.countLowStockProducts()).thenReturn(6L);
+        lenient().when(stockProductRepository.countOutOfStockProducts()).thenReturn(1L);
+        lenient().when(vaccinationScheduleRepository.countSchedulesBetweenForClinic(any(), any(), any())).thenReturn(7L);
+        lenient().when(vaccinationScheduleRepository.countOverduePendingSchedulesForClinic(any())).thenReturn(2L);
+    }
+
+    @Test
+    void get_ShouldAggregateSectionsIntoDashboard() {
+        DashboardStatisticsResponse response = store.get(CLINIC_ID);
+
+        assertEquals(5L, response.getTotalAnimals());
+        assertEquals(4L, response.getTotalOwners());
+        assertEquals(8L, response.getTotalAppointments());
+        assertEquals(3L, response.getPendingAppointments());
+        assertEquals(5L, response.getCompletedAppointments());
+        assertEquals(0L, response.getAppointmentsByStatus().get(Appointment.Status.CANCELLED.name()));
+        assertEquals(new BigDecimal("300.00"), response.getTotalRevenue());
+        assertEquals(new BigDecimal("120.00"), response.getMonthlyRevenue());
+        assertEquals(5L, response.getTotalInvoices());
+        assertEquals(2L, response.getPendingInvoices());
+        assertEquals(1L, response.getOverdueInvoices());
+        assertEquals(6L, response.getLowStockItems());
+        assertEquals(1L, response.getOutOfStockItems());
+        assertEquals(7L, response.getUpcomingVaccinations());
+        assertEquals(2L, response.getOverdueVaccinations());
+
+        assertEquals(DashboardStatisticsStore.REVENUE_MONTHS, response.getRevenueByMonth().size());
+        List<BigDecimal> months = new ArrayList<>(response.getRevenueByMonth().values());
+        assertEquals(new BigDecimal("120.00"), months.get(months.size() - 1));
+        assertEquals(BigDecimal.ZERO, months.get(0));
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromSnapshot() {
+        store.get(CLINIC_ID);
+        store.get(CLINIC_ID);
+        store.get(CLINIC_ID);
+
+        verify(appointmentRepository, times(1)).getAppointmentCountByStatusForClinic(CLINIC_ID);
+        verify(invoiceRepository, times(1)).getStatusSummaryForClinic(CLINIC_ID);
+        verify(stockProductRepository, times(1)).countLowStockProducts();
+    }
+
+    @Test
+    void onStatisticsChanged_ShouldRecomputeOnlyAffectedSectionOfThatClinic() {
+        store.get(CLINIC_ID);
+        store.get(OTHER_CLINIC_ID);
+
+        store.onStatisticsChanged(new StatisticsChangedEvent(CLINIC_ID, Section.APPOINTMENTS));
+        store.get(CLINIC_ID);
+        store.get(OTHER_CLINIC_ID);
+
+        verify(appointmentRepository, times(2)).getAppointmentCountByStatusForClinic(CLINIC_ID);
+        verify(appointmentRepository, times(1)).getAppointmentCountByStatusForClinic(OTHER_CLINIC_ID);
+        verify(invoiceRepository, times(1)).getStatusSummaryForClinic(CLINIC_ID);
+        verify(animalRepository, times(1)).getAnimalCountBySpeciesForClinic(CLINIC_ID);
+    }
+
+    @Test
+    void onStatisticsChanged_ShouldInvalidateCrossClinicView() {
+        store.get(null);
+
+        store.onStatisticsChanged(new StatisticsChangedEvent(CLINIC_ID, Section.INVOICES));
+        store.get(null);
+
+        verify(invoiceRepository, times(2)).getStatusSummaryForClinic(null);
+        verify(appointmentRepository, times(1)).getAppointmentCountByStatusForClinic(null);
+    }
+
+    @Test
+    void onStatisticsChanged_WithoutClinic_ShouldInvalidateEveryClinic() {
+        store.get(CLINIC_ID);
+        store.get(OTHER_CLINIC_ID);
+
+        when(stockProductRepository.countLowStockProducts()).thenReturn(9L);
+        store.onStatisticsChanged(new StatisticsChangedEvent(null, Section.STOCK));
+
+        assertEquals(9L, store.get(CLINIC_ID).getLowStockItems());
+        assertEquals(9L, store.get(OTHER_CLINIC_ID).getLowStockItems());
+        verify(vaccinationScheduleRepository, times(1))
+            .countSchedulesBetweenForClinic(eq(CLINIC_ID), any(), any());
+    }
+
+    @Test
+    void refreshAll_ShouldRebuildEverySection() {
+        store.get(CLINIC_ID);
+
+        store.refreshAll();
+        store.get(CLINIC_ID);
+
+        verify(appointmentRepository, times(2)).getAppointmentCountByStatusForClinic(CLINIC_ID);
+        verify(stockProductRepository, times(2)).countOutOfStockProducts();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hss.hss_backend.service.statistics;
+
+import com.hss.hss_backend.entity.Invoice;
+import com.hss.hss_backend.repository.InvoiceRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Test stand-ins for the invoice aggregate projections.
+ */
+public final class InvoiceSummaries {
+
+    private InvoiceSummaries() {
+    }
+
+    public static InvoiceRepository.StatusSummary status(Invoice.Status status, long count, String amount,
+                                                         long overdue) {
+        return new InvoiceRepository.StatusSummary() {
+            public Invoice.Status getStatus() { return status; }
+            public Long getInvoiceCount() { return count; }
+            public BigDecimal getTotalAmount() { return new BigDecimal(amount); }
+            public Long getOverdueCount() { return overdue; }
+        };
+    }
+
+    public static InvoiceRepository.MonthlySummary month(int year, int month, long count, String amount,
+                                                         String tax) {
+        return new InvoiceRepository.MonthlySummary() {
+            public Integer getInvoiceYear() { return year; }
+            public Integer getInvoiceMonth() { return month; }
+            public Long getInvoiceCount() { return count; }
+            public BigDecimal getTotalAmount() { return new BigDecimal(amount); }
+            public BigDecimal getTaxAmount() { return new BigDecimal(tax); }
+        };
+    }
+}